@@ -0,0 +1,45 @@
+package rs.nms.newsroom.server.benchmark;
+
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+/**
+ * Builds representative MOS messages for the benchmarks.
+ * <p>
+ * Every message carries the usual mosID/ncsID/messageID header. The {@code padding} argument adds
+ * a {@code mosExternalMetadata} block of roughly that many characters, which is how real devices
+ * inflate otherwise small messages.
+ * </p>
+ */
+final class MosBenchmarkMessages {
+
+    private MosBenchmarkMessages() {
+    }
+
+    static String build(MosMessageType type, String roId, int index, int padding) {
+        String storyId = roId + "-S" + index;
+        String body = switch (type) {
+            case RO_CREATE, RO_REPLACE -> "<roID>" + roId + "</roID><roSlug>Benchmark " + roId + "</roSlug>";
+            case RO_UPDATE -> "<roID>" + roId + "</roID><roSlug>Benchmark " + roId + " #" + index + "</roSlug>";
+            case RO_DELETE -> "<roID>" + roId + "</roID>";
+            case RO_STORY_INSERT, RO_STORY_REPLACE -> "<roID>" + roId + "</roID><story><storyID>" + storyId
+                    + "</storyID><storySlug>Story " + index + "</storySlug></story>";
+            case RO_STORY_DELETE -> "<roID>" + roId + "</roID><storyID>" + storyId + "</storyID>";
+            case RO_STORY_MOVE -> "<roID>" + roId + "</roID><storyID>" + storyId + "</storyID><storyIDBefore>"
+                    + roId + "-S" + (index + 1) + "</storyIDBefore><storyIDAfter></storyIDAfter>";
+            case RO_STORY_SWAP -> "<roID>" + roId + "</roID><storyID1>" + storyId + "</storyID1><storyID2>"
+                    + roId + "-S" + (index + 1) + "</storyID2>";
+            case RO_STORY_STATUS -> "<roID>" + roId + "</roID><storyID>" + storyId + "</storyID><status>READY</status>";
+        };
+        String element = type.getElementName();
+        return "<mos><mosID>bench.mos</mosID><ncsID>nms</ncsID><messageID>" + index + "</messageID>"
+                + "<" + element + ">" + body + metadata(padding) + "</" + element + "></mos>";
+    }
+
+    private static String metadata(int padding) {
+        if (padding <= 0) {
+            return "";
+        }
+        return "<mosExternalMetadata><mosScope>PLAYLIST</mosScope><mosPayload>"
+                + "x".repeat(padding) + "</mosPayload></mosExternalMetadata>";
+    }
+}
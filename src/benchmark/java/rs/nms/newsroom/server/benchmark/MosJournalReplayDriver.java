@@ -0,0 +1,122 @@
+package rs.nms.newsroom.server.benchmark;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import rs.nms.newsroom.server.mos.journal.MosJournalEntry;
+import rs.nms.newsroom.server.mos.journal.MosJournalReader;
+import rs.nms.newsroom.server.tcp.mos.MosFrame;
+import rs.nms.newsroom.server.tcp.mos.MosFrameDecoder;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays recorded MOS traffic from a journal directory against a running server.
+ * <p>
+ * All journaled messages (as still present in the segments) are sent over one connection in
+ * sequence order with at most {@code window} unacknowledged messages, and the achieved
+ * throughput is reported. Useful to benchmark with real device traffic captured in production.
+ * </p>
+ * Arguments: {@code <journal directory> <host> <port> [window]}.
+ */
+public final class MosJournalReplayDriver {
+
+    private MosJournalReplayDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: MosJournalReplayDriver <journal directory> <host> <port> [window]");
+            System.exit(1);
+        }
+        List<MosJournalEntry> messages = MosJournalReader.messages(Paths.get(args[0]));
+        int window = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+        if (messages.isEmpty()) {
+            System.out.println("No messages in journal " + args[0]);
+            return;
+        }
+
+        ReplayClient client = new ReplayClient(messages, window);
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            long started = System.nanoTime();
+            Channel channel = new Bootstrap()
+                    .group(group)
+                    .channel(NioSocketChannel.class)
+                    .option(ChannelOption.TCP_NODELAY, true)
+                    .handler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel ch) {
+                            ch.pipeline()
+                              .addLast(new MosFrameDecoder(64 * 1024))
+                              .addLast(client);
+                        }
+                    })
+                    .connect(args[1], Integer.parseInt(args[2])).sync().channel();
+            client.done.get(30, TimeUnit.MINUTES);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            channel.close().sync();
+
+            System.out.printf("Replayed %d messages (%d ERROR acks) in %.2f s -> %.0f msg/s%n",
+                    messages.size(), client.errors, seconds, messages.size() / seconds);
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    private static final class ReplayClient extends SimpleChannelInboundHandler<MosFrame> {
+
+        private final List<MosJournalEntry> messages;
+        private final int window;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private int sent;
+        private int acked;
+        private int errors;
+
+        ReplayClient(List<MosJournalEntry> messages, int window) {
+            this.messages = messages;
+            this.window = window;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            sendWindow(ctx);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, MosFrame frame) {
+            if (!frame.asText().contains("<status>OK</status>")) {
+                errors++;
+            }
+            if (++acked == messages.size()) {
+                done.complete(null);
+                return;
+            }
+            sendWindow(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            done.completeExceptionally(cause);
+            ctx.close();
+        }
+
+        private void sendWindow(ChannelHandlerContext ctx) {
+            while (sent < messages.size() && sent - acked < window) {
+                ctx.write(Unpooled.wrappedBuffer(messages.get(sent++).payload()));
+            }
+            ctx.flush();
+        }
+    }
+}
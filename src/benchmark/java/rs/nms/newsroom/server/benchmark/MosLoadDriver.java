@@ -0,0 +1,232 @@
+package rs.nms.newsroom.server.benchmark;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import rs.nms.newsroom.server.NmsServerApplication;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+import rs.nms.newsroom.server.tcp.mos.MosFrame;
+import rs.nms.newsroom.server.tcp.mos.MosFrameDecoder;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end MOS ingest load driver.
+ * <p>
+ * Opens {@code clients} TCP connections, each acting as one device driving its own running order:
+ * a roCreate followed by {@code messages} alternating roStoryInsert/roStoryStatus messages, with at
+ * most {@code window} messages awaiting their roAck. Reports throughput and roAck latency
+ * percentiles; ERROR acks are counted separately. Without {@code host} the server is started
+ * in-process with the {@code benchmark} profile (H2 in-memory database, ephemeral MOS port).
+ * </p>
+ * Arguments are {@code key=value} pairs: {@code clients} (4), {@code messages} (10000),
+ * {@code window} (32), {@code padding} (0), {@code warmup} (1000, per client, excluded from
+ * latencies), {@code charset} (UTF-16BE), {@code host}, {@code port} (10540).
+ */
+public final class MosLoadDriver {
+
+    private MosLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "4"));
+        int messages = Integer.parseInt(options.getOrDefault("messages", "10000"));
+        int window = Integer.parseInt(options.getOrDefault("window", "32"));
+        int padding = Integer.parseInt(options.getOrDefault("padding", "0"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "1000"));
+        Charset charset = Charset.forName(options.getOrDefault("charset", "UTF-16BE"));
+
+        ConfigurableApplicationContext server = null;
+        InetSocketAddress target;
+        if (options.containsKey("host")) {
+            target = new InetSocketAddress(options.get("host"), Integer.parseInt(options.getOrDefault("port", "10540")));
+        } else {
+            System.setProperty("spring.profiles.active", "benchmark");
+            server = new SpringApplicationBuilder(NmsServerApplication.class).run();
+            Channel serverChannel = server.getBean("startMosTcpServer", Channel.class);
+            target = new InetSocketAddress("127.0.0.1", ((InetSocketAddress) serverChannel.localAddress()).getPort());
+        }
+
+        EventLoopGroup group = new NioEventLoopGroup(Math.min(clients, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<LoadClient> loadClients = new ArrayList<>();
+            long started = System.nanoTime();
+            for (int i = 0; i < clients; i++) {
+                LoadClient client = new LoadClient("RO-LOAD-" + i + "-" + started, messages, window, padding, warmup, charset);
+                loadClients.add(client);
+                new Bootstrap()
+                        .group(group)
+                        .channel(NioSocketChannel.class)
+                        .option(ChannelOption.TCP_NODELAY, true)
+                        .handler(new ChannelInitializer<SocketChannel>() {
+                            @Override
+                            protected void initChannel(SocketChannel ch) {
+                                ch.pipeline()
+                                  .addLast(new MosFrameDecoder(64 * 1024))
+                                  .addLast(client);
+                            }
+                        })
+                        .connect(target).sync();
+            }
+            CompletableFuture.allOf(loadClients.stream().map(c -> c.done).toArray(CompletableFuture[]::new))
+                    .get(30, TimeUnit.MINUTES);
+            long elapsed = System.nanoTime() - started;
+
+            report(loadClients, elapsed, clients, messages, window, padding, charset);
+        } finally {
+            group.shutdownGracefully().sync();
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static void report(List<LoadClient> loadClients, long elapsedNanos, int clients, int messages,
+                               int window, int padding, Charset charset) {
+        long acked = 0;
+        long errors = 0;
+        int samples = 0;
+        for (LoadClient client : loadClients) {
+            acked += client.acked;
+            errors += client.errors;
+            samples += client.samples;
+        }
+        long[] latencies = new long[samples];
+        int offset = 0;
+        for (LoadClient client : loadClients) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.samples);
+            offset += client.samples;
+        }
+        Arrays.sort(latencies);
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nMOS load: %d clients x %d messages, window %d, padding %d, %s%n",
+                clients, messages, window, padding, charset);
+        System.out.printf("  acked %d (%d ERROR) in %.2f s -> %.0f msg/s%n", acked, errors, seconds, acked / seconds);
+        System.out.printf("  roAck latency (ms): p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n",
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                percentile(latencies, 99.9), percentile(latencies, 100));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /**
+     * One simulated device. Acks for a single running order arrive in submission order,
+     * so send timestamps are matched to acks through a FIFO queue.
+     */
+    private static final class LoadClient extends SimpleChannelInboundHandler<MosFrame> {
+
+        private final String roId;
+        private final int messages;
+        private final int window;
+        private final int padding;
+        private final int warmup;
+        private final Charset charset;
+        private final Queue<Long> sendTimes = new ArrayDeque<>();
+        private final long[] latencies;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        /** Index of the next message to send; 0 is the roCreate. */
+        private int next;
+        private int acked;
+        private int errors;
+        private int samples;
+
+        LoadClient(String roId, int messages, int window, int padding, int warmup, Charset charset) {
+            this.roId = roId;
+            this.messages = messages;
+            this.window = window;
+            this.padding = padding;
+            this.warmup = warmup;
+            this.charset = charset;
+            this.latencies = new long[Math.max(0, messages + 1 - warmup)];
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            // The rundown must exist before its stories are sent.
+            send(ctx);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, MosFrame frame) {
+            long latency = System.nanoTime() - sendTimes.remove();
+            if (acked >= warmup) {
+                latencies[samples++] = latency;
+            }
+            if (!frame.asText().contains("<status>OK</status>")) {
+                errors++;
+            }
+            acked++;
+
+            if (acked == messages + 1) {
+                done.complete(null);
+                ctx.close();
+                return;
+            }
+            while (next <= messages && sendTimes.size() < window) {
+                send(ctx);
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            done.completeExceptionally(new IllegalStateException(roId + ": connection closed after " + acked + " acks"));
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            done.completeExceptionally(cause);
+            ctx.close();
+        }
+
+        private void send(ChannelHandlerContext ctx) {
+            int index = next++;
+            MosMessageType type = index == 0
+                    ? MosMessageType.RO_CREATE
+                    : index % 2 == 1 ? MosMessageType.RO_STORY_INSERT : MosMessageType.RO_STORY_STATUS;
+            String xml = MosBenchmarkMessages.build(type, roId, (index + 1) / 2, padding);
+            sendTimes.add(System.nanoTime());
+            ctx.writeAndFlush(Unpooled.wrappedBuffer(xml.getBytes(charset)));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package rs.nms.newsroom.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+import rs.nms.newsroom.server.mos.parser.MosStreamParser;
+import rs.nms.newsroom.server.mos.parser.RoStoryParser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser cost per MOS message type and size.
+ * <p>
+ * {@code streamUtf16} is the path used by the TCP handler (bytes as framed by the decoder,
+ * UCS-2 as sent by most devices); {@code streamUtf8} covers UTF-8 gateways and
+ * {@code roStoryParser} the String-based API still used by REST and tests.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MosParserBenchmark {
+
+    @Param({"RO_CREATE", "RO_UPDATE", "RO_DELETE", "RO_REPLACE", "RO_STORY_INSERT", "RO_STORY_REPLACE",
+            "RO_STORY_DELETE", "RO_STORY_MOVE", "RO_STORY_SWAP", "RO_STORY_STATUS"})
+    private MosMessageType type;
+
+    /**
+     * Approximate size of the external metadata carried by each message, in characters.
+     */
+    @Param({"0", "1024", "65536"})
+    private int padding;
+
+    private String xml;
+    private byte[] utf8;
+    private byte[] utf16;
+
+    @Setup
+    public void setUp() {
+        xml = MosBenchmarkMessages.build(type, "RO-BENCH", 1, padding);
+        utf8 = xml.getBytes(StandardCharsets.UTF_8);
+        utf16 = xml.getBytes(StandardCharsets.UTF_16BE);
+    }
+
+    @Benchmark
+    public Object streamUtf16() {
+        return parse(utf16, StandardCharsets.UTF_16BE);
+    }
+
+    @Benchmark
+    public Object streamUtf8() {
+        return parse(utf8, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void roStoryParser(Blackhole blackhole) {
+        switch (type) {
+            case RO_STORY_INSERT -> blackhole.consume(RoStoryParser.parseRoStoryInsert(xml));
+            case RO_STORY_REPLACE -> blackhole.consume(RoStoryParser.parseRoStoryReplace(xml));
+            case RO_STORY_DELETE -> blackhole.consume(RoStoryParser.parseRoStoryDelete(xml));
+            case RO_STORY_MOVE -> blackhole.consume(RoStoryParser.parseRoStoryMove(xml));
+            case RO_STORY_SWAP -> blackhole.consume(RoStoryParser.parseRoStorySwap(xml));
+            case RO_STORY_STATUS -> blackhole.consume(RoStoryParser.parseRoStoryStatus(xml));
+            default -> blackhole.consume(MosStreamParser.parse(xml));
+        }
+    }
+
+    private static Object parse(byte[] bytes, Charset charset) {
+        return MosStreamParser.parse(new ByteArrayInputStream(bytes), charset).orElseThrow();
+    }
+}
@@ -3,10 +3,16 @@ package rs.nms.newsroom.server;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.config.security.PrincipalCacheProperties;
 import rs.nms.newsroom.server.config.storage.FileStorageProperties;
+import rs.nms.newsroom.server.config.websocket.WebSocketBrokerProperties;
+import rs.nms.newsroom.server.config.websocket.WebSocketTransportProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(FileStorageProperties.class)
+@EnableConfigurationProperties({FileStorageProperties.class, MosProperties.class, WebSocketBrokerProperties.class,
+        WebSocketTransportProperties.class, PrincipalCacheProperties.class, ChatProperties.class})
 public class NmsServerApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,97 @@
+package rs.nms.newsroom.server.chat.history;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+import rs.nms.newsroom.server.dto.ChatDTOs.ChatMessageResponse;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RoomHistory} buffers of the rooms being read, limited to {@code chat.history.max-messages}
+ * across all rooms by dropping the least recently used rooms.
+ * <p>
+ * A room gets a buffer when it is read. Sent messages are only added to rooms that already have
+ * one; a room read later loads its history from the database instead.
+ * </p>
+ * Meters: {@code chat.history.rooms} and {@code chat.history.messages}.
+ */
+class ChatHistoryCache {
+
+    private final int roomCapacity;
+    private final long maxMessages;
+    private final Map<Long, RoomHistory> rooms = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong messages = new AtomicLong();
+
+    ChatHistoryCache(ChatProperties.History settings, MeterRegistry meterRegistry) {
+        this.roomCapacity = settings.getRoomCapacity();
+        this.maxMessages = Math.max(1, settings.getMaxMessages());
+        Gauge.builder("chat.history.rooms", this, ChatHistoryCache::rooms)
+                .description("Chat rooms with recent history in memory")
+                .register(meterRegistry);
+        Gauge.builder("chat.history.messages", messages, AtomicLong::get)
+                .description("Chat messages held in memory across all rooms")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the room's buffer, created empty and not loaded if the room has none
+     */
+    RoomHistory room(long roomId) {
+        synchronized (rooms) {
+            return rooms.computeIfAbsent(roomId, id -> new RoomHistory(roomCapacity, messages));
+        }
+    }
+
+    void append(ChatMessageResponse message) {
+        RoomHistory room;
+        synchronized (rooms) {
+            room = rooms.get(message.getRoomId());
+        }
+        if (room != null) {
+            room.add(message);
+            trim();
+        }
+    }
+
+    /**
+     * Drops the least recently used rooms while more than {@code max-messages} are held.
+     */
+    void trim() {
+        if (messages.get() <= maxMessages) {
+            return;
+        }
+        synchronized (rooms) {
+            Iterator<RoomHistory> leastRecentlyUsed = rooms.values().iterator();
+            // Keep the most recently used room even if it alone exceeds the limit.
+            while (messages.get() > maxMessages && rooms.size() > 1 && leastRecentlyUsed.hasNext()) {
+                RoomHistory room = leastRecentlyUsed.next();
+                leastRecentlyUsed.remove();
+                room.evict();
+            }
+        }
+    }
+
+    void evict(long roomId) {
+        RoomHistory room;
+        synchronized (rooms) {
+            room = rooms.remove(roomId);
+        }
+        if (room != null) {
+            room.evict();
+        }
+    }
+
+    int rooms() {
+        synchronized (rooms) {
+            return rooms.size();
+        }
+    }
+
+    long messages() {
+        return messages.get();
+    }
+}
@@ -0,0 +1,182 @@
+package rs.nms.newsroom.server.chat.history;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import rs.nms.newsroom.server.chat.ingest.ChatMessageWriter;
+import rs.nms.newsroom.server.chat.ingest.ChatRoomMembers;
+import rs.nms.newsroom.server.chat.ingest.PendingChatMessage;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+import rs.nms.newsroom.server.config.websocket.WebSocketBrokerProperties;
+import rs.nms.newsroom.server.dto.ChatDTOs.ChatMessageResponse;
+import rs.nms.newsroom.server.exception.ResourceNotFoundException;
+import rs.nms.newsroom.server.exception.UnauthorizedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Recent chat history served from memory, with keyset queries for older messages.
+ * <p>
+ * History is ordered by message ID, newest first. The newest {@code chat.history.room-capacity}
+ * messages of a room that is being read are kept in a {@link RoomHistory}; sent messages are added
+ * as they are accepted, so reopening a busy room runs no SQL. Older messages are read with
+ * {@code id < ?} on {@code (room_id, id)}; only numbered pages beyond the buffer use OFFSET, and
+ * they are ordered by ID as well, so pages continue the first one without gaps or repeats. IDs
+ * follow send order because REST and WebSocket messages both take them from the
+ * {@link rs.nms.newsroom.server.chat.ingest.ChatMessageIdAllocator}.
+ * </p>
+ * <p>
+ * The buffers only see messages sent through this node. They are used with the {@code simple}
+ * WebSocket broker only; with {@code relay} or {@code sharded} every read goes to the database.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ChatHistoryService {
+
+    private static final String SELECT = """
+            SELECT m.id, m.room_id, m.sender_id, u.username, m.message, m.timestamp
+            FROM chat_message m
+            JOIN `user` u ON u.id = m.sender_id
+            """;
+    private static final String NEWEST_SQL = SELECT + "WHERE m.room_id = ? ORDER BY m.id DESC LIMIT ?";
+    private static final String BEFORE_SQL = SELECT + "WHERE m.room_id = ? AND m.id < ? ORDER BY m.id DESC LIMIT ?";
+    private static final String PAGE_SQL = SELECT + "WHERE m.room_id = ? ORDER BY m.id DESC LIMIT ? OFFSET ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM chat_message WHERE room_id = ?";
+
+    private static final RowMapper<ChatMessageResponse> ROW_MAPPER = (rs, rowNum) -> {
+        ChatMessageResponse response = new ChatMessageResponse();
+        response.setId(rs.getLong(1));
+        response.setRoomId(rs.getLong(2));
+        response.setSenderId(rs.getLong(3));
+        response.setSenderName(rs.getString(4));
+        response.setMessage(rs.getString(5));
+        response.setTimestamp(rs.getTimestamp(6).toLocalDateTime());
+        return response;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatRoomMembers roomMembers;
+    private final ChatMessageWriter writer;
+    private final ChatHistoryCache cache;
+    private final int roomCapacity;
+
+    public ChatHistoryService(JdbcTemplate jdbcTemplate, ChatRoomMembers roomMembers, ChatMessageWriter writer,
+                              ChatProperties chatProperties, WebSocketBrokerProperties brokerProperties,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roomMembers = roomMembers;
+        this.writer = writer;
+        ChatProperties.History settings = chatProperties.getHistory();
+        boolean singleNode = brokerProperties.getMode() == WebSocketBrokerProperties.Mode.SIMPLE;
+        this.cache = settings.isEnabled() && singleNode ? new ChatHistoryCache(settings, meterRegistry) : null;
+        this.roomCapacity = settings.getRoomCapacity();
+        if (settings.isEnabled() && !singleNode) {
+            log.info("Chat history cache disabled: broker mode {} delivers messages from other nodes",
+                    brokerProperties.getMode());
+        }
+    }
+
+    /**
+     * Adds a message that was just accepted to the history of its room.
+     */
+    public void append(ChatMessageResponse message) {
+        if (cache != null) {
+            cache.append(message);
+        }
+    }
+
+    /**
+     * Returns a page of a room's messages, newest first. The first page is answered from memory
+     * when the buffer holds it; other pages are read from the database.
+     *
+     * @return the page, or empty for a custom sort, which is left to the caller
+     */
+    public Optional<Page<ChatMessageResponse>> page(long roomId, Pageable pageable, long userId) {
+        if (pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        checkParticipant(roomId, userId);
+        if (cache != null && pageable.getPageNumber() == 0 && pageable.getPageSize() <= roomCapacity) {
+            RoomHistory room = loadedRoom(roomId);
+            List<ChatMessageResponse> content = room.newest(null, pageable.getPageSize());
+            if (content != null) {
+                return Optional.of(new PageImpl<>(content, pageable, room.total()));
+            }
+        }
+        List<ChatMessageResponse> content =
+                jdbcTemplate.query(PAGE_SQL, ROW_MAPPER, roomId, pageable.getPageSize(), pageable.getOffset());
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, roomId);
+        return Optional.of(new PageImpl<>(content, pageable, count == null ? 0 : count));
+    }
+
+    /**
+     * Returns up to {@code limit} messages of a room with an ID below {@code beforeId}, newest first,
+     * from memory when the room's buffer reaches back far enough.
+     *
+     * @param beforeId exclusive upper bound, or {@code null} for the newest messages
+     */
+    public List<ChatMessageResponse> messages(long roomId, Long beforeId, int limit, long userId) {
+        checkParticipant(roomId, userId);
+        if (cache != null && limit <= roomCapacity) {
+            List<ChatMessageResponse> held = loadedRoom(roomId).newest(beforeId, limit);
+            if (held != null) {
+                return held;
+            }
+        }
+        return beforeId == null
+                ? jdbcTemplate.query(NEWEST_SQL, ROW_MAPPER, roomId, limit)
+                : jdbcTemplate.query(BEFORE_SQL, ROW_MAPPER, roomId, beforeId, limit);
+    }
+
+    private void checkParticipant(long roomId, long userId) {
+        Map<Long, String> members = roomMembers.members(roomId);
+        if (members == null) {
+            throw new ResourceNotFoundException("Chat room not found: " + roomId);
+        }
+        if (!members.containsKey(userId)) {
+            throw new UnauthorizedException("User is not a participant of this chat room");
+        }
+    }
+
+    /**
+     * Returns the room's buffer, loading the newest persisted messages into it on first use.
+     * Messages still waiting in the writer are collected before querying, so none falls between
+     * the queue and the query.
+     */
+    private RoomHistory loadedRoom(long roomId) {
+        RoomHistory room = cache.room(roomId);
+        if (room.isLoaded()) {
+            return room;
+        }
+        Map<Long, String> members = roomMembers.members(roomId);
+        List<ChatMessageResponse> unwritten = new ArrayList<>();
+        for (PendingChatMessage pending : writer.pending(roomId)) {
+            unwritten.add(toResponse(pending, members == null ? null : members.get(pending.senderId())));
+        }
+        List<ChatMessageResponse> persisted = jdbcTemplate.query(NEWEST_SQL, ROW_MAPPER, roomId, roomCapacity);
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, roomId);
+        room.load(persisted, count == null ? 0 : count, unwritten);
+        cache.trim();
+        return room;
+    }
+
+    private static ChatMessageResponse toResponse(PendingChatMessage message, String senderName) {
+        ChatMessageResponse response = new ChatMessageResponse();
+        response.setId(message.id());
+        response.setRoomId(message.roomId());
+        response.setSenderId(message.senderId());
+        response.setSenderName(senderName);
+        response.setMessage(message.message());
+        response.setTimestamp(message.timestamp());
+        return response;
+    }
+}
@@ -0,0 +1,165 @@
+package rs.nms.newsroom.server.chat.history;
+
+import rs.nms.newsroom.server.dto.ChatDTOs.ChatMessageResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer of the newest messages of one room, ordered by message ID.
+ * <p>
+ * Messages normally arrive in ID order and are appended at the newest end; the rare message with a
+ * lower ID than the newest held one is inserted in place. A full buffer drops its oldest message.
+ * The room is {@link #isLoaded loaded} once the newest persisted messages and the message count
+ * have been merged in; before that it only collects messages sent meanwhile.
+ * </p>
+ * Changes in the number of held messages are added to a counter shared by all rooms.
+ */
+final class RoomHistory {
+
+    private final ChatMessageResponse[] ring;
+    private final AtomicLong held;
+    private int head;
+    private int size;
+    private long total;
+    private boolean loaded;
+    private boolean evicted;
+
+    RoomHistory(int capacity, AtomicLong held) {
+        this.ring = new ChatMessageResponse[Math.max(1, capacity)];
+        this.held = held;
+    }
+
+    synchronized void add(ChatMessageResponse message) {
+        if (evicted) {
+            return;
+        }
+        int before = size;
+        if (insert(message) && loaded) {
+            total++;
+        }
+        held.addAndGet(size - before);
+    }
+
+    /**
+     * Merges the newest persisted messages and messages not yet written into the buffer.
+     *
+     * @param persisted      newest messages of the room in the database, newest first
+     * @param persistedCount number of messages of the room in the database
+     * @param unwritten      messages accepted but not yet written
+     */
+    synchronized void load(List<ChatMessageResponse> persisted, long persistedCount,
+                          Collection<ChatMessageResponse> unwritten) {
+        if (evicted || loaded) {
+            return;
+        }
+        int before = size;
+        List<Long> persistedIds = new ArrayList<>(persisted.size());
+        for (ChatMessageResponse message : persisted) {
+            persistedIds.add(message.getId());
+        }
+        // Messages sent since loading started, and queued ones, are not in the persisted count.
+        long extra = 0;
+        for (int i = 0; i < size; i++) {
+            if (!persistedIds.contains(get(i).getId())) {
+                extra++;
+            }
+        }
+        for (ChatMessageResponse message : unwritten) {
+            if (!persistedIds.contains(message.getId()) && insert(message)) {
+                extra++;
+            }
+        }
+        for (int i = persisted.size() - 1; i >= 0; i--) {
+            insert(persisted.get(i));
+        }
+        total = persistedCount + extra;
+        loaded = true;
+        held.addAndGet(size - before);
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    synchronized long total() {
+        return total;
+    }
+
+    /**
+     * Returns the newest held messages with an ID below {@code beforeId}, newest first.
+     *
+     * @param beforeId exclusive upper bound, or {@code null} for the newest messages
+     * @return the messages, or {@code null} if older messages that are not held would be needed
+     */
+    synchronized List<ChatMessageResponse> newest(Long beforeId, int limit) {
+        if (!loaded) {
+            return null;
+        }
+        List<ChatMessageResponse> result = new ArrayList<>(Math.min(limit, size));
+        int i = size - 1;
+        while (i >= 0 && beforeId != null && get(i).getId() >= beforeId) {
+            i--;
+        }
+        for (; i >= 0 && result.size() < limit; i--) {
+            result.add(get(i));
+        }
+        boolean holdsAll = total <= size;
+        return result.size() == limit || holdsAll ? result : null;
+    }
+
+    /**
+     * Detaches the room from the cache and releases its messages.
+     */
+    synchronized void evict() {
+        if (evicted) {
+            return;
+        }
+        evicted = true;
+        held.addAndGet(-size);
+        size = 0;
+        Arrays.fill(ring, null);
+    }
+
+    /**
+     * Inserts in ID order. A message older than every message of a full buffer is not held.
+     *
+     * @return {@code false} if the message is already held
+     */
+    private boolean insert(ChatMessageResponse message) {
+        long id = message.getId();
+        int position = size;
+        while (position > 0 && get(position - 1).getId() >= id) {
+            if (get(position - 1).getId() == id) {
+                return false;
+            }
+            position--;
+        }
+        if (size == ring.length) {
+            if (position == 0) {
+                return true;
+            }
+            // Drop the oldest message.
+            head = (head + 1) % ring.length;
+            size--;
+            position--;
+        }
+        for (int i = size; i > position; i--) {
+            set(i, get(i - 1));
+        }
+        set(position, message);
+        size++;
+        return true;
+    }
+
+    private ChatMessageResponse get(int index) {
+        return ring[(head + index) % ring.length];
+    }
+
+    private void set(int index, ChatMessageResponse message) {
+        ring[(head + index) % ring.length] = message;
+    }
+}
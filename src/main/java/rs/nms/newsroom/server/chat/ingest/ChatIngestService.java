@@ -0,0 +1,66 @@
+package rs.nms.newsroom.server.chat.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import rs.nms.newsroom.server.chat.history.ChatHistoryService;
+import rs.nms.newsroom.server.dto.ChatDTOs;
+import rs.nms.newsroom.server.exception.ResourceNotFoundException;
+import rs.nms.newsroom.server.exception.UnauthorizedException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Accepts chat messages sent over WebSocket or REST so they can be broadcast before they are stored.
+ * Both paths go through here, so message IDs follow send order.
+ * <p>
+ * The sender is checked against the cached {@link ChatRoomMembers}, the ID comes from the
+ * {@link ChatMessageIdAllocator} and the timestamp from the local clock; the message is then
+ * handed to the {@link ChatMessageWriter} and added to the room's recent history. Apart from
+ * refreshing the caches, no database access happens before the caller broadcasts the returned message.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatIngestService {
+
+    private final ChatRoomMembers roomMembers;
+    private final ChatMessageIdAllocator idAllocator;
+    private final ChatMessageWriter writer;
+    private final ChatHistoryService historyService;
+
+    /**
+     * @return the message as it will be stored, ready to broadcast
+     * @throws ResourceNotFoundException if the room does not exist
+     * @throws UnauthorizedException     if the sender is not a participant of the room
+     * @throws IllegalStateException     if the write queue stays full
+     */
+    public ChatDTOs.ChatMessageResponse send(ChatDTOs.SendMessageRequest request, Long senderId) {
+        Long roomId = request.getRoomId();
+        Map<Long, String> members = roomMembers.members(roomId);
+        if (members == null) {
+            throw new ResourceNotFoundException("Chat room not found: " + roomId);
+        }
+        String senderName = members.get(senderId);
+        if (senderName == null) {
+            throw new UnauthorizedException("User is not a participant of this chat room");
+        }
+
+        // Stored as DATETIME(6); keep the broadcast timestamp identical to the stored one.
+        LocalDateTime timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        PendingChatMessage message =
+                new PendingChatMessage(idAllocator.next(), roomId, senderId, request.getMessage(), timestamp);
+        writer.enqueue(message);
+
+        ChatDTOs.ChatMessageResponse response = new ChatDTOs.ChatMessageResponse();
+        response.setId(message.id());
+        response.setRoomId(roomId);
+        response.setSenderId(senderId);
+        response.setSenderName(senderName);
+        response.setMessage(message.message());
+        response.setTimestamp(timestamp);
+        historyService.append(response);
+        return response;
+    }
+}
@@ -0,0 +1,51 @@
+package rs.nms.newsroom.server.chat.ingest;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.domain.ChatMessage;
+
+/**
+ * Hands out chat message IDs in memory, reserving them from {@code chat_message_seq} in blocks of
+ * {@link ChatMessage#ID_ALLOCATION_SIZE}.
+ * <p>
+ * The sequence value is the first ID of a block, the same interpretation Hibernate's
+ * {@code pooled-lo} optimizer uses for the entity, so messages saved through JPA and messages
+ * written here never share an ID. Only one message in a block queries the database.
+ * </p>
+ */
+@Component
+public class ChatMessageIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private long next;
+    private long limit;
+
+    public ChatMessageIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the sequence if needed and moves it past the IDs already in {@code chat_message},
+     * which were generated by the table's auto increment before the sequence existed.
+     */
+    @PostConstruct
+    void init() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + ChatMessage.ID_SEQUENCE
+                + " START WITH 1 INCREMENT BY " + ChatMessage.ID_ALLOCATION_SIZE);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM chat_message", Long.class);
+        if (maxId != null && maxId > 0) {
+            // SETVAL never moves a sequence backwards.
+            jdbcTemplate.queryForObject("SELECT SETVAL(" + ChatMessage.ID_SEQUENCE + ", " + maxId + ")", Long.class);
+        }
+    }
+
+    public synchronized long next() {
+        if (next == limit) {
+            Long first = jdbcTemplate.queryForObject("SELECT NEXTVAL(" + ChatMessage.ID_SEQUENCE + ")", Long.class);
+            next = first;
+            limit = first + ChatMessage.ID_ALLOCATION_SIZE;
+        }
+        return next++;
+    }
+}
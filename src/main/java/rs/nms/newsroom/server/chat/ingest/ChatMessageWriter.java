@@ -0,0 +1,254 @@
+package rs.nms.newsroom.server.chat.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes broadcast chat messages to {@code chat_message} in JDBC batches from a single thread.
+ * <p>
+ * The queue is bounded: when the database falls behind by {@code chat.ingest.queue-capacity}
+ * messages, senders wait up to {@code enqueue-timeout} and are then rejected. A batch holds
+ * whatever is queued when the writer becomes free, up to {@code batch-size}, so a single message
+ * is written without delay and bursts are written together. Failed batches are retried in order;
+ * a batch violating a constraint is written message by message and the offending messages are dropped.
+ * </p>
+ * <p>
+ * On shutdown the writer stops accepting messages and writes everything queued, waiting at most
+ * {@code shutdown-timeout}.
+ * </p>
+ * Meters: {@code chat.ingest.queued}, {@code chat.ingest.persisted}, {@code chat.ingest.rejected},
+ * {@code chat.ingest.dropped} and the timer {@code chat.ingest.batch}.
+ */
+@Slf4j
+@Component
+public class ChatMessageWriter implements DisposableBean {
+
+    static final String INSERT_SQL =
+            "INSERT INTO chat_message (id, room_id, sender_id, message, timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final ChatProperties.Ingest settings;
+    private final BlockingQueue<PendingChatMessage> queue;
+    private final Thread writer;
+    private final Counter persisted;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Timer batchTimer;
+
+    /**
+     * Guards taking a batch off the queue together with publishing it as {@link #inFlight}, so
+     * {@link #pending} never sees a message in neither place.
+     */
+    private final ReentrantLock handoff = new ReentrantLock();
+    private final Condition queued = handoff.newCondition();
+
+    private volatile List<PendingChatMessage> inFlight = List.of();
+    private volatile boolean closed;
+    private volatile long shutdownDeadline;
+
+    public ChatMessageWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             ChatProperties chatProperties, MeterRegistry meterRegistry) {
+        this(jdbcTemplate, (TransactionOperations) transactionTemplate, chatProperties.getIngest(), meterRegistry);
+    }
+
+    ChatMessageWriter(JdbcTemplate jdbcTemplate, TransactionOperations transactions,
+                      ChatProperties.Ingest settings, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+        this.writer = Thread.ofPlatform().name("chat-writer").daemon(true).unstarted(this::run);
+        Gauge.builder("chat.ingest.queued", queue, Collection::size)
+                .description("Chat messages broadcast but not yet written to the database")
+                .register(meterRegistry);
+        this.persisted = Counter.builder("chat.ingest.persisted")
+                .description("Chat messages written to the database")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("chat.ingest.rejected")
+                .description("Chat messages rejected because the write queue was full")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("chat.ingest.dropped")
+                .description("Broadcast chat messages that could not be written")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("chat.ingest.batch")
+                .description("Time to write one batch of chat messages")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues a message for writing, waiting for room up to {@code enqueue-timeout}.
+     *
+     * @throws IllegalStateException if the queue stays full or the writer is shut down
+     */
+    public void enqueue(PendingChatMessage message) {
+        if (closed) {
+            throw new IllegalStateException("Chat message writer is shut down");
+        }
+        try {
+            if (!queue.offer(message, settings.getEnqueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new IllegalStateException("Chat message queue is full");
+            }
+            handoff.lock();
+            try {
+                queued.signal();
+            } finally {
+                handoff.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing chat message", e);
+        }
+    }
+
+    /**
+     * @return messages of a room that are queued or being written, in no particular order
+     */
+    public List<PendingChatMessage> pending(long roomId) {
+        List<PendingChatMessage> pending = new ArrayList<>();
+        handoff.lock();
+        try {
+            for (PendingChatMessage message : inFlight) {
+                if (message.roomId() == roomId) {
+                    pending.add(message);
+                }
+            }
+            for (PendingChatMessage message : queue) {
+                if (message.roomId() == roomId) {
+                    pending.add(message);
+                }
+            }
+        } finally {
+            handoff.unlock();
+        }
+        return pending;
+    }
+
+    private void run() {
+        List<PendingChatMessage> batch = new ArrayList<>(settings.getBatchSize());
+        while (!closed || !queue.isEmpty()) {
+            try {
+                if (!take(batch)) {
+                    continue;
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                inFlight = List.of();
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits up to 100 ms for queued messages, then moves up to {@code batch-size} of them into
+     * {@code batch} and publishes them as in flight.
+     *
+     * @return {@code false} if nothing was queued
+     */
+    private boolean take(List<PendingChatMessage> batch) throws InterruptedException {
+        handoff.lock();
+        try {
+            if (queue.isEmpty()) {
+                queued.await(100, TimeUnit.MILLISECONDS);
+            }
+            queue.drainTo(batch, settings.getBatchSize());
+            if (batch.isEmpty()) {
+                return false;
+            }
+            inFlight = List.copyOf(batch);
+            return true;
+        } finally {
+            handoff.unlock();
+        }
+    }
+
+    private void write(List<PendingChatMessage> batch) throws InterruptedException {
+        while (true) {
+            try {
+                batchTimer.record(() -> insert(batch));
+                persisted.increment(batch.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (batch.size() == 1) {
+                    log.error("Dropping chat message {} in room {}: {}",
+                            batch.get(0).id(), batch.get(0).roomId(), e.getMostSpecificCause().getMessage());
+                    dropped.increment();
+                    return;
+                }
+                for (PendingChatMessage message : batch) {
+                    write(List.of(message));
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (closed && System.nanoTime() - shutdownDeadline > 0) {
+                    log.error("Dropping {} chat message(s) after the shutdown timeout: {}", batch.size(), e.getMessage());
+                    dropped.increment(batch.size());
+                    return;
+                }
+                log.warn("Writing {} chat message(s) failed, retrying in {}: {}",
+                        batch.size(), settings.getRetryBackoff(), e.getMessage());
+                Thread.sleep(settings.getRetryBackoff().toMillis());
+            }
+        }
+    }
+
+    private void insert(List<PendingChatMessage> batch) {
+        transactions.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, message) -> {
+                    ps.setLong(1, message.id());
+                    ps.setLong(2, message.roomId());
+                    ps.setLong(3, message.senderId());
+                    ps.setString(4, message.message());
+                    ps.setTimestamp(5, Timestamp.valueOf(message.timestamp()));
+                }));
+    }
+
+    /**
+     * Stops accepting messages and waits until the queued ones are written.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        shutdownDeadline = System.nanoTime() + settings.getShutdownTimeout().toNanos();
+        closed = true;
+        writer.join(settings.getShutdownTimeout().plusSeconds(1).toMillis());
+        if (writer.isAlive()) {
+            log.error("Chat message writer did not finish within {}; {} message(s) not written",
+                    settings.getShutdownTimeout(), queue.size());
+            writer.interrupt();
+            return;
+        }
+        // Messages queued while the writer was finishing.
+        run();
+        log.info("Chat message writer stopped");
+    }
+}
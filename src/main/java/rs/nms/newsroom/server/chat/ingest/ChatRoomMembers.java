@@ -0,0 +1,84 @@
+package rs.nms.newsroom.server.chat.ingest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Participants of chat rooms with their usernames, reused for {@code chat.ingest.members-ttl} so
+ * that checking the sender of a message does not query the database.
+ */
+@Component
+public class ChatRoomMembers {
+
+    private static final String MEMBERS_SQL = """
+            SELECT r.id, u.id, u.username
+            FROM chat_room r
+            LEFT JOIN chat_room_user m ON m.chat_room_id = r.id
+            LEFT JOIN `user` u ON u.id = m.user_id AND u.deleted_at IS NULL
+            WHERE r.id = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<Long, Entry> rooms = new ConcurrentHashMap<>();
+
+    public ChatRoomMembers(JdbcTemplate jdbcTemplate, ChatProperties chatProperties) {
+        this(jdbcTemplate, chatProperties, System::nanoTime);
+    }
+
+    ChatRoomMembers(JdbcTemplate jdbcTemplate, ChatProperties chatProperties, LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlNanos = chatProperties.getIngest().getMembersTtl().toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * @return usernames of the room's participants by user ID, or {@code null} if the room does not exist
+     */
+    public Map<Long, String> members(long roomId) {
+        long now = clock.getAsLong();
+        Entry entry = rooms.get(roomId);
+        if (entry == null || entry.expiresAt() - now <= 0) {
+            Map<Long, String> members = load(roomId);
+            if (members == null) {
+                rooms.remove(roomId);
+                return null;
+            }
+            entry = new Entry(members, now + ttlNanos);
+            rooms.put(roomId, entry);
+        }
+        return entry.members();
+    }
+
+    /**
+     * Forgets a room's participants; called by {@link ChatRoomMembersListener} when they change.
+     */
+    public void evict(long roomId) {
+        rooms.remove(roomId);
+    }
+
+    private Map<Long, String> load(long roomId) {
+        return jdbcTemplate.query(MEMBERS_SQL, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            Map<Long, String> members = new HashMap<>();
+            do {
+                long userId = rs.getLong(2);
+                if (!rs.wasNull()) {
+                    members.put(userId, rs.getString(3));
+                }
+            } while (rs.next());
+            return Map.copyOf(members);
+        }, roomId);
+    }
+
+    private record Entry(Map<Long, String> members, long expiresAt) {
+    }
+}
@@ -0,0 +1,79 @@
+package rs.nms.newsroom.server.chat.ingest;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.nms.newsroom.server.domain.ChatRoom;
+
+/**
+ * Evicts a room from {@link ChatRoomMembers} when its participants are written, so joins and
+ * removals take effect with the next message instead of after {@code chat.ingest.members-ttl}.
+ * <p>
+ * Collection events fire on flush, before the transaction commits; the room is evicted then and
+ * once more after completion, so a load racing with the commit does not keep the old participants.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatRoomMembersListener implements PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String PARTICIPANTS = ChatRoom.class.getName() + ".participants";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ChatRoomMembers members;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        participantsChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        participantsChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        participantsChanged(event);
+    }
+
+    private void participantsChanged(AbstractCollectionEvent event) {
+        if (!PARTICIPANTS.equals(event.getCollection().getRole())
+                || !(event.getAffectedOwnerIdOrNull() instanceof Long roomId)) {
+            return;
+        }
+        members.evict(roomId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    members.evict(roomId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package rs.nms.newsroom.server.chat.ingest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Chat message that has been broadcast and is waiting to be written to {@code chat_message}.
+ */
+public record PendingChatMessage(long id, long roomId, long senderId, String message, LocalDateTime timestamp) {
+}
@@ -0,0 +1,142 @@
+package rs.nms.newsroom.server.config.chat;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for real-time chat ({@code chat.*} in application.yml).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat")
+public class ChatProperties {
+
+    private Ingest ingest = new Ingest();
+    private History history = new History();
+    private Presence presence = new Presence();
+    private Typing typing = new Typing();
+
+    /**
+     * Write-behind persistence of messages sent over WebSocket.
+     */
+    @Getter
+    @Setter
+    public static class Ingest {
+
+        /**
+         * Messages accepted and broadcast but not yet written to the database.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Largest number of messages written in one JDBC batch.
+         */
+        private int batchSize = 200;
+
+        /**
+         * How long a sender waits for room in a full queue before the message is rejected.
+         */
+        private Duration enqueueTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Pause before a failed batch is written again.
+         */
+        private Duration retryBackoff = Duration.ofSeconds(1);
+
+        /**
+         * How long shutdown waits for queued messages to be written.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+        /**
+         * How long room participants are reused to check senders and readers. Participant changes
+         * written through JPA evict the room at once; other writes take effect after at most this long.
+         */
+        private Duration membersTtl = Duration.ofSeconds(30);
+    }
+
+    /**
+     * In-memory recent history of the rooms being read.
+     */
+    @Getter
+    @Setter
+    public static class History {
+
+        /**
+         * Answer the first page of a room's messages from memory. Only takes effect with the
+         * {@code simple} WebSocket broker, where every message passes through this node.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Newest messages kept per room.
+         */
+        private int roomCapacity = 200;
+
+        /**
+         * Messages kept across all rooms; the least recently used rooms are dropped beyond it.
+         */
+        private int maxMessages = 100_000;
+    }
+
+    /**
+     * Who is in which room, refreshed by client activity and expired after {@code ttl}.
+     */
+    @Getter
+    @Setter
+    public static class Presence {
+
+        /**
+         * Where presence is kept. {@code local} only sees the sessions of this node; use
+         * {@code redis} when more than one node serves WebSocket clients.
+         */
+        private Backend backend = Backend.LOCAL;
+
+        /**
+         * How long a session stays present without any frame from its client, heart-beats included.
+         */
+        private Duration ttl = Duration.ofSeconds(45);
+
+        /**
+         * How often sessions past their TTL are removed.
+         */
+        private Duration sweepInterval = Duration.ofSeconds(5);
+
+        /**
+         * Joins and leaves within this interval are sent to a room as one update.
+         */
+        private Duration broadcastInterval = Duration.ofMillis(500);
+
+        /**
+         * Prefix of the Redis keys used by the {@code redis} backend.
+         */
+        private String redisKeyPrefix = "nms:chat:presence:";
+
+        public enum Backend {
+            LOCAL,
+            REDIS
+        }
+    }
+
+    /**
+     * Typing indicators, sent to each room as one list of typing users.
+     */
+    @Getter
+    @Setter
+    public static class Typing {
+
+        /**
+         * How often a room's typing users are sent to it. Typing events received in between only
+         * update the list.
+         */
+        private Duration interval = Duration.ofMillis(250);
+
+        /**
+         * How long a user counts as typing after their last typing event.
+         */
+        private Duration ttl = Duration.ofSeconds(3);
+    }
+}
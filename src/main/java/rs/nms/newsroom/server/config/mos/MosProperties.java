@@ -0,0 +1,444 @@
+package rs.nms.newsroom.server.config.mos;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for MOS protocol processing ({@code mos.*} in application.yml).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mos")
+public class MosProperties {
+
+    private Tcp tcp = new Tcp();
+    private Processing processing = new Processing();
+    private Traffic traffic = new Traffic();
+    private Journal journal = new Journal();
+    private Dedup dedup = new Dedup();
+    private Index index = new Index();
+    private Devices devices = new Devices();
+
+    /**
+     * MOS TCP server connection settings.
+     */
+    @Getter
+    @Setter
+    public static class Tcp {
+
+        /**
+         * Largest accepted MOS message ({@code <mos>...</mos>}) in bytes, as received on the wire.
+         */
+        private DataSize maxFrameLength = DataSize.ofMegabytes(4);
+
+        /**
+         * Per-device overrides of {@code maxFrameLength}, keyed by remote host address.
+         */
+        private Map<String, DataSize> maxFrameLengthOverrides = new HashMap<>();
+
+        /**
+         * Backpressure applied to connections that send faster than messages are processed.
+         */
+        private FlowControl flowControl = new FlowControl();
+
+        /**
+         * Socket implementation; {@code auto} uses native epoll where available and NIO otherwise.
+         */
+        private Transport transport = Transport.AUTO;
+
+        /**
+         * Threads accepting connections.
+         */
+        private int bossThreads = 1;
+
+        /**
+         * Event loop threads serving connections; 0 uses Netty's default of twice the number of cores.
+         */
+        private int workerThreads = 0;
+
+        /**
+         * Disable Nagle's algorithm so roAcks are sent without delay.
+         */
+        private boolean tcpNoDelay = true;
+
+        /**
+         * Use pooled (instead of unpooled) buffers for socket reads and writes.
+         */
+        private boolean pooledAllocator = true;
+
+        /**
+         * Bounds of the adaptive receive buffer sized from recent read sizes.
+         */
+        private ReceiveBuffer receiveBuffer = new ReceiveBuffer();
+
+        /**
+         * Detection of dead connections and heartbeats.
+         */
+        private Idle idle = new Idle();
+
+        /**
+         * Closed connections whose statistics are kept for the {@code mosconnections} endpoint.
+         */
+        private int closedConnectionHistory = 100;
+
+        /**
+         * Resolves the frame limit for a connection from the given host.
+         *
+         * @param hostAddress remote IP address of the device
+         * @return frame limit in bytes
+         */
+        public int maxFrameLengthFor(String hostAddress) {
+            DataSize limit = maxFrameLengthOverrides.getOrDefault(hostAddress, maxFrameLength);
+            return (int) Math.min(Integer.MAX_VALUE, limit.toBytes());
+        }
+    }
+
+    /**
+     * Netty transport for the MOS TCP server.
+     */
+    public enum Transport {
+        AUTO,
+        EPOLL,
+        NIO
+    }
+
+    /**
+     * Receive buffer sizing for MOS connections.
+     */
+    @Getter
+    @Setter
+    public static class ReceiveBuffer {
+
+        private DataSize minimum = DataSize.ofBytes(64);
+
+        private DataSize initial = DataSize.ofKilobytes(16);
+
+        private DataSize maximum = DataSize.ofKilobytes(64);
+    }
+
+    /**
+     * Idle timeouts of MOS connections.
+     */
+    @Getter
+    @Setter
+    public static class Idle {
+
+        /**
+         * Close a connection from which nothing, not even a heartbeat, was read for this long. Zero disables.
+         */
+        private Duration readerTimeout = Duration.ofSeconds(90);
+
+        /**
+         * Send a heartbeat on a connection to which nothing was written for this long, so that a live
+         * device answers before {@code readerTimeout} expires. Zero disables.
+         */
+        private Duration writerTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Limits on unprocessed inbound MOS work.
+     */
+    @Getter
+    @Setter
+    public static class FlowControl {
+
+        /**
+         * Messages of one connection that may be queued or processing before it is throttled.
+         */
+        private int maxInflightPerConnection = 256;
+
+        /**
+         * Messages of all connections that may be queued or processing before every connection is throttled.
+         */
+        private int maxPendingMessages = 10_000;
+
+        /**
+         * What to do with a connection that exceeds a limit.
+         */
+        private OverloadPolicy onOverload = OverloadPolicy.PAUSE;
+
+        /**
+         * Outbound bytes queued on a connection below which it becomes writable again.
+         */
+        private DataSize writeBufferLowWaterMark = DataSize.ofKilobytes(32);
+
+        /**
+         * Outbound bytes queued on a connection above which reading from it is paused.
+         */
+        private DataSize writeBufferHighWaterMark = DataSize.ofKilobytes(64);
+    }
+
+    /**
+     * Reaction to an overloaded MOS connection.
+     */
+    public enum OverloadPolicy {
+
+        /**
+         * Stop reading from the socket until the backlog has halved; the device is slowed down by TCP.
+         */
+        PAUSE,
+
+        /**
+         * Keep reading and answer excess messages immediately with an ERROR roAck.
+         */
+        REJECT
+    }
+
+    /**
+     * Execution stage that runs MOS handlers off the Netty event loop.
+     */
+    @Getter
+    @Setter
+    public static class Processing {
+
+        /**
+         * Run handlers on virtual threads instead of a bounded platform thread pool.
+         */
+        private boolean virtualThreads = true;
+
+        /**
+         * Number of platform threads when {@code virtualThreads} is disabled.
+         */
+        private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+        /**
+         * Maximum number of messages processed for one rundown before yielding the worker thread.
+         */
+        private int maxTasksPerTurn = 32;
+
+        /**
+         * How long consecutive roStory* messages for one rundown are collected before they are
+         * applied together. Zero applies whatever is already queued without waiting.
+         */
+        private Duration batchWindow = Duration.ofMillis(15);
+
+        /**
+         * Maximum number of roStory* messages applied in one transaction.
+         */
+        private int maxBatchSize = 100;
+
+        /**
+         * Username set as the author of stories created from MOS messages; the user must exist.
+         */
+        private String storyAuthor = "mos";
+
+        /**
+         * Time to wait for in-flight messages on shutdown.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * MOS traffic logging ({@code mos.traffic} logger) and in-memory capture.
+     */
+    @Getter
+    @Setter
+    public static class Traffic {
+
+        /**
+         * Traffic log file; read by logback-spring.xml at startup.
+         */
+        private String file = "logs/mos-traffic.log";
+
+        /**
+         * Log one in N messages; 1 logs every message.
+         */
+        private int sampleEvery = 1;
+
+        /**
+         * Characters of the payload logged at DEBUG; the full payload is only logged at TRACE.
+         */
+        private int maxPayloadChars = 512;
+
+        /**
+         * Number of recent messages kept for the {@code mostraffic} actuator endpoint; 0 disables capture.
+         */
+        private int captureSize = 1000;
+
+        /**
+         * Bytes of each message kept in the capture.
+         */
+        private DataSize captureBytesPerMessage = DataSize.ofKilobytes(4);
+    }
+
+    /**
+     * Write-ahead journal of inbound MOS messages.
+     */
+    @Getter
+    @Setter
+    public static class Journal {
+
+        /**
+         * Journal every processed message and replay unfinished ones on startup.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding the journal segments.
+         */
+        private String directory = "data/mos-journal";
+
+        /**
+         * Size of one memory-mapped segment file.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Force every record to disk. Without it records survive a JVM crash but not a power loss.
+         */
+        private boolean forceOnWrite = false;
+
+        /**
+         * When a message is acknowledged to the device.
+         */
+        private AckMode ackOn = AckMode.PROCESSED;
+    }
+
+    /**
+     * Point at which a journaled MOS message is acknowledged.
+     */
+    public enum AckMode {
+
+        /**
+         * After the handler has finished; failures are reported with an ERROR roAck.
+         */
+        PROCESSED,
+
+        /**
+         * As soon as the message is in the journal. Handler failures are logged; messages that
+         * failed for a retryable reason stay in the journal and are replayed on the next start.
+         */
+        JOURNALED
+    }
+
+    /**
+     * Recognition of messages a device retransmits because its roAck was late.
+     */
+    @Getter
+    @Setter
+    public static class Dedup {
+
+        /**
+         * Answer retransmitted messages with the outcome of the first copy instead of processing them again.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long after its arrival a message is remembered.
+         */
+        private Duration window = Duration.ofSeconds(60);
+
+        /**
+         * Messages remembered at most; the oldest are forgotten first.
+         */
+        private int maxEntries = 10_000;
+    }
+
+    /**
+     * In-memory index of rundown and story external IDs used by the MOS handlers.
+     */
+    @Getter
+    @Setter
+    public static class Index {
+
+        /**
+         * Rundowns remembered at most; the least recently cached are forgotten first.
+         */
+        private int maxRundowns = 1_000;
+
+        /**
+         * Stories remembered at most; the least recently cached are forgotten first.
+         */
+        private int maxStories = 50_000;
+    }
+
+    /**
+     * Outbound connections to MOS devices that receive running order changes made in the newsroom.
+     */
+    @Getter
+    @Setter
+    public static class Devices {
+
+        /**
+         * Push changes to the configured devices.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Identifier of this system sent as {@code ncsID}, also in heartbeats of the MOS TCP server.
+         */
+        private String ncsId = "nms";
+
+        /**
+         * Connections kept open to each device; all messages for one running order use the same one.
+         */
+        private int connectionsPerDevice = 2;
+
+        /**
+         * Messages sent on one connection without waiting for their roAck.
+         */
+        private int maxPipelined = 16;
+
+        /**
+         * Event loop threads shared by all device connections.
+         */
+        private int threads = 1;
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Time to wait for a roAck before the message is retried.
+         */
+        private Duration ackTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Attempts per message, including the first one.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Delay before the first retry; doubled for every further attempt.
+         */
+        private Duration initialBackoff = Duration.ofMillis(200);
+
+        private Duration maxBackoff = Duration.ofSeconds(10);
+
+        private List<Device> targets = new ArrayList<>();
+    }
+
+    /**
+     * A MOS device receiving pushed messages.
+     */
+    @Getter
+    @Setter
+    public static class Device {
+
+        /**
+         * Device identifier sent as {@code mosID}.
+         */
+        private String mosId;
+
+        private String host;
+
+        /**
+         * Running order port of the device (MOS upper port).
+         */
+        private int port = 10541;
+
+        /**
+         * Encoding of outbound messages; MOS devices expect UCS-2 (UTF-16BE), some gateways UTF-8.
+         */
+        private Charset charset = StandardCharsets.UTF_16BE;
+    }
+}
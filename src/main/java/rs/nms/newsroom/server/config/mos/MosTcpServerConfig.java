@@ -1,17 +1,29 @@
 package rs.nms.newsroom.server.config.mos;
 
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.AdaptiveRecvByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import rs.nms.newsroom.server.mos.journal.MosJournalRecovery;
+import rs.nms.newsroom.server.mos.metrics.MosMetrics;
 import rs.nms.newsroom.server.tcp.mos.MosTcpServerInitializer;
 
 /**
@@ -34,23 +46,53 @@ public class MosTcpServerConfig {
      * Starts the MOS TCP server with the provided initializer.
      *
      * @param initializer Netty channel initializer for incoming connections.
+     * @param mosProperties MOS transport, threading and buffer settings.
+     * @param mosMetrics metrics the event loop gauges are registered with.
+     * @param journalRecovery replays unfinished journaled messages before the port is opened.
      * @return The running server {@link Channel}.
      * @throws InterruptedException if server startup is interrupted.
      */
     @Bean
-    public Channel startMosTcpServer(MosTcpServerInitializer initializer) throws InterruptedException {
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
+    public Channel startMosTcpServer(MosTcpServerInitializer initializer, MosProperties mosProperties,
+                                     MosMetrics mosMetrics, MosJournalRecovery journalRecovery)
+            throws InterruptedException {
+        // Unfinished messages from before a crash are applied before devices can send new ones.
+        journalRecovery.replay();
+
+        MosProperties.Tcp tcp = mosProperties.getTcp();
+        MosProperties.FlowControl flowControl = tcp.getFlowControl();
+        WriteBufferWaterMark waterMark = new WriteBufferWaterMark(
+                (int) flowControl.getWriteBufferLowWaterMark().toBytes(),
+                (int) flowControl.getWriteBufferHighWaterMark().toBytes());
+        MosProperties.ReceiveBuffer receiveBuffer = tcp.getReceiveBuffer();
+        ByteBufAllocator allocator = tcp.isPooledAllocator()
+                ? PooledByteBufAllocator.DEFAULT : UnpooledByteBufAllocator.DEFAULT;
+        boolean epoll = useEpoll(tcp.getTransport());
+
+        bossGroup = createEventLoopGroup(epoll, tcp.getBossThreads(), "mos-boss");
+        workerGroup = createEventLoopGroup(epoll, tcp.getWorkerThreads(), "mos-worker");
+        mosMetrics.bindEventLoops("boss", bossGroup);
+        mosMetrics.bindEventLoops("worker", workerGroup);
+        Class<? extends ServerChannel> channelClass = epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
 
         ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
-                 .channel(NioServerSocketChannel.class)
+                 .channel(channelClass)
                  .childHandler(initializer)
                  .option(ChannelOption.SO_BACKLOG, 128)
                  .option(ChannelOption.SO_REUSEADDR, true)
-                 .childOption(ChannelOption.SO_KEEPALIVE, true);
+                 .option(ChannelOption.ALLOCATOR, allocator)
+                 .childOption(ChannelOption.SO_KEEPALIVE, true)
+                 .childOption(ChannelOption.TCP_NODELAY, tcp.isTcpNoDelay())
+                 .childOption(ChannelOption.ALLOCATOR, allocator)
+                 .childOption(ChannelOption.RCVBUF_ALLOCATOR, new AdaptiveRecvByteBufAllocator(
+                         (int) receiveBuffer.getMinimum().toBytes(),
+                         (int) receiveBuffer.getInitial().toBytes(),
+                         (int) receiveBuffer.getMaximum().toBytes()))
+                 .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark);
 
-        logger.info("Starting MOS TCP server on port {}", mosTcpPort);
+        logger.info("Starting MOS TCP server on port {} ({} transport, {} worker threads)", mosTcpPort,
+                epoll ? "epoll" : "nio", tcp.getWorkerThreads() > 0 ? tcp.getWorkerThreads() : "default");
         try {
             serverChannel = bootstrap.bind(mosTcpPort).sync().channel();
             logger.info("MOS TCP server started successfully on port {}", mosTcpPort);
@@ -66,6 +108,34 @@ public class MosTcpServerConfig {
         }
     }
 
+    /**
+     * Resolves the configured transport, falling back to NIO when native epoll is unavailable.
+     */
+    private boolean useEpoll(MosProperties.Transport transport) {
+        if (transport == MosProperties.Transport.NIO) {
+            return false;
+        }
+        if (Epoll.isAvailable()) {
+            return true;
+        }
+        if (transport == MosProperties.Transport.EPOLL) {
+            logger.warn("Native epoll transport requested but unavailable, using NIO", Epoll.unavailabilityCause());
+        } else {
+            logger.debug("Native epoll transport unavailable, using NIO: {}", Epoll.unavailabilityCause().toString());
+        }
+        return false;
+    }
+
+    /**
+     * Creates an event loop group for the selected transport.
+     *
+     * @param threads number of threads; 0 uses Netty's default.
+     */
+    private EventLoopGroup createEventLoopGroup(boolean epoll, int threads, String poolName) {
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory(poolName);
+        return epoll ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+    }
+
     /**
      * Gracefully shuts down Netty EventLoopGroups.
      *
@@ -0,0 +1,159 @@
+package rs.nms.newsroom.server.config.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of principals loaded through the {@link UserDetailsService}, keyed by username
+ * (the JWT subject).
+ * <p>
+ * WebSocket clients authenticate on every handshake and STOMP CONNECT, and after a deploy all of
+ * them reconnect at once. The token itself is still verified on each connection; only loading the
+ * user, role and permissions is shared. Concurrent loads of the same user wait for a single query.
+ * </p>
+ * <p>
+ * Entries expire {@code ttl} after loading. {@link PrincipalCacheInvalidator} evicts them earlier
+ * when a user, role or permission changes. Failed loads, including unknown users, are not cached.
+ * </p>
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(UserDetailsService userDetailsService, PrincipalCacheProperties properties,
+                          MeterRegistry meterRegistry) {
+        this(userDetailsService, properties, meterRegistry, System::nanoTime);
+    }
+
+    PrincipalCache(UserDetailsService userDetailsService, PrincipalCacheProperties properties,
+                   MeterRegistry meterRegistry, LongSupplier clock) {
+        this.userDetailsService = userDetailsService;
+        this.enabled = properties.isEnabled();
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.maxEntries = Math.max(1, properties.getMaxEntries());
+        this.clock = clock;
+        Gauge.builder("security.principal.cache.entries", entries, Map::size)
+                .description("Principals held by the WebSocket authentication cache")
+                .register(meterRegistry);
+        this.hits = Counter.builder("security.principal.cache.requests")
+                .tag("result", "hit")
+                .description("Principal lookups answered from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("security.principal.cache.requests")
+                .tag("result", "miss")
+                .description("Principal lookups loaded from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached principal of a user, loading it on a miss. Has the contract of
+     * {@link UserDetailsService#loadUserByUsername}, so {@code principalCache::load} can stand in
+     * for the service.
+     */
+    public UserDetails load(String username) {
+        if (!enabled) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        long now = clock.getAsLong();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt() - now <= 0) {
+            entries.remove(username, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            Entry created = new Entry(new CompletableFuture<>(), now + ttlNanos);
+            entry = entries.putIfAbsent(username, created);
+            if (entry == null) {
+                misses.increment();
+                evict(now);
+                return loadInto(username, created);
+            }
+        }
+        hits.increment();
+        try {
+            return entry.principal().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Evicts the principal of one user. Loads still in progress and principals without a user ID
+     * are evicted as well.
+     */
+    public void evictUser(Long userId) {
+        entries.values().removeIf(entry -> {
+            CompletableFuture<UserDetails> principal = entry.principal();
+            if (principal.state() != Future.State.SUCCESS) {
+                return true;
+            }
+            return !(principal.resultNow() instanceof CustomUserDetails details)
+                    || Objects.equals(details.getId(), userId);
+        });
+    }
+
+    /**
+     * Evicts every principal, used when a role or permission changes.
+     */
+    public void evictAll() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private UserDetails loadInto(String username, Entry entry) {
+        try {
+            UserDetails principal = userDetailsService.loadUserByUsername(username);
+            entry.principal().complete(principal);
+            return principal;
+        } catch (RuntimeException e) {
+            entries.remove(username, entry);
+            entry.principal().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops expired entries once the cache is full, then arbitrary ones if still above the limit.
+     */
+    private void evict(long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(CompletableFuture<UserDetails> principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,136 @@
+package rs.nms.newsroom.server.config.security;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.nms.newsroom.server.domain.Permission;
+import rs.nms.newsroom.server.domain.Role;
+import rs.nms.newsroom.server.domain.User;
+
+import java.util.Set;
+
+/**
+ * Evicts cached principals when the data they were built from changes.
+ * <p>
+ * An updated or deleted {@link User} evicts that user; any change to a {@link Role} or
+ * {@link Permission}, including the permissions assigned to a role, evicts everything. Updates
+ * that only touch the login and audit timestamps are ignored, so logging in does not evict.
+ * </p>
+ * <p>
+ * Hibernate reports changes at flush time, before the transaction commits. The principal is
+ * evicted right away and again after completion, so a load that read the old rows in between is
+ * not kept.
+ * </p>
+ */
+@Component
+public class PrincipalCacheInvalidator implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRecreateEventListener, PostCollectionRemoveEventListener {
+
+    private static final Set<String> IGNORED_USER_PROPERTIES = Set.of("lastLoginAt", "updatedAt");
+
+    private final transient PrincipalCache principalCache;
+
+    public PrincipalCacheInvalidator(PrincipalCache principalCache, EntityManagerFactory entityManagerFactory) {
+        this.principalCache = principalCache;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            if (!onlyIgnoredChanged(event)) {
+                evict(() -> principalCache.evictUser(user.getId()));
+            }
+        } else {
+            entityChanged(event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            evict(() -> principalCache.evictUser(user.getId()));
+        } else {
+            entityChanged(event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void collectionChanged(AbstractCollectionEvent event) {
+        entityChanged(event.getAffectedOwnerOrNull());
+    }
+
+    private void entityChanged(Object entity) {
+        if (entity instanceof Role || entity instanceof Permission) {
+            evict(principalCache::evictAll);
+        }
+    }
+
+    private static boolean onlyIgnoredChanged(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null || dirty.length == 0) {
+            return false;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (!IGNORED_USER_PROPERTIES.contains(names[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
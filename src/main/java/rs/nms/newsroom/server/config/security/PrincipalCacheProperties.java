@@ -0,0 +1,26 @@
+package rs.nms.newsroom.server.config.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cache of authenticated principals used by WebSocket authentication
+ * ({@code security.principal-cache.*} in application.yml).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.principal-cache")
+public class PrincipalCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a loaded principal is reused. Changes to users, roles and permissions evict earlier.
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    private int maxEntries = 10_000;
+}
@@ -55,6 +55,8 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
+                // MOS traffic capture holds rundown and story content, the connection list device addresses.
+                .requestMatchers("/actuator/mostraffic/**", "/actuator/mosconnections/**").hasRole("ADMIN")
                 .requestMatchers(
                     "/api/auth/**",
                     "/ws/**",
@@ -0,0 +1,141 @@
+package rs.nms.newsroom.server.config.websocket;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Configuration of the STOMP message broker behind {@code /ws} ({@code websocket.broker.*} in application.yml).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "websocket.broker")
+public class WebSocketBrokerProperties {
+
+    /**
+     * Where {@code /topic} and {@code /queue} messages are routed to subscribers.
+     */
+    private Mode mode = Mode.SIMPLE;
+
+    /**
+     * Heart-beat interval the in-memory broker offers clients in {@code simple} and {@code sharded}
+     * mode, in both directions. Client heart-beats keep idle sessions present in chat rooms.
+     * Zero disables heart-beats.
+     */
+    private Duration heartbeat = Duration.ofSeconds(10);
+
+    private Relay relay = new Relay();
+
+    private Cluster cluster = new Cluster();
+
+    /**
+     * Broker implementation.
+     */
+    public enum Mode {
+
+        /**
+         * In-memory broker; subscribers must be connected to the node that publishes. Single node only.
+         */
+        SIMPLE,
+
+        /**
+         * External STOMP broker (RabbitMQ, ActiveMQ Artemis) that all nodes relay to.
+         */
+        RELAY,
+
+        /**
+         * In-memory broker per node; messages published on one node are forwarded to all peers over
+         * {@link Cluster the cluster bus}. No external broker needed.
+         */
+        SHARDED
+    }
+
+    /**
+     * Connection to the external broker in {@link Mode#RELAY relay} mode.
+     */
+    @Getter
+    @Setter
+    public static class Relay {
+
+        private String host = "localhost";
+
+        private int port = 61613;
+
+        /**
+         * Credentials of the connections opened for WebSocket clients.
+         */
+        private String clientLogin = "guest";
+
+        private String clientPasscode = "guest";
+
+        /**
+         * Credentials of the shared connection used for messages sent by the server.
+         */
+        private String systemLogin = "guest";
+
+        private String systemPasscode = "guest";
+
+        /**
+         * Virtual host sent in STOMP CONNECT frames; RabbitMQ requires it if not {@code /}.
+         */
+        private String virtualHost;
+
+        /**
+         * Heartbeat interval of the shared system connection.
+         */
+        private Duration systemHeartbeat = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Cross-node message bus in {@link Mode#SHARDED sharded} mode.
+     */
+    @Getter
+    @Setter
+    public static class Cluster {
+
+        /**
+         * Identifier of this node; messages carry it so they are not forwarded back.
+         */
+        private String nodeId = UUID.randomUUID().toString();
+
+        /**
+         * Address the bus listens on for messages from peers. Set it to the node's private interface;
+         * the bus has no encryption and must not be reachable from outside the cluster.
+         */
+        private String bindAddress = "127.0.0.1";
+
+        private int port = 7400;
+
+        /**
+         * Secret shared by all nodes. A connecting peer must prove it knows the secret before its
+         * messages are accepted; required in {@code sharded} mode.
+         */
+        private String secret;
+
+        /**
+         * Bus addresses ({@code host:port}) of the other nodes.
+         */
+        private List<String> peers = new ArrayList<>();
+
+        /**
+         * Delay before reconnecting to a peer that is down.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(2);
+
+        /**
+         * Largest forwarded message.
+         */
+        private DataSize maxMessageSize = DataSize.ofMegabytes(1);
+
+        /**
+         * Bytes queued for a peer above which further messages to it are dropped until it catches up.
+         */
+        private DataSize peerWriteBufferHighWaterMark = DataSize.ofMegabytes(8);
+    }
+}
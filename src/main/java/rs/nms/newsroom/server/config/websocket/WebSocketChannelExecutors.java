@@ -0,0 +1,89 @@
+package rs.nms.newsroom.server.config.websocket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors of the STOMP client inbound, client outbound and broker channels, sized by
+ * {@link WebSocketTransportProperties}.
+ * <p>
+ * Platform pools have bounded queues and run overflowing messages in the sending thread, which
+ * slows down the producer instead of queueing without limit. They are exported as
+ * {@code executor.*} metrics tagged {@code name=ws-inbound|ws-outbound|ws-broker}.
+ * Virtual thread executors cap the number of running messages at {@code poolSize} and block the
+ * producer beyond it. The executors are not exposed as beans so Spring Boot's application task
+ * executor stays in place.
+ * </p>
+ */
+@Component
+public class WebSocketChannelExecutors implements DisposableBean {
+
+    private final Executor inbound;
+    private final Executor outbound;
+    private final Executor broker;
+
+    public WebSocketChannelExecutors(WebSocketTransportProperties transportProperties, MeterRegistry meterRegistry) {
+        this.inbound = create("ws-inbound", transportProperties.getInbound(), meterRegistry);
+        this.outbound = create("ws-outbound", transportProperties.getOutbound(), meterRegistry);
+        this.broker = create("ws-broker", transportProperties.getBroker(), meterRegistry);
+    }
+
+    public Executor inbound() {
+        return inbound;
+    }
+
+    public Executor outbound() {
+        return outbound;
+    }
+
+    /**
+     * @return the broker channel executor, or {@code null} to deliver in the publishing thread
+     */
+    @Nullable
+    public Executor broker() {
+        return broker;
+    }
+
+    @Nullable
+    private static Executor create(String name, WebSocketTransportProperties.Pool pool, MeterRegistry meterRegistry) {
+        if (pool.getPoolSize() <= 0) {
+            return null;
+        }
+        if (pool.isVirtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(pool.getPoolSize());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(pool.getPoolSize());
+        executor.setMaxPoolSize(pool.getPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        for (Executor executor : new Executor[]{inbound, outbound, broker}) {
+            if (executor instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            } else if (executor instanceof SimpleAsyncTaskExecutor virtual) {
+                virtual.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package rs.nms.newsroom.server.config.websocket;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.MessageChannel;
+import rs.nms.newsroom.server.websocket.cluster.ClusterBrokerForwarder;
+import rs.nms.newsroom.server.websocket.cluster.ClusterMessageBus;
+import rs.nms.newsroom.server.websocket.cluster.NettyClusterMessageBus;
+
+/**
+ * Cross-node bus of the {@link WebSocketBrokerProperties.Mode#SHARDED sharded} broker mode.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "websocket.broker", name = "mode", havingValue = "sharded")
+public class WebSocketClusterConfig {
+
+    @Bean
+    public NettyClusterMessageBus clusterMessageBus(WebSocketBrokerProperties brokerProperties) {
+        return new NettyClusterMessageBus(brokerProperties.getCluster());
+    }
+
+    /**
+     * The broker channel is created by the WebSocket configuration that installs this forwarder, so
+     * it is injected lazily.
+     */
+    @Bean
+    public ClusterBrokerForwarder clusterBrokerForwarder(ClusterMessageBus clusterMessageBus,
+                                                         @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        return new ClusterBrokerForwarder(clusterMessageBus, brokerChannel);
+    }
+}
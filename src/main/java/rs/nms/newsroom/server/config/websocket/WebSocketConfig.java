@@ -1,29 +1,42 @@
 package rs.nms.newsroom.server.config.websocket;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.SimpleBrokerRegistration;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import rs.nms.newsroom.server.config.security.JwtTokenUtil;
+import rs.nms.newsroom.server.config.security.PrincipalCache;
+import rs.nms.newsroom.server.websocket.ChatPresenceInterceptor;
+import rs.nms.newsroom.server.websocket.ChatPresenceTracker;
+import rs.nms.newsroom.server.websocket.cluster.ClusterBrokerForwarder;
+import rs.nms.newsroom.server.websocket.session.SlowSubscriberDecoratorFactory;
 
 import java.util.List;
 
 /**
  * WebSocket configuration for the Newsroom server.
  * Enables STOMP messaging with JWT authentication support for WebSocket clients.
+ * The broker is chosen by {@code websocket.broker.mode}, see {@link WebSocketBrokerProperties}.
+ * Channel thread pools and per-session send limits come from {@link WebSocketTransportProperties}.
  */
 @Slf4j
 @Configuration
@@ -32,37 +45,116 @@ import java.util.List;
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtTokenUtil jwtTokenUtil;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final WebSocketBrokerProperties brokerProperties;
+    private final ObjectProvider<ClusterBrokerForwarder> clusterForwarder;
+    private final WebSocketTransportProperties transportProperties;
+    private final WebSocketChannelExecutors channelExecutors;
+    private final SlowSubscriberDecoratorFactory slowSubscriberDecoratorFactory;
+    private final ObjectProvider<ChatPresenceTracker> presenceTracker;
+    private TaskScheduler messageBrokerTaskScheduler;
 
     /**
      * Constructs the WebSocket configuration with required dependencies.
      *
-     * @param jwtTokenUtil      Utility for JWT token operations
-     * @param userDetailsService UserDetailsService for loading user data
+     * @param jwtTokenUtil       Utility for JWT token operations
+     * @param principalCache     Cached user details of authenticated clients
+     * @param brokerProperties   Broker mode and its settings
+     * @param clusterForwarder   Cross-node forwarder, available in sharded mode only
+     * @param transportProperties Per-session send limits
+     * @param channelExecutors   Executors of the client inbound, client outbound and broker channels
+     * @param slowSubscriberDecoratorFactory Applies the slow subscriber policy to every session
+     * @param presenceTracker    Chat room presence, refreshed by client frames
      */
-    public WebSocketConfig(JwtTokenUtil jwtTokenUtil, UserDetailsService userDetailsService) {
+    public WebSocketConfig(JwtTokenUtil jwtTokenUtil, PrincipalCache principalCache,
+                           WebSocketBrokerProperties brokerProperties,
+                           ObjectProvider<ClusterBrokerForwarder> clusterForwarder,
+                           WebSocketTransportProperties transportProperties,
+                           WebSocketChannelExecutors channelExecutors,
+                           SlowSubscriberDecoratorFactory slowSubscriberDecoratorFactory,
+                           ObjectProvider<ChatPresenceTracker> presenceTracker) {
         this.jwtTokenUtil = jwtTokenUtil;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.brokerProperties = brokerProperties;
+        this.clusterForwarder = clusterForwarder;
+        this.transportProperties = transportProperties;
+        this.channelExecutors = channelExecutors;
+        this.slowSubscriberDecoratorFactory = slowSubscriberDecoratorFactory;
+        this.presenceTracker = presenceTracker;
+    }
+
+    /**
+     * Scheduler of the in-memory broker's heart-beats; lazy because the broker beans are created
+     * from this configuration.
+     */
+    @Autowired
+    public void setMessageBrokerTaskScheduler(
+            @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
     }
 
     /**
      * Configures the message broker with application and user prefixes.
+     * <p>
+     * In relay mode, messages for users connected to another node are broadcast through the external
+     * broker, which also shares the user registry between nodes. In sharded mode every node keeps a
+     * simple broker and the {@link ClusterBrokerForwarder} copies published messages to the other nodes.
+     * </p>
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        switch (brokerProperties.getMode()) {
+            case RELAY -> {
+                WebSocketBrokerProperties.Relay relay = brokerProperties.getRelay();
+                long heartbeat = relay.getSystemHeartbeat().toMillis();
+                config.enableStompBrokerRelay("/topic", "/queue")
+                      .setRelayHost(relay.getHost())
+                      .setRelayPort(relay.getPort())
+                      .setClientLogin(relay.getClientLogin())
+                      .setClientPasscode(relay.getClientPasscode())
+                      .setSystemLogin(relay.getSystemLogin())
+                      .setSystemPasscode(relay.getSystemPasscode())
+                      .setVirtualHost(relay.getVirtualHost())
+                      .setSystemHeartbeatSendInterval(heartbeat)
+                      .setSystemHeartbeatReceiveInterval(heartbeat)
+                      .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                      .setUserRegistryBroadcast("/topic/simp-user-registry");
+                log.info("WebSocket broker: relay to {}:{}", relay.getHost(), relay.getPort());
+            }
+            case SHARDED -> {
+                enableSimpleBroker(config);
+                config.configureBrokerChannel().interceptors(clusterForwarder.getObject());
+                log.info("WebSocket broker: sharded, node {}", brokerProperties.getCluster().getNodeId());
+            }
+            case SIMPLE -> enableSimpleBroker(config);
+        }
+        if (channelExecutors.broker() != null) {
+            config.configureBrokerChannel().executor(channelExecutors.broker());
+        }
+        // Channel executors run messages in parallel; keep them in order per session.
+        config.setPreservePublishOrder(true);
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
 
+    private void enableSimpleBroker(MessageBrokerRegistry config) {
+        SimpleBrokerRegistration broker = config.enableSimpleBroker("/topic", "/queue");
+        long heartbeat = brokerProperties.getHeartbeat().toMillis();
+        if (heartbeat > 0) {
+            broker.setHeartbeatValue(new long[]{heartbeat, heartbeat})
+                  .setTaskScheduler(messageBrokerTaskScheduler);
+        }
+    }
+
     /**
      * Registers the STOMP WebSocket endpoint and applies handshake/interceptor handlers.
      */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.setPreserveReceiveOrder(true);
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
-                .addInterceptors(new HttpHandshakeInterceptor(jwtTokenUtil, userDetailsService))
+                .addInterceptors(new HttpHandshakeInterceptor(jwtTokenUtil, principalCache::load))
                 .setHandshakeHandler(new CustomHandshakeHandler())
                 .withSockJS()
                 .setSuppressCors(true);
@@ -70,9 +162,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     /**
      * Configures an inbound channel interceptor for JWT authentication on WebSocket CONNECT.
+     * The token is verified on every CONNECT; the user details come from the {@link PrincipalCache}.
+     * Every inbound frame keeps the chat presence of its session alive.
      */
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutors.inbound());
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public org.springframework.messaging.Message<?> preSend(
@@ -89,7 +184,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                             String username = jwtTokenUtil.extractUsername(token);
 
                             if (username != null) {
-                                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                                UserDetails userDetails = principalCache.load(username);
                                 if (jwtTokenUtil.validateToken(token, userDetails)) {
                                     UsernamePasswordAuthenticationToken authentication =
                                             new UsernamePasswordAuthenticationToken(
@@ -105,5 +200,27 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 return message;
             }
         });
+        registration.interceptors(new ChatPresenceInterceptor(presenceTracker));
+        clusterForwarder.ifAvailable(registration::interceptors);
+    }
+
+    /**
+     * Runs outbound messages on the configured pool.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutors.outbound());
+    }
+
+    /**
+     * Applies the per-session size and send limits and the slow subscriber policy.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        WebSocketTransportProperties.Session session = transportProperties.getSession();
+        registration.setMessageSizeLimit((int) session.getMessageSizeLimit().toBytes())
+                    .setSendTimeLimit((int) session.getSendTimeLimit().toMillis())
+                    .setSendBufferSizeLimit((int) session.getSendBufferSizeLimit().toBytes())
+                    .addDecoratorFactory(slowSubscriberDecoratorFactory);
     }
-}
\ No newline at end of file
+}
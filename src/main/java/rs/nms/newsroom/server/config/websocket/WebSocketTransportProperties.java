@@ -0,0 +1,127 @@
+package rs.nms.newsroom.server.config.websocket;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thread pools of the STOMP message channels and per-session send limits
+ * ({@code websocket.transport.*} in application.yml).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "websocket.transport")
+public class WebSocketTransportProperties {
+
+    /**
+     * Runs messages from clients: authentication, {@code @MessageMapping} methods, subscriptions.
+     */
+    private Pool inbound = new Pool(Runtime.getRuntime().availableProcessors() * 2, 10_000);
+
+    /**
+     * Hands messages to client sessions.
+     */
+    private Pool outbound = new Pool(Runtime.getRuntime().availableProcessors() * 2, 10_000);
+
+    /**
+     * Delivers messages published by the server to the broker. A pool size of 0 delivers in the
+     * publishing thread.
+     */
+    private Pool broker = new Pool(0, 10_000);
+
+    private Session session = new Session();
+
+    /**
+     * Executor of one message channel.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+
+        /**
+         * Threads of the pool, or the number of concurrently running tasks with virtual threads.
+         */
+        private int poolSize;
+
+        /**
+         * Messages queued when all threads are busy; beyond it the sending thread runs the message itself.
+         */
+        private int queueCapacity;
+
+        /**
+         * Run each message on a new virtual thread instead of a platform thread pool.
+         */
+        private boolean virtualThreads = false;
+
+        public Pool() {
+        }
+
+        Pool(int poolSize, int queueCapacity) {
+            this.poolSize = poolSize;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    /**
+     * Limits of one WebSocket session.
+     */
+    @Getter
+    @Setter
+    public static class Session {
+
+        /**
+         * Largest inbound message.
+         */
+        private DataSize messageSizeLimit = DataSize.ofKilobytes(64);
+
+        /**
+         * Time one send to a client may take before the session counts as slow.
+         */
+        private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+        /**
+         * Messages waiting for a client above which the session counts as slow.
+         */
+        private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+
+        /**
+         * What happens to messages for a slow session.
+         */
+        private SlowSubscriberPolicy slowSubscriberPolicy = SlowSubscriberPolicy.DISCONNECT;
+
+        /**
+         * Destination patterns whose messages each carry the full state, so only the latest one
+         * matters; the only destinations {@link SlowSubscriberPolicy#COALESCE} replaces messages for.
+         */
+        private List<String> coalesceDestinations = new ArrayList<>(List.of("/topic/chat.room.*/typing"));
+    }
+
+    /**
+     * Treatment of a session that cannot keep up with its messages.
+     */
+    public enum SlowSubscriberPolicy {
+
+        /**
+         * Discard new messages until the session has caught up.
+         */
+        DROP,
+
+        /**
+         * Close the session; the client reconnects and reloads its state.
+         */
+        DISCONNECT,
+
+        /**
+         * For {@code coalesceDestinations}, replace a waiting message for the same destination with
+         * the new one, so the client gets the latest state; messages without a waiting predecessor
+         * are discarded. A message for any other destination closes the session as with
+         * {@link #DISCONNECT}, since chat messages and deltas cannot be skipped.
+         */
+        COALESCE
+    }
+}
@@ -10,7 +10,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import rs.nms.newsroom.server.chat.history.ChatHistoryService;
+import rs.nms.newsroom.server.chat.ingest.ChatIngestService;
 import rs.nms.newsroom.server.dto.ChatDTOs;
+import rs.nms.newsroom.server.dto.common.CursorPage;
 import rs.nms.newsroom.server.service.ChatService;
 
 import java.util.List;
@@ -32,6 +35,8 @@ import java.util.List;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatHistoryService chatHistoryService;
+    private final ChatIngestService chatIngestService;
 
     @Operation(
         summary = "Create a new chat room",
@@ -65,12 +70,13 @@ public class ChatController {
             @Valid @RequestBody ChatDTOs.SendMessageRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
         Long userId = Long.parseLong(userDetails.getUsername());
-        return ResponseEntity.ok(chatService.sendMessage(request, userId));
+        return ResponseEntity.ok(chatIngestService.send(request, userId));
     }
 
     @Operation(
         summary = "Get messages in a chat room (paginated)",
-        description = "Returns a paginated list of messages from a given chat room, accessible only to participants."
+        description = "Returns a paginated list of messages from a given chat room, accessible only to participants. "
+                + "Newest first by message ID; the first page of a recently read room is served from memory."
     )
     @GetMapping("/rooms/{roomId}/messages")
     public ResponseEntity<Page<ChatDTOs.ChatMessageResponse>> getRoomMessages(
@@ -78,6 +84,25 @@ public class ChatController {
             Pageable pageable,
             @AuthenticationPrincipal UserDetails userDetails) {
         Long userId = Long.parseLong(userDetails.getUsername());
-        return ResponseEntity.ok(chatService.getRoomMessages(roomId, pageable, userId));
+        return ResponseEntity.ok(chatHistoryService.page(roomId, pageable, userId)
+                .orElseGet(() -> chatService.getRoomMessages(roomId, pageable, userId)));
     }
-}
\ No newline at end of file
+
+    @Operation(
+        summary = "Get messages in a chat room (cursor)",
+        description = "Returns up to limit (at most 100) messages of a chat room older than the message with ID before, "
+                + "newest first. Omit before for the newest messages; pass nextBefore of the response to read older ones. "
+                + "No total count is computed. Accessible only to participants."
+    )
+    @GetMapping(value = "/rooms/{roomId}/messages", params = "limit")
+    public ResponseEntity<CursorPage<ChatDTOs.ChatMessageResponse>> getRoomMessagesBefore(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) Long before,
+            @RequestParam int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = Long.parseLong(userDetails.getUsername());
+        int pageLimit = CursorPage.limit(limit);
+        List<ChatDTOs.ChatMessageResponse> messages = chatHistoryService.messages(roomId, before, pageLimit, userId);
+        return ResponseEntity.ok(CursorPage.of(messages, pageLimit, ChatDTOs.ChatMessageResponse::getId));
+    }
+}
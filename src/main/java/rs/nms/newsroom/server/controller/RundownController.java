@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import rs.nms.newsroom.server.dto.RundownDTOs;
 import rs.nms.newsroom.server.service.RundownService;
+import rs.nms.newsroom.server.service.mos.MosDevicePublisher;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -31,6 +32,7 @@ import java.util.List;
 public class RundownController {
 
     private final RundownService rundownService;
+    private final MosDevicePublisher mosDevicePublisher;
 
     @PostMapping
     @PreAuthorize("hasRole('EDITOR') or hasRole('ADMIN')")
@@ -114,6 +116,7 @@ public class RundownController {
             @PathVariable Long id,
             @Valid @RequestBody RundownDTOs.LockRequest request) {
         rundownService.setLockStatus(id, request.getLocked());
+        mosDevicePublisher.rundownLockChanged(id, Boolean.TRUE.equals(request.getLocked()));
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
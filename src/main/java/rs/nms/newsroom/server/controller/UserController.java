@@ -18,6 +18,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 
+import rs.nms.newsroom.server.dto.common.CursorPage;
 import rs.nms.newsroom.server.dto.common.PagedResponse;
 
 import java.io.IOException;
@@ -232,6 +233,24 @@ public class UserController {
     public List<UserDTOs.UserLogEntry> getUserLogs(@PathVariable Long id) {
         return userService.getUserLog(id);
     }
+
+    @Operation(
+    	    summary = "Get User Activity Logs (cursor)",
+    	    description = """
+    	        Returns up to `limit` (at most 100) activity logs for the specified user, newest first.
+    	        - Omit `before` for the newest entries; pass `nextBefore` of the response to read older ones.
+    	        - No total count is computed, so deep pages are as fast as the first one.
+    	        - Requires VIEW_USER_LOGS permission.
+    	    """
+    )
+    @GetMapping(value = "/{id}/logs", params = "limit")
+    @PreAuthorize("hasAuthority('VIEW_USER_LOGS')")
+    public CursorPage<UserDTOs.UserLogEntry> getUserLogsBefore(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam int limit) {
+        return userService.getUserLog(id, before, limit);
+    }
     
     @Operation(
     	    summary = "Upload User Profile Image",
@@ -4,17 +4,21 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
+import rs.nms.newsroom.server.chat.ingest.ChatIngestService;
 import rs.nms.newsroom.server.dto.ChatDTOs;
-import rs.nms.newsroom.server.service.ChatService;
 import rs.nms.newsroom.server.websocket.ChatPresenceTracker;
+import rs.nms.newsroom.server.websocket.TypingIndicatorAggregator;
 
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Handles real-time WebSocket chat communication for newsroom users.
@@ -30,14 +34,16 @@ import java.util.Objects;
 public class WsChatController {
 
     private final SimpMessageSendingOperations messagingTemplate;
-    private final ChatService chatService;
+    private final ChatIngestService chatIngestService;
     private final ChatPresenceTracker presenceTracker;
+    private final TypingIndicatorAggregator typingAggregator;
 
     private static final Logger logger = LoggerFactory.getLogger(WsChatController.class);
 
     /**
      * Handles sending a new chat message to a chat room.
-     * The message is broadcast to all users subscribed to the specified room.
+     * The message is broadcast to all users subscribed to the specified room
+     * and written to the database in the background.
      *
      * @param messageRequest The chat message request payload (validated).
      * @param headerAccessor WebSocket session header accessor.
@@ -63,17 +69,19 @@ public class WsChatController {
 
         headerAccessor.getSessionAttributes().put("roomId", roomId);
 
-        ChatDTOs.ChatMessageResponse saved = chatService.sendMessage(messageRequest, senderId);
+        ChatDTOs.ChatMessageResponse saved = chatIngestService.send(messageRequest, senderId);
 
         // Broadcast message to all clients subscribed to this room
         messagingTemplate.convertAndSend(
                 "/topic/chat.room." + roomId,
                 saved);
+        typingAggregator.stopped(roomId, senderId);
     }
 
     /**
      * Handles a new user joining a chat room.
-     * Tracks user presence and notifies other users in the room.
+     * Tracks user presence; the room is sent the join with the next presence update
+     * and, on the user's first session, a join event.
      *
      * @param joinMessage   The message containing user and room details.
      * @param headerAccessor WebSocket session header accessor.
@@ -88,32 +96,44 @@ public class WsChatController {
             headerAccessor.getSessionAttributes().put("userId", joinMessage.getSenderId());
             headerAccessor.getSessionAttributes().put("roomId", joinMessage.getRoomId());
 
-            presenceTracker.addUserToRoom(joinMessage.getRoomId(), joinMessage.getSenderId());
-
-            // Notify all users in the room about the updated presence
-            messagingTemplate.convertAndSend(
-                    "/topic/chat.room." + joinMessage.getRoomId() + "/presence",
-                    presenceTracker.getUsersInRoom(joinMessage.getRoomId()));
+            boolean joined = presenceTracker.addUserToRoom(
+                    headerAccessor.getSessionId(), joinMessage.getRoomId(), joinMessage.getSenderId());
 
             // Broadcast join event
-            messagingTemplate.convertAndSend(
-                    "/topic/chat.room." + joinMessage.getRoomId() + "/events",
-                    String.format("User %s joined the room.", joinMessage.getSenderName()));
+            if (joined) {
+                messagingTemplate.convertAndSend(
+                        "/topic/chat.room." + joinMessage.getRoomId() + "/events",
+                        String.format("User %s joined the room.", joinMessage.getSenderName()));
+            }
         }
     }
 
+    /**
+     * Returns the users present in a room to a client subscribing to
+     * {@code /app/chat.room.{roomId}/presence}.
+     * Later joins and leaves are sent to {@code /topic/chat.room.{roomId}/presence} as
+     * {@link rs.nms.newsroom.server.websocket.presence.PresenceDelta} updates; clients subscribe
+     * there first and then read this list.
+     *
+     * @param roomId The chat room ID.
+     * @return IDs of the users present in the room.
+     */
+    @SubscribeMapping("/chat.room.{roomId}/presence")
+    public Set<Long> presence(@DestinationVariable Long roomId) {
+        return presenceTracker.getUsersInRoom(roomId);
+    }
+
     /**
      * Handles typing indicator events.
-     * Notifies all users in the room when a user is typing.
+     * The event is recorded by the {@link TypingIndicatorAggregator}, which sends the room
+     * the users currently typing at a fixed interval instead of every event.
      *
      * @param typingEvent The typing event payload.
      */
     @MessageMapping("/chat.typing")
     public void typing(@Payload ChatDTOs.TypingEvent typingEvent) {
         if (typingEvent.getRoomId() != null && typingEvent.getUserId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/chat.room." + typingEvent.getRoomId() + "/typing",
-                    typingEvent);
+            typingAggregator.typing(typingEvent.getRoomId(), typingEvent.getUserId());
         } else {
             logger.warn("Invalid typingEvent: {}", typingEvent);
         }
@@ -14,12 +14,28 @@ import java.time.LocalDateTime;
  * </p>
  */
 @Entity
-@Table(name = "chat_message")
+@Table(name = "chat_message", indexes = {
+        // Keyset reads of a room's history: WHERE room_id = ? AND id < ? ORDER BY id DESC
+        @Index(name = "idx_chat_message_room_id_id", columnList = "room_id, id")
+})
 @Getter
 @Setter
 public class ChatMessage {
+
+    /**
+     * Sequence the IDs are taken from, shared with the WebSocket write-behind path.
+     */
+    public static final String ID_SEQUENCE = "chat_message_seq";
+
+    /**
+     * IDs reserved per sequence call. Each value of the sequence is the first ID of a block
+     * ({@code pooled-lo}), see {@code hibernate.id.optimizer.pooled.preferred} in application.yml.
+     */
+    public static final int ID_ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -91,6 +91,7 @@ public class UserDTOs {
 
     @Data
     public static class UserLogEntry {
+        private Long id;
         private LocalDateTime timestamp;
         private String operation;
         private String performedBy;
@@ -0,0 +1,45 @@
+package rs.nms.newsroom.server.dto.common;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset ("before ID X, limit N") read, newest first.
+ * <p>
+ * Unlike a {@code Page} it carries no totals, so no count query is needed. Pass
+ * {@link #nextBefore} as {@code before} to read the next, older page.
+ * </p>
+ */
+@Data
+public class CursorPage<T> {
+
+    /** Largest accepted {@code limit}. */
+    public static final int MAX_LIMIT = 100;
+
+    private List<T> content;
+
+    /**
+     * ID of the oldest item of this page, or {@code null} if this page is the last one.
+     */
+    private Long nextBefore;
+
+    /**
+     * @param limit the limit the content was read with; a full page may have older items
+     * @param id    extracts the ID of an item
+     */
+    public static <T> CursorPage<T> of(List<T> content, int limit, Function<T, Long> id) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setContent(content);
+        page.setNextBefore(content.size() < limit ? null : id.apply(content.get(content.size() - 1)));
+        return page;
+    }
+
+    /**
+     * @return the requested limit, kept between 1 and {@link #MAX_LIMIT}
+     */
+    public static int limit(int requested) {
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+}
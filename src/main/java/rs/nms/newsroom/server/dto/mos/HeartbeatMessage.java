@@ -0,0 +1,12 @@
+package rs.nms.newsroom.server.dto.mos;
+
+import lombok.Data;
+
+/**
+ * MOS heartbeat; sent by either side to check that the connection is alive and answered with a
+ * heartbeat of its own.
+ */
+@Data
+public class HeartbeatMessage {
+    private String time;
+}
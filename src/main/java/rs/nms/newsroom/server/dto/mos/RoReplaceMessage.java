@@ -0,0 +1,21 @@
+package rs.nms.newsroom.server.dto.mos;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the MOS {@code roReplace} message: running order metadata and its complete story list.
+ */
+@Data
+public class RoReplaceMessage {
+    private String roID;
+    private String slug;
+    private String mosExternalMeta;
+
+    /**
+     * Stories of the running order in playout order.
+     */
+    private List<RoStoryEntry> stories = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package rs.nms.newsroom.server.dto.mos;
+
+import lombok.Data;
+
+/**
+ * One {@code <story>} of a running order as listed in roCreate/roReplace messages.
+ */
+@Data
+public class RoStoryEntry {
+    private String storyID;
+    private String storySlug;
+}
@@ -0,0 +1,46 @@
+package rs.nms.newsroom.server.mos.builder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Builds MOS messages sent from the newsroom to devices.
+ * <p>
+ * Message elements are built without the {@code <mos>} envelope; the device client adds it with
+ * {@link #envelope} once the message ID for the connection is known.
+ * </p>
+ */
+public class MosMessageBuilder {
+
+    private static final DateTimeFormatter MOS_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    public static String envelope(String mosId, String ncsId, long messageId, String message) {
+        return """
+            <mos>
+              <mosID>%s</mosID>
+              <ncsID>%s</ncsID>
+              <messageID>%d</messageID>
+              %s
+            </mos>
+            """.formatted(escape(mosId), escape(ncsId), messageId, message);
+    }
+
+    public static String roReadyToAir(String roId, boolean ready) {
+        return """
+            <roReadyToAir>
+                <roID>%s</roID>
+                <roAir>%s</roAir>
+              </roReadyToAir>""".formatted(escape(roId), ready ? "READY" : "NOT READY");
+    }
+
+    public static String heartbeat(LocalDateTime time) {
+        return "<heartbeat><time>" + MOS_TIME.format(time) + "</time></heartbeat>";
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,139 @@
+package rs.nms.newsroom.server.mos.dedup;
+
+import io.netty.buffer.ByteBuf;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.mos.metrics.MosMetrics;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Remembers recently received MOS messages so that retransmissions are not processed twice.
+ * <p>
+ * Messages are keyed by RO ID, type and a CRC32C of the complete frame. The frame includes the
+ * {@code messageID}, so a device resending a message matches the first copy while an identical
+ * change sent again as a new message does not. The first copy {@link #claim claims} the key and
+ * later completes or fails its outcome; duplicates receive that outcome. Failed messages are
+ * forgotten so the device's retry is processed again.
+ * </p>
+ * <p>
+ * Entries expire {@code window} after arrival and the oldest are dropped beyond
+ * {@code maxEntries}; both are enforced on insert, in arrival order.
+ * </p>
+ */
+@Component
+public class MosDedupCache {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>();
+
+    public MosDedupCache(MosProperties mosProperties, MosMetrics metrics) {
+        this(mosProperties.getDedup(), metrics, System::nanoTime);
+    }
+
+    MosDedupCache(MosProperties.Dedup settings, MosMetrics metrics, LongSupplier clock) {
+        this.enabled = settings.isEnabled();
+        this.windowNanos = settings.getWindow().toNanos();
+        this.maxEntries = Math.max(1, settings.getMaxEntries());
+        this.clock = clock;
+        metrics.bindDedupCache(this);
+    }
+
+    /**
+     * Builds the key of a received message.
+     *
+     * @param frame complete frame as received; its reader index is not changed
+     */
+    public static Key key(MosMessage message, ByteBuf frame) {
+        CRC32C crc = new CRC32C();
+        for (ByteBuffer buffer : frame.nioBuffers()) {
+            crc.update(buffer);
+        }
+        return new Key(message.roId(), message.type(), crc.getValue());
+    }
+
+    /**
+     * Registers a message unless an earlier copy is still remembered.
+     *
+     * @return a claim whose outcome the caller must complete or {@link #release}, or a duplicate
+     * claim carrying the outcome of the first copy
+     */
+    public Claim claim(Key key) {
+        if (!enabled) {
+            return new Claim(key, false, new CompletableFuture<>());
+        }
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry existing = entries.get(key);
+            if (existing != null && existing.expiresAt() - now > 0) {
+                return new Claim(key, true, existing.outcome());
+            }
+            entries.remove(key);
+            evict(now);
+            Entry entry = new Entry(new CompletableFuture<>(), now + windowNanos);
+            entries.put(key, entry);
+            return new Claim(key, false, entry.outcome());
+        }
+    }
+
+    /**
+     * Forgets a message that failed or was rejected, so a retransmission is processed again, and
+     * fails the outcome waited on by duplicates that arrived meanwhile.
+     */
+    public void release(Claim claim, Throwable cause) {
+        if (claim.duplicate()) {
+            return;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(claim.key());
+            if (entry != null && entry.outcome() == claim.outcome()) {
+                entries.remove(claim.key());
+            }
+        }
+        claim.outcome().completeExceptionally(cause);
+    }
+
+    /**
+     * @return number of remembered messages, including expired ones not yet evicted
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evict(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext()) {
+            Entry entry = oldest.next();
+            if (entries.size() < maxEntries && entry.expiresAt() - now > 0) {
+                return;
+            }
+            oldest.remove();
+        }
+    }
+
+    public record Key(String roId, MosMessageType type, long crc) {
+    }
+
+    /**
+     * @param duplicate {@code true} if an earlier copy of the message owns the outcome
+     * @param outcome   completes when the first copy has been processed successfully
+     */
+    public record Claim(Key key, boolean duplicate, CompletableFuture<Void> outcome) {
+    }
+
+    private record Entry(CompletableFuture<Void> outcome, long expiresAt) {
+    }
+}
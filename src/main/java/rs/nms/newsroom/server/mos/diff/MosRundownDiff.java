@@ -0,0 +1,43 @@
+package rs.nms.newsroom.server.mos.diff;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal set of changes that turns the persisted story list of a rundown into the list of a
+ * roReplace message.
+ * <p>
+ * Clients apply a diff by removing the {@code deleted} and {@code moved} stories and then placing
+ * the {@code inserted} and {@code moved} stories at their {@code position} (index in the new list)
+ * in ascending position order. Stories that are neither moved nor deleted keep their relative order.
+ * </p>
+ *
+ * @param deleted  external IDs of stories no longer in the running order
+ * @param inserted stories that are new to the rundown
+ * @param moved    stories that change position relative to the others
+ * @param updated  stories whose slug changed
+ * @param orders   {@code story_order} value of every inserted story and of every existing story
+ *                 whose value changes, keyed by external ID
+ * @param anchorOrders new {@code story_order} of stories without an external ID that had to be
+ *                 renumbered, keyed by database ID
+ */
+public record MosRundownDiff(List<String> deleted, List<Insert> inserted, List<Move> moved, List<Update> updated,
+                             Map<String, Integer> orders, Map<Long, Integer> anchorOrders) {
+
+    /**
+     * @return whether the running order is unchanged for clients; {@link #orders} and
+     * {@link #anchorOrders} may still contain renumbered values
+     */
+    public boolean isEmpty() {
+        return deleted.isEmpty() && inserted.isEmpty() && moved.isEmpty() && updated.isEmpty();
+    }
+
+    public record Insert(String storyId, String slug, int position) {
+    }
+
+    public record Move(String storyId, int position) {
+    }
+
+    public record Update(String storyId, String slug) {
+    }
+}
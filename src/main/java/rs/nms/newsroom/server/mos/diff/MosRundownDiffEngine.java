@@ -0,0 +1,276 @@
+package rs.nms.newsroom.server.mos.diff;
+
+import lombok.extern.slf4j.Slf4j;
+import rs.nms.newsroom.server.domain.Story;
+import rs.nms.newsroom.server.dto.mos.RoStoryEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Computes the {@link MosRundownDiff} between the stories of a rundown and a roReplace story list.
+ * <p>
+ * Stories present on both sides whose old positions form the longest increasing subsequence of the
+ * new list stay in place; every other kept story is a move. This yields the smallest number of moves,
+ * so a late insert or a single reordered story touches one row instead of the whole rundown.
+ * </p>
+ * <p>
+ * {@code story_order} values are sparse: stationary stories keep their value and moved or inserted
+ * stories get a value between their neighbours. Only when there is no room (or existing values are
+ * missing or out of order) is the whole rundown renumbered in steps of {@link #ORDER_STEP}.
+ * </p>
+ * <p>
+ * Stories without an external ID were not created through MOS. They are not part of the diff but
+ * act as anchors: each keeps its place after the stationary story it followed, and its value is
+ * fixed like a stationary one. MOS stories are first respaced around the anchors; only if that
+ * leaves no room either are the anchors renumbered too. Anchors without a value are left alone.
+ * </p>
+ */
+@Slf4j
+public final class MosRundownDiffEngine {
+
+    /**
+     * Distance between {@code story_order} values when a rundown is renumbered.
+     */
+    public static final int ORDER_STEP = 1024;
+
+    private MosRundownDiffEngine() {
+    }
+
+    /**
+     * @param current persisted stories of the rundown, in any order
+     * @param target  story list of the roReplace message in playout order
+     * @return changes that turn {@code current} into {@code target}
+     */
+    public static MosRundownDiff diff(List<Story> current, List<RoStoryEntry> target) {
+        List<Story> ordered = current.stream()
+                .sorted(Comparator.comparing(Story::getOrder, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        List<Story> existing = ordered.stream()
+                .filter(story -> story.getExternalId() != null)
+                .toList();
+        Map<String, Integer> oldIndexes = new HashMap<>();
+        for (int i = 0; i < existing.size(); i++) {
+            oldIndexes.put(existing.get(i).getExternalId(), i);
+        }
+
+        Map<String, RoStoryEntry> entriesById = new LinkedHashMap<>();
+        for (RoStoryEntry entry : target) {
+            if (entry.getStoryID() == null || entriesById.putIfAbsent(entry.getStoryID(), entry) != null) {
+                log.warn("Ignoring roReplace story without ID or with duplicate ID {}", entry.getStoryID());
+            }
+        }
+        List<RoStoryEntry> entries = new ArrayList<>(entriesById.values());
+
+        int[] oldPositions = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            oldPositions[i] = oldIndexes.getOrDefault(entries.get(i).getStoryID(), -1);
+        }
+        boolean[] stationary = longestIncreasingSubsequence(oldPositions);
+        List<Slot> slots = slots(ordered, existing.size(), oldPositions, stationary);
+        int[] slotOrders = assignOrders(slots, existing, oldPositions, stationary);
+
+        int[] orders = new int[entries.size()];
+        Map<Long, Integer> anchorOrders = new HashMap<>();
+        for (int s = 0; s < slots.size(); s++) {
+            Slot slot = slots.get(s);
+            if (slot.anchor() == null) {
+                orders[slot.entry()] = slotOrders[s];
+            } else if (slot.anchor().getOrder() != slotOrders[s]) {
+                anchorOrders.put(slot.anchor().getId(), slotOrders[s]);
+            }
+        }
+
+        List<String> deleted = existing.stream()
+                .map(Story::getExternalId)
+                .filter(id -> !entriesById.containsKey(id))
+                .toList();
+        List<MosRundownDiff.Insert> inserted = new ArrayList<>();
+        List<MosRundownDiff.Move> moved = new ArrayList<>();
+        List<MosRundownDiff.Update> updated = new ArrayList<>();
+        Map<String, Integer> changedOrders = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            RoStoryEntry entry = entries.get(i);
+            if (oldPositions[i] < 0) {
+                inserted.add(new MosRundownDiff.Insert(entry.getStoryID(), entry.getStorySlug(), i));
+                changedOrders.put(entry.getStoryID(), orders[i]);
+                continue;
+            }
+            Story story = existing.get(oldPositions[i]);
+            if (!stationary[i]) {
+                moved.add(new MosRundownDiff.Move(entry.getStoryID(), i));
+            }
+            if (entry.getStorySlug() != null && !entry.getStorySlug().equals(story.getTitle())) {
+                updated.add(new MosRundownDiff.Update(entry.getStoryID(), entry.getStorySlug()));
+            }
+            if (!Objects.equals(story.getOrder(), orders[i])) {
+                changedOrders.put(entry.getStoryID(), orders[i]);
+            }
+        }
+        return new MosRundownDiff(deleted, inserted, moved, updated, changedOrders, anchorOrders);
+    }
+
+    /**
+     * Marks one longest strictly increasing subsequence of the non-negative values
+     * (O(n log n) patience sorting).
+     */
+    static boolean[] longestIncreasingSubsequence(int[] values) {
+        int[] tails = new int[values.length];
+        int[] previous = new int[values.length];
+        int length = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] < 0) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[tails[middle]] < values[i]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        boolean[] members = new boolean[values.length];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            members[i] = true;
+        }
+        return members;
+    }
+
+    /**
+     * Merges the target entries with the anchors: anchors before the first stationary story come
+     * first, every other anchor directly after the stationary story it last followed.
+     */
+    private static List<Slot> slots(List<Story> ordered, int existingCount, int[] oldPositions,
+                                    boolean[] stationary) {
+        int count = oldPositions.length;
+        int[] stationaryEntries = new int[existingCount];
+        Arrays.fill(stationaryEntries, -1);
+        for (int i = 0; i < count; i++) {
+            if (stationary[i]) {
+                stationaryEntries[oldPositions[i]] = i;
+            }
+        }
+
+        Map<Integer, List<Story>> anchorsAfter = new HashMap<>();
+        int lastStationary = -1;
+        int oldIndex = 0;
+        for (Story story : ordered) {
+            if (story.getExternalId() != null) {
+                int entry = stationaryEntries[oldIndex++];
+                if (entry >= 0) {
+                    lastStationary = entry;
+                }
+            } else if (story.getOrder() != null) {
+                anchorsAfter.computeIfAbsent(lastStationary, key -> new ArrayList<>()).add(story);
+            }
+        }
+
+        List<Slot> slots = new ArrayList<>();
+        anchorsAfter.getOrDefault(-1, List.of()).forEach(anchor -> slots.add(new Slot(-1, anchor)));
+        for (int i = 0; i < count; i++) {
+            slots.add(new Slot(i, null));
+            if (stationary[i]) {
+                anchorsAfter.getOrDefault(i, List.of()).forEach(anchor -> slots.add(new Slot(-1, anchor)));
+            }
+        }
+        return slots;
+    }
+
+    private static int[] assignOrders(List<Slot> slots, List<Story> existing, int[] oldPositions,
+                                      boolean[] stationary) {
+        Integer[] anchors = new Integer[slots.size()];
+        Integer[] fixed = new Integer[slots.size()];
+        boolean complete = true;
+        for (int s = 0; s < slots.size(); s++) {
+            Slot slot = slots.get(s);
+            if (slot.anchor() != null) {
+                anchors[s] = slot.anchor().getOrder();
+                fixed[s] = anchors[s];
+            } else if (stationary[slot.entry()]) {
+                fixed[s] = existing.get(oldPositions[slot.entry()]).getOrder();
+                complete &= fixed[s] != null;
+            }
+        }
+
+        int[] orders = complete ? spread(fixed) : null;
+        if (orders == null) {
+            orders = spread(anchors);
+        }
+        if (orders == null) {
+            orders = new int[slots.size()];
+            Arrays.setAll(orders, i -> (i + 1) * ORDER_STEP);
+        }
+        return orders;
+    }
+
+    /**
+     * Keeps the non-null values and spreads the others evenly between them.
+     *
+     * @return the values, or {@code null} if the kept values are not increasing, there are none,
+     * or there is no room between them
+     */
+    private static int[] spread(Integer[] fixed) {
+        int count = fixed.length;
+        int[] orders = new int[count];
+        long previous = Long.MIN_VALUE;
+        boolean any = false;
+        for (int i = 0; i < count; i++) {
+            if (fixed[i] == null) {
+                continue;
+            }
+            if (fixed[i] <= previous) {
+                return null;
+            }
+            orders[i] = fixed[i];
+            previous = fixed[i];
+            any = true;
+        }
+        if (!any) {
+            return count == 0 ? orders : null;
+        }
+
+        int i = 0;
+        while (i < count) {
+            if (fixed[i] != null) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < count && fixed[i] == null) {
+                i++;
+            }
+            int gap = i - start;
+            long low = start > 0 ? orders[start - 1] : (long) orders[i] - (long) (gap + 1) * ORDER_STEP;
+            long high = i < count ? orders[i] : (long) orders[start - 1] + (long) (gap + 1) * ORDER_STEP;
+            if (high - low <= gap || low < Integer.MIN_VALUE || high > Integer.MAX_VALUE) {
+                return null;
+            }
+            for (int j = 0; j < gap; j++) {
+                orders[start + j] = (int) (low + (high - low) * (j + 1) / (gap + 1));
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Position in the merged list: a target entry (by index) or an anchor.
+     */
+    private record Slot(int entry, Story anchor) {
+    }
+}
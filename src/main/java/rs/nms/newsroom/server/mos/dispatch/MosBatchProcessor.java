@@ -0,0 +1,22 @@
+package rs.nms.newsroom.server.mos.dispatch;
+
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+
+import java.util.List;
+
+/**
+ * Applies a run of consecutive batchable MOS messages for one running order at once.
+ * <p>
+ * Implementations must be all-or-nothing: if processing throws, none of the messages may be
+ * considered applied, and the {@link MosRundownSequencer} retries them one by one through
+ * their routes so each message still gets its own acknowledgment.
+ * </p>
+ */
+public interface MosBatchProcessor {
+
+    /**
+     * @param roId     running order ID shared by all messages
+     * @param messages messages in arrival order (at least two)
+     */
+    void process(String roId, List<MosMessage> messages);
+}
@@ -0,0 +1,51 @@
+package rs.nms.newsroom.server.mos.dispatch;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.dto.mos.*;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+import rs.nms.newsroom.server.service.MosRoMessageService;
+import rs.nms.newsroom.server.service.MosStoryMessageService;
+import rs.nms.newsroom.server.service.mos.MosRundownReplaceHandler;
+
+/**
+ * Registers the built-in running order (ro*) and story (roStory*) routes
+ * with the {@link MosMessageRegistry}. roStoryInsert and roStoryStatus are batchable; the other
+ * story routes are applied one by one, since their handler broadcasts each change itself.
+ * roReplace is applied incrementally by the {@link MosRundownReplaceHandler}.
+ */
+@Component
+@RequiredArgsConstructor
+public class MosDefaultRouteRegistrar {
+
+    private final MosMessageRegistry registry;
+    private final MosRoMessageService mosRoMessageService;
+    private final MosStoryMessageService mosStoryMessageService;
+    private final MosRundownReplaceHandler rundownReplaceHandler;
+
+    @PostConstruct
+    public void registerRoutes() {
+        registry.register(MosMessageType.RO_CREATE, RoCreateMessage.class,
+                mosRoMessageService::saveFromRoCreate, "roCreate received successfully");
+        registry.register(MosMessageType.RO_UPDATE, RoUpdateMessage.class,
+                mosRoMessageService::updateFromRoUpdate, "roUpdate processed");
+        registry.register(MosMessageType.RO_DELETE, RoDeleteMessage.class,
+                message -> mosRoMessageService.deleteByRoId(message.getRoID()), "roDelete processed");
+        registry.register(MosMessageType.RO_REPLACE, RoReplaceMessage.class,
+                rundownReplaceHandler::handle, "roReplace processed");
+
+        registry.registerBatchable(MosMessageType.RO_STORY_INSERT, RoStoryInsertMessage.class,
+                mosStoryMessageService::processRoStoryInsert, "roStoryInsert processed");
+        registry.register(MosMessageType.RO_STORY_REPLACE, RoStoryReplaceMessage.class,
+                mosStoryMessageService::processRoStoryReplace, "roStoryReplace processed");
+        registry.register(MosMessageType.RO_STORY_DELETE, RoStoryDeleteMessage.class,
+                mosStoryMessageService::processRoStoryDelete, "roStoryDelete processed");
+        registry.register(MosMessageType.RO_STORY_MOVE, RoStoryMoveMessage.class,
+                mosStoryMessageService::processRoStoryMove, "roStoryMove processed");
+        registry.register(MosMessageType.RO_STORY_SWAP, RoStorySwapMessage.class,
+                mosStoryMessageService::processRoStorySwap, "roStorySwap processed");
+        registry.registerBatchable(MosMessageType.RO_STORY_STATUS, RoStoryStatusMessage.class,
+                mosStoryMessageService::processRoStoryStatus, "roStoryStatus processed");
+    }
+}
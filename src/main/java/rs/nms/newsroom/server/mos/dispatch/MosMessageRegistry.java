@@ -0,0 +1,79 @@
+package rs.nms.newsroom.server.mos.dispatch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Registry mapping each MOS message type to its {@link MosMessageRoute}.
+ * <p>
+ * Routes are registered once at startup by any component that handles MOS messages;
+ * lookups on the TCP path are a single {@link EnumMap} access on an immutable snapshot.
+ * </p>
+ */
+@Slf4j
+@Component
+public class MosMessageRegistry {
+
+    private volatile Map<MosMessageType, MosMessageRoute<?>> routes = new EnumMap<>(MosMessageType.class);
+
+    /**
+     * Registers a handler and ack message for a MOS message type.
+     *
+     * @param type         MOS message type
+     * @param messageClass DTO class produced by the parser for {@code type}
+     * @param handler      business handler for the parsed DTO
+     * @param ackMessage   roAck message text sent after successful handling
+     * @throws IllegalStateException if a route for {@code type} is already registered
+     */
+    public <T> void register(MosMessageType type, Class<T> messageClass, Consumer<T> handler, String ackMessage) {
+        register(new MosMessageRoute<>(type, messageClass, handler, ackMessage, false));
+    }
+
+    /**
+     * Registers a route whose consecutive messages for one running order may be applied together
+     * by the {@link MosBatchProcessor}. {@code handler} is still used when a message is processed
+     * on its own or a batch has to be retried message by message.
+     *
+     * @param type         MOS message type
+     * @param messageClass DTO class produced by the parser for {@code type}
+     * @param handler      business handler for a single parsed DTO
+     * @param ackMessage   roAck message text sent after successful handling
+     * @throws IllegalStateException if a route for {@code type} is already registered
+     */
+    public <T> void registerBatchable(MosMessageType type, Class<T> messageClass, Consumer<T> handler, String ackMessage) {
+        register(new MosMessageRoute<>(type, messageClass, handler, ackMessage, true));
+    }
+
+    /**
+     * Registers a prepared route.
+     *
+     * @param route route to add
+     * @throws IllegalStateException if a route for the same type is already registered
+     */
+    public synchronized void register(MosMessageRoute<?> route) {
+        if (routes.containsKey(route.type())) {
+            throw new IllegalStateException("MOS route already registered for " + route.type());
+        }
+        Map<MosMessageType, MosMessageRoute<?>> updated = new EnumMap<>(MosMessageType.class);
+        updated.putAll(routes);
+        updated.put(route.type(), route);
+        routes = updated;
+        log.debug("Registered MOS route for {}", route.type().getElementName());
+    }
+
+    /**
+     * Finds the route for a message type.
+     *
+     * @param type MOS message type
+     * @return the registered route, or empty if no handler is registered
+     */
+    public Optional<MosMessageRoute<?>> find(MosMessageType type) {
+        return Optional.ofNullable(routes.get(type));
+    }
+}
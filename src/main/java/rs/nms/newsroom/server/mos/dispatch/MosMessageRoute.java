@@ -0,0 +1,35 @@
+package rs.nms.newsroom.server.mos.dispatch;
+
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+import java.util.function.Consumer;
+
+/**
+ * Routing entry for one MOS message type: the DTO class produced by the parser,
+ * the handler that processes it and the text returned in the roAck.
+ *
+ * @param type         MOS message type served by this route
+ * @param messageClass DTO class produced by the parser for {@code type}
+ * @param handler      business handler invoked with the parsed DTO
+ * @param ackMessage   message text placed in the roAck after successful handling
+ * @param batchable    whether consecutive messages of this route may be applied together
+ *                     by the {@link MosBatchProcessor}
+ */
+public record MosMessageRoute<T>(MosMessageType type, Class<T> messageClass, Consumer<T> handler, String ackMessage,
+                                 boolean batchable) {
+
+    public MosMessageRoute {
+        if (!type.getMessageClass().equals(messageClass)) {
+            throw new IllegalArgumentException("Route for " + type + " must accept " + type.getMessageClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Invokes the handler with the parsed payload.
+     *
+     * @param payload DTO produced by the parser for this route's type
+     */
+    public void handle(Object payload) {
+        handler.accept(messageClass.cast(payload));
+    }
+}
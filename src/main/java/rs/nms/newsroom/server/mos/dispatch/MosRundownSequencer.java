@@ -0,0 +1,241 @@
+package rs.nms.newsroom.server.mos.dispatch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.mos.metrics.MosMetrics;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution stage for MOS handlers.
+ * <p>
+ * Tasks submitted for the same running order ID run strictly in submission order,
+ * while different running orders are processed in parallel on virtual threads or a
+ * bounded platform pool. Keeps blocking JPA work off the Netty event loop.
+ * </p>
+ * <p>
+ * Consecutive batchable tasks (roStory* bursts) of one running order are collected for up to
+ * {@code mos.processing.batch-window} and handed to the {@link MosBatchProcessor} together.
+ * </p>
+ * <p>
+ * Once shut down, tasks that can no longer run are not left pending: their futures fail with a
+ * {@link RejectedExecutionException}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class MosRundownSequencer implements DisposableBean {
+
+    private static final String NO_RUNDOWN_KEY = "";
+
+    private final MosBatchProcessor batchProcessor;
+    private final MosMetrics metrics;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService batchWindowScheduler;
+    private final int maxTasksPerTurn;
+    private final int maxBatchSize;
+    private final long batchWindowMillis;
+    private final long shutdownTimeoutMillis;
+    private final ConcurrentHashMap<String, Queue<SequencedTask>> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public MosRundownSequencer(MosProperties properties, MosBatchProcessor batchProcessor, MosMetrics metrics) {
+        MosProperties.Processing processing = properties.getProcessing();
+        this.batchProcessor = batchProcessor;
+        this.metrics = metrics;
+        this.executor = processing.isVirtualThreads()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mos-worker-", 0).factory())
+                : Executors.newFixedThreadPool(processing.getPoolSize(), Thread.ofPlatform().name("mos-worker-", 0).factory());
+        this.batchWindowScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("mos-batch-window").daemon().factory());
+        this.maxTasksPerTurn = Math.max(1, processing.getMaxTasksPerTurn());
+        this.maxBatchSize = Math.max(1, processing.getMaxBatchSize());
+        this.batchWindowMillis = processing.getBatchWindow().toMillis();
+        this.shutdownTimeoutMillis = processing.getShutdownTimeout().toMillis();
+    }
+
+    /**
+     * Queues a task behind all previously submitted tasks for the same running order.
+     *
+     * @param roId running order ID used as ordering key; {@code null} shares one sequence
+     * @param task work to run
+     * @return future completed when the task has run, exceptionally if it failed or processing
+     * has shut down
+     */
+    public CompletableFuture<Void> submit(String roId, Runnable task) {
+        return enqueue(roId, new SequencedTask(task, null, new CompletableFuture<>()));
+    }
+
+    /**
+     * Queues a message that may be applied together with adjacent batchable messages
+     * of the same running order.
+     *
+     * @param roId     running order ID used as ordering key
+     * @param message  parsed message handed to the {@link MosBatchProcessor}
+     * @param fallback single-message handling, used when no batch forms or a batch fails
+     * @return future completed when the message has been applied, exceptionally if it failed or
+     * processing has shut down
+     */
+    public CompletableFuture<Void> submitBatchable(String roId, MosMessage message, Runnable fallback) {
+        return enqueue(roId, new SequencedTask(fallback, message, new CompletableFuture<>()));
+    }
+
+    /**
+     * @return number of submitted tasks that have not completed yet, across all running orders
+     */
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    private CompletableFuture<Void> enqueue(String roId, SequencedTask sequenced) {
+        String key = roId != null ? roId : NO_RUNDOWN_KEY;
+        boolean[] idle = new boolean[1];
+        pending.incrementAndGet();
+        sequenced.completion().whenComplete((ignored, error) -> pending.decrementAndGet());
+
+        queues.compute(key, (ignored, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                idle[0] = true;
+            }
+            queue.add(sequenced);
+            return queue;
+        });
+
+        if (idle[0]) {
+            if (sequenced.batchable() && batchWindowMillis > 0) {
+                // Give the rest of the burst a chance to arrive before the rundown is touched.
+                try {
+                    batchWindowScheduler.schedule(() -> startDrain(key), batchWindowMillis, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    abandon(key, e);
+                }
+            } else {
+                startDrain(key);
+            }
+        }
+        return sequenced.completion();
+    }
+
+    private void startDrain(String key) {
+        try {
+            executor.execute(() -> drain(key));
+        } catch (RejectedExecutionException e) {
+            abandon(key, e);
+        }
+    }
+
+    /**
+     * Unregisters a running order that no worker will drain any more and fails its queued tasks.
+     */
+    private void abandon(String key, RejectedExecutionException cause) {
+        Queue<SequencedTask> queue = queues.remove(key);
+        if (queue == null) {
+            return;
+        }
+        log.warn("MOS processing shut down; {} message(s) for RO ID {} not processed", queue.size(), key);
+        queue.forEach(task -> task.completion().completeExceptionally(cause));
+    }
+
+    /**
+     * Runs queued tasks of one running order; the queue stays registered while a drain
+     * is active, so at most one worker processes a given running order at a time.
+     */
+    private void drain(String key) {
+        for (int processed = 0; processed < maxTasksPerTurn; processed++) {
+            SequencedTask task = pollOrRelease(key);
+            if (task == null) {
+                return;
+            }
+            if (task.batchable()) {
+                List<SequencedTask> batch = new ArrayList<>();
+                batch.add(task);
+                pollBatchable(key, batch);
+                runBatch(key, batch);
+            } else {
+                run(task);
+            }
+        }
+        // Yield so a busy running order cannot monopolise a pool thread.
+        startDrain(key);
+    }
+
+    private SequencedTask pollOrRelease(String key) {
+        SequencedTask[] next = new SequencedTask[1];
+        queues.computeIfPresent(key, (ignored, queue) -> {
+            next[0] = queue.poll();
+            return next[0] == null ? null : queue;
+        });
+        return next[0];
+    }
+
+    private void pollBatchable(String key, List<SequencedTask> batch) {
+        queues.computeIfPresent(key, (ignored, queue) -> {
+            while (batch.size() < maxBatchSize && queue.peek() != null && queue.peek().batchable()) {
+                batch.add(queue.poll());
+            }
+            return queue;
+        });
+    }
+
+    private void runBatch(String key, List<SequencedTask> batch) {
+        if (batch.size() == 1) {
+            run(batch.get(0));
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            batchProcessor.process(key, batch.stream().map(SequencedTask::batchMessage).toList());
+            metrics.batchApplied(batch.size(), System.nanoTime() - started);
+            batch.forEach(task -> task.completion().complete(null));
+        } catch (Throwable e) {
+            log.warn("MOS batch of {} messages for RO ID {} failed ({}); retrying one by one",
+                    batch.size(), key, e.getMessage());
+            batch.forEach(this::run);
+        }
+    }
+
+    private void run(SequencedTask task) {
+        try {
+            task.action().run();
+            task.completion().complete(null);
+        } catch (Throwable e) {
+            task.completion().completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        batchWindowScheduler.shutdown();
+        batchWindowScheduler.awaitTermination(batchWindowMillis + 100, TimeUnit.MILLISECONDS);
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("MOS processing did not finish within {} ms; {} rundown queue(s) abandoned",
+                    shutdownTimeoutMillis, queues.size());
+            executor.shutdownNow();
+        }
+        RejectedExecutionException shutDown = new RejectedExecutionException("MOS processing shut down");
+        List.copyOf(queues.keySet()).forEach(key -> abandon(key, shutDown));
+    }
+
+    private record SequencedTask(Runnable action, MosMessage batchMessage, CompletableFuture<Void> completion) {
+
+        boolean batchable() {
+            return batchMessage != null;
+        }
+    }
+}
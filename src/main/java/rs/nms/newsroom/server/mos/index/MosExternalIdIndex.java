@@ -0,0 +1,206 @@
+package rs.nms.newsroom.server.mos.index;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.domain.Rundown;
+import rs.nms.newsroom.server.domain.Story;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-through cache of MOS external IDs.
+ * <p>
+ * Maps rundown external IDs to their database ID and client, and story external IDs to their
+ * database ID and owning rundown, so MOS handlers can resolve the entities of a message
+ * without querying. Misses are loaded from the database and remembered; committed inserts,
+ * updates and deletes are applied by {@link MosExternalIdIndexListener}, which covers MOS and
+ * REST writes alike. Bulk JPQL updates bypass entity events and must call {@link #clear()}.
+ * </p>
+ * Reads are lock-free; writes are serialised so that a load racing with a delete can not
+ * resurrect the deleted entry. Rundowns and stories are each capped by {@code mos.index}; past the
+ * cap the entry cached or updated longest ago is dropped and is loaded again on its next miss.
+ */
+@Slf4j
+@Component
+public class MosExternalIdIndex {
+
+    /**
+     * Cached identity of a rundown.
+     */
+    public record RundownRef(Long id, Long clientId) {
+    }
+
+    /**
+     * Cached identity of a story and the rundown it belongs to ({@code null} if unassigned).
+     */
+    public record StoryRef(Long id, Long rundownId) {
+    }
+
+    private final Map<String, RundownRef> rundowns = new ConcurrentHashMap<>();
+    private final Map<String, StoryRef> stories = new ConcurrentHashMap<>();
+
+    /** Database ID to external ID, oldest first; guarded by {@code this}. */
+    private final LinkedHashMap<Long, String> rundownKeys = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, String> storyKeys = new LinkedHashMap<>();
+
+    private final int maxRundowns;
+    private final int maxStories;
+
+    /** Incremented on every eviction; loads started before an eviction are not cached. */
+    private long evictions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public MosExternalIdIndex(MosProperties mosProperties) {
+        this.maxRundowns = Math.max(1, mosProperties.getIndex().getMaxRundowns());
+        this.maxStories = Math.max(1, mosProperties.getIndex().getMaxStories());
+    }
+
+    /**
+     * Resolves a rundown by MOS running order ID, loading it on a cache miss.
+     */
+    public Optional<RundownRef> findRundown(String externalId) {
+        if (externalId == null) {
+            return Optional.empty();
+        }
+        RundownRef cached = rundowns.get(externalId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = generation();
+        List<Object[]> rows = entityManager.createQuery(
+                        "select r.id, r.clientId from Rundown r where r.externalId = :externalId", Object[].class)
+                .setParameter("externalId", externalId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        RundownRef loaded = new RundownRef((Long) rows.get(0)[0], (Long) rows.get(0)[1]);
+        putRundown(externalId, loaded, generation);
+        return Optional.of(loaded);
+    }
+
+    /**
+     * Resolves a story by MOS story ID, loading it on a cache miss.
+     */
+    public Optional<StoryRef> findStory(String externalId) {
+        if (externalId == null) {
+            return Optional.empty();
+        }
+        StoryRef cached = stories.get(externalId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = generation();
+        List<Object[]> rows = entityManager.createQuery(
+                        "select s.id, s.rundown.id from Story s where s.externalId = :externalId", Object[].class)
+                .setParameter("externalId", externalId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        StoryRef loaded = new StoryRef((Long) rows.get(0)[0], (Long) rows.get(0)[1]);
+        putStory(externalId, loaded, generation);
+        return Optional.of(loaded);
+    }
+
+    /**
+     * Records the committed state of a rundown.
+     */
+    public synchronized void update(Rundown rundown) {
+        removeKey(rundowns, rundownKeys, rundown.getId());
+        if (rundown.getExternalId() != null) {
+            rundowns.put(rundown.getExternalId(), new RundownRef(rundown.getId(), rundown.getClientId()));
+            rundownKeys.put(rundown.getId(), rundown.getExternalId());
+            trim(rundowns, rundownKeys, maxRundowns);
+        }
+    }
+
+    /**
+     * Records the committed state of a story.
+     */
+    public synchronized void update(Story story) {
+        removeKey(stories, storyKeys, story.getId());
+        if (story.getExternalId() != null) {
+            Long rundownId = story.getRundown() != null ? story.getRundown().getId() : null;
+            stories.put(story.getExternalId(), new StoryRef(story.getId(), rundownId));
+            storyKeys.put(story.getId(), story.getExternalId());
+            trim(stories, storyKeys, maxStories);
+        }
+    }
+
+    /**
+     * Forgets a deleted rundown together with the stories cached for it.
+     */
+    public synchronized void evictRundown(Long rundownId) {
+        evictions++;
+        removeKey(rundowns, rundownKeys, rundownId);
+        stories.values().removeIf(ref -> Objects.equals(ref.rundownId(), rundownId));
+        storyKeys.values().removeIf(key -> !stories.containsKey(key));
+    }
+
+    /**
+     * Forgets a deleted story.
+     */
+    public synchronized void evictStory(Long storyId) {
+        evictions++;
+        removeKey(stories, storyKeys, storyId);
+    }
+
+    /**
+     * Drops all entries, e.g. after bulk updates that bypass entity events.
+     */
+    public synchronized void clear() {
+        evictions++;
+        rundowns.clear();
+        rundownKeys.clear();
+        stories.clear();
+        storyKeys.clear();
+        log.debug("MOS external ID index cleared");
+    }
+
+    private synchronized long generation() {
+        return evictions;
+    }
+
+    private synchronized void putRundown(String externalId, RundownRef ref, long generation) {
+        if (generation == evictions && !rundowns.containsKey(externalId) && !rundownKeys.containsKey(ref.id())) {
+            rundowns.put(externalId, ref);
+            rundownKeys.put(ref.id(), externalId);
+            trim(rundowns, rundownKeys, maxRundowns);
+        }
+    }
+
+    private synchronized void putStory(String externalId, StoryRef ref, long generation) {
+        if (generation == evictions && !stories.containsKey(externalId) && !storyKeys.containsKey(ref.id())) {
+            stories.put(externalId, ref);
+            storyKeys.put(ref.id(), externalId);
+            trim(stories, storyKeys, maxStories);
+        }
+    }
+
+    /**
+     * Drops the oldest entries until at most {@code max} remain.
+     */
+    private static <V> void trim(Map<String, V> byExternalId, LinkedHashMap<Long, String> keysById, int max) {
+        while (keysById.size() > max) {
+            byExternalId.remove(keysById.pollFirstEntry().getValue());
+        }
+    }
+
+    private static <V> void removeKey(Map<String, V> byExternalId, Map<Long, String> keysById, Long id) {
+        String previous = keysById.remove(id);
+        if (previous != null) {
+            byExternalId.remove(previous);
+        }
+    }
+}
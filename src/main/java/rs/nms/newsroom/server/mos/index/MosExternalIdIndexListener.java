@@ -0,0 +1,92 @@
+package rs.nms.newsroom.server.mos.index;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.domain.Rundown;
+import rs.nms.newsroom.server.domain.Story;
+
+/**
+ * Keeps {@link MosExternalIdIndex} in sync with committed {@link Rundown} and {@link Story} changes.
+ * <p>
+ * Registered as a Hibernate post-commit listener, so rolled back transactions never reach
+ * the index.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class MosExternalIdIndexListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MosExternalIdIndex index;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        update(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        update(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Rundown rundown) {
+            index.evictRundown(rundown.getId());
+        } else if (event.getEntity() instanceof Story story) {
+            index.evictStory(story.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was cached for an uncommitted insert.
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // The index still holds the last committed state.
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // The entity still exists; keep its entry.
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return Rundown.class.isAssignableFrom(entityClass) || Story.class.isAssignableFrom(entityClass);
+    }
+
+    private void update(Object entity) {
+        if (entity instanceof Rundown rundown) {
+            index.update(rundown);
+        } else if (entity instanceof Story story) {
+            index.update(story);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package rs.nms.newsroom.server.mos.journal;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Tells handler failures worth replaying from the journal apart from permanent ones.
+ */
+public final class MosFailures {
+
+    private MosFailures() {
+    }
+
+    /**
+     * @return {@code true} if the failure, or any of its causes, is one that may not happen again:
+     * the database being unreachable or timing out, or processing shutting down. Anything else,
+     * such as an unknown running order, fails the same way on every attempt.
+     */
+    public static boolean isRetryable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
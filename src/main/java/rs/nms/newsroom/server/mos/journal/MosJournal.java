@@ -0,0 +1,304 @@
+package rs.nms.newsroom.server.mos.journal;
+
+import io.netty.buffer.ByteBuf;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import static rs.nms.newsroom.server.mos.journal.MosJournalReader.*;
+
+/**
+ * Append-only, memory-mapped write-ahead journal of inbound MOS messages.
+ * <p>
+ * Every accepted message is appended as a frame record with a sequence number before it is
+ * processed, and a commit record is appended once its handler has finished, unless it failed for a
+ * retryable reason and the device was already acked (see {@link MosFailures}). Records written to the
+ * mapped segment survive a JVM crash; with {@code mos.journal.force-on-write} they are also forced
+ * to disk. On startup the frames without a commit record are collected for
+ * {@link MosJournalRecovery}. Segments whose messages are all committed are deleted.
+ * </p>
+ * <p>
+ * {@link #append} and {@link #commit} run on the Netty event loop, so they never touch the disk
+ * themselves: forcing a full segment when rolling over and deleting committed segments are handed
+ * to a single background thread, in order, and {@link #destroy} waits for it to finish.
+ * </p>
+ * When {@code mos.journal.enabled} is false every operation is a no-op.
+ */
+@Slf4j
+@Component
+public class MosJournal implements DisposableBean {
+
+    /** Sequence number returned when the journal is disabled. */
+    public static final long NOT_JOURNALED = -1;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceOnWrite;
+    private final boolean ackOnAppend;
+    private final CRC32C crc = new CRC32C();
+
+    /**
+     * Segment files by the first sequence number they may contain; the last one is being written.
+     * Commit records may refer to messages in older segments, so segments are deleted oldest first.
+     */
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final NavigableSet<Long> uncommitted = new TreeSet<>();
+    private List<MosJournalEntry> pendingReplay = List.of();
+
+    private FileChannel currentChannel;
+    private MappedByteBuffer current;
+    private long nextSequence;
+
+    /**
+     * Forces and closes rolled segments and deletes committed ones; a single thread, so a segment
+     * is always closed before it is deleted.
+     */
+    private ExecutorService housekeeping;
+
+    public MosJournal(MosProperties mosProperties) {
+        MosProperties.Journal journal = mosProperties.getJournal();
+        this.enabled = journal.isEnabled();
+        this.directory = Paths.get(journal.getDirectory());
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, journal.getSegmentSize().toBytes());
+        this.forceOnWrite = journal.isForceOnWrite();
+        this.ackOnAppend = enabled && journal.getAckOn() == MosProperties.AckMode.JOURNALED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return whether messages are acknowledged as soon as {@link #append} returns
+     */
+    public boolean acksOnAppend() {
+        return ackOnAppend;
+    }
+
+    /**
+     * Reads the existing segments, remembers unfinished messages for replay and starts a new segment.
+     */
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        housekeeping = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("mos-journal").daemon(true).factory());
+
+        SortedMap<Long, MosJournalEntry> pending = new TreeMap<>();
+        long[] maxSequence = {-1};
+        for (Path segment : segments(directory)) {
+            // Segments are named after the next sequence number at the time they were created.
+            long segmentSequence = Long.parseLong(segment.getFileName().toString().substring(0, 20));
+            maxSequence[0] = Math.max(maxSequence[0], segmentSequence);
+            read(segment, (kind, sequence, charset, payload) -> {
+                maxSequence[0] = Math.max(maxSequence[0], sequence);
+                if (kind == KIND_FRAME) {
+                    pending.put(sequence, new MosJournalEntry(sequence, charset, payload));
+                } else if (kind == KIND_COMMIT) {
+                    pending.remove(sequence);
+                }
+            });
+            segments.put(segmentSequence, segment);
+        }
+
+        synchronized (this) {
+            nextSequence = maxSequence[0] + 1;
+            uncommitted.addAll(pending.keySet());
+            pendingReplay = new ArrayList<>(pending.values());
+            roll(segmentSize);
+            deleteCommittedSegments();
+        }
+        log.info("MOS journal opened in {}: next sequence {}, {} message(s) to replay",
+                directory, nextSequence, pendingReplay.size());
+    }
+
+    /**
+     * Returns the messages that were not committed before the last shutdown, once.
+     */
+    public synchronized List<MosJournalEntry> takePendingReplay() {
+        List<MosJournalEntry> replay = pendingReplay;
+        pendingReplay = List.of();
+        return replay;
+    }
+
+    /**
+     * Appends a received message.
+     *
+     * @param content frame bytes; the reader index is not modified
+     * @return sequence number to pass to {@link #commit}, or {@link #NOT_JOURNALED}
+     */
+    public synchronized long append(ByteBuf content, Charset charset) {
+        if (!enabled) {
+            return NOT_JOURNALED;
+        }
+        int length = content.readableBytes();
+        ensureCapacity(HEADER_LENGTH + length);
+        long sequence = nextSequence++;
+
+        crc.reset();
+        crc.update(content.nioBuffer(content.readerIndex(), length));
+
+        int position = current.position();
+        current.put(position + 4, KIND_FRAME)
+               .putLong(position + 5, sequence)
+               .put(position + 13, charsetCode(charset))
+               .putInt(position + 14, (int) crc.getValue());
+        content.getBytes(content.readerIndex(), current.slice(position + HEADER_LENGTH, length));
+        publish(position, HEADER_LENGTH + length);
+
+        uncommitted.add(sequence);
+        return sequence;
+    }
+
+    /**
+     * Records that the message with the given sequence number has been processed.
+     */
+    public synchronized void commit(long sequence) {
+        if (!enabled || sequence == NOT_JOURNALED || !uncommitted.remove(sequence)) {
+            return;
+        }
+        crc.reset();
+        ensureCapacity(HEADER_LENGTH);
+        int position = current.position();
+        current.put(position + 4, KIND_COMMIT)
+               .putLong(position + 5, sequence)
+               .put(position + 13, CHARSET_UTF_8)
+               .putInt(position + 14, (int) crc.getValue());
+        publish(position, HEADER_LENGTH);
+
+        deleteCommittedSegments();
+    }
+
+    /**
+     * Writes the record length last, so a record interrupted by a crash is never read back.
+     */
+    private void publish(int position, int length) {
+        current.putInt(position, length);
+        current.position(position + length);
+        if (forceOnWrite) {
+            current.force(position, length);
+        }
+    }
+
+    private void ensureCapacity(int recordLength) {
+        if (current.remaining() < recordLength) {
+            roll(Math.max(segmentSize, recordLength));
+        }
+    }
+
+    private void roll(int size) {
+        closeCurrent();
+        if (segments.containsKey(nextSequence)) {
+            // Rolled again without appending a message; sequence gaps are harmless, reused names are not.
+            nextSequence++;
+        }
+        Path segment = directory.resolve(String.format("%020d%s", nextSequence, SEGMENT_SUFFIX));
+        try {
+            currentChannel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            current = currentChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create MOS journal segment " + segment, e);
+        }
+        segments.put(nextSequence, segment);
+    }
+
+    /**
+     * Deletes all but the current segment once every message they contain is committed.
+     */
+    private void deleteCommittedSegments() {
+        long oldestUncommitted = uncommitted.isEmpty() ? nextSequence : uncommitted.first();
+        while (segments.size() > 1) {
+            Map.Entry<Long, Path> oldest = segments.firstEntry();
+            Long following = segments.higherKey(oldest.getKey());
+            if (following > oldestUncommitted) {
+                return;
+            }
+            segments.pollFirstEntry();
+            Path segment = oldest.getValue();
+            housekeeping.execute(() -> {
+                try {
+                    Files.deleteIfExists(segment);
+                } catch (IOException e) {
+                    log.warn("Cannot delete MOS journal segment {}: {}", segment, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Hands the current segment to the housekeeping thread to be forced and closed.
+     */
+    private void closeCurrent() {
+        if (current == null) {
+            return;
+        }
+        MappedByteBuffer segment = current;
+        FileChannel channel = currentChannel;
+        current = null;
+        currentChannel = null;
+        housekeeping.execute(() -> {
+            segment.force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Cannot close MOS journal segment: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Waits until segments rolled over or committed so far have been closed and deleted.
+     */
+    void awaitHousekeeping() throws InterruptedException, ExecutionException {
+        housekeeping.submit(() -> { }).get();
+    }
+
+    @Override
+    public void destroy() {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = housekeeping;
+            if (executor == null || executor.isShutdown()) {
+                return;
+            }
+            closeCurrent();
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("MOS journal segments in {} not closed within 10 seconds", directory);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
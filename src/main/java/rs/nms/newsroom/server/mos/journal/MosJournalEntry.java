@@ -0,0 +1,13 @@
+package rs.nms.newsroom.server.mos.journal;
+
+import java.nio.charset.Charset;
+
+/**
+ * A MOS message read back from the journal.
+ *
+ * @param sequence journal sequence number
+ * @param charset  wire encoding of the message
+ * @param payload  the complete {@code <mos>...</mos>} message as received
+ */
+public record MosJournalEntry(long sequence, Charset charset, byte[] payload) {
+}
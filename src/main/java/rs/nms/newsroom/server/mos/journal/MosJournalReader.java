@@ -0,0 +1,146 @@
+package rs.nms.newsroom.server.mos.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads MOS journal segments.
+ * <p>
+ * A segment is a sequence of records, each laid out as
+ * {@code [int length][byte kind][long sequence][byte charset][int crc32c][payload]}, where
+ * {@code length} covers the whole record and is written last. Reading a segment stops at the first
+ * zero length (unused space), truncated record or checksum mismatch, which is where a crash
+ * interrupted the writer.
+ * </p>
+ */
+@Slf4j
+public final class MosJournalReader {
+
+    static final String SEGMENT_SUFFIX = ".mosj";
+    static final int HEADER_LENGTH = 4 + 1 + 8 + 1 + 4;
+    static final byte KIND_FRAME = 1;
+    static final byte KIND_COMMIT = 2;
+    static final byte CHARSET_UTF_8 = 0;
+    static final byte CHARSET_UTF_16BE = 1;
+
+    private MosJournalReader() {
+    }
+
+    /**
+     * Receives the records of a segment in write order.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(byte kind, long sequence, Charset charset, byte[] payload);
+    }
+
+    /**
+     * @return segment files of the journal directory ordered by their first sequence number
+     */
+    public static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list MOS journal directory " + directory, e);
+        }
+    }
+
+    /**
+     * Visits all intact records of a segment.
+     *
+     * @return number of bytes occupied by intact records
+     */
+    public static int read(Path segment, RecordVisitor visitor) {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read MOS journal segment " + segment, e);
+        }
+
+        int position = 0;
+        CRC32C crc = new CRC32C();
+        while (buffer.limit() - position >= HEADER_LENGTH) {
+            int length = buffer.getInt(position);
+            if (length < HEADER_LENGTH || length > buffer.limit() - position) {
+                break;
+            }
+            byte kind = buffer.get(position + 4);
+            long sequence = buffer.getLong(position + 5);
+            byte charsetCode = buffer.get(position + 13);
+            int checksum = buffer.getInt(position + 14);
+
+            byte[] payload = new byte[length - HEADER_LENGTH];
+            buffer.get(position + HEADER_LENGTH, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("MOS journal segment {} has a corrupt record at offset {}; ignoring the rest", segment, position);
+                break;
+            }
+            visitor.visit(kind, sequence, charset(charsetCode), payload);
+            position += length;
+        }
+        return position;
+    }
+
+    /**
+     * @return messages of the journal that have no commit record, keyed by sequence number
+     */
+    public static SortedMap<Long, MosJournalEntry> uncommitted(Path directory) {
+        SortedMap<Long, MosJournalEntry> pending = new TreeMap<>();
+        for (Path segment : segments(directory)) {
+            read(segment, (kind, sequence, charset, payload) -> {
+                if (kind == KIND_FRAME) {
+                    pending.put(sequence, new MosJournalEntry(sequence, charset, payload));
+                } else if (kind == KIND_COMMIT) {
+                    pending.remove(sequence);
+                }
+            });
+        }
+        return pending;
+    }
+
+    /**
+     * @return all messages still present in the journal in sequence order, e.g. for replaying traffic
+     */
+    public static List<MosJournalEntry> messages(Path directory) {
+        List<MosJournalEntry> messages = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            read(segment, (kind, sequence, charset, payload) -> {
+                if (kind == KIND_FRAME) {
+                    messages.add(new MosJournalEntry(sequence, charset, payload));
+                }
+            });
+        }
+        return messages;
+    }
+
+    static byte charsetCode(Charset charset) {
+        return StandardCharsets.UTF_16BE.equals(charset) ? CHARSET_UTF_16BE : CHARSET_UTF_8;
+    }
+
+    private static Charset charset(byte code) {
+        return code == CHARSET_UTF_16BE ? StandardCharsets.UTF_16BE : StandardCharsets.UTF_8;
+    }
+}
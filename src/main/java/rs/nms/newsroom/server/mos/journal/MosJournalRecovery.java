@@ -0,0 +1,81 @@
+package rs.nms.newsroom.server.mos.journal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.mos.dispatch.MosMessageRegistry;
+import rs.nms.newsroom.server.mos.dispatch.MosMessageRoute;
+import rs.nms.newsroom.server.mos.dispatch.MosRundownSequencer;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+import rs.nms.newsroom.server.mos.parser.MosStreamParser;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Replays MOS messages that were journaled but not committed before the last shutdown or crash.
+ * <p>
+ * Runs before the MOS TCP server accepts connections, so replayed messages are applied before any
+ * new message for the same running order. Nothing is acknowledged to devices. A message is
+ * committed once its handler succeeds or fails permanently; after a retryable failure (see
+ * {@link MosFailures}) it stays in the journal and is replayed again on the next start.
+ * </p>
+ */
+@Slf4j
+@Component
+@DependsOn("mosDefaultRouteRegistrar")
+@RequiredArgsConstructor
+public class MosJournalRecovery {
+
+    private final MosJournal journal;
+    private final MosMessageRegistry messageRegistry;
+    private final MosRundownSequencer rundownSequencer;
+
+    /**
+     * Replays all pending journal entries and waits until they have been processed.
+     */
+    public void replay() {
+        List<MosJournalEntry> entries = journal.takePendingReplay();
+        if (entries.isEmpty()) {
+            return;
+        }
+        log.warn("Replaying {} unfinished MOS message(s) from the journal", entries.size());
+
+        List<CompletableFuture<Void>> replayed = new ArrayList<>();
+        for (MosJournalEntry entry : entries) {
+            Optional<MosMessage> parsed = MosStreamParser.parse(new ByteArrayInputStream(entry.payload()), entry.charset());
+            Optional<MosMessageRoute<?>> route = parsed.flatMap(message -> messageRegistry.find(message.type()));
+            if (route.isEmpty()) {
+                log.warn("Skipping journal entry {}: not a routable MOS message", entry.sequence());
+                journal.commit(entry.sequence());
+                continue;
+            }
+
+            MosMessage message = parsed.get();
+            MosMessageRoute<?> handler = route.get();
+            Runnable task = () -> handler.handle(message.payload());
+            CompletableFuture<Void> processed = handler.batchable()
+                    ? rundownSequencer.submitBatchable(message.roId(), message, task)
+                    : rundownSequencer.submit(message.roId(), task);
+            replayed.add(processed.whenComplete((ignored, error) -> {
+                if (error == null) {
+                    journal.commit(entry.sequence());
+                } else if (MosFailures.isRetryable(error)) {
+                    log.error("Replay of journal entry {} ({} for RO ID {}) failed, keeping it for the next start",
+                            entry.sequence(), message.type().getElementName(), message.roId(), error);
+                } else {
+                    journal.commit(entry.sequence());
+                    log.error("Replay of journal entry {} ({} for RO ID {}) failed", entry.sequence(),
+                            message.type().getElementName(), message.roId(), error);
+                }
+            }).exceptionally(error -> null));
+        }
+
+        CompletableFuture.allOf(replayed.toArray(CompletableFuture[]::new)).join();
+        log.info("MOS journal replay finished");
+    }
+}
@@ -0,0 +1,194 @@
+package rs.nms.newsroom.server.mos.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.mos.dedup.MosDedupCache;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer instrumentation of the MOS ingest path, exported on {@code /actuator/prometheus}.
+ * <ul>
+ *     <li>{@code mos.connections.active} - open device connections</li>
+ *     <li>{@code mos.frame.size} - size of received MOS messages in bytes</li>
+ *     <li>{@code mos.messages.received} - parsed messages per {@code type}</li>
+ *     <li>{@code mos.parse} - parse time per {@code type}</li>
+ *     <li>{@code mos.handler} - handler time per {@code type} and {@code outcome}</li>
+ *     <li>{@code mos.batch} / {@code mos.batch.size} - roStory* batch transactions</li>
+ *     <li>{@code mos.ack.latency} - time from receiving a message to writing its roAck, per {@code type} and {@code status}</li>
+ *     <li>{@code mos.errors} - failures per {@code type} and {@code reason}</li>
+ *     <li>{@code mos.messages.duplicate} - retransmitted messages answered from the dedup cache, per {@code type}</li>
+ *     <li>{@code mos.dedup.entries} - messages remembered by the dedup cache</li>
+ *     <li>{@code mos.eventloop.pending.tasks} - queued tasks per Netty event loop</li>
+ * </ul>
+ * Meters for known message types are created up front so the hot path does not look them up.
+ */
+@Component
+public class MosMetrics {
+
+    /** Tag value for messages whose type could not be determined. */
+    public static final String UNKNOWN_TYPE = "unknown";
+
+    private final MeterRegistry registry;
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final DistributionSummary frameSize;
+    private final DistributionSummary batchSize;
+    private final Timer batchTimer;
+    private final Timer unknownParseTimer;
+    private final Map<MosMessageType, Counter> received = new EnumMap<>(MosMessageType.class);
+    private final Map<MosMessageType, Counter> duplicates = new EnumMap<>(MosMessageType.class);
+    private final Map<MosMessageType, Timer> parseTimers = new EnumMap<>(MosMessageType.class);
+    private final Map<MosMessageType, Timer> handlerSuccessTimers = new EnumMap<>(MosMessageType.class);
+    private final Map<MosMessageType, Timer> handlerErrorTimers = new EnumMap<>(MosMessageType.class);
+    private final Map<MosMessageType, Timer> ackOkTimers = new EnumMap<>(MosMessageType.class);
+    private final Map<MosMessageType, Timer> ackErrorTimers = new EnumMap<>(MosMessageType.class);
+
+    public MosMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        Gauge.builder("mos.connections.active", activeConnections, AtomicInteger::get)
+                .description("Open MOS device connections")
+                .register(registry);
+        frameSize = DistributionSummary.builder("mos.frame.size")
+                .description("Size of received MOS messages")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        batchSize = DistributionSummary.builder("mos.batch.size")
+                .description("roStory* messages applied per batch transaction")
+                .register(registry);
+        batchTimer = Timer.builder("mos.batch")
+                .description("Time to apply a batch of roStory* messages")
+                .register(registry);
+        unknownParseTimer = parseTimer(UNKNOWN_TYPE);
+
+        for (MosMessageType type : MosMessageType.values()) {
+            String tag = type.getElementName();
+            received.put(type, Counter.builder("mos.messages.received")
+                    .description("Parsed MOS messages")
+                    .tag("type", tag)
+                    .register(registry));
+            duplicates.put(type, Counter.builder("mos.messages.duplicate")
+                    .description("Retransmitted MOS messages answered without processing")
+                    .tag("type", tag)
+                    .register(registry));
+            parseTimers.put(type, parseTimer(tag));
+            handlerSuccessTimers.put(type, handlerTimer(tag, "success"));
+            handlerErrorTimers.put(type, handlerTimer(tag, "error"));
+            ackOkTimers.put(type, ackTimer(tag, "OK"));
+            ackErrorTimers.put(type, ackTimer(tag, "ERROR"));
+        }
+    }
+
+    public void connectionOpened() {
+        activeConnections.incrementAndGet();
+    }
+
+    public void connectionClosed() {
+        activeConnections.decrementAndGet();
+    }
+
+    public void frameReceived(int bytes) {
+        frameSize.record(bytes);
+    }
+
+    /**
+     * @param type parsed type, or {@code null} if the message could not be parsed
+     */
+    public void parsed(MosMessageType type, long nanos) {
+        if (type == null) {
+            unknownParseTimer.record(nanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        received.get(type).increment();
+        parseTimers.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void handled(MosMessageType type, boolean success, long nanos) {
+        (success ? handlerSuccessTimers : handlerErrorTimers).get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void batchApplied(int messages, long nanos) {
+        batchSize.record(messages);
+        batchTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void duplicate(MosMessageType type) {
+        duplicates.get(type).increment();
+    }
+
+    public void acked(MosMessageType type, boolean success, long nanosSinceReceived) {
+        (success ? ackOkTimers : ackErrorTimers).get(type).record(nanosSinceReceived, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a failure, e.g. {@code unparsable}, {@code unrouted}, {@code rejected}, {@code handler}
+     * or {@code frame_too_long}.
+     *
+     * @param type message type, or {@code null} if unknown
+     */
+    public void error(MosMessageType type, String reason) {
+        registry.counter("mos.errors", "type", type != null ? type.getElementName() : UNKNOWN_TYPE, "reason", reason)
+                .increment();
+    }
+
+    public void bindDedupCache(MosDedupCache cache) {
+        Gauge.builder("mos.dedup.entries", cache, MosDedupCache::size)
+                .description("MOS messages remembered for duplicate detection")
+                .register(registry);
+    }
+
+    /**
+     * Registers a pending task gauge for every event loop of the group.
+     *
+     * @param name value of the {@code group} tag, e.g. {@code worker}
+     */
+    public void bindEventLoops(String name, EventExecutorGroup group) {
+        int index = 0;
+        for (EventExecutor executor : group) {
+            if (executor instanceof SingleThreadEventExecutor loop) {
+                Gauge.builder("mos.eventloop.pending.tasks", loop, SingleThreadEventExecutor::pendingTasks)
+                        .description("Tasks queued on a MOS Netty event loop")
+                        .tag("group", name)
+                        .tag("loop", String.valueOf(index))
+                        .register(registry);
+            }
+            index++;
+        }
+    }
+
+    private Timer parseTimer(String type) {
+        return Timer.builder("mos.parse")
+                .description("Time to parse a MOS message")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private Timer handlerTimer(String type, String outcome) {
+        return Timer.builder("mos.handler")
+                .description("Time spent in the MOS message handler")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Timer ackTimer(String type, String status) {
+        return Timer.builder("mos.ack.latency")
+                .description("Time from receiving a MOS message to writing its roAck")
+                .tag("type", type)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
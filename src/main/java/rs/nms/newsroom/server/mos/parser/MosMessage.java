@@ -0,0 +1,26 @@
+package rs.nms.newsroom.server.mos.parser;
+
+/**
+ * Result of parsing a single MOS message.
+ *
+ * @param type    detected MOS message type
+ * @param roId    running order ID ({@code <roID>}) of the message, or {@code null} if absent
+ * @param payload populated DTO from {@code rs.nms.newsroom.server.dto.mos}
+ * @param mosId   sending device from the {@code <mosID>} header, or {@code null} if absent
+ */
+public record MosMessage(MosMessageType type, String roId, Object payload, String mosId) {
+
+    public MosMessage(MosMessageType type, String roId, Object payload) {
+        this(type, roId, payload, null);
+    }
+
+    /**
+     * Returns the payload cast to the expected DTO type.
+     *
+     * @param messageClass expected DTO class
+     * @return the typed payload
+     */
+    public <T> T payloadAs(Class<T> messageClass) {
+        return messageClass.cast(payload);
+    }
+}
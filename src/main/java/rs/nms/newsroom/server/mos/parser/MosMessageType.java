@@ -0,0 +1,69 @@
+package rs.nms.newsroom.server.mos.parser;
+
+import rs.nms.newsroom.server.dto.mos.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Enumerates the MOS message types understood by the server.
+ * <p>
+ * Each type is identified by the local name of the message element that follows
+ * the MOS header inside the {@code <mos>} root, and maps to the DTO the parser fills.
+ * </p>
+ */
+public enum MosMessageType {
+
+    RO_CREATE("roCreate", RoCreateMessage.class),
+    RO_UPDATE("roUpdate", RoUpdateMessage.class),
+    RO_DELETE("roDelete", RoDeleteMessage.class),
+    RO_REPLACE("roReplace", RoReplaceMessage.class),
+    RO_STORY_INSERT("roStoryInsert", RoStoryInsertMessage.class),
+    RO_STORY_REPLACE("roStoryReplace", RoStoryReplaceMessage.class),
+    RO_STORY_DELETE("roStoryDelete", RoStoryDeleteMessage.class),
+    RO_STORY_MOVE("roStoryMove", RoStoryMoveMessage.class),
+    RO_STORY_SWAP("roStorySwap", RoStorySwapMessage.class),
+    RO_STORY_STATUS("roStoryStatus", RoStoryStatusMessage.class),
+    HEARTBEAT("heartbeat", HeartbeatMessage.class);
+
+    private static final Map<String, MosMessageType> BY_ELEMENT_NAME = new HashMap<>();
+
+    static {
+        for (MosMessageType type : values()) {
+            BY_ELEMENT_NAME.put(type.elementName, type);
+        }
+    }
+
+    private final String elementName;
+    private final Class<?> messageClass;
+
+    MosMessageType(String elementName, Class<?> messageClass) {
+        this.elementName = elementName;
+        this.messageClass = messageClass;
+    }
+
+    /**
+     * @return the XML element name of this message type (e.g. {@code roCreate})
+     */
+    public String getElementName() {
+        return elementName;
+    }
+
+    /**
+     * @return the DTO class the parser produces for this message type
+     */
+    public Class<?> getMessageClass() {
+        return messageClass;
+    }
+
+    /**
+     * Resolves a message type from its XML element name.
+     *
+     * @param elementName local name of the message element
+     * @return the matching type, or empty if the element is not a supported MOS message
+     */
+    public static Optional<MosMessageType> fromElementName(String elementName) {
+        return Optional.ofNullable(BY_ELEMENT_NAME.get(elementName));
+    }
+}
@@ -0,0 +1,355 @@
+package rs.nms.newsroom.server.mos.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import rs.nms.newsroom.server.dto.mos.*;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * MosStreamParser
+ *
+ * Single-pass StAX parser for inbound MOS messages. The message type is identified from the first
+ * non-header child of {@code <mos>} and the matching DTO is filled in the same scan, so no
+ * per-message regular expressions are compiled or evaluated.
+ *
+ * The parser also accepts a bare message block (e.g. {@code <roStoryInsert>...</roStoryInsert>})
+ * as root, which keeps {@link RoStoryParser} callers working. As with the previous regex parser,
+ * the first occurrence of each field inside the message wins. The running order story list of
+ * roReplace is collected from its direct {@code <story>} children.
+ */
+@Slf4j
+public final class MosStreamParser {
+
+    private static final String MOS_ROOT = "mos";
+    private static final String MOS_ID = "mosID";
+    private static final String RO_ID = "roID";
+    private static final String STORY = "story";
+    private static final Set<String> HEADER_ELEMENTS = Set.of("mosID", "ncsID", "messageID");
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final Map<MosMessageType, MessageBinding<?>> BINDINGS = new EnumMap<>(MosMessageType.class);
+
+    static {
+        BINDINGS.put(MosMessageType.RO_CREATE, binding(RoCreateMessage::new)
+                .field(RO_ID, RoCreateMessage::setRoID)
+                .field("roSlug", RoCreateMessage::setSlug)
+                .xmlField("mosExternalMetadata", RoCreateMessage::setMosExternalMeta));
+        BINDINGS.put(MosMessageType.RO_UPDATE, binding(RoUpdateMessage::new)
+                .field(RO_ID, RoUpdateMessage::setRoID)
+                .field("roSlug", RoUpdateMessage::setNewSlug)
+                .xmlField("mosExternalMetadata", RoUpdateMessage::setNewMosExternalMeta));
+        BINDINGS.put(MosMessageType.RO_DELETE, binding(RoDeleteMessage::new)
+                .field(RO_ID, RoDeleteMessage::setRoID));
+        BINDINGS.put(MosMessageType.RO_REPLACE, binding(RoReplaceMessage::new)
+                .field(RO_ID, RoReplaceMessage::setRoID)
+                .field("roSlug", RoReplaceMessage::setSlug)
+                .xmlField("mosExternalMetadata", RoReplaceMessage::setMosExternalMeta)
+                .stories(RoReplaceMessage::setStories));
+        BINDINGS.put(MosMessageType.RO_STORY_INSERT, binding(RoStoryInsertMessage::new)
+                .field(RO_ID, RoStoryInsertMessage::setRoID)
+                .field("storyID", RoStoryInsertMessage::setStoryID)
+                .field("storySlug", RoStoryInsertMessage::setStorySlug));
+        BINDINGS.put(MosMessageType.RO_STORY_REPLACE, binding(RoStoryReplaceMessage::new)
+                .field(RO_ID, RoStoryReplaceMessage::setRoID)
+                .field("storyID", RoStoryReplaceMessage::setStoryID)
+                .field("storySlug", RoStoryReplaceMessage::setStorySlug));
+        BINDINGS.put(MosMessageType.RO_STORY_DELETE, binding(RoStoryDeleteMessage::new)
+                .field(RO_ID, RoStoryDeleteMessage::setRoID)
+                .field("storyID", RoStoryDeleteMessage::setStoryID));
+        BINDINGS.put(MosMessageType.RO_STORY_MOVE, binding(RoStoryMoveMessage::new)
+                .field(RO_ID, RoStoryMoveMessage::setRoID)
+                .field("storyID", RoStoryMoveMessage::setStoryID)
+                .field("storyIDBefore", RoStoryMoveMessage::setStoryIDBefore)
+                .field("storyIDAfter", RoStoryMoveMessage::setStoryIDAfter));
+        BINDINGS.put(MosMessageType.RO_STORY_SWAP, binding(RoStorySwapMessage::new)
+                .field(RO_ID, RoStorySwapMessage::setRoID)
+                .field("storyID1", RoStorySwapMessage::setStoryID1)
+                .field("storyID2", RoStorySwapMessage::setStoryID2));
+        BINDINGS.put(MosMessageType.RO_STORY_STATUS, binding(RoStoryStatusMessage::new)
+                .field(RO_ID, RoStoryStatusMessage::setRoID)
+                .field("storyID", RoStoryStatusMessage::setStoryID)
+                .field("status", RoStoryStatusMessage::setStatus));
+        BINDINGS.put(MosMessageType.HEARTBEAT, binding(HeartbeatMessage::new)
+                .field("time", HeartbeatMessage::setTime));
+    }
+
+    private MosStreamParser() {
+    }
+
+    /**
+     * Parses a MOS message held in a String.
+     *
+     * @param xml complete MOS XML message or a bare message block
+     * @return the parsed message, or empty if the input is malformed or of an unsupported type
+     */
+    public static Optional<MosMessage> parse(String xml) {
+        if (xml == null || xml.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return read(XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(xml)));
+        } catch (XMLStreamException e) {
+            log.warn("Malformed MOS XML: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Parses a MOS message directly from an encoded byte stream.
+     *
+     * @param in      stream positioned at the start of the message
+     * @param charset encoding of the stream (UTF-8 or UTF-16BE for MOS)
+     * @return the parsed message, or empty if the input is malformed or of an unsupported type
+     */
+    public static Optional<MosMessage> parse(InputStream in, Charset charset) {
+        try {
+            return read(XML_INPUT_FACTORY.createXMLStreamReader(in, charset.name()));
+        } catch (XMLStreamException e) {
+            log.warn("Malformed MOS XML: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<MosMessage> read(XMLStreamReader reader) throws XMLStreamException {
+        try {
+            int depth = 0;
+            String mosId = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                depth++;
+                String name = reader.getLocalName();
+                if (depth == 1 && MOS_ROOT.equals(name)) {
+                    continue;
+                }
+                if (depth == 2 && MOS_ID.equals(name) && mosId == null) {
+                    mosId = readText(reader);
+                    depth--;
+                    continue;
+                }
+                if (depth == 2 && HEADER_ELEMENTS.contains(name)) {
+                    skipElement(reader);
+                    depth--;
+                    continue;
+                }
+                Optional<MosMessageType> type = MosMessageType.fromElementName(name);
+                if (type.isEmpty()) {
+                    log.debug("Unsupported MOS message element: {}", name);
+                    return Optional.empty();
+                }
+                return Optional.of(readMessage(reader, type.get(), mosId));
+            }
+            return Optional.empty();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static <T> MosMessage readMessage(XMLStreamReader reader, MosMessageType type, String mosId) throws XMLStreamException {
+        @SuppressWarnings("unchecked")
+        MessageBinding<T> binding = (MessageBinding<T>) BINDINGS.get(type);
+        T message = binding.factory.get();
+        Set<String> seen = new HashSet<>();
+        List<RoStoryEntry> stories = binding.storiesSetter != null ? new ArrayList<>() : null;
+        String roId = null;
+
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (stories != null && depth == 1 && STORY.equals(name)) {
+                    stories.add(readStory(reader));
+                    continue;
+                }
+                FieldBinding<T> field = binding.fields.get(name);
+                if (field == null || !seen.add(name)) {
+                    depth++;
+                    continue;
+                }
+                String value = field.rawXml ? readInnerXml(reader) : readText(reader);
+                field.setter.accept(message, value);
+                if (RO_ID.equals(name)) {
+                    roId = value;
+                }
+            }
+        }
+        if (stories != null) {
+            binding.storiesSetter.accept(message, stories);
+        }
+        return new MosMessage(type, roId, message, mosId);
+    }
+
+    /**
+     * Reads the ID and slug of a running order {@code <story>}, skipping its items,
+     * and leaves the reader on the element's END_ELEMENT.
+     */
+    private static RoStoryEntry readStory(XMLStreamReader reader) throws XMLStreamException {
+        RoStoryEntry story = new RoStoryEntry();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (depth == 1 && "storyID".equals(name) && story.getStoryID() == null) {
+                    story.setStoryID(readText(reader));
+                } else if (depth == 1 && "storySlug".equals(name) && story.getStorySlug() == null) {
+                    story.setStorySlug(readText(reader));
+                } else {
+                    depth++;
+                }
+            }
+        }
+        return story;
+    }
+
+    /**
+     * Reads the text content of the current element, ignoring any nested markup,
+     * and leaves the reader on the element's END_ELEMENT.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA ->
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                default -> {
+                }
+            }
+        }
+        return text.toString().trim();
+    }
+
+    /**
+     * Serializes the children of the current element back to XML (used for metadata blocks
+     * that are stored verbatim) and leaves the reader on the element's END_ELEMENT.
+     */
+    private static String readInnerXml(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder xml = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    xml.append('<').append(reader.getLocalName());
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        xml.append(' ').append(reader.getAttributeLocalName(i)).append("=\"");
+                        appendEscaped(xml, reader.getAttributeValue(i));
+                        xml.append('"');
+                    }
+                    xml.append('>');
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    depth--;
+                    if (depth > 0) {
+                        xml.append("</").append(reader.getLocalName()).append('>');
+                    }
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> appendEscaped(xml, reader.getText());
+                default -> {
+                }
+            }
+        }
+        return xml.toString().trim();
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    private static <T> MessageBinding<T> binding(Supplier<T> factory) {
+        return new MessageBinding<>(factory);
+    }
+
+    /**
+     * Maps the element names of one message type to the setters of its DTO.
+     */
+    private static final class MessageBinding<T> {
+        private final Supplier<T> factory;
+        private final Map<String, FieldBinding<T>> fields = new HashMap<>();
+        private BiConsumer<T, List<RoStoryEntry>> storiesSetter;
+
+        private MessageBinding(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        private MessageBinding<T> field(String elementName, BiConsumer<T, String> setter) {
+            fields.put(elementName, new FieldBinding<>(setter, false));
+            return this;
+        }
+
+        private MessageBinding<T> xmlField(String elementName, BiConsumer<T, String> setter) {
+            fields.put(elementName, new FieldBinding<>(setter, true));
+            return this;
+        }
+
+        private MessageBinding<T> stories(BiConsumer<T, List<RoStoryEntry>> setter) {
+            this.storiesSetter = setter;
+            return this;
+        }
+    }
+
+    private record FieldBinding<T>(BiConsumer<T, String> setter, boolean rawXml) {
+    }
+}
@@ -3,6 +3,7 @@ package rs.nms.newsroom.server.mos.parser;
 import rs.nms.newsroom.server.dto.mos.*;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -11,7 +12,8 @@ import java.util.regex.Pattern;
  *
  * Utility class for extracting and parsing MOS protocol Rundown Story XML blocks (roStoryInsert, roStoryReplace, etc.)
  * from incoming MOS XML messages. Converts XML fragments into strongly typed DTOs used by the backend for further
- * processing. Demonstrates practical use of regular expressions and robust parsing for newsroom automation workflows.
+ * processing. Block extraction uses precompiled patterns; field parsing is delegated to the single-pass
+ * {@link MosStreamParser}, so no patterns are compiled per message.
  *
  * This class is part of a modular backend architecture designed for integration with broadcast automation and newsroom systems.
  */
@@ -33,24 +35,7 @@ public class RoStoryParser {
     }
 
     public static RoStoryInsertMessage parseRoStoryInsert(String xml) {
-        RoStoryInsertMessage message = new RoStoryInsertMessage();
-
-        Matcher roIdMatcher = Pattern.compile("<roID>(.*?)</roID>").matcher(xml);
-        if (roIdMatcher.find()) {
-            message.setRoID(roIdMatcher.group(1));
-        }
-
-        Matcher storyIdMatcher = Pattern.compile("<storyID>(.*?)</storyID>").matcher(xml);
-        if (storyIdMatcher.find()) {
-            message.setStoryID(storyIdMatcher.group(1));
-        }
-
-        Matcher slugMatcher = Pattern.compile("<storySlug>(.*?)</storySlug>").matcher(xml);
-        if (slugMatcher.find()) {
-            message.setStorySlug(slugMatcher.group(1));
-        }
-
-        return message;
+        return parseBlock(xml, RoStoryInsertMessage.class, RoStoryInsertMessage::new);
     }
 
     public static Optional<String> extractRoStoryReplace(String xml) {
@@ -62,24 +47,7 @@ public class RoStoryParser {
     }
 
     public static RoStoryReplaceMessage parseRoStoryReplace(String xml) {
-        RoStoryReplaceMessage message = new RoStoryReplaceMessage();
-
-        Matcher roIdMatcher = Pattern.compile("<roID>(.*?)</roID>").matcher(xml);
-        if (roIdMatcher.find()) {
-            message.setRoID(roIdMatcher.group(1));
-        }
-
-        Matcher storyIdMatcher = Pattern.compile("<storyID>(.*?)</storyID>").matcher(xml);
-        if (storyIdMatcher.find()) {
-            message.setStoryID(storyIdMatcher.group(1));
-        }
-
-        Matcher slugMatcher = Pattern.compile("<storySlug>(.*?)</storySlug>").matcher(xml);
-        if (slugMatcher.find()) {
-            message.setStorySlug(slugMatcher.group(1));
-        }
-
-        return message;
+        return parseBlock(xml, RoStoryReplaceMessage.class, RoStoryReplaceMessage::new);
     }
     
     /**
@@ -97,29 +65,7 @@ public class RoStoryParser {
      * Parses a <roStoryMove> XML block into a RoStoryMoveMessage DTO.
      */
     public static RoStoryMoveMessage parseRoStoryMove(String xml) {
-        RoStoryMoveMessage message = new RoStoryMoveMessage();
-
-        Matcher roIdMatcher = Pattern.compile("<roID>(.*?)</roID>").matcher(xml);
-        if (roIdMatcher.find()) {
-            message.setRoID(roIdMatcher.group(1));
-        }
-
-        Matcher storyIdMatcher = Pattern.compile("<storyID>(.*?)</storyID>").matcher(xml);
-        if (storyIdMatcher.find()) {
-            message.setStoryID(storyIdMatcher.group(1));
-        }
-
-        Matcher beforeMatcher = Pattern.compile("<storyIDBefore>(.*?)</storyIDBefore>").matcher(xml);
-        if (beforeMatcher.find()) {
-            message.setStoryIDBefore(beforeMatcher.group(1));
-        }
-
-        Matcher afterMatcher = Pattern.compile("<storyIDAfter>(.*?)</storyIDAfter>").matcher(xml);
-        if (afterMatcher.find()) {
-            message.setStoryIDAfter(afterMatcher.group(1));
-        }
-
-        return message;
+        return parseBlock(xml, RoStoryMoveMessage.class, RoStoryMoveMessage::new);
     }
     
     /**
@@ -136,21 +82,7 @@ public class RoStoryParser {
     }
 
     public static RoStorySwapMessage parseRoStorySwap(String xml) {
-        RoStorySwapMessage message = new RoStorySwapMessage();
-
-        Matcher roIdMatcher = Pattern.compile("<roID>(.*?)</roID>").matcher(xml);
-        if (roIdMatcher.find()) {
-            message.setRoID(roIdMatcher.group(1));
-        }
-        Matcher storyId1Matcher = Pattern.compile("<storyID1>(.*?)</storyID1>").matcher(xml);
-        if (storyId1Matcher.find()) {
-            message.setStoryID1(storyId1Matcher.group(1));
-        }
-        Matcher storyId2Matcher = Pattern.compile("<storyID2>(.*?)</storyID2>").matcher(xml);
-        if (storyId2Matcher.find()) {
-            message.setStoryID2(storyId2Matcher.group(1));
-        }
-        return message;
+        return parseBlock(xml, RoStorySwapMessage.class, RoStorySwapMessage::new);
     }
     
     public static Optional<String> extractRoStoryStatus(String xml) {
@@ -162,21 +94,7 @@ public class RoStoryParser {
     }
 
     public static RoStoryStatusMessage parseRoStoryStatus(String xml) {
-        RoStoryStatusMessage message = new RoStoryStatusMessage();
-
-        Matcher roIdMatcher = Pattern.compile("<roID>(.*?)</roID>").matcher(xml);
-        if (roIdMatcher.find()) {
-            message.setRoID(roIdMatcher.group(1));
-        }
-        Matcher storyIdMatcher = Pattern.compile("<storyID>(.*?)</storyID>").matcher(xml);
-        if (storyIdMatcher.find()) {
-            message.setStoryID(storyIdMatcher.group(1));
-        }
-        Matcher statusMatcher = Pattern.compile("<status>(.*?)</status>").matcher(xml);
-        if (statusMatcher.find()) {
-            message.setStatus(statusMatcher.group(1));
-        }
-        return message;
+        return parseBlock(xml, RoStoryStatusMessage.class, RoStoryStatusMessage::new);
     }
 
     public static Optional<String> extractRoStoryDelete(String xml) {
@@ -188,18 +106,13 @@ public class RoStoryParser {
     }
 
     public static RoStoryDeleteMessage parseRoStoryDelete(String xml) {
-        RoStoryDeleteMessage message = new RoStoryDeleteMessage();
-
-        Matcher roIdMatcher = Pattern.compile("<roID>(.*?)</roID>").matcher(xml);
-        if (roIdMatcher.find()) {
-            message.setRoID(roIdMatcher.group(1));
-        }
-
-        Matcher storyIdMatcher = Pattern.compile("<storyID>(.*?)</storyID>").matcher(xml);
-        if (storyIdMatcher.find()) {
-            message.setStoryID(storyIdMatcher.group(1));
-        }
+        return parseBlock(xml, RoStoryDeleteMessage.class, RoStoryDeleteMessage::new);
+    }
 
-        return message;
+    private static <T> T parseBlock(String xml, Class<T> messageClass, Supplier<T> emptyMessage) {
+        return MosStreamParser.parse(xml)
+                .filter(message -> messageClass.isInstance(message.payload()))
+                .map(message -> message.payloadAs(messageClass))
+                .orElseGet(emptyMessage);
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package rs.nms.newsroom.server.mos.traffic;
+
+import java.nio.charset.Charset;
+import java.time.Instant;
+
+/**
+ * Leading bytes of a received MOS message kept by {@link MosTrafficLog}.
+ *
+ * @param sequence  position in the overall inbound traffic
+ * @param received  receive time
+ * @param remote    device address
+ * @param type      message element name, {@code null} if unparsable
+ * @param roId      running order ID, if any
+ * @param length    full message size in bytes
+ * @param charset   wire encoding
+ * @param bytes     first bytes of the message as received
+ */
+public record MosCapturedMessage(long sequence, Instant received, String remote, String type, String roId,
+                                 int length, String charset, byte[] bytes) {
+
+    /**
+     * @return the captured bytes decoded in the message's encoding
+     */
+    public String payload() {
+        return new String(bytes, Charset.forName(charset));
+    }
+
+    public boolean truncated() {
+        return bytes.length < length;
+    }
+}
@@ -0,0 +1,43 @@
+package rs.nms.newsroom.server.mos.traffic;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/mostraffic}) dumping the most recent inbound MOS messages
+ * captured by {@link MosTrafficLog}, oldest first.
+ */
+@Component
+@Endpoint(id = "mostraffic")
+@RequiredArgsConstructor
+public class MosTrafficEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final MosTrafficLog trafficLog;
+
+    @ReadOperation
+    public List<CapturedMessageView> captured(@Nullable Integer limit) {
+        return trafficLog.captured(limit != null && limit > 0 ? limit : DEFAULT_LIMIT).stream()
+                .map(CapturedMessageView::of)
+                .toList();
+    }
+
+    /**
+     * JSON view of a captured message with the payload decoded to text.
+     */
+    public record CapturedMessageView(long sequence, Instant received, String remote, String type, String roId,
+                                      int length, String charset, boolean truncated, String payload) {
+
+        static CapturedMessageView of(MosCapturedMessage message) {
+            return new CapturedMessageView(message.sequence(), message.received(), message.remote(), message.type(),
+                    message.roId(), message.length(), message.charset(), message.truncated(), message.payload());
+        }
+    }
+}
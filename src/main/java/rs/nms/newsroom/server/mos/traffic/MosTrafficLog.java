@@ -0,0 +1,143 @@
+package rs.nms.newsroom.server.mos.traffic;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+import rs.nms.newsroom.server.tcp.mos.MosFrame;
+import rs.nms.newsroom.server.tcp.mos.MosRoAck;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * MOS traffic log.
+ * <p>
+ * Writes to the dedicated {@code mos.traffic} logger (asynchronous appender, see logback-spring.xml):
+ * a one-line summary per sampled message at INFO, the payload truncated to
+ * {@code mos.traffic.max-payload-chars} at DEBUG and the full payload only at TRACE. Payload text is
+ * decoded only when the corresponding level is enabled.
+ * </p>
+ * <p>
+ * Independently of the log level, the first bytes of the most recent inbound messages are kept in
+ * a fixed-size ring buffer that can be dumped through the {@code mostraffic} actuator endpoint.
+ * </p>
+ */
+@Component
+public class MosTrafficLog {
+
+    private static final Logger TRAFFIC = LoggerFactory.getLogger("mos.traffic");
+
+    private final int sampleEvery;
+    private final int maxPayloadChars;
+    private final int captureBytes;
+    private final AtomicReferenceArray<MosCapturedMessage> capture;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public MosTrafficLog(MosProperties mosProperties) {
+        MosProperties.Traffic traffic = mosProperties.getTraffic();
+        this.sampleEvery = Math.max(1, traffic.getSampleEvery());
+        this.maxPayloadChars = Math.max(0, traffic.getMaxPayloadChars());
+        this.captureBytes = (int) Math.min(Integer.MAX_VALUE, traffic.getCaptureBytesPerMessage().toBytes());
+        this.capture = traffic.getCaptureSize() > 0 ? new AtomicReferenceArray<>(traffic.getCaptureSize()) : null;
+    }
+
+    /**
+     * Records a received frame.
+     *
+     * @param message the parsed message, or {@code null} if the frame could not be parsed
+     */
+    public void inbound(Channel channel, MosFrame frame, MosMessage message) {
+        long seq = sequence.getAndIncrement();
+        if (capture != null) {
+            capture(seq, channel, frame, message);
+        }
+        if (!TRAFFIC.isInfoEnabled() || seq % sampleEvery != 0) {
+            return;
+        }
+
+        int length = frame.content().readableBytes();
+        String type = message != null ? message.type().getElementName() : "unparsable";
+        String roId = message != null ? message.roId() : null;
+        if (TRAFFIC.isTraceEnabled()) {
+            TRAFFIC.trace("<< {} {} roID={} {} bytes\n{}", channel.remoteAddress(), type, roId, length, frame.asText());
+        } else if (TRAFFIC.isDebugEnabled()) {
+            TRAFFIC.debug("<< {} {} roID={} {} bytes\n{}", channel.remoteAddress(), type, roId, length, truncated(frame));
+        } else {
+            TRAFFIC.info("<< {} {} roID={} {} bytes", channel.remoteAddress(), type, roId, length);
+        }
+    }
+
+    /**
+     * Records a roAck sent to a device. Successful acks are logged at DEBUG, failures at INFO.
+     */
+    public void outbound(Channel channel, MosRoAck ack) {
+        if (ack.success()) {
+            if (TRAFFIC.isDebugEnabled()) {
+                TRAFFIC.debug(">> {} roAck roID={} OK {}", channel.remoteAddress(), ack.roId(), ack.message());
+            }
+        } else {
+            TRAFFIC.info(">> {} roAck roID={} ERROR {}", channel.remoteAddress(), ack.roId(), ack.message());
+        }
+    }
+
+    /**
+     * Returns the captured inbound messages, oldest first.
+     *
+     * @param limit maximum number of (most recent) messages to return
+     */
+    public List<MosCapturedMessage> captured(int limit) {
+        List<MosCapturedMessage> messages = new ArrayList<>();
+        if (capture == null) {
+            return messages;
+        }
+        for (int i = 0; i < capture.length(); i++) {
+            MosCapturedMessage entry = capture.get(i);
+            if (entry != null) {
+                messages.add(entry);
+            }
+        }
+        messages.sort(Comparator.comparingLong(MosCapturedMessage::sequence));
+        return messages.size() > limit ? messages.subList(messages.size() - limit, messages.size()) : messages;
+    }
+
+    private void capture(long seq, Channel channel, MosFrame frame, MosMessage message) {
+        ByteBuf content = frame.content();
+        int length = content.readableBytes();
+        byte[] bytes = ByteBufUtil.getBytes(content, content.readerIndex(), alignedPrefix(frame, captureBytes));
+        capture.set((int) (seq % capture.length()), new MosCapturedMessage(
+                seq,
+                Instant.now(),
+                String.valueOf(channel.remoteAddress()),
+                message != null ? message.type().getElementName() : null,
+                message != null ? message.roId() : null,
+                length,
+                frame.charset().name(),
+                bytes));
+    }
+
+    private String truncated(MosFrame frame) {
+        ByteBuf content = frame.content();
+        int bytesPerChar = StandardCharsets.UTF_16BE.equals(frame.charset()) ? 2 : 1;
+        int prefix = alignedPrefix(frame, maxPayloadChars * bytesPerChar);
+        String text = content.toString(content.readerIndex(), prefix, frame.charset());
+        return prefix < content.readableBytes() ? text + "... [truncated]" : text;
+    }
+
+    /**
+     * Number of leading bytes to take, never splitting a UTF-16 code unit.
+     */
+    private static int alignedPrefix(MosFrame frame, int maxBytes) {
+        int length = Math.min(frame.content().readableBytes(), maxBytes);
+        return StandardCharsets.UTF_16BE.equals(frame.charset()) ? length & ~1 : length;
+    }
+}
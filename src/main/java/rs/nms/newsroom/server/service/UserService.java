@@ -8,6 +8,7 @@ import org.springframework.web.multipart.MultipartFile;
 import rs.nms.newsroom.server.config.storage.FileStorageUtil;
 import rs.nms.newsroom.server.dto.UserDTOs;
 import rs.nms.newsroom.server.dto.UserDTOs.UserLogEntry;
+import rs.nms.newsroom.server.dto.common.CursorPage;
 import rs.nms.newsroom.server.repository.UserLogRepository;
 import rs.nms.newsroom.server.repository.UserRepository;
 import rs.nms.newsroom.server.service.helper.*;
@@ -34,6 +35,8 @@ public class UserService {
     private final UserPasswordChanger userPasswordChanger;
     private final FileStorageUtil fileStorageUtil;
     private final UserLogService userLogService;
+    private final UserLogKeysetReader userLogKeysetReader;
+    private final UserLogMapper userLogMapper;
 
     public UserDTOs.UserResponse create(UserDTOs.UserCreateRequest createRequest) {
         return userCreator.create(createRequest);
@@ -59,16 +62,17 @@ public class UserService {
 
     public List<UserLogEntry> getUserLog(Long id) {
         return userLogRepository.findByTargetUserIdOrderByTimestampDesc(id).stream()
-                .map(log -> {
-                    UserLogEntry dto = new UserLogEntry();
-                    dto.setTimestamp(log.getTimestamp());
-                    dto.setOperation(log.getOperation().name());
-                    dto.setPerformedBy("User ID: " + log.getActorUserId());
-                    return dto;
-                })
+                .map(userLogMapper::toEntry)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns up to {@code limit} log entries of a user older than the entry {@code beforeId}, newest first.
+     */
+    public CursorPage<UserLogEntry> getUserLog(Long id, Long beforeId, int limit) {
+        return userLogKeysetReader.read(id, beforeId, CursorPage.limit(limit));
+    }
+
     @Transactional
     public UserDTOs.UserResponse updateProfileImage(Long userId, MultipartFile file) throws IOException {
         var user = userRepository.findById(userId)
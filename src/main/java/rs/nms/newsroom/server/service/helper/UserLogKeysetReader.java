@@ -0,0 +1,59 @@
+package rs.nms.newsroom.server.service.helper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import rs.nms.newsroom.server.domain.UserLog;
+import rs.nms.newsroom.server.dto.UserDTOs.UserLogEntry;
+import rs.nms.newsroom.server.dto.common.CursorPage;
+
+import java.util.List;
+
+/**
+ * Reads a user's audit log newest first with {@code id < ?} on {@code (target_user_id, id)},
+ * so deep pages cost the same as the first one and no count query runs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserLogKeysetReader {
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserLogMapper userLogMapper;
+
+    /**
+     * Creates the index the keyset query relies on; the log entity does not declare it.
+     */
+    @PostConstruct
+    void createIndex() {
+        try {
+            jdbcTemplate.execute(
+                    "CREATE INDEX IF NOT EXISTS idx_user_log_target_user_id_id ON user_log (target_user_id, id)");
+        } catch (DataAccessException e) {
+            log.warn("Cannot create the user log keyset index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param beforeId exclusive upper bound, or {@code null} for the newest entries
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserLogEntry> read(Long targetUserId, Long beforeId, int limit) {
+        List<UserLog> logs = entityManager.createQuery("""
+                        SELECT l FROM UserLog l
+                        WHERE l.targetUserId = :targetUserId AND l.id < :beforeId
+                        ORDER BY l.id DESC""", UserLog.class)
+                .setParameter("targetUserId", targetUserId)
+                .setParameter("beforeId", beforeId == null ? Long.MAX_VALUE : beforeId)
+                .setMaxResults(limit)
+                .getResultList();
+
+        return CursorPage.of(logs.stream().map(userLogMapper::toEntry).toList(), limit, UserLogEntry::getId);
+    }
+}
@@ -0,0 +1,21 @@
+package rs.nms.newsroom.server.service.helper;
+
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.domain.UserLog;
+import rs.nms.newsroom.server.dto.UserDTOs.UserLogEntry;
+
+/**
+ * Maps audit log rows to the entries returned by the user log endpoints.
+ */
+@Component
+public class UserLogMapper {
+
+    public UserLogEntry toEntry(UserLog userLog) {
+        UserLogEntry dto = new UserLogEntry();
+        dto.setId(userLog.getId());
+        dto.setTimestamp(userLog.getTimestamp());
+        dto.setOperation(userLog.getOperation().name());
+        dto.setPerformedBy("User ID: " + userLog.getActorUserId());
+        return dto;
+    }
+}
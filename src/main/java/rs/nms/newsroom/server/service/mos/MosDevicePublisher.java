@@ -0,0 +1,66 @@
+package rs.nms.newsroom.server.service.mos;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.mos.builder.MosMessageBuilder;
+import rs.nms.newsroom.server.tcp.mos.client.MosDeviceGateway;
+import rs.nms.newsroom.server.tcp.mos.client.MosOutboundMessage;
+
+import java.util.Objects;
+
+/**
+ * Pushes newsroom changes to MOS devices through the {@link MosDeviceGateway}.
+ * <p>
+ * The one change pushed is locking and unlocking a rundown, called by {@code RundownController}
+ * once the lock is stored. Only rundowns known to MOS (with an external ID) are pushed. Story
+ * edits are not: a roStoryReplace replaces the whole story on the device, items included, and
+ * stories here carry no MOS items to send with it. Inside a transaction the message is sent
+ * after commit, so devices never see a change that was rolled back. Delivery is asynchronous;
+ * failures after all retries are logged.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MosDevicePublisher {
+
+    private final MosDeviceGateway deviceGateway;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Sends a roReadyToAir for a rundown that was locked or unlocked.
+     * <p>
+     * Editors lock a rundown to freeze it for broadcast, which is the editorial sign-off MOS
+     * carries in roReadyToAir: locked is sent as READY, and unlocking, which reopens the rundown
+     * for editing, as NOT READY.
+     * </p>
+     */
+    public void rundownLockChanged(Long rundownId, boolean locked) {
+        if (!deviceGateway.isEnabled()) {
+            return;
+        }
+        entityManager.createQuery("select r.externalId from Rundown r where r.id = :id", String.class)
+                .setParameter("id", rundownId)
+                .getResultStream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .ifPresent(roId -> publish(new MosOutboundMessage(roId, MosMessageBuilder.roReadyToAir(roId, locked))));
+    }
+
+    private void publish(MosOutboundMessage message) {
+        AfterCommit.run(() -> send(message));
+    }
+
+    private void send(MosOutboundMessage message) {
+        deviceGateway.send(message).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.error("Failed to push MOS message for RO ID {} to devices: {}", message.roId(), error.getMessage());
+            }
+        });
+    }
+}
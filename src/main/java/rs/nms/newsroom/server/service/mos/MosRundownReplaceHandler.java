@@ -0,0 +1,163 @@
+package rs.nms.newsroom.server.service.mos;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import rs.nms.newsroom.server.domain.MosRoMessage;
+import rs.nms.newsroom.server.domain.Story;
+import rs.nms.newsroom.server.dto.mos.RoReplaceMessage;
+import rs.nms.newsroom.server.mos.diff.MosRundownDiff;
+import rs.nms.newsroom.server.mos.diff.MosRundownDiffEngine;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex.RundownRef;
+import rs.nms.newsroom.server.repository.MosRoMessageRepository;
+import rs.nms.newsroom.server.repository.RundownRepository;
+import rs.nms.newsroom.server.repository.StoryRepository;
+import rs.nms.newsroom.server.service.MosRoMessageService;
+import rs.nms.newsroom.server.service.helper.StoryDeleter;
+import rs.nms.newsroom.server.websocket.MosRoWebSocketBroadcaster;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Applies a roReplace message as an incremental update of the rundown's stories.
+ * <p>
+ * The persisted stories are compared with the message's story list by the
+ * {@link MosRundownDiffEngine}; only inserted, moved, renamed and deleted stories are written,
+ * and a single {@code RUNDOWN_DELTA} event is sent to {@code /topic/mos/rundown} after commit
+ * instead of a full replace. Deleted stories go through {@link StoryDeleter}, so they get a version
+ * snapshot and a story log entry like any other delete. If the running order has no rundown yet, the message is handled by
+ * {@link MosRoMessageService} as before.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MosRundownReplaceHandler {
+
+    private final MosExternalIdIndex externalIdIndex;
+    private final MosStoryLookup storyLookup;
+    private final MosRoMessageService mosRoMessageService;
+    private final MosRoMessageRepository mosRoMessageRepository;
+    private final RundownRepository rundownRepository;
+    private final StoryRepository storyRepository;
+    private final StoryDeleter storyDeleter;
+    private final MosStoryAuthor storyAuthor;
+    private final MosRoWebSocketBroadcaster webSocketBroadcaster;
+
+    @Transactional
+    public void handle(RoReplaceMessage message) {
+        Optional<RundownRef> found = externalIdIndex.findRundown(message.getRoID());
+        if (found.isEmpty()) {
+            mosRoMessageService.replaceFromRoReplace(message);
+            return;
+        }
+        RundownRef rundown = found.get();
+        saveRoMessage(message);
+
+        List<Story> current = storyLookup.findByRundown(rundown.id());
+        MosRundownDiff diff = MosRundownDiffEngine.diff(current, message.getStories());
+        log.debug("roReplace for RO ID {}: {} inserted, {} moved, {} updated, {} deleted, {} reordered",
+                message.getRoID(), diff.inserted().size(), diff.moved().size(), diff.updated().size(),
+                diff.deleted().size(), diff.orders().size());
+
+        Map<String, Story> stories = new HashMap<>();
+        Map<Long, Story> anchors = new HashMap<>();
+        for (Story story : current) {
+            if (story.getExternalId() != null) {
+                stories.put(story.getExternalId(), story);
+            } else {
+                anchors.put(story.getId(), story);
+            }
+        }
+        Map<String, Long> insertedIds = apply(diff, rundown, stories);
+        diff.anchorOrders().forEach((id, order) -> anchors.get(id).setOrder(order));
+
+        if (!diff.isEmpty()) {
+            Map<String, Object> payload = toPayload(message, rundown, diff, insertedIds);
+            AfterCommit.run(() -> webSocketBroadcaster.broadcastGeneric("/topic/mos/rundown", payload));
+        }
+    }
+
+    /**
+     * Keeps the running order record listed by {@code /mos/ro} in sync without broadcasting it.
+     */
+    private void saveRoMessage(RoReplaceMessage message) {
+        MosRoMessage roMessage = mosRoMessageRepository.findByRoId(message.getRoID()).orElseGet(() -> {
+            MosRoMessage created = new MosRoMessage();
+            created.setRoId(message.getRoID());
+            return created;
+        });
+        roMessage.setSlug(message.getSlug());
+        roMessage.setMeta(message.getMosExternalMeta());
+        roMessage.setReceivedAt(LocalDateTime.now());
+        mosRoMessageRepository.save(roMessage);
+    }
+
+    /**
+     * Writes the diff; unchanged stories are not touched, so dirty checking only flushes changed rows.
+     *
+     * @return database IDs of the inserted stories by external ID
+     */
+    private Map<String, Long> apply(MosRundownDiff diff, RundownRef rundown, Map<String, Story> stories) {
+        for (String storyId : diff.deleted()) {
+            storyDeleter.delete(stories.remove(storyId).getId());
+        }
+        for (MosRundownDiff.Update update : diff.updated()) {
+            stories.get(update.storyId()).setTitle(update.slug());
+        }
+
+        Map<String, Long> insertedIds = new HashMap<>();
+        if (!diff.inserted().isEmpty()) {
+            // A story ID may already belong to another rundown; external IDs are unique, so it is moved here.
+            Map<String, Story> elsewhere = storyLookup.findByExternalIds(
+                    diff.inserted().stream().map(MosRundownDiff.Insert::storyId).toList());
+            for (MosRundownDiff.Insert insert : diff.inserted()) {
+                Story story = Optional.ofNullable(elsewhere.get(insert.storyId())).orElseGet(() -> {
+                    Story created = new Story();
+                    created.setExternalId(insert.storyId());
+                    created.setCreatedAt(LocalDateTime.now());
+                    created.setClientId(rundown.clientId());
+                    created.setAuthor(storyAuthor.get());
+                    return created;
+                });
+                story.setTitle(insert.slug());
+                story.setRundown(rundownRepository.getReferenceById(rundown.id()));
+                story.setOrder(diff.orders().get(insert.storyId()));
+                story = storyRepository.save(story);
+                stories.put(insert.storyId(), story);
+                insertedIds.put(insert.storyId(), story.getId());
+            }
+        }
+
+        diff.orders().forEach((storyId, order) -> stories.get(storyId).setOrder(order));
+        return insertedIds;
+    }
+
+    private Map<String, Object> toPayload(RoReplaceMessage message, RundownRef rundown, MosRundownDiff diff,
+                                          Map<String, Long> insertedIds) {
+        List<Map<String, Object>> inserted = diff.inserted().stream().map(insert -> {
+            Map<String, Object> story = new HashMap<>();
+            story.put("storyId", insert.storyId());
+            story.put("slug", insert.slug());
+            story.put("position", insert.position());
+            story.put("storyDbId", insertedIds.get(insert.storyId()));
+            return story;
+        }).toList();
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("action", "RUNDOWN_DELTA");
+        payload.put("roId", message.getRoID());
+        payload.put("rundownId", rundown.id());
+        payload.put("deleted", diff.deleted());
+        payload.put("inserted", inserted);
+        payload.put("moved", diff.moved());
+        payload.put("updated", diff.updated());
+        return payload;
+    }
+}
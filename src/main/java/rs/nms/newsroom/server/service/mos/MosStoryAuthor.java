@@ -0,0 +1,46 @@
+package rs.nms.newsroom.server.service.mos;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.domain.User;
+
+/**
+ * Author of stories created from MOS messages, the user named by {@code mos.processing.story-author}.
+ * <p>
+ * The user ID is looked up once; afterwards the author is attached as a reference and is not loaded.
+ * </p>
+ */
+@Component
+public class MosStoryAuthor {
+
+    private final String username;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Long userId;
+
+    public MosStoryAuthor(MosProperties properties) {
+        this.username = properties.getProcessing().getStoryAuthor();
+    }
+
+    /**
+     * @return the author for a new story, as a reference in the current persistence context
+     * @throws IllegalStateException if the configured user does not exist
+     */
+    public User get() {
+        Long id = userId;
+        if (id == null) {
+            id = entityManager.createQuery("select u.id from User u where u.username = :username", Long.class)
+                    .setParameter("username", username)
+                    .getResultStream()
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "MOS story author '" + username + "' does not exist; create the user or set mos.processing.story-author"));
+            userId = id;
+        }
+        return entityManager.getReference(User.class, id);
+    }
+}
@@ -0,0 +1,100 @@
+package rs.nms.newsroom.server.service.mos;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import rs.nms.newsroom.server.domain.Story;
+import rs.nms.newsroom.server.dto.mos.*;
+import rs.nms.newsroom.server.exception.ResourceNotFoundException;
+import rs.nms.newsroom.server.mos.dispatch.MosBatchProcessor;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex.RundownRef;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+import rs.nms.newsroom.server.websocket.MosRoWebSocketBroadcaster;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Applies a burst of roStoryInsert and roStoryStatus messages for one rundown in a single transaction.
+ * <p>
+ * The rundown is resolved once from the {@link MosExternalIdIndex} and all referenced stories
+ * are loaded with one query; inserts and status changes reuse those entities. Other story
+ * operations are not batchable, so a batch ends before them and never sees a story they delete.
+ * Instead of one WebSocket event per message, a single {@code STORY_BATCH} event carrying the
+ * individual payloads is sent to {@code /topic/mos/story} once the transaction has committed;
+ * a batch that rolls back sends nothing.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MosStoryBatchProcessor implements MosBatchProcessor {
+
+    private final MosExternalIdIndex externalIdIndex;
+    private final MosStoryLookup storyLookup;
+    private final MosStoryInsertHandler insertHandler;
+    private final MosStoryStatusHandler statusHandler;
+    private final MosRoWebSocketBroadcaster webSocketBroadcaster;
+
+    @Override
+    @Transactional
+    public void process(String roId, List<MosMessage> messages) {
+        log.debug("Applying batch of {} roStory messages for RO ID {}", messages.size(), roId);
+
+        RundownRef rundown = externalIdIndex.findRundown(roId)
+                .orElseThrow(() -> new ResourceNotFoundException("Rundown not found for externalId: " + roId));
+        Map<String, Story> stories = storyLookup.findByExternalIds(referencedStoryIds(messages));
+
+        List<Map<String, Object>> events = new ArrayList<>();
+        for (MosMessage message : messages) {
+            switch (message.type()) {
+                case RO_STORY_INSERT -> {
+                    RoStoryInsertMessage insert = message.payloadAs(RoStoryInsertMessage.class);
+                    Story story = insertHandler.insert(insert, rundown, Optional.ofNullable(stories.get(insert.getStoryID())));
+                    stories.put(insert.getStoryID(), story);
+                    events.add(insertHandler.toPayload(insert, rundown, story));
+                }
+                case RO_STORY_STATUS -> {
+                    RoStoryStatusMessage status = message.payloadAs(RoStoryStatusMessage.class);
+                    Story story = Optional.ofNullable(stories.get(status.getStoryID()))
+                            .orElseThrow(() -> new ResourceNotFoundException("Story not found for externalId: " + status.getStoryID()));
+                    statusHandler.checkMembership(story.getRundown() != null ? story.getRundown().getId() : null, rundown);
+                    statusHandler.applyStatus(status, story);
+                    events.add(statusHandler.toPayload(status, story));
+                }
+                default -> throw new IllegalArgumentException("Not a batchable MOS story message: " + message.type());
+            }
+        }
+
+        if (!events.isEmpty()) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("action", "STORY_BATCH");
+            payload.put("roId", roId);
+            payload.put("rundownId", rundown.id());
+            payload.put("events", events);
+            AfterCommit.run(() -> webSocketBroadcaster.broadcastGeneric("/topic/mos/story", payload));
+        }
+    }
+
+    private Set<String> referencedStoryIds(List<MosMessage> messages) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (MosMessage message : messages) {
+            switch (message.type()) {
+                case RO_STORY_INSERT -> ids.add(message.payloadAs(RoStoryInsertMessage.class).getStoryID());
+                case RO_STORY_STATUS -> ids.add(message.payloadAs(RoStoryStatusMessage.class).getStoryID());
+                default -> {
+                    // Rejected by process().
+                }
+            }
+        }
+        ids.remove(null);
+        return ids;
+    }
+}
@@ -3,10 +3,12 @@ package rs.nms.newsroom.server.service.mos;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import rs.nms.newsroom.server.domain.Rundown;
+import org.springframework.transaction.annotation.Transactional;
 import rs.nms.newsroom.server.domain.Story;
 import rs.nms.newsroom.server.dto.mos.RoStoryInsertMessage;
 import rs.nms.newsroom.server.exception.ResourceNotFoundException;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex.RundownRef;
 import rs.nms.newsroom.server.repository.RundownRepository;
 import rs.nms.newsroom.server.repository.StoryRepository;
 import rs.nms.newsroom.server.websocket.MosRoWebSocketBroadcaster;
@@ -14,43 +16,62 @@ import rs.nms.newsroom.server.websocket.MosRoWebSocketBroadcaster;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class MosStoryInsertHandler {
 
+    private final MosExternalIdIndex externalIdIndex;
     private final RundownRepository rundownRepository;
     private final StoryRepository storyRepository;
+    private final MosStoryAuthor storyAuthor;
     private final MosRoWebSocketBroadcaster webSocketBroadcaster;
 
+    @Transactional
     public void handle(RoStoryInsertMessage message) {
-        log.info("Handling roStoryInsert: RO ID: {}, Story ID: {}, Slug: {}",
+        log.debug("Handling roStoryInsert: RO ID: {}, Story ID: {}, Slug: {}",
                 message.getRoID(), message.getStoryID(), message.getStorySlug());
 
-        Rundown rundown = rundownRepository.findByExternalId(message.getRoID())
+        RundownRef rundown = externalIdIndex.findRundown(message.getRoID())
                 .orElseThrow(() -> new ResourceNotFoundException("Rundown not found for externalId: " + message.getRoID()));
 
-        Story story = storyRepository.findByExternalId(message.getStoryID())
-                .orElseGet(() -> {
-                    Story newStory = new Story();
-                    newStory.setExternalId(message.getStoryID());
-                    newStory.setTitle(message.getStorySlug());
-                    newStory.setRundown(rundown);
-                    newStory.setCreatedAt(LocalDateTime.now());
-                    newStory.setClientId(rundown.getClientId());
-                    log.info("Created new Story with externalId: {}", message.getStoryID());
-                    return storyRepository.save(newStory);
-                });
+        Optional<Story> existing = externalIdIndex.findStory(message.getStoryID())
+                .map(ref -> storyRepository.getReferenceById(ref.id()));
+        Story story = insert(message, rundown, existing);
 
+        Map<String, Object> payload = toPayload(message, rundown, story);
+        AfterCommit.run(() -> webSocketBroadcaster.broadcastGeneric("/topic/mos/story", payload));
+    }
+
+    /**
+     * Returns the existing story or creates it in the given rundown. Used by
+     * {@link #handle} and by {@link MosStoryBatchProcessor} with pre-resolved entities.
+     * The rundown is attached as a reference and is not loaded.
+     */
+    Story insert(RoStoryInsertMessage message, RundownRef rundown, Optional<Story> existing) {
+        return existing.orElseGet(() -> {
+            Story newStory = new Story();
+            newStory.setExternalId(message.getStoryID());
+            newStory.setTitle(message.getStorySlug());
+            newStory.setRundown(rundownRepository.getReferenceById(rundown.id()));
+            newStory.setCreatedAt(LocalDateTime.now());
+            newStory.setClientId(rundown.clientId());
+            newStory.setAuthor(storyAuthor.get());
+            log.info("Created new Story with externalId: {}", message.getStoryID());
+            return storyRepository.save(newStory);
+        });
+    }
+
+    Map<String, Object> toPayload(RoStoryInsertMessage message, RundownRef rundown, Story story) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("action", "STORY_INSERT");
         payload.put("roId", message.getRoID());
         payload.put("storyId", message.getStoryID());
         payload.put("slug", message.getStorySlug());
-        payload.put("rundownId", rundown.getId());
+        payload.put("rundownId", rundown.id());
         payload.put("storyDbId", story.getId());
-
-        webSocketBroadcaster.broadcastGeneric("/topic/mos/story", payload);
+        return payload;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package rs.nms.newsroom.server.service.mos;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.domain.Story;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk story lookups used by MOS batch processing.
+ */
+@Component
+public class MosStoryLookup {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Loads all stories with the given external IDs in a single query.
+     *
+     * @param externalIds MOS story IDs
+     * @return stories keyed by external ID; IDs without a story are absent
+     */
+    public Map<String, Story> findByExternalIds(Collection<String> externalIds) {
+        Map<String, Story> stories = new HashMap<>();
+        if (externalIds.isEmpty()) {
+            return stories;
+        }
+        entityManager.createQuery("select s from Story s where s.externalId in :externalIds", Story.class)
+                .setParameter("externalIds", externalIds)
+                .getResultList()
+                .forEach(story -> stories.put(story.getExternalId(), story));
+        return stories;
+    }
+
+    /**
+     * Loads all stories of a rundown.
+     *
+     * @param rundownId rundown primary key
+     * @return stories ordered by {@code story_order}
+     */
+    public List<Story> findByRundown(Long rundownId) {
+        return entityManager.createQuery("select s from Story s where s.rundown.id = :rundownId order by s.order", Story.class)
+                .setParameter("rundownId", rundownId)
+                .getResultList();
+    }
+}
@@ -4,17 +4,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
-import rs.nms.newsroom.server.domain.Rundown;
 import rs.nms.newsroom.server.domain.Story;
 import rs.nms.newsroom.server.domain.enums.StoryStatus;
 import rs.nms.newsroom.server.dto.mos.RoStoryStatusMessage;
 import rs.nms.newsroom.server.exception.ResourceNotFoundException;
-import rs.nms.newsroom.server.repository.RundownRepository;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex.RundownRef;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex.StoryRef;
 import rs.nms.newsroom.server.repository.StoryRepository;
 import rs.nms.newsroom.server.websocket.MosRoWebSocketBroadcaster;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Slf4j
@@ -22,25 +24,44 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MosStoryStatusHandler {
 
-    private final RundownRepository rundownRepository;
+    private final MosExternalIdIndex externalIdIndex;
     private final StoryRepository storyRepository;
     private final MosRoWebSocketBroadcaster webSocketBroadcaster;
 
     @Transactional
     public void handle(RoStoryStatusMessage message) {
-        log.info("Handling roStoryStatus: RO ID: {}, Story ID: {}, Status: {}",
+        log.debug("Handling roStoryStatus: RO ID: {}, Story ID: {}, Status: {}",
                 message.getRoID(), message.getStoryID(), message.getStatus());
 
-        Rundown rundown = rundownRepository.findByExternalId(message.getRoID())
+        RundownRef rundown = externalIdIndex.findRundown(message.getRoID())
                 .orElseThrow(() -> new ResourceNotFoundException("Rundown not found for externalId: " + message.getRoID()));
 
-        Story story = storyRepository.findByExternalId(message.getStoryID())
+        StoryRef storyRef = externalIdIndex.findStory(message.getStoryID())
                 .orElseThrow(() -> new ResourceNotFoundException("Story not found for externalId: " + message.getStoryID()));
+        checkMembership(storyRef.rundownId(), rundown);
 
-        if (!story.getRundown().getId().equals(rundown.getId())) {
+        Story story = storyRepository.getReferenceById(storyRef.id());
+        applyStatus(message, story);
+
+        Map<String, Object> payload = toPayload(message, story);
+        AfterCommit.run(() -> webSocketBroadcaster.broadcastGeneric("/topic/mos/story", payload));
+    }
+
+    /**
+     * Rejects stories that belong to a different rundown, compared by ID so the
+     * lazy rundown association is never initialised.
+     */
+    void checkMembership(Long storyRundownId, RundownRef rundown) {
+        if (!Objects.equals(storyRundownId, rundown.id())) {
             throw new ResourceNotFoundException("Story does not belong to the given Rundown");
         }
+    }
 
+    /**
+     * Stores the new status. Used by {@link #handle} and by {@link MosStoryBatchProcessor}
+     * with pre-resolved entities.
+     */
+    void applyStatus(RoStoryStatusMessage message, Story story) {
         story.setStatus(
             Optional.ofNullable(message.getStatus())
                 .map(String::toUpperCase)
@@ -55,14 +76,15 @@ public class MosStoryStatusHandler {
                 .orElse(null)
         );
         storyRepository.save(story);
+    }
 
+    Map<String, Object> toPayload(RoStoryStatusMessage message, Story story) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("action", "STORY_STATUS");
         payload.put("roId", message.getRoID());
         payload.put("storyId", message.getStoryID());
         payload.put("status", message.getStatus());
         payload.put("storyDbId", story.getId());
-
-        webSocketBroadcaster.broadcastGeneric("/topic/mos/story", payload);
+        return payload;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traffic counters of one MOS connection, kept by {@link MosConnectionTracker}.
+ * <p>
+ * Reads are counted on the event loop, roAcks on the processing threads, so all counters are
+ * thread-safe. Timestamps are epoch milliseconds, zero if the event has not happened yet.
+ * </p>
+ */
+public class MosConnectionStats {
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String remote;
+    @Getter
+    private final Instant connectedAt;
+
+    private final AtomicLong framesIn = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong acksOut = new AtomicLong();
+    private final AtomicLong heartbeatsIn = new AtomicLong();
+    private final AtomicLong heartbeatsOut = new AtomicLong();
+    private final AtomicBoolean awaitingHeartbeat = new AtomicBoolean();
+    private volatile long lastReadAt;
+    private volatile long lastWriteAt;
+    private volatile Instant closedAt;
+    private volatile String closeReason;
+
+    MosConnectionStats(String id, String remote, Instant connectedAt) {
+        this.id = id;
+        this.remote = remote;
+        this.connectedAt = connectedAt;
+    }
+
+    void frameRead(int bytes) {
+        framesIn.incrementAndGet();
+        bytesIn.addAndGet(bytes);
+        lastReadAt = System.currentTimeMillis();
+    }
+
+    void ackSent() {
+        acksOut.incrementAndGet();
+        lastWriteAt = System.currentTimeMillis();
+    }
+
+    void heartbeatSent(boolean request) {
+        heartbeatsOut.incrementAndGet();
+        lastWriteAt = System.currentTimeMillis();
+        if (request) {
+            awaitingHeartbeat.set(true);
+        }
+    }
+
+    /**
+     * @return {@code true} if the heartbeat is a request to be answered, {@code false} if it
+     * answers one we sent
+     */
+    boolean heartbeatReceived() {
+        heartbeatsIn.incrementAndGet();
+        return !awaitingHeartbeat.compareAndSet(true, false);
+    }
+
+    /**
+     * Records why the server is closing the connection; the first reason wins.
+     */
+    void closing(String reason) {
+        if (closeReason == null) {
+            closeReason = reason;
+        }
+    }
+
+    void closed(Instant at) {
+        closing("disconnected");
+        closedAt = at;
+    }
+
+    public long getFramesIn() {
+        return framesIn.get();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    public long getAcksOut() {
+        return acksOut.get();
+    }
+
+    public long getHeartbeatsIn() {
+        return heartbeatsIn.get();
+    }
+
+    public long getHeartbeatsOut() {
+        return heartbeatsOut.get();
+    }
+
+    public long getLastReadAt() {
+        return lastReadAt;
+    }
+
+    public long getLastWriteAt() {
+        return lastWriteAt;
+    }
+
+    /**
+     * @return close time, or {@code null} while the connection is open
+     */
+    public Instant getClosedAt() {
+        return closedAt;
+    }
+
+    /**
+     * @return {@code idle}, {@code error} or {@code disconnected} (closed by the device or on
+     * shutdown); {@code null} while the connection is open
+     */
+    public String getCloseReason() {
+        return closedAt != null ? closeReason : null;
+    }
+}
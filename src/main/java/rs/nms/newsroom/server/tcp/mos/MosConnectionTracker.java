@@ -0,0 +1,120 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelId;
+import io.netty.util.AttributeKey;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@link MosConnectionStats} for every open MOS connection and for the most recently closed
+ * ones.
+ * <p>
+ * Stats live in a channel attribute while the connection is open and move to a bounded history
+ * when it closes, so devices that reconnect constantly (e.g. during rehearsals) do not grow memory.
+ * All methods accept channels that were never registered and then do nothing.
+ * </p>
+ */
+@Component
+public class MosConnectionTracker {
+
+    static final AttributeKey<MosConnectionStats> STATS = AttributeKey.valueOf("mos.stats");
+
+    private final Map<ChannelId, MosConnectionStats> active = new ConcurrentHashMap<>();
+    private final Deque<MosConnectionStats> closed = new ArrayDeque<>();
+    private final int history;
+
+    public MosConnectionTracker(MosProperties mosProperties) {
+        this.history = Math.max(0, mosProperties.getTcp().getClosedConnectionHistory());
+    }
+
+    void opened(Channel channel) {
+        MosConnectionStats stats = new MosConnectionStats(channel.id().asShortText(),
+                String.valueOf(channel.remoteAddress()), Instant.now());
+        channel.attr(STATS).set(stats);
+        active.put(channel.id(), stats);
+    }
+
+    void closed(Channel channel) {
+        MosConnectionStats stats = active.remove(channel.id());
+        if (stats == null) {
+            return;
+        }
+        stats.closed(Instant.now());
+        synchronized (closed) {
+            closed.addFirst(stats);
+            while (closed.size() > history) {
+                closed.removeLast();
+            }
+        }
+    }
+
+    void frameRead(Channel channel, int bytes) {
+        MosConnectionStats stats = channel.attr(STATS).get();
+        if (stats != null) {
+            stats.frameRead(bytes);
+        }
+    }
+
+    void ackSent(Channel channel) {
+        MosConnectionStats stats = channel.attr(STATS).get();
+        if (stats != null) {
+            stats.ackSent();
+        }
+    }
+
+    /**
+     * @param request {@code true} if the device is expected to answer
+     */
+    void heartbeatSent(Channel channel, boolean request) {
+        MosConnectionStats stats = channel.attr(STATS).get();
+        if (stats != null) {
+            stats.heartbeatSent(request);
+        }
+    }
+
+    /**
+     * @return {@code true} if the heartbeat must be answered, {@code false} if it answers ours
+     */
+    boolean heartbeatReceived(Channel channel) {
+        MosConnectionStats stats = channel.attr(STATS).get();
+        return stats == null || stats.heartbeatReceived();
+    }
+
+    /**
+     * Records why the server is about to close the connection.
+     */
+    void closing(Channel channel, String reason) {
+        MosConnectionStats stats = channel.attr(STATS).get();
+        if (stats != null) {
+            stats.closing(reason);
+        }
+    }
+
+    /**
+     * @return stats of all open connections, oldest first
+     */
+    public List<MosConnectionStats> active() {
+        return active.values().stream()
+                .sorted(Comparator.comparing(MosConnectionStats::getConnectedAt))
+                .toList();
+    }
+
+    /**
+     * @return stats of recently closed connections, most recently closed first
+     */
+    public List<MosConnectionStats> recentlyClosed() {
+        synchronized (closed) {
+            return new ArrayList<>(closed);
+        }
+    }
+}
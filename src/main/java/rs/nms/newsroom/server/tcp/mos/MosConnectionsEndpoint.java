@@ -0,0 +1,50 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/mosconnections}) listing open MOS connections and the most
+ * recently closed ones with their traffic counters.
+ */
+@Component
+@Endpoint(id = "mosconnections")
+@RequiredArgsConstructor
+public class MosConnectionsEndpoint {
+
+    private final MosConnectionTracker connectionTracker;
+
+    @ReadOperation
+    public ConnectionsView connections() {
+        return new ConnectionsView(
+                connectionTracker.active().stream().map(ConnectionView::of).toList(),
+                connectionTracker.recentlyClosed().stream().map(ConnectionView::of).toList());
+    }
+
+    public record ConnectionsView(List<ConnectionView> active, List<ConnectionView> recentlyClosed) {
+    }
+
+    /**
+     * JSON view of {@link MosConnectionStats}.
+     */
+    public record ConnectionView(String id, String remote, Instant connectedAt, Instant closedAt, String closeReason,
+                                 long framesIn, long bytesIn, long acksOut, long heartbeatsIn, long heartbeatsOut,
+                                 Instant lastReadAt, Instant lastWriteAt) {
+
+        static ConnectionView of(MosConnectionStats stats) {
+            return new ConnectionView(stats.getId(), stats.getRemote(), stats.getConnectedAt(), stats.getClosedAt(),
+                    stats.getCloseReason(), stats.getFramesIn(), stats.getBytesIn(), stats.getAcksOut(),
+                    stats.getHeartbeatsIn(), stats.getHeartbeatsOut(),
+                    instant(stats.getLastReadAt()), instant(stats.getLastWriteAt()));
+        }
+
+        private static Instant instant(long epochMillis) {
+            return epochMillis > 0 ? Instant.ofEpochMilli(epochMillis) : null;
+        }
+    }
+}
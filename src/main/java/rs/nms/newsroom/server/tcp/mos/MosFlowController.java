@@ -0,0 +1,145 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.config.mos.MosProperties.OverloadPolicy;
+import rs.nms.newsroom.server.mos.dispatch.MosRundownSequencer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backpressure for MOS connections.
+ * <p>
+ * Counts the messages of each connection that are queued or processing and the total backlog of
+ * the {@link MosRundownSequencer}. When a limit is exceeded the connection either stops reading
+ * ({@link OverloadPolicy#PAUSE}, so TCP flow control slows the device down) or has its excess
+ * messages rejected ({@link OverloadPolicy#REJECT}). Reading also pauses while the connection is
+ * not writable, i.e. the device does not consume its roAcks. Reading resumes once the backlog has
+ * dropped to half of the limit.
+ * </p>
+ * All autoRead changes happen on the channel's event loop.
+ */
+@Slf4j
+@Component
+public class MosFlowController {
+
+    private static final AttributeKey<AtomicInteger> INFLIGHT = AttributeKey.valueOf("mos.inflight");
+
+    private final MosRundownSequencer rundownSequencer;
+    private final int maxInflight;
+    private final int maxPending;
+    private final OverloadPolicy policy;
+
+    /** Connections paused by this controller, resumed as processing catches up. */
+    private final Set<Channel> paused = ConcurrentHashMap.newKeySet();
+
+    public MosFlowController(MosRundownSequencer rundownSequencer, MosProperties mosProperties) {
+        MosProperties.FlowControl flowControl = mosProperties.getTcp().getFlowControl();
+        this.rundownSequencer = rundownSequencer;
+        this.maxInflight = Math.max(1, flowControl.getMaxInflightPerConnection());
+        this.maxPending = Math.max(1, flowControl.getMaxPendingMessages());
+        this.policy = flowControl.getOnOverload();
+    }
+
+    /**
+     * Registers a message received on the channel. Called on the event loop.
+     *
+     * @return {@code false} if the message must be rejected as busy; it is then not counted
+     */
+    public boolean tryAcquire(Channel channel) {
+        AtomicInteger inflight = inflight(channel);
+        if (policy == OverloadPolicy.REJECT
+                && (inflight.get() >= maxInflight || rundownSequencer.pendingCount() >= maxPending)) {
+            return false;
+        }
+        inflight.incrementAndGet();
+        updateAutoRead(channel);
+        return true;
+    }
+
+    /**
+     * Marks a message acquired on the channel as processed. May be called from any thread.
+     */
+    public void release(Channel channel) {
+        inflight(channel).decrementAndGet();
+        if (!paused.isEmpty()) {
+            // The global backlog shrank too, which may unblock other connections.
+            paused.forEach(this::scheduleUpdate);
+        }
+    }
+
+    /**
+     * Re-evaluates the channel after its writability changed. Called on the event loop.
+     */
+    public void writabilityChanged(Channel channel) {
+        updateAutoRead(channel);
+    }
+
+    /**
+     * Forgets a closed channel.
+     */
+    public void unregister(Channel channel) {
+        paused.remove(channel);
+    }
+
+    private void scheduleUpdate(Channel channel) {
+        if (channel.eventLoop().inEventLoop()) {
+            updateAutoRead(channel);
+        } else {
+            channel.eventLoop().execute(() -> updateAutoRead(channel));
+        }
+    }
+
+    private void updateAutoRead(Channel channel) {
+        if (!channel.isActive()) {
+            paused.remove(channel);
+            return;
+        }
+        int inflight = inflight(channel).get();
+        int pending = rundownSequencer.pendingCount();
+        boolean autoRead = channel.config().isAutoRead();
+
+        if (autoRead && overloaded(channel, inflight, pending)) {
+            channel.config().setAutoRead(false);
+            paused.add(channel);
+            log.warn("MOS connection {} paused: {} in flight, {} pending, writable={}",
+                    channel.remoteAddress(), inflight, pending, channel.isWritable());
+        } else if (!autoRead && paused.contains(channel) && recovered(channel, inflight, pending)) {
+            paused.remove(channel);
+            channel.config().setAutoRead(true);
+            log.info("MOS connection {} resumed: {} in flight, {} pending",
+                    channel.remoteAddress(), inflight, pending);
+        }
+    }
+
+    private boolean overloaded(Channel channel, int inflight, int pending) {
+        if (!channel.isWritable()) {
+            return true;
+        }
+        return policy == OverloadPolicy.PAUSE && (inflight >= maxInflight || pending >= maxPending);
+    }
+
+    private boolean recovered(Channel channel, int inflight, int pending) {
+        if (!channel.isWritable()) {
+            return false;
+        }
+        return policy == OverloadPolicy.REJECT || (inflight <= maxInflight / 2 && pending <= maxPending / 2);
+    }
+
+    private static AtomicInteger inflight(Channel channel) {
+        AtomicInteger counter = channel.attr(INFLIGHT).get();
+        if (counter == null) {
+            AtomicInteger created = new AtomicInteger();
+            counter = channel.attr(INFLIGHT).setIfAbsent(created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+}
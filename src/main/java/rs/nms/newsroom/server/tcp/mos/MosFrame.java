@@ -0,0 +1,65 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.DefaultByteBufHolder;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * One complete MOS message ({@code <mos>...</mos>}) as received on the wire.
+ * <p>
+ * Holds a retained slice of the inbound buffer plus the encoding the device uses,
+ * so the message can be parsed without first decoding it to a String.
+ * </p>
+ */
+public class MosFrame extends DefaultByteBufHolder {
+
+    private final Charset charset;
+
+    public MosFrame(ByteBuf content, Charset charset) {
+        super(content);
+        this.charset = charset;
+    }
+
+    /**
+     * @return encoding of the frame (UTF-8 or UTF-16BE)
+     */
+    public Charset charset() {
+        return charset;
+    }
+
+    /**
+     * @return a stream over the frame bytes that does not consume the underlying buffer
+     */
+    public InputStream openStream() {
+        return new ByteBufInputStream(content().duplicate());
+    }
+
+    /**
+     * Decodes the frame to text. Intended for diagnostics only.
+     *
+     * @return the frame content as String
+     */
+    public String asText() {
+        return content().toString(charset);
+    }
+
+    @Override
+    public MosFrame replace(ByteBuf content) {
+        return new MosFrame(content, charset);
+    }
+
+    @Override
+    public MosFrame retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public MosFrame touch(Object hint) {
+        super.touch(hint);
+        return this;
+    }
+}
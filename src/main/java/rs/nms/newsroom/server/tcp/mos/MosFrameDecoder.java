@@ -0,0 +1,184 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.AttributeKey;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Splits the inbound MOS byte stream into complete {@code <mos>...</mos>} messages.
+ * <p>
+ * The {@code </mos>} boundary is located directly in the cumulation buffer and each frame
+ * is emitted as a retained slice, so no intermediate Strings are created. The encoding is
+ * detected from the first bytes of the connection: MOS devices send UCS-2/UTF-16BE
+ * (optionally with a BOM), while some gateways use UTF-8. Frames larger than the
+ * connection's limit are discarded up to the next boundary and reported with a
+ * {@link TooLongFrameException}; the connection itself stays open.
+ * </p>
+ * Not sharable: one instance per channel.
+ */
+public class MosFrameDecoder extends ByteToMessageDecoder {
+
+    /**
+     * Encoding detected for the connection, for use by outbound encoders.
+     */
+    public static final AttributeKey<Charset> CHARSET = AttributeKey.valueOf("mos.charset");
+
+    private static final String TERMINATOR = "</mos>";
+    private static final byte TERMINATOR_LAST_BYTE = '>';
+
+    private final int maxFrameLength;
+
+    private Charset charset;
+    private byte[] terminator;
+    private int unitSize;
+
+    /** Bytes after the reader index already searched for a boundary. */
+    private int scanned;
+    private boolean discarding;
+    private long discardedBytes;
+
+    public MosFrameDecoder(int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("maxFrameLength must be positive: " + maxFrameLength);
+        }
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        if (charset == null && !detectCharset(ctx, in)) {
+            return;
+        }
+
+        while (true) {
+            if (!discarding && scanned == 0) {
+                skipInterFrameWhitespace(in);
+            }
+            if (!in.isReadable()) {
+                return;
+            }
+
+            int boundary = findTerminator(in);
+            if (boundary < 0) {
+                if (in.readableBytes() > maxFrameLength) {
+                    discardIncomplete(in);
+                }
+                return;
+            }
+
+            int frameLength = boundary + terminator.length - in.readerIndex();
+            scanned = 0;
+
+            if (discarding || frameLength > maxFrameLength) {
+                long dropped = discardedBytes + frameLength;
+                in.skipBytes(frameLength);
+                discarding = false;
+                discardedBytes = 0;
+                ctx.fireExceptionCaught(new TooLongFrameException(
+                        "MOS message of " + dropped + " bytes exceeds limit of " + maxFrameLength + " bytes - discarded"));
+                continue;
+            }
+
+            out.add(new MosFrame(in.retainedSlice(in.readerIndex(), frameLength), charset));
+            in.skipBytes(frameLength);
+        }
+    }
+
+    /**
+     * Detects UTF-16BE ({@code 00 3C} or BOM {@code FE FF}) versus UTF-8 from the first two bytes.
+     */
+    private boolean detectCharset(ChannelHandlerContext ctx, ByteBuf in) {
+        if (in.readableBytes() < 2) {
+            return false;
+        }
+        int first = in.getUnsignedByte(in.readerIndex());
+        int second = in.getUnsignedByte(in.readerIndex() + 1);
+
+        if (first == 0xFE && second == 0xFF) {
+            in.skipBytes(2);
+            useCharset(StandardCharsets.UTF_16BE);
+        } else if (first == 0x00 && second != 0x00) {
+            useCharset(StandardCharsets.UTF_16BE);
+        } else {
+            useCharset(StandardCharsets.UTF_8);
+        }
+        ctx.channel().attr(CHARSET).set(charset);
+        return true;
+    }
+
+    private void useCharset(Charset detected) {
+        this.charset = detected;
+        this.terminator = TERMINATOR.getBytes(detected);
+        this.unitSize = StandardCharsets.UTF_16BE.equals(detected) ? 2 : 1;
+    }
+
+    /**
+     * Returns the absolute index of the first {@code </mos>} boundary, aligned to the code unit size,
+     * or -1. Every {@code '>'} before the writer index is checked only once across invocations.
+     */
+    private int findTerminator(ByteBuf in) {
+        int readerIndex = in.readerIndex();
+        int writerIndex = in.writerIndex();
+        int from = readerIndex + scanned;
+
+        while (from < writerIndex) {
+            int last = in.indexOf(from, writerIndex, TERMINATOR_LAST_BYTE);
+            if (last < 0) {
+                break;
+            }
+            int start = last - terminator.length + 1;
+            if (start >= readerIndex && (start - readerIndex) % unitSize == 0 && matchesTerminator(in, start)) {
+                return start;
+            }
+            from = last + 1;
+        }
+        scanned = writerIndex - readerIndex;
+        return -1;
+    }
+
+    private boolean matchesTerminator(ByteBuf in, int start) {
+        for (int i = 0; i < terminator.length; i++) {
+            if (in.getByte(start + i) != terminator[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the oversized partial frame but keeps enough trailing bytes to recognise a boundary
+     * that is split across reads.
+     */
+    private void discardIncomplete(ByteBuf in) {
+        int keep = terminator.length - 1;
+        int discard = in.readableBytes() - keep;
+        discard -= discard % unitSize;
+        in.skipBytes(discard);
+        discardedBytes += discard;
+        discarding = true;
+        scanned = in.readableBytes();
+    }
+
+    /**
+     * Skips CR/LF, blanks and NUL padding that devices send between messages.
+     */
+    private void skipInterFrameWhitespace(ByteBuf in) {
+        while (in.readableBytes() >= unitSize) {
+            int index = in.readerIndex();
+            if (unitSize == 2 && in.getByte(index) != 0) {
+                return;
+            }
+            byte value = in.getByte(index + unitSize - 1);
+            if (value != '\r' && value != '\n' && value != ' ' && value != '\t' && value != 0) {
+                return;
+            }
+            in.skipBytes(unitSize);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+/**
+ * Outbound roAck acknowledgment, serialized by {@link MosRoAckEncoder}.
+ *
+ * @param roId    running order ID being acknowledged
+ * @param success {@code true} for status OK, {@code false} for ERROR
+ * @param message human-readable status message
+ */
+public record MosRoAck(String roId, boolean success, String message) {
+}
@@ -0,0 +1,123 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes {@link MosRoAck} messages in the connection's encoding.
+ * <p>
+ * The static XML around the dynamic fields is encoded once per charset into read-only
+ * buffers and copied into the pooled output buffer; only {@code roID} and the message
+ * text are escaped and encoded per acknowledgment. Pair with a flush consolidation
+ * handler so acks produced in one read cycle go out in a single flush.
+ * </p>
+ */
+@ChannelHandler.Sharable
+public class MosRoAckEncoder extends MessageToByteEncoder<MosRoAck> {
+
+    private static final AckTemplate UTF_8 = new AckTemplate(StandardCharsets.UTF_8);
+    private static final AckTemplate UTF_16BE = new AckTemplate(StandardCharsets.UTF_16BE);
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, MosRoAck ack, ByteBuf out) {
+        AckTemplate template = StandardCharsets.UTF_16BE.equals(ctx.channel().attr(MosFrameDecoder.CHARSET).get())
+                ? UTF_16BE : UTF_8;
+
+        write(out, template.prefix);
+        template.writeEscaped(out, ack.roId());
+        write(out, ack.success() ? template.statusOk : template.statusError);
+        template.writeEscaped(out, ack.message());
+        write(out, template.suffix);
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, MosRoAck ack, boolean preferDirect) {
+        int dynamicChars = length(ack.roId()) + length(ack.message());
+        int estimate = UTF_16BE.staticLength + dynamicChars * 3;
+        return preferDirect ? ctx.alloc().ioBuffer(estimate) : ctx.alloc().heapBuffer(estimate);
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static void write(ByteBuf out, ByteBuf segment) {
+        out.writeBytes(segment, segment.readerIndex(), segment.readableBytes());
+    }
+
+    /**
+     * Pre-encoded static segments and entity references for one charset.
+     */
+    private static final class AckTemplate {
+        private final boolean utf16;
+        private final ByteBuf prefix;
+        private final ByteBuf statusOk;
+        private final ByteBuf statusError;
+        private final ByteBuf suffix;
+        private final ByteBuf lt;
+        private final ByteBuf gt;
+        private final ByteBuf amp;
+        private final int staticLength;
+
+        private AckTemplate(Charset charset) {
+            this.utf16 = StandardCharsets.UTF_16BE.equals(charset);
+            this.prefix = constant("<mos><roAck><roID>", charset);
+            this.statusOk = constant("</roID><status>OK</status><message>", charset);
+            this.statusError = constant("</roID><status>ERROR</status><message>", charset);
+            this.suffix = constant("</message></roAck></mos>\r\n", charset);
+            this.lt = constant("&lt;", charset);
+            this.gt = constant("&gt;", charset);
+            this.amp = constant("&amp;", charset);
+            this.staticLength = prefix.readableBytes() + statusError.readableBytes() + suffix.readableBytes();
+        }
+
+        private static ByteBuf constant(String text, Charset charset) {
+            byte[] bytes = text.getBytes(charset);
+            return Unpooled.unreleasableBuffer(Unpooled.directBuffer(bytes.length).writeBytes(bytes).asReadOnly());
+        }
+
+        /**
+         * Writes {@code value} with XML special characters escaped, encoding unescaped runs in bulk.
+         */
+        private void writeEscaped(ByteBuf out, String value) {
+            if (value == null) {
+                return;
+            }
+            int runStart = 0;
+            for (int i = 0; i < value.length(); i++) {
+                ByteBuf entity = switch (value.charAt(i)) {
+                    case '<' -> lt;
+                    case '>' -> gt;
+                    case '&' -> amp;
+                    default -> null;
+                };
+                if (entity != null) {
+                    writeRun(out, value, runStart, i);
+                    write(out, entity);
+                    runStart = i + 1;
+                }
+            }
+            writeRun(out, value, runStart, value.length());
+        }
+
+        private void writeRun(ByteBuf out, String value, int start, int end) {
+            if (start >= end) {
+                return;
+            }
+            if (utf16) {
+                for (int i = start; i < end; i++) {
+                    out.writeChar(value.charAt(i));
+                }
+            } else {
+                ByteBufUtil.writeUtf8(out, value, start, end);
+            }
+        }
+    }
+}
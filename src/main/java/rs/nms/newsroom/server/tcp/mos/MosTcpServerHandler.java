@@ -1,194 +1,269 @@
 package rs.nms.newsroom.server.tcp.mos;
 
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.AttributeKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import rs.nms.newsroom.server.dto.mos.*;
-import rs.nms.newsroom.server.mos.builder.MosRoAckBuilder;
-import rs.nms.newsroom.server.mos.parser.MosXmlParser;
-import rs.nms.newsroom.server.service.MosRoMessageService;
-import rs.nms.newsroom.server.service.MosStoryMessageService;
-
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.mos.builder.MosMessageBuilder;
+import rs.nms.newsroom.server.mos.dedup.MosDedupCache;
+import rs.nms.newsroom.server.mos.dispatch.MosMessageRegistry;
+import rs.nms.newsroom.server.mos.dispatch.MosMessageRoute;
+import rs.nms.newsroom.server.mos.dispatch.MosRundownSequencer;
+import rs.nms.newsroom.server.mos.journal.MosFailures;
+import rs.nms.newsroom.server.mos.journal.MosJournal;
+import rs.nms.newsroom.server.mos.metrics.MosMetrics;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+import rs.nms.newsroom.server.mos.parser.MosStreamParser;
+import rs.nms.newsroom.server.mos.traffic.MosTrafficLog;
+
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Component
 @ChannelHandler.Sharable
 @RequiredArgsConstructor
-public class MosTcpServerHandler extends SimpleChannelInboundHandler<String> {
-
-    private final MosRoMessageService mosRoMessageService;
-    private final MosStoryMessageService mosStoryMessageService;
+public class MosTcpServerHandler extends SimpleChannelInboundHandler<MosFrame> {
+
+    /**
+     * {@code mosID} the device last sent on the connection, echoed in our heartbeats.
+     */
+    private static final AttributeKey<String> MOS_ID = AttributeKey.valueOf("mos.mosId");
+    private static final AttributeKey<AtomicLong> MESSAGE_ID = AttributeKey.valueOf("mos.messageId");
+
+    private final MosMessageRegistry messageRegistry;
+    private final MosRundownSequencer rundownSequencer;
+    private final MosFlowController flowController;
+    private final MosMetrics metrics;
+    private final MosTrafficLog trafficLog;
+    private final MosJournal journal;
+    private final MosConnectionTracker connectionTracker;
+    private final MosDedupCache dedupCache;
+    private final MosProperties mosProperties;
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, String msg) {
-        log.info("MOS TCP received message:\n{}", msg);
-
-        if (!msg.contains("<mos>")) {
-            log.warn("Received message is not MOS XML.");
+    protected void channelRead0(ChannelHandlerContext ctx, MosFrame frame) {
+        long received = System.nanoTime();
+        metrics.frameReceived(frame.content().readableBytes());
+        connectionTracker.frameRead(ctx.channel(), frame.content().readableBytes());
+
+        Optional<MosMessage> parsed = MosStreamParser.parse(frame.openStream(), frame.charset());
+        metrics.parsed(parsed.map(MosMessage::type).orElse(null), System.nanoTime() - received);
+        trafficLog.inbound(ctx.channel(), frame, parsed.orElse(null));
+        if (parsed.isEmpty()) {
+            log.warn("Unsupported or unrecognized MOS message.");
+            metrics.error(null, "unparsable");
             return;
         }
 
-        log.info("MOS XML detected.");
-
-        Optional<String> roCreateBlock = MosXmlParser.extractRoCreate(msg);
-        if (roCreateBlock.isPresent()) {
-            log.info("roCreate block detected.");
-            RoCreateMessage roCreate = MosXmlParser.parseRoCreate(roCreateBlock.get());
-            log.info("Parsed roCreate:\nRO ID: {}\nSlug: {}\nMeta: {}",
-                    roCreate.getRoID(), roCreate.getSlug(), roCreate.getMosExternalMeta());
-
-            mosRoMessageService.saveFromRoCreate(roCreate);
-
-            String ackXml = MosRoAckBuilder.build(roCreate.getRoID(), true, "roCreate received successfully");
-            ctx.writeAndFlush(ackXml + "\r\n");
-            return;
+        MosMessage message = parsed.get();
+        if (message.mosId() != null) {
+            ctx.channel().attr(MOS_ID).set(message.mosId());
         }
-
-        Optional<String> roUpdateBlock = MosXmlParser.extractRoUpdate(msg);
-        if (roUpdateBlock.isPresent()) {
-            log.info("roUpdate block detected.");
-            RoUpdateMessage update = MosXmlParser.parseRoUpdate(roUpdateBlock.get());
-            log.info("Parsed roUpdate:\nRO ID: {}\nNew Slug: {}\nNew Meta: {}",
-                    update.getRoID(), update.getNewSlug(), update.getNewMosExternalMeta());
-
-            mosRoMessageService.updateFromRoUpdate(update);
-
-            String ackXml = MosRoAckBuilder.build(update.getRoID(), true, "roUpdate processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
+        if (message.type() == MosMessageType.HEARTBEAT) {
+            if (connectionTracker.heartbeatReceived(ctx.channel())) {
+                sendHeartbeat(ctx, false);
+            }
             return;
         }
 
-        Optional<String> roDeleteBlock = MosXmlParser.extractRoDelete(msg);
-        if (roDeleteBlock.isPresent()) {
-            log.info("roDelete block detected.");
-            RoDeleteMessage roDelete = MosXmlParser.parseRoDelete(roDeleteBlock.get());
-            log.info("Parsed roDelete: RO ID: {}", roDelete.getRoID());
-
-            mosRoMessageService.deleteByRoId(roDelete.getRoID());
-
-            String ackXml = MosRoAckBuilder.build(roDelete.getRoID(), true, "roDelete processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
+        Optional<MosMessageRoute<?>> route = messageRegistry.find(message.type());
+        if (route.isEmpty()) {
+            log.warn("No MOS handler registered for {}.", message.type().getElementName());
+            metrics.error(message.type(), "unrouted");
             return;
         }
 
-        Optional<String> roReplaceBlock = MosXmlParser.extractRoReplace(msg);
-        if (roReplaceBlock.isPresent()) {
-            log.info("roReplace block detected.");
-            RoReplaceMessage roReplace = MosXmlParser.parseRoReplace(roReplaceBlock.get());
-            log.info("Parsed roReplace:\nRO ID: {}\nSlug: {}\nMeta: {}",
-                    roReplace.getRoID(), roReplace.getSlug(), roReplace.getMosExternalMeta());
-
-            mosRoMessageService.replaceFromRoReplace(roReplace);
-
-            String ackXml = MosRoAckBuilder.build(roReplace.getRoID(), true, "roReplace processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
+        MosMessageRoute<?> handler = route.get();
+        MosDedupCache.Claim claim = dedupCache.claim(MosDedupCache.key(message, frame.content()));
+        if (claim.duplicate()) {
+            log.debug("Duplicate {} for RO ID {}, answering with the outcome of the first copy",
+                    message.type().getElementName(), message.roId());
+            metrics.duplicate(message.type());
+            claim.outcome().whenComplete((ignored, error) -> {
+                if (error == null) {
+                    sendAck(ctx, message, received, true, handler.ackMessage());
+                } else {
+                    sendAck(ctx, message, received, false, message.type().getElementName() + " failed: " + error.getMessage());
+                }
+            });
             return;
         }
 
-        Optional<String> roStoryInsertBlock = MosXmlParser.extractRoStoryInsert(msg);
-        if (roStoryInsertBlock.isPresent()) {
-            log.info("roStoryInsert block detected.");
-            RoStoryInsertMessage insert = MosXmlParser.parseRoStoryInsert(roStoryInsertBlock.get());
-            log.info("Parsed roStoryInsert:\nRO ID: {}\nStory ID: {}\nSlug: {}",
-                    insert.getRoID(), insert.getStoryID(), insert.getStorySlug());
-
-            mosStoryMessageService.processRoStoryInsert(insert);
-
-            String ackXml = MosRoAckBuilder.build(insert.getRoID(), true, "roStoryInsert processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
+        if (!flowController.tryAcquire(ctx.channel())) {
+            log.warn("MOS server busy, rejecting {} for RO ID {}", message.type().getElementName(), message.roId());
+            metrics.error(message.type(), "rejected");
+            dedupCache.release(claim, new IllegalStateException("server busy"));
+            sendAck(ctx, message, received, false, message.type().getElementName() + " rejected: server busy");
             return;
         }
 
-        Optional<String> roStoryReplaceBlock = MosXmlParser.extractRoStoryReplace(msg);
-        if (roStoryReplaceBlock.isPresent()) {
-            log.info("roStoryReplace block detected.");
-            RoStoryReplaceMessage replace = MosXmlParser.parseRoStoryReplace(roStoryReplaceBlock.get());
-            log.info("Parsed roStoryReplace:\nRO ID: {}\nStory ID: {}\nSlug: {}",
-                    replace.getRoID(), replace.getStoryID(), replace.getStorySlug());
-
-            mosStoryMessageService.processRoStoryReplace(replace);
-
-            String ackXml = MosRoAckBuilder.build(replace.getRoID(), true, "roStoryReplace processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
+        long journalSequence;
+        try {
+            journalSequence = journal.append(frame.content(), frame.charset());
+        } catch (UncheckedIOException e) {
+            log.error("Cannot journal {} for RO ID {}", message.type().getElementName(), message.roId(), e);
+            flowController.release(ctx.channel());
+            dedupCache.release(claim, e);
+            metrics.error(message.type(), "journal");
+            sendAck(ctx, message, received, false, message.type().getElementName() + " failed: journal unavailable");
             return;
         }
+        boolean ackedOnAppend = journal.acksOnAppend();
+        if (ackedOnAppend) {
+            sendAck(ctx, message, received, true, handler.ackMessage());
+            claim.outcome().complete(null);
+        }
 
-        Optional<String> roStoryDeleteBlock = MosXmlParser.extractRoStoryDelete(msg);
-        if (roStoryDeleteBlock.isPresent()) {
-            log.info("roStoryDelete block detected.");
-            RoStoryDeleteMessage delete = MosXmlParser.parseRoStoryDelete(roStoryDeleteBlock.get());
-            log.info("Parsed roStoryDelete:\nRO ID: {}\nStory ID: {}",
-                    delete.getRoID(), delete.getStoryID());
-
-            mosStoryMessageService.processRoStoryDelete(delete);
+        // Handlers hit the database, so they run on the sequencer and ack from its continuation.
+        Runnable task = () -> {
+            long started = System.nanoTime();
+            boolean success = false;
+            try {
+                handler.handle(message.payload());
+                success = true;
+            } finally {
+                metrics.handled(message.type(), success, System.nanoTime() - started);
+            }
+        };
+        CompletableFuture<Void> processed = handler.batchable()
+                ? rundownSequencer.submitBatchable(message.roId(), message, task)
+                : rundownSequencer.submit(message.roId(), task);
+        processed.whenComplete((ignored, error) -> {
+            flowController.release(ctx.channel());
+            if (error == null) {
+                journal.commit(journalSequence);
+                if (!ackedOnAppend) {
+                    sendAck(ctx, message, received, true, handler.ackMessage());
+                }
+                claim.outcome().complete(null);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                dedupCache.release(claim, cause);
+                metrics.error(message.type(), "handler");
+                if (!ackedOnAppend) {
+                    // The ERROR roAck hands the message back to the device, which sends it again.
+                    journal.commit(journalSequence);
+                    log.error("Failed to process {} for RO ID {}", message.type().getElementName(), message.roId(), cause);
+                    sendAck(ctx, message, received, false, message.type().getElementName() + " failed: " + cause.getMessage());
+                } else if (MosFailures.isRetryable(cause)) {
+                    // Already acked OK; left uncommitted so the journal replays it on the next start.
+                    log.error("Failed to process acknowledged {} for RO ID {}, keeping journal entry {} for replay",
+                            message.type().getElementName(), message.roId(), journalSequence, cause);
+                } else {
+                    journal.commit(journalSequence);
+                    log.error("Failed to process acknowledged {} for RO ID {}, dropping it",
+                            message.type().getElementName(), message.roId(), cause);
+                }
+            }
+        });
+    }
 
-            String ackXml = MosRoAckBuilder.build(delete.getRoID(), true, "roStoryDelete processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
+    private void sendAck(ChannelHandlerContext ctx, MosMessage message, long received, boolean success, String text) {
+        if (!ctx.channel().isActive()) {
+            log.warn("MOS connection closed before roAck for RO ID {} could be sent", message.roId());
             return;
         }
-        
-        Optional<String> roStoryMoveBlock = MosXmlParser.extractRoStoryMove(msg);
-        if (roStoryMoveBlock.isPresent()) {
-            log.info("roStoryMove block detected.");
-            RoStoryMoveMessage move = MosXmlParser.parseRoStoryMove(roStoryMoveBlock.get());
-            log.info("Parsed roStoryMove:\nRO ID: {}\nStory ID: {}\nBefore: {}\nAfter: {}",
-                    move.getRoID(), move.getStoryID(), move.getStoryIDBefore(), move.getStoryIDAfter());
-
-            mosStoryMessageService.processRoStoryMove(move);
-
-            String ackXml = MosRoAckBuilder.build(move.getRoID(), true, "roStoryMove processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
-            return;
+        MosRoAck ack = new MosRoAck(message.roId(), success, text);
+        ctx.writeAndFlush(ack);
+        connectionTracker.ackSent(ctx.channel());
+        trafficLog.outbound(ctx.channel(), ack);
+        metrics.acked(message.type(), success, System.nanoTime() - received);
+    }
+
+    /**
+     * Writes a heartbeat in the connection's encoding, with the device's {@code mosID}, our
+     * {@code ncsID} and the connection's next message ID. Before the device has sent anything
+     * the {@code mosID} is empty.
+     *
+     * @param request {@code true} when sent on our own initiative, so the answer is not answered again
+     */
+    private void sendHeartbeat(ChannelHandlerContext ctx, boolean request) {
+        Charset charset = Objects.requireNonNullElse(ctx.channel().attr(MosFrameDecoder.CHARSET).get(), StandardCharsets.UTF_8);
+        AtomicLong messageIds = ctx.channel().attr(MESSAGE_ID).get();
+        if (messageIds == null) {
+            AtomicLong created = new AtomicLong();
+            messageIds = ctx.channel().attr(MESSAGE_ID).setIfAbsent(created);
+            if (messageIds == null) {
+                messageIds = created;
+            }
         }
-        
-        Optional<String> roStorySwapBlock = MosXmlParser.extractRoStorySwap(msg);
-        if (roStorySwapBlock.isPresent()) {
-            log.info("roStorySwap block detected.");
-            RoStorySwapMessage swap = MosXmlParser.parseRoStorySwap(roStorySwapBlock.get());
-            log.info("Parsed roStorySwap:\nRO ID: {}\nStory1: {}\nStory2: {}",
-                    swap.getRoID(), swap.getStoryID1(), swap.getStoryID2());
-
-            mosStoryMessageService.processRoStorySwap(swap);
-
-            String ackXml = MosRoAckBuilder.build(swap.getRoID(), true, "roStorySwap processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
+        String heartbeat = MosMessageBuilder.envelope(ctx.channel().attr(MOS_ID).get(),
+                mosProperties.getDevices().getNcsId(), messageIds.incrementAndGet(),
+                MosMessageBuilder.heartbeat(LocalDateTime.now()));
+        ctx.writeAndFlush(ByteBufUtil.encodeString(ctx.alloc(), CharBuffer.wrap(heartbeat), charset));
+        connectionTracker.heartbeatSent(ctx.channel(), request);
+    }
+
+    /**
+     * Closes connections that stopped sending and sends a heartbeat on connections we have not
+     * written to for a while; events come from the {@code IdleStateHandler} at the pipeline head.
+     */
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+        if (!(evt instanceof IdleStateEvent idle)) {
+            ctx.fireUserEventTriggered(evt);
             return;
         }
-        
-        Optional<String> roStoryStatusBlock = MosXmlParser.extractRoStoryStatus(msg);
-        if (roStoryStatusBlock.isPresent()) {
-            log.info("roStoryStatus block detected.");
-            RoStoryStatusMessage statusMsg = MosXmlParser.parseRoStoryStatus(roStoryStatusBlock.get());
-            log.info("Parsed roStoryStatus: RO ID: {}, Story ID: {}, Status: {}", 
-                     statusMsg.getRoID(), statusMsg.getStoryID(), statusMsg.getStatus());
-
-            mosStoryMessageService.processRoStoryStatus(statusMsg);
-
-            String ackXml = MosRoAckBuilder.build(statusMsg.getRoID(), true, "roStoryStatus processed");
-            ctx.writeAndFlush(ackXml + "\r\n");
-            return;
+        switch (idle.state()) {
+            case READER_IDLE, ALL_IDLE -> {
+                log.warn("MOS TCP client {} sent nothing within the idle timeout, closing connection",
+                        ctx.channel().remoteAddress());
+                metrics.error(null, "idle_timeout");
+                connectionTracker.closing(ctx.channel(), "idle");
+                ctx.close();
+            }
+            case WRITER_IDLE -> sendHeartbeat(ctx, true);
         }
-
-        log.warn("Unsupported or unrecognized MOS message.");
     }
 
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        if (cause instanceof TooLongFrameException) {
+            metrics.error(null, "frame_too_long");
+            log.warn("MOS TCP client {}: {}", ctx.channel().remoteAddress(), cause.getMessage());
+            return;
+        }
         log.error("MOS TCP server error", cause);
+        connectionTracker.closing(ctx.channel(), "error");
         ctx.close();
     }
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) {
+        metrics.connectionOpened();
+        connectionTracker.opened(ctx.channel());
         log.info("MOS TCP client connected: {}", ctx.channel().remoteAddress());
     }
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) {
+        flowController.unregister(ctx.channel());
+        metrics.connectionClosed();
+        connectionTracker.closed(ctx.channel());
         log.info("MOS TCP client disconnected: {}", ctx.channel().remoteAddress());
     }
-}
\ No newline at end of file
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        flowController.writabilityChanged(ctx.channel());
+        ctx.fireChannelWritabilityChanged();
+    }
+}
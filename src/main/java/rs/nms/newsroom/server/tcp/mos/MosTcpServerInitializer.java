@@ -0,0 +1,53 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the Netty pipeline for each inbound MOS connection.
+ * <p>
+ * Frames are delimited on {@code </mos>} by a per-connection {@link MosFrameDecoder} whose limit
+ * can be overridden per device, then handed to the shared {@link MosTcpServerHandler}.
+ * Outbound roAcks are encoded by {@link MosRoAckEncoder}; flushes issued while a read is in
+ * progress, or in quick succession from the processing threads, are coalesced into one syscall.
+ * An {@link IdleStateHandler} at the head reports silent connections, which the handler closes,
+ * and connections without output, on which it sends a heartbeat.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MosTcpServerInitializer extends ChannelInitializer<SocketChannel> {
+
+    private static final MosRoAckEncoder ROACK_ENCODER = new MosRoAckEncoder();
+
+    private final MosTcpServerHandler mosTcpServerHandler;
+    private final MosProperties mosProperties;
+
+    @Override
+    protected void initChannel(SocketChannel ch) {
+        String host = ch.remoteAddress().getAddress().getHostAddress();
+        int maxFrameLength = mosProperties.getTcp().maxFrameLengthFor(host);
+        log.debug("MOS connection from {} uses frame limit of {} bytes", host, maxFrameLength);
+
+        MosProperties.Idle idle = mosProperties.getTcp().getIdle();
+        if (!idle.getReaderTimeout().isZero() || !idle.getWriterTimeout().isZero()) {
+            ch.pipeline().addLast("idleState", new IdleStateHandler(
+                    idle.getReaderTimeout().toMillis(), idle.getWriterTimeout().toMillis(), 0, TimeUnit.MILLISECONDS));
+        }
+        ch.pipeline()
+          .addLast("mosFrameDecoder", new MosFrameDecoder(maxFrameLength))
+          .addLast("flushConsolidation", new FlushConsolidationHandler(
+                  FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true))
+          .addLast("mosRoAckEncoder", ROACK_ENCODER)
+          .addLast("mosHandler", mosTcpServerHandler);
+    }
+}
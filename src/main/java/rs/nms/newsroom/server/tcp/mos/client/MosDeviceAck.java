@@ -0,0 +1,77 @@
+package rs.nms.newsroom.server.tcp.mos.client;
+
+import rs.nms.newsroom.server.tcp.mos.MosFrame;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Optional;
+
+/**
+ * A roAck received from a MOS device.
+ *
+ * @param messageId {@code messageID} of the acknowledged message, or {@code null} if the device omits it
+ * @param roId      running order ID
+ * @param status    {@code roStatus} (or {@code status}) text; {@code OK} on success
+ */
+public record MosDeviceAck(Long messageId, String roId, String status) {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    public boolean isOk() {
+        return "OK".equalsIgnoreCase(status);
+    }
+
+    /**
+     * Reads a roAck from a device frame.
+     *
+     * @return the acknowledgment, or empty if the frame is not a well-formed roAck
+     */
+    public static Optional<MosDeviceAck> parse(MosFrame frame) {
+        Long messageId = null;
+        String roId = null;
+        String status = null;
+        boolean roAck = false;
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(frame.openStream(), frame.charset().name());
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    switch (reader.getLocalName()) {
+                        case "messageID" -> messageId = parseMessageId(reader.getElementText());
+                        case "roAck" -> roAck = true;
+                        case "roID" -> roId = roId == null ? reader.getElementText().trim() : roId;
+                        case "roStatus", "status" -> status = status == null ? reader.getElementText().trim() : status;
+                        default -> {
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            return Optional.empty();
+        }
+        return roAck ? Optional.of(new MosDeviceAck(messageId, roId, status)) : Optional.empty();
+    }
+
+    private static Long parseMessageId(String text) {
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
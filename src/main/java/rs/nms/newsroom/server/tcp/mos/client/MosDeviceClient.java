@@ -0,0 +1,225 @@
+package rs.nms.newsroom.server.tcp.mos.client;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import lombok.extern.slf4j.Slf4j;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.mos.builder.MosMessageBuilder;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends MOS messages to one device over a small pool of persistent connections.
+ * <p>
+ * Each message gets a device-wide {@code messageID}. Messages for one {@code roID} always use the
+ * same connection (chosen by hash) and are sent one at a time: the next is written only once the
+ * previous one is acknowledged or has finally failed, so the device applies them in order even
+ * when one has to be retried. Messages for different running orders are pipelined, up to
+ * {@code maxPipelined} unacknowledged messages per connection. Connections are opened on first use
+ * and reopened after they close. Failed attempts (connect errors, closed connections, missing
+ * roAcks, connection busy) are retried with exponential backoff and jitter; a roAck with a non-OK
+ * status is final.
+ * </p>
+ */
+@Slf4j
+public class MosDeviceClient {
+
+    private final String mosId;
+    private final String ncsId;
+    private final String host;
+    private final int port;
+    private final Charset charset;
+    private final Bootstrap bootstrap;
+    private final int maxPipelined;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Slot[] slots;
+    private final AtomicLong messageIds = new AtomicLong();
+
+    /**
+     * Last message sent per {@code roID} ({@code ""} for none); removed once it completes with no successor.
+     */
+    private final Map<String, CompletableFuture<Void>> lastByRoId = new ConcurrentHashMap<>();
+
+    /**
+     * @param bootstrap bootstrap with event loop group, channel type and a handler that installs a
+     *                  {@link MosDeviceConnectionHandler}
+     */
+    public MosDeviceClient(MosProperties.Device device, MosProperties.Devices settings, Bootstrap bootstrap) {
+        this.mosId = device.getMosId();
+        this.ncsId = settings.getNcsId();
+        this.host = device.getHost();
+        this.port = device.getPort();
+        this.charset = device.getCharset();
+        this.bootstrap = bootstrap;
+        this.maxPipelined = Math.max(1, settings.getMaxPipelined());
+        this.maxAttempts = Math.max(1, settings.getMaxAttempts());
+        this.initialBackoffMillis = settings.getInitialBackoff().toMillis();
+        this.maxBackoffMillis = settings.getMaxBackoff().toMillis();
+        this.slots = new Slot[Math.max(1, settings.getConnectionsPerDevice())];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public String getMosId() {
+        return mosId;
+    }
+
+    /**
+     * Sends a message after all earlier messages for the same {@code roID} and completes once the
+     * device has acknowledged it with status OK.
+     *
+     * @return future failed with {@link MosDeviceException} if the device rejected the message or
+     * all attempts failed
+     */
+    public CompletableFuture<Void> send(MosOutboundMessage message) {
+        long messageId = messageIds.incrementAndGet();
+        byte[] frame = MosMessageBuilder.envelope(mosId, ncsId, messageId, message.element()).getBytes(charset);
+        String roId = message.roId();
+        Slot slot = slots[Math.floorMod(Objects.hashCode(roId), slots.length)];
+        String key = Objects.requireNonNullElse(roId, "");
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<Void> previous = lastByRoId.put(key, result);
+        result.whenComplete((ignored, error) -> lastByRoId.remove(key, result));
+        if (previous == null) {
+            attempt(slot, roId, messageId, frame, 1, result);
+        } else {
+            previous.whenComplete((ignored, error) -> attempt(slot, roId, messageId, frame, 1, result));
+        }
+        return result;
+    }
+
+    private void attempt(Slot slot, String roId, long messageId, byte[] frame, int attempt,
+                         CompletableFuture<Void> result) {
+        acquire(slot)
+                .thenCompose(handler -> handler.send(messageId, roId, Unpooled.wrappedBuffer(frame)))
+                .whenComplete((ignored, error) -> {
+                    if (error == null) {
+                        result.complete(null);
+                        return;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    boolean retryable = !(cause instanceof MosDeviceException deviceError) || deviceError.isRetryable();
+                    if (!retryable || attempt >= maxAttempts) {
+                        result.completeExceptionally(cause);
+                        return;
+                    }
+                    long delay = backoff(attempt);
+                    log.debug("Message {} to MOS device {} failed (attempt {}/{}), retrying in {} ms: {}",
+                            messageId, mosId, attempt, maxAttempts, delay, cause.getMessage());
+                    try {
+                        bootstrap.config().group().schedule(
+                                () -> attempt(slot, roId, messageId, frame, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        result.completeExceptionally(cause);
+                    }
+                });
+    }
+
+    /**
+     * Exponential backoff capped at {@code maxBackoff}, with up to 50% random reduction so that
+     * messages failed by the same outage do not retry in lockstep.
+     */
+    long backoff(int attempt) {
+        long exponential = initialBackoffMillis << Math.min(attempt - 1, 20);
+        long capped = Math.min(maxBackoffMillis, exponential);
+        return capped - ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    /**
+     * Reserves room on the slot's connection, opening it if needed.
+     */
+    private CompletableFuture<MosDeviceConnectionHandler> acquire(Slot slot) {
+        MosDeviceConnectionHandler active = slot.activeHandler();
+        CompletableFuture<MosDeviceConnectionHandler> connected = active != null
+                ? CompletableFuture.completedFuture(active) : slot.connect();
+        return connected.thenApply(handler -> {
+            if (!handler.tryReserve(maxPipelined)) {
+                throw new MosDeviceException(
+                        "Connection to MOS device " + mosId + " has " + maxPipelined + " unacknowledged messages", true);
+            }
+            return handler;
+        });
+    }
+
+    /**
+     * @return unacknowledged messages across all connections
+     */
+    public int inFlight() {
+        int inFlight = 0;
+        for (Slot slot : slots) {
+            MosDeviceConnectionHandler handler = slot.activeHandler();
+            inFlight += handler != null ? handler.inFlight() : 0;
+        }
+        return inFlight;
+    }
+
+    public void close() {
+        for (Slot slot : slots) {
+            slot.close();
+        }
+    }
+
+    /**
+     * One pooled connection, opened lazily.
+     */
+    private final class Slot {
+
+        private Channel channel;
+        private CompletableFuture<MosDeviceConnectionHandler> connecting;
+
+        synchronized MosDeviceConnectionHandler activeHandler() {
+            return channel != null && channel.isActive() ? channel.pipeline().get(MosDeviceConnectionHandler.class) : null;
+        }
+
+        synchronized CompletableFuture<MosDeviceConnectionHandler> connect() {
+            if (connecting != null) {
+                return connecting;
+            }
+            MosDeviceConnectionHandler active = activeHandler();
+            if (active != null) {
+                return CompletableFuture.completedFuture(active);
+            }
+            CompletableFuture<MosDeviceConnectionHandler> connected = new CompletableFuture<>();
+            connecting = connected;
+            bootstrap.connect(host, port).addListener((ChannelFuture future) -> {
+                synchronized (Slot.this) {
+                    connecting = null;
+                    if (future.isSuccess()) {
+                        channel = future.channel();
+                    }
+                }
+                if (future.isSuccess()) {
+                    log.info("Connected to MOS device {} at {}:{}", mosId, host, port);
+                    connected.complete(future.channel().pipeline().get(MosDeviceConnectionHandler.class));
+                } else {
+                    log.warn("Cannot connect to MOS device {} at {}:{}: {}", mosId, host, port, future.cause().getMessage());
+                    connected.completeExceptionally(future.cause());
+                }
+            });
+            return connected;
+        }
+
+        synchronized void close() {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+}
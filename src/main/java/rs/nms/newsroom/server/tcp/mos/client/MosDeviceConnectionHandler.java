@@ -0,0 +1,166 @@
+package rs.nms.newsroom.server.tcp.mos.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import rs.nms.newsroom.server.tcp.mos.MosFrame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the messages pipelined on one device connection and completes them from the roAcks.
+ * <p>
+ * An ack is matched by its {@code messageID}; devices that omit it are matched to the oldest
+ * unacknowledged message for the same {@code roID}. Messages without an ack within the timeout,
+ * or still pending when the connection closes, fail with a retryable {@link MosDeviceException}.
+ * The pending map is only touched on the channel's event loop.
+ * </p>
+ * Not sharable: one instance per channel.
+ */
+@Slf4j
+public class MosDeviceConnectionHandler extends SimpleChannelInboundHandler<MosFrame> {
+
+    private final long ackTimeoutMillis;
+    private final Map<Long, PendingAck> pending = new LinkedHashMap<>();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private ChannelHandlerContext ctx;
+
+    public MosDeviceConnectionHandler(Duration ackTimeout) {
+        this.ackTimeoutMillis = ackTimeout.toMillis();
+    }
+
+    /**
+     * Reserves room for one more unacknowledged message.
+     *
+     * @return false if {@code limit} messages are already in flight
+     */
+    boolean tryReserve(int limit) {
+        while (true) {
+            int current = reserved.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (reserved.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    int inFlight() {
+        return reserved.get();
+    }
+
+    /**
+     * Writes a framed message and completes when the device acknowledges it. Requires a prior
+     * successful {@link #tryReserve}, which is released on completion.
+     *
+     * @param frame encoded message; ownership passes to this handler
+     */
+    CompletableFuture<Void> send(long messageId, String roId, ByteBuf frame) {
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        // Callers only see the outcome once the reservation is released.
+        CompletableFuture<Void> released = acked.whenComplete((ignored, error) -> reserved.decrementAndGet());
+        if (ctx == null) {
+            ReferenceCountUtil.release(frame);
+            acked.completeExceptionally(new MosDeviceException("Connection not initialized", true));
+            return released;
+        }
+        ctx.executor().execute(() -> write(messageId, roId, frame, acked));
+        return released;
+    }
+
+    private void write(long messageId, String roId, ByteBuf frame, CompletableFuture<Void> acked) {
+        if (!ctx.channel().isActive()) {
+            ReferenceCountUtil.release(frame);
+            acked.completeExceptionally(new MosDeviceException("Connection to " + ctx.channel().remoteAddress() + " closed", true));
+            return;
+        }
+        ScheduledFuture<?> timeout = ctx.executor().schedule(
+                () -> fail(messageId, new MosDeviceException("No roAck for message " + messageId + " within "
+                        + ackTimeoutMillis + " ms", true)),
+                ackTimeoutMillis, TimeUnit.MILLISECONDS);
+        pending.put(messageId, new PendingAck(roId, acked, timeout));
+        ctx.writeAndFlush(frame).addListener(future -> {
+            if (!future.isSuccess()) {
+                fail(messageId, new MosDeviceException("Write failed: " + future.cause().getMessage(), true));
+            }
+        });
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, MosFrame frame) {
+        MosDeviceAck ack = MosDeviceAck.parse(frame).orElse(null);
+        if (ack == null) {
+            log.warn("Ignoring unexpected reply from MOS device {}", ctx.channel().remoteAddress());
+            return;
+        }
+        // A messageID that is no longer pending belongs to a message that already timed out.
+        Long messageId = ack.messageId() != null ? ack.messageId() : oldestFor(ack.roId());
+        PendingAck acked = messageId != null ? pending.remove(messageId) : null;
+        if (acked == null) {
+            log.debug("roAck from {} for RO ID {} matches no pending message", ctx.channel().remoteAddress(), ack.roId());
+            return;
+        }
+        acked.timeout().cancel(false);
+        if (ack.isOk()) {
+            acked.result().complete(null);
+        } else {
+            acked.result().completeExceptionally(new MosDeviceException(
+                    "Device rejected message " + messageId + " for RO ID " + ack.roId() + ": " + ack.status(), false));
+        }
+    }
+
+    private Long oldestFor(String roId) {
+        for (Map.Entry<Long, PendingAck> entry : pending.entrySet()) {
+            if (Objects.equals(entry.getValue().roId(), roId)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void fail(long messageId, MosDeviceException error) {
+        PendingAck failed = pending.remove(messageId);
+        if (failed != null) {
+            failed.timeout().cancel(false);
+            failed.result().completeExceptionally(error);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        List<PendingAck> unacknowledged = new ArrayList<>(pending.values());
+        pending.clear();
+        for (PendingAck pendingAck : unacknowledged) {
+            pendingAck.timeout().cancel(false);
+            pendingAck.result().completeExceptionally(
+                    new MosDeviceException("Connection to " + ctx.channel().remoteAddress() + " closed", true));
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.warn("MOS device connection {} failed: {}", ctx.channel().remoteAddress(), cause.getMessage());
+        ctx.close();
+    }
+
+    private record PendingAck(String roId, CompletableFuture<Void> result, ScheduledFuture<?> timeout) {
+    }
+}
@@ -0,0 +1,20 @@
+package rs.nms.newsroom.server.tcp.mos.client;
+
+import lombok.Getter;
+
+/**
+ * Failure to deliver a message to a MOS device.
+ */
+@Getter
+public class MosDeviceException extends RuntimeException {
+
+    /**
+     * Whether sending the message again may succeed; false when the device rejected it.
+     */
+    private final boolean retryable;
+
+    public MosDeviceException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+}
@@ -0,0 +1,91 @@
+package rs.nms.newsroom.server.tcp.mos.client;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.tcp.mos.MosFrameDecoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entry point for pushing MOS messages to the devices configured under {@code mos.devices}.
+ * <p>
+ * Holds one {@link MosDeviceClient} per device on a shared event loop group. When pushing is
+ * disabled or no device is configured, {@link #send} completes immediately.
+ * </p>
+ */
+@Slf4j
+@Component
+public class MosDeviceGateway implements DisposableBean {
+
+    private final EventLoopGroup group;
+    private final List<MosDeviceClient> clients;
+
+    public MosDeviceGateway(MosProperties mosProperties) {
+        MosProperties.Devices devices = mosProperties.getDevices();
+        if (!devices.isEnabled() || devices.getTargets().isEmpty()) {
+            this.group = null;
+            this.clients = List.of();
+            return;
+        }
+
+        int maxFrameLength = (int) Math.min(Integer.MAX_VALUE, mosProperties.getTcp().getMaxFrameLength().toBytes());
+        this.group = new NioEventLoopGroup(devices.getThreads(), new DefaultThreadFactory("mos-client"));
+        Bootstrap bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) devices.getConnectTimeout().toMillis())
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                          .addLast(new MosFrameDecoder(maxFrameLength))
+                          .addLast(new MosDeviceConnectionHandler(devices.getAckTimeout()));
+                    }
+                });
+        this.clients = devices.getTargets().stream()
+                .map(device -> new MosDeviceClient(device, devices, bootstrap.clone()))
+                .toList();
+        log.info("MOS device push enabled for {}", clients.stream().map(MosDeviceClient::getMosId).toList());
+    }
+
+    public boolean isEnabled() {
+        return !clients.isEmpty();
+    }
+
+    /**
+     * Sends a message to every configured device.
+     *
+     * @return future completing when all devices have acknowledged it, or failing with the first
+     * device error once all sends have finished
+     */
+    public CompletableFuture<Void> send(MosOutboundMessage message) {
+        return CompletableFuture.allOf(clients.stream()
+                .map(client -> client.send(message))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    List<MosDeviceClient> clients() {
+        return clients;
+    }
+
+    @Override
+    public void destroy() {
+        clients.forEach(MosDeviceClient::close);
+        if (group != null) {
+            group.shutdownGracefully();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package rs.nms.newsroom.server.tcp.mos.client;
+
+/**
+ * A message to push to MOS devices.
+ *
+ * @param roId    running order the message refers to; used to correlate the roAck
+ * @param element message element without the {@code <mos>} envelope, e.g. from
+ *                {@link rs.nms.newsroom.server.mos.builder.MosMessageBuilder}
+ */
+public record MosOutboundMessage(String roId, String element) {
+}
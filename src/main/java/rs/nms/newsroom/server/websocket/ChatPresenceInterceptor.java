@@ -0,0 +1,38 @@
+package rs.nms.newsroom.server.websocket;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+/**
+ * Keeps the chat presence of a session alive on every frame its client sends, heart-beats included.
+ * <p>
+ * The tracker is looked up on the first message: it sends through the broker, which is built from
+ * the configuration this interceptor is registered by.
+ * </p>
+ */
+public class ChatPresenceInterceptor implements ChannelInterceptor {
+
+    private final ObjectProvider<ChatPresenceTracker> trackerProvider;
+    private volatile ChatPresenceTracker tracker;
+
+    public ChatPresenceInterceptor(ObjectProvider<ChatPresenceTracker> trackerProvider) {
+        this.trackerProvider = trackerProvider;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId != null) {
+            ChatPresenceTracker current = tracker;
+            if (current == null) {
+                current = trackerProvider.getObject();
+                tracker = current;
+            }
+            current.touch(sessionId);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,242 @@
+package rs.nms.newsroom.server.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+import rs.nms.newsroom.server.config.websocket.WebSocketBrokerProperties;
+import rs.nms.newsroom.server.websocket.presence.LocalPresenceStore;
+import rs.nms.newsroom.server.websocket.presence.PresenceDelta;
+import rs.nms.newsroom.server.websocket.presence.PresenceStore;
+import rs.nms.newsroom.server.websocket.presence.RedisPresenceStore;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks which users are present in which chat room and tells the room when that changes.
+ * <p>
+ * A WebSocket session joins one room at a time. It stays present while its client sends frames,
+ * STOMP heart-beats included, and is removed on disconnect or {@code chat.presence.ttl} after its
+ * last frame, so a client that drops without a DISCONNECT does not stay in the room. Presence is
+ * kept in a {@link PresenceStore}: in memory, or in Redis when several nodes serve clients.
+ * </p>
+ * <p>
+ * Rooms are not sent their member list on every change. Users joining and leaving are collected
+ * per room and sent as one {@link PresenceDelta} every {@code broadcast-interval}; a join and leave
+ * of the same user within the interval cancel out. Clients read the full list once when they
+ * subscribe, see {@code WsChatController}.
+ * </p>
+ * Meters: {@code chat.presence.sessions} and {@code chat.presence.expired}.
+ */
+@Slf4j
+@Component
+public class ChatPresenceTracker implements DisposableBean {
+
+    private final PresenceStore store;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ChatProperties.Presence settings;
+    private final LongSupplier clock;
+    private final long ttlMillis;
+    private final long refreshMillis;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Boolean>> changes = new ConcurrentHashMap<>();
+    private final Counter expired;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-presence").daemon(true).factory());
+
+    public ChatPresenceTracker(ChatProperties chatProperties, WebSocketBrokerProperties brokerProperties,
+                               ObjectProvider<StringRedisTemplate> redisTemplate,
+                               SimpMessageSendingOperations messagingTemplate, MeterRegistry meterRegistry) {
+        this(createStore(chatProperties.getPresence(), brokerProperties, redisTemplate), messagingTemplate,
+                chatProperties.getPresence(), meterRegistry, System::currentTimeMillis);
+    }
+
+    ChatPresenceTracker(PresenceStore store, SimpMessageSendingOperations messagingTemplate,
+                        ChatProperties.Presence settings, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.store = store;
+        this.messagingTemplate = messagingTemplate;
+        this.settings = settings;
+        this.clock = clock;
+        this.ttlMillis = settings.getTtl().toMillis();
+        this.refreshMillis = ttlMillis / 3;
+        Gauge.builder("chat.presence.sessions", sessions, Map::size)
+                .description("WebSocket sessions of this node present in a chat room")
+                .register(meterRegistry);
+        this.expired = Counter.builder("chat.presence.expired")
+                .description("Users removed from a chat room because their sessions stopped sending")
+                .register(meterRegistry);
+    }
+
+    private static PresenceStore createStore(ChatProperties.Presence settings,
+                                             WebSocketBrokerProperties brokerProperties,
+                                             ObjectProvider<StringRedisTemplate> redisTemplate) {
+        if (settings.getBackend() == ChatProperties.Presence.Backend.REDIS) {
+            log.info("Chat presence kept in Redis under {}", settings.getRedisKeyPrefix());
+            return new RedisPresenceStore(redisTemplate.getObject(), settings.getRedisKeyPrefix(),
+                    UUID.randomUUID().toString());
+        }
+        if (brokerProperties.getMode() != WebSocketBrokerProperties.Mode.SIMPLE) {
+            log.warn("Chat presence kept in memory with broker mode {}: rooms only list users of this node",
+                    brokerProperties.getMode());
+        }
+        return new LocalPresenceStore();
+    }
+
+    @PostConstruct
+    void start() {
+        long broadcast = settings.getBroadcastInterval().toMillis();
+        long sweep = settings.getSweepInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, broadcast, broadcast, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::sweep, sweep, sweep, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Puts a session into a room, taking it out of the room it was in before.
+     *
+     * @return {@code true} if the user was not present in the room before
+     */
+    public boolean addUserToRoom(String sessionId, Long roomId, Long userId) {
+        long now = clock.getAsLong();
+        Session session = new Session(roomId, userId, now);
+        Session previous = sessions.put(sessionId, session);
+        if (previous != null && (!previous.roomId.equals(roomId) || !previous.userId.equals(userId))) {
+            remove(sessionId, previous, now);
+        }
+        boolean joined = store.add(roomId, userId, sessionId, now + ttlMillis, now);
+        if (joined) {
+            record(roomId, userId, true);
+        }
+        return joined;
+    }
+
+    /**
+     * Takes a session out of its room.
+     *
+     * @return {@code true} if it was the user's last session in the room
+     */
+    public boolean removeUserFromRoom(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        return session != null && remove(sessionId, session, clock.getAsLong());
+    }
+
+    /**
+     * Records a frame from the client of a session, keeping it present. The store is updated at
+     * most once per third of the TTL.
+     */
+    public void touch(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (now - session.refreshedAt < refreshMillis) {
+            return;
+        }
+        session.refreshedAt = now;
+        if (store.add(session.roomId, session.userId, sessionId, now + ttlMillis, now)) {
+            record(session.roomId, session.userId, true);
+        }
+        if (sessions.get(sessionId) != session) {
+            // Left or moved to another room while being refreshed.
+            remove(sessionId, session, now);
+        }
+    }
+
+    /**
+     * @return users currently present in the room
+     */
+    public Set<Long> getUsersInRoom(Long roomId) {
+        return store.users(roomId, clock.getAsLong());
+    }
+
+    private boolean remove(String sessionId, Session session, long now) {
+        boolean left = store.remove(session.roomId, session.userId, sessionId, now);
+        if (left) {
+            record(session.roomId, session.userId, false);
+        }
+        return left;
+    }
+
+    private void record(Long roomId, Long userId, boolean joined) {
+        changes.compute(roomId, (id, pending) -> {
+            if (pending == null) {
+                pending = new LinkedHashMap<>();
+            }
+            Boolean previous = pending.remove(userId);
+            if (previous == null || previous == joined) {
+                pending.put(userId, joined);
+            }
+            return pending;
+        });
+    }
+
+    /**
+     * Sends the changes collected since the previous call to their rooms.
+     */
+    void flush() {
+        for (Long roomId : changes.keySet()) {
+            // Removal takes the bin lock, so no change can still be added to the removed map.
+            Map<Long, Boolean> pending = changes.remove(roomId);
+            if (pending == null || pending.isEmpty()) {
+                continue;
+            }
+            Set<Long> joined = new LinkedHashSet<>();
+            Set<Long> left = new LinkedHashSet<>();
+            pending.forEach((userId, present) -> (present ? joined : left).add(userId));
+            try {
+                messagingTemplate.convertAndSend("/topic/chat.room." + roomId + "/presence",
+                        new PresenceDelta(roomId, joined, left));
+            } catch (RuntimeException e) {
+                log.warn("Cannot send presence update to room {}: {}", roomId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes sessions past their TTL.
+     */
+    void sweep() {
+        try {
+            store.expire(clock.getAsLong(), (roomId, userId) -> {
+                expired.increment();
+                record(roomId, userId, false);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cannot expire chat presence: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class Session {
+
+        final Long roomId;
+        final Long userId;
+        volatile long refreshedAt;
+
+        Session(Long roomId, Long userId, long refreshedAt) {
+            this.roomId = roomId;
+            this.userId = userId;
+            this.refreshedAt = refreshedAt;
+        }
+    }
+}
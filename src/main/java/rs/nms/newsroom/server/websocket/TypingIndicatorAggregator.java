@@ -0,0 +1,147 @@
+package rs.nms.newsroom.server.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+import rs.nms.newsroom.server.config.websocket.WebSocketBrokerProperties;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects typing events and sends each room one {@link TypingSnapshot} per {@code chat.typing.interval}.
+ * <p>
+ * Clients send a typing event on every keystroke. Events only record the time the user last typed;
+ * once per interval, a room whose typing users changed is sent the new list. Users without an event
+ * for {@code chat.typing.ttl} are dropped from it, as are users who send a message or disconnect.
+ * While someone is typing, the list is also sent again every half TTL, so clients can drop lists
+ * that stop arriving.
+ * </p>
+ * Meters: {@code chat.typing.events} and {@code chat.typing.snapshots}.
+ */
+@Slf4j
+@Component
+public class TypingIndicatorAggregator implements DisposableBean {
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ChatProperties.Typing settings;
+    private final String nodeId;
+    private final LongSupplier clock;
+    private final long ttlMillis;
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+    private final Counter events;
+    private final Counter snapshots;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-typing").daemon(true).factory());
+
+    public TypingIndicatorAggregator(SimpMessageSendingOperations messagingTemplate, ChatProperties chatProperties,
+                                     WebSocketBrokerProperties brokerProperties, MeterRegistry meterRegistry) {
+        this(messagingTemplate, chatProperties.getTyping(), brokerProperties.getCluster().getNodeId(),
+                meterRegistry, System::currentTimeMillis);
+    }
+
+    TypingIndicatorAggregator(SimpMessageSendingOperations messagingTemplate, ChatProperties.Typing settings,
+                              String nodeId, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.messagingTemplate = messagingTemplate;
+        this.settings = settings;
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.ttlMillis = settings.getTtl().toMillis();
+        this.events = Counter.builder("chat.typing.events")
+                .description("Typing events received from clients")
+                .register(meterRegistry);
+        this.snapshots = Counter.builder("chat.typing.snapshots")
+                .description("Lists of typing users sent to chat rooms")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        long interval = settings.getInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records that a user is typing in a room.
+     */
+    public void typing(Long roomId, Long userId) {
+        events.increment();
+        long expiresAt = clock.getAsLong() + ttlMillis;
+        rooms.compute(roomId, (id, room) -> {
+            if (room == null) {
+                room = new Room();
+            }
+            room.typers.put(userId, expiresAt);
+            return room;
+        });
+    }
+
+    /**
+     * Records that a user stopped typing, after sending a message or leaving the room.
+     */
+    public void stopped(Long roomId, Long userId) {
+        Room room = rooms.get(roomId);
+        if (room != null) {
+            room.typers.remove(userId);
+        }
+    }
+
+    /**
+     * Drops expired typing users and sends the rooms whose list changed their new list.
+     */
+    void flush() {
+        long now = clock.getAsLong();
+        for (Map.Entry<Long, Room> entry : rooms.entrySet()) {
+            Long roomId = entry.getKey();
+            Room room = entry.getValue();
+            room.typers.values().removeIf(expiresAt -> expiresAt <= now);
+            Set<Long> typing = new TreeSet<>(room.typers.keySet());
+            boolean changed = !typing.equals(room.sent);
+            if (changed || (!typing.isEmpty() && now - room.sentAt >= ttlMillis / 2)) {
+                try {
+                    messagingTemplate.convertAndSend("/topic/chat.room." + roomId + "/typing",
+                            new TypingSnapshot(roomId, nodeId, typing));
+                    snapshots.increment();
+                    room.sent = typing;
+                    room.sentAt = now;
+                } catch (RuntimeException e) {
+                    log.warn("Cannot send typing users to room {}: {}", roomId, e.getMessage());
+                }
+            }
+            if (typing.isEmpty() && room.sent.isEmpty()) {
+                // Dropped only while still empty; a concurrent typing event keeps the room.
+                rooms.computeIfPresent(roomId, (id, current) -> current.typers.isEmpty() ? null : current);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class Room {
+
+        /**
+         * User ID to the time their typing expires.
+         */
+        final Map<Long, Long> typers = new ConcurrentHashMap<>();
+
+        /**
+         * Last list sent to the room and when; only used by the flushing thread.
+         */
+        Set<Long> sent = Set.of();
+        long sentAt;
+    }
+}
@@ -0,0 +1,14 @@
+package rs.nms.newsroom.server.websocket;
+
+import java.util.Set;
+
+/**
+ * Users currently typing in a room, sent to {@code /topic/chat.room.{roomId}/typing}.
+ * <p>
+ * Each node sends the users typing on its own connections, tagged with its {@code node} ID. A
+ * client keeps the latest snapshot per node and drops one it has not received again within the
+ * typing TTL; with the {@code simple} broker there is only one node.
+ * </p>
+ */
+public record TypingSnapshot(long roomId, String node, Set<Long> userIds) {
+}
@@ -15,6 +15,7 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 public class WsChatSessionEventListener {
 
     private final ChatPresenceTracker presenceTracker;
+    private final TypingIndicatorAggregator typingAggregator;
     private final SimpMessageSendingOperations messagingTemplate;
 
     private static final Logger logger = LoggerFactory.getLogger(WsChatSessionEventListener.class);
@@ -33,17 +34,14 @@ public class WsChatSessionEventListener {
         String username = (String) headerAccessor.getSessionAttributes().get("username");
 
         if (roomId != null && userId != null) {
-            presenceTracker.removeUserFromRoom(roomId, userId);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/chat.room." + roomId + "/presence",
-                    presenceTracker.getUsersInRoom(roomId)
-            );
-
-            messagingTemplate.convertAndSend(
-                    "/topic/chat.room." + roomId + "/events",
-                    String.format("User %s left the room.", username != null ? username : ("#" + userId))
-            );
+            typingAggregator.stopped(roomId, userId);
+            // The presence update is sent by the tracker; the event only for the user's last session.
+            if (presenceTracker.removeUserFromRoom(event.getSessionId())) {
+                messagingTemplate.convertAndSend(
+                        "/topic/chat.room." + roomId + "/events",
+                        String.format("User %s left the room.", username != null ? username : ("#" + userId))
+                );
+            }
 
             logger.info("User {} disconnected from room {}", userId, roomId);
         } else {
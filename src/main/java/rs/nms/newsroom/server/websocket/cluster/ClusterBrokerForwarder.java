@@ -0,0 +1,80 @@
+package rs.nms.newsroom.server.websocket.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connects the per-node simple brokers of the sharded broker mode through a {@link ClusterMessageBus}.
+ * <p>
+ * Installed as interceptor on the broker channel and the client inbound channel, it forwards every
+ * locally published {@code /topic}, {@code /queue} and {@code /user} message to the other nodes.
+ * Messages received from the bus are sent to the local broker channel, where the simple broker
+ * delivers them to this node's subscribers and {@code /user} destinations are resolved against this
+ * node's sessions. Forwarded messages carry the origin node in {@link #ORIGIN_HEADER} and are not
+ * forwarded again; neither are user destinations already resolved to a session, since the
+ * unresolved message has been forwarded.
+ * </p>
+ */
+@Slf4j
+public class ClusterBrokerForwarder implements ChannelInterceptor {
+
+    static final String ORIGIN_HEADER = "nmsClusterOrigin";
+
+    private static final List<String> FORWARDED_PREFIXES = List.of("/topic/", "/queue/", "/user/");
+
+    private final ClusterMessageBus bus;
+    private final MessageChannel brokerChannel;
+
+    public ClusterBrokerForwarder(ClusterMessageBus bus, MessageChannel brokerChannel) {
+        this.bus = bus;
+        this.brokerChannel = brokerChannel;
+        bus.subscribe(this::deliver);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                || headers.containsKey(ORIGIN_HEADER)
+                || headers.containsKey(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null || FORWARDED_PREFIXES.stream().noneMatch(destination::startsWith)) {
+            return message;
+        }
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            log.debug("Not forwarding {} to the cluster: payload is not serialized", destination);
+            return message;
+        }
+
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>> nativeHeaders = (Map<String, List<String>>) headers.get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+        bus.publish(new ClusterEnvelope(bus.nodeId(), destination, contentType != null ? contentType.toString() : null,
+                nativeHeaders != null ? nativeHeaders : Map.of(), payload));
+        return message;
+    }
+
+    void deliver(ClusterEnvelope envelope) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination());
+        if (envelope.contentType() != null) {
+            accessor.setContentType(MimeTypeUtils.parseMimeType(envelope.contentType()));
+        }
+        envelope.nativeHeaders().forEach((name, values) -> values.forEach(value -> accessor.addNativeHeader(name, value)));
+        accessor.setHeader(ORIGIN_HEADER, envelope.origin());
+        brokerChannel.send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,77 @@
+package rs.nms.newsroom.server.websocket.cluster;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broker message as forwarded between nodes by the {@link ClusterMessageBus}.
+ *
+ * @param origin        node ID of the publishing node
+ * @param destination   STOMP destination, e.g. {@code /topic/mos/rundown} or {@code /user/alice/queue/notifications}
+ * @param contentType   MIME type of the payload, or {@code null}
+ * @param nativeHeaders STOMP headers set by the publisher
+ * @param payload       message body as sent to subscribers
+ */
+public record ClusterEnvelope(String origin, String destination, String contentType,
+                              Map<String, List<String>> nativeHeaders, byte[] payload) {
+
+    /**
+     * Writes the envelope without a length prefix; framing is left to the transport.
+     */
+    public void writeTo(ByteBuf out) {
+        writeString(out, origin);
+        writeString(out, destination);
+        writeString(out, contentType);
+        out.writeInt(nativeHeaders.size());
+        nativeHeaders.forEach((name, values) -> {
+            writeString(out, name);
+            out.writeInt(values.size());
+            values.forEach(value -> writeString(out, value));
+        });
+        out.writeInt(payload.length);
+        out.writeBytes(payload);
+    }
+
+    public static ClusterEnvelope readFrom(ByteBuf in) {
+        String origin = readString(in);
+        String destination = readString(in);
+        String contentType = readString(in);
+        int headerCount = in.readInt();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = readString(in);
+            String[] values = new String[in.readInt()];
+            for (int v = 0; v < values.length; v++) {
+                values[v] = readString(in);
+            }
+            headers.put(name, List.of(values));
+        }
+        byte[] payload = new byte[in.readInt()];
+        in.readBytes(payload);
+        return new ClusterEnvelope(origin, destination, contentType, headers, payload);
+    }
+
+    private static void writeString(ByteBuf out, String value) {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuf in) {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+}
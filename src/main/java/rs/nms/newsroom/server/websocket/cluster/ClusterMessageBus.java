@@ -0,0 +1,28 @@
+package rs.nms.newsroom.server.websocket.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Fan-out of broker messages to the other nodes of a cluster.
+ * <p>
+ * Delivery is best effort: a message published while a peer is unreachable or too slow is not
+ * delivered to it later.
+ * </p>
+ */
+public interface ClusterMessageBus {
+
+    /**
+     * @return identifier of this node, stamped on every published envelope
+     */
+    String nodeId();
+
+    /**
+     * Sends an envelope to all other nodes. Never blocks.
+     */
+    void publish(ClusterEnvelope envelope);
+
+    /**
+     * Registers the receiver of envelopes published by other nodes. Called on I/O threads.
+     */
+    void subscribe(Consumer<ClusterEnvelope> listener);
+}
@@ -0,0 +1,371 @@
+package rs.nms.newsroom.server.websocket.cluster;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import rs.nms.newsroom.server.config.websocket.WebSocketBrokerProperties;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link ClusterMessageBus} over plain TCP between the nodes listed in {@code websocket.broker.cluster.peers}.
+ * <p>
+ * Every node listens for envelopes from its peers and keeps one outbound connection to each peer,
+ * reconnecting after {@code reconnectDelay} when it drops. Envelopes are length-prefixed. A peer
+ * whose write buffer is above the high water mark is skipped rather than buffered without limit,
+ * so one stalled node cannot exhaust the memory of the others.
+ * </p>
+ * <p>
+ * Forwarded messages reach every subscriber of the receiving node, so connections are
+ * authenticated: the listening node sends a random challenge and only accepts envelopes once the
+ * peer has answered with its HMAC-SHA256 under {@code secret}. Connections that answer wrongly or
+ * not within ten seconds are closed. The bus is not encrypted and should
+ * only listen on a private interface.
+ * </p>
+ */
+@Slf4j
+public class NettyClusterMessageBus implements ClusterMessageBus, DisposableBean {
+
+    private static final int HANDSHAKE_TIMEOUT_SECONDS = 10;
+    private static final int CHALLENGE_LENGTH = 32;
+    private static final String HMAC = "HmacSHA256";
+
+    private final String nodeId;
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+    private final int maxMessageSize;
+    private final EventLoopGroup group;
+    private final Channel serverChannel;
+    private final List<Peer> peers;
+    private final List<Consumer<ClusterEnvelope>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    public NettyClusterMessageBus(WebSocketBrokerProperties.Cluster settings) {
+        if (settings.getSecret() == null || settings.getSecret().isBlank()) {
+            throw new IllegalStateException("websocket.broker.cluster.secret must be set in sharded mode");
+        }
+        this.nodeId = settings.getNodeId();
+        this.key = new SecretKeySpec(settings.getSecret().getBytes(StandardCharsets.UTF_8), HMAC);
+        this.maxMessageSize = (int) Math.min(Integer.MAX_VALUE - 4, settings.getMaxMessageSize().toBytes());
+        this.group = new NioEventLoopGroup(1, new DefaultThreadFactory("ws-cluster"));
+
+        this.serverChannel = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                          .addLast(new LengthFieldBasedFrameDecoder(maxMessageSize + 4, 0, 4, 0, 4))
+                          .addLast(new LengthFieldPrepender(4))
+                          .addLast(new Challenge());
+                    }
+                })
+                .bind(settings.getBindAddress(), settings.getPort())
+                .syncUninterruptibly()
+                .channel();
+
+        int highWaterMark = (int) Math.min(Integer.MAX_VALUE, settings.getPeerWriteBufferHighWaterMark().toBytes());
+        Bootstrap bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(highWaterMark / 2, highWaterMark))
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                          .addLast(new LengthFieldBasedFrameDecoder(CHALLENGE_LENGTH + 4, 0, 4, 0, 4))
+                          .addLast(new LengthFieldPrepender(4))
+                          .addLast(new Response(ch.eventLoop().newPromise()));
+                    }
+                });
+        long reconnectMillis = settings.getReconnectDelay().toMillis();
+        this.peers = settings.getPeers().stream()
+                .map(address -> new Peer(address, bootstrap, reconnectMillis))
+                .toList();
+        peers.forEach(Peer::connect);
+        log.info("WebSocket cluster bus of node {} listening on {}, peers {}", nodeId, serverChannel.localAddress(),
+                settings.getPeers());
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(ClusterEnvelope envelope) {
+        if (peers.isEmpty()) {
+            return;
+        }
+        ByteBuf encoded = Unpooled.buffer();
+        try {
+            envelope.writeTo(encoded);
+            if (encoded.readableBytes() > maxMessageSize) {
+                log.warn("Not forwarding {} to cluster peers: {} bytes exceed the limit of {}",
+                        envelope.destination(), encoded.readableBytes(), maxMessageSize);
+                return;
+            }
+            for (Peer peer : peers) {
+                Channel channel = peer.channel;
+                if (channel != null && channel.isActive() && channel.isWritable()) {
+                    channel.writeAndFlush(encoded.retainedDuplicate(), channel.voidPromise());
+                } else {
+                    dropped.incrementAndGet();
+                    log.debug("Cluster peer {} unavailable, dropping message to {}", peer.address, envelope.destination());
+                }
+            }
+        } finally {
+            encoded.release();
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return messages not sent to a peer because it was disconnected or too slow
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    int port() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    private byte[] sign(byte[] challenge) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(challenge);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot compute " + HMAC, e);
+        }
+    }
+
+    /**
+     * @return {@code true} once outbound connections to all peers are open and authenticated
+     */
+    boolean isConnected() {
+        return peers.stream().allMatch(peer -> peer.channel != null && peer.channel.isActive());
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        peers.forEach(Peer::close);
+        serverChannel.close();
+        group.shutdownGracefully();
+    }
+
+    /**
+     * First handler of an inbound connection; replaced by the {@link Receiver} once the peer has
+     * answered the challenge.
+     */
+    private final class Challenge extends SimpleChannelInboundHandler<ByteBuf> {
+
+        private final byte[] challenge = new byte[CHALLENGE_LENGTH];
+        private ScheduledFuture<?> timeout;
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            random.nextBytes(challenge);
+            ctx.writeAndFlush(Unpooled.wrappedBuffer(challenge));
+            timeout = ctx.executor().schedule(() -> {
+                log.warn("Closing cluster connection from {}: no handshake", ctx.channel().remoteAddress());
+                ctx.close();
+            }, HANDSHAKE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf frame) {
+            timeout.cancel(false);
+            if (!MessageDigest.isEqual(sign(challenge), ByteBufUtil.getBytes(frame))) {
+                log.warn("Closing cluster connection from {}: wrong secret", ctx.channel().remoteAddress());
+                ctx.close();
+                return;
+            }
+            ctx.pipeline().replace(this, "receiver", new Receiver());
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            ctx.fireChannelInactive();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.warn("Closing cluster connection from {}: {}", ctx.channel().remoteAddress(), cause.getMessage());
+            ctx.close();
+        }
+    }
+
+    /**
+     * Answers the challenge of a peer on an outbound connection.
+     */
+    private final class Response extends SimpleChannelInboundHandler<ByteBuf> {
+
+        private final Promise<Void> answered;
+
+        private Response(Promise<Void> answered) {
+            this.answered = answered;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf frame) {
+            if (answered.isDone()) {
+                return;
+            }
+            ctx.writeAndFlush(Unpooled.wrappedBuffer(sign(ByteBufUtil.getBytes(frame))));
+            answered.trySuccess(null);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            answered.tryFailure(new IllegalStateException("Connection closed before the handshake"));
+            ctx.fireChannelInactive();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.warn("Closing cluster connection to {}: {}", ctx.channel().remoteAddress(), cause.getMessage());
+            ctx.close();
+        }
+    }
+
+    private final class Receiver extends SimpleChannelInboundHandler<ByteBuf> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf frame) {
+            ClusterEnvelope envelope = ClusterEnvelope.readFrom(frame);
+            if (nodeId.equals(envelope.origin())) {
+                return;
+            }
+            for (Consumer<ClusterEnvelope> listener : listeners) {
+                try {
+                    listener.accept(envelope);
+                } catch (RuntimeException e) {
+                    log.error("Failed to deliver cluster message to {}", envelope.destination(), e);
+                }
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.warn("Closing cluster connection from {}: {}", ctx.channel().remoteAddress(), cause.getMessage());
+            ctx.close();
+        }
+    }
+
+    /**
+     * Outbound connection to one peer, reopened until the bus is closed.
+     */
+    private final class Peer {
+
+        private final String address;
+        private final String host;
+        private final int port;
+        private final Bootstrap bootstrap;
+        private final long reconnectMillis;
+        private volatile Channel channel;
+
+        private Peer(String address, Bootstrap bootstrap, long reconnectMillis) {
+            int separator = address.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Cluster peer must be host:port, got " + address);
+            }
+            this.address = address;
+            this.host = address.substring(0, separator);
+            this.port = Integer.parseInt(address.substring(separator + 1));
+            this.bootstrap = bootstrap;
+            this.reconnectMillis = reconnectMillis;
+        }
+
+        private void connect() {
+            if (closed) {
+                return;
+            }
+            bootstrap.connect(host, port).addListener((ChannelFuture future) -> {
+                if (!future.isSuccess()) {
+                    log.debug("Cannot connect to cluster peer {}: {}", address, future.cause().getMessage());
+                    reconnect();
+                    return;
+                }
+                Channel connected = future.channel();
+                // Messages are only written once the challenge is answered; the peer would drop them before.
+                connected.pipeline().get(Response.class).answered.addListener(answered -> {
+                    if (answered.isSuccess()) {
+                        channel = connected;
+                        log.info("Connected to cluster peer {}", address);
+                    }
+                });
+                connected.closeFuture().addListener(closedFuture -> {
+                    if (!closed && channel == connected) {
+                        log.warn("Connection to cluster peer {} lost", address);
+                    }
+                    reconnect();
+                });
+            });
+        }
+
+        private void reconnect() {
+            if (closed) {
+                return;
+            }
+            try {
+                group.schedule(this::connect, reconnectMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down.
+            }
+        }
+
+        private void close() {
+            Channel current = channel;
+            if (current != null) {
+                current.close();
+            }
+        }
+    }
+}
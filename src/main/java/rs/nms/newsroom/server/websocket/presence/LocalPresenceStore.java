@@ -0,0 +1,97 @@
+package rs.nms.newsroom.server.websocket.presence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link PresenceStore} for a single node.
+ * <p>
+ * Every room is changed inside {@link ConcurrentHashMap#compute}, which locks only the map bin of
+ * that room: joins and leaves in different rooms do not wait for each other, and there is no global lock.
+ * </p>
+ */
+public class LocalPresenceStore implements PresenceStore {
+
+    /**
+     * Room ID to user ID to session ID to expiry; only accessed while the room's bin is locked.
+     */
+    private final ConcurrentHashMap<Long, Map<Long, Map<String, Long>>> rooms = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean add(long roomId, long userId, String sessionId, long expiresAt, long now) {
+        boolean[] joined = {false};
+        rooms.compute(roomId, (id, users) -> {
+            if (users == null) {
+                users = new HashMap<>();
+            }
+            Map<String, Long> sessions = users.computeIfAbsent(userId, user -> new HashMap<>());
+            sessions.values().removeIf(expiry -> expiry <= now);
+            joined[0] = sessions.isEmpty();
+            sessions.put(sessionId, expiresAt);
+            return users;
+        });
+        return joined[0];
+    }
+
+    @Override
+    public boolean remove(long roomId, long userId, String sessionId, long now) {
+        boolean[] left = {false};
+        rooms.computeIfPresent(roomId, (id, users) -> {
+            Map<String, Long> sessions = users.get(userId);
+            if (sessions != null && sessions.remove(sessionId) != null) {
+                sessions.values().removeIf(expiry -> expiry <= now);
+                if (sessions.isEmpty()) {
+                    users.remove(userId);
+                    left[0] = true;
+                }
+            }
+            return users.isEmpty() ? null : users;
+        });
+        return left[0];
+    }
+
+    @Override
+    public Set<Long> users(long roomId, long now) {
+        Set<Long> present = new HashSet<>();
+        rooms.computeIfPresent(roomId, (id, users) -> {
+            users.forEach((userId, sessions) -> {
+                for (long expiry : sessions.values()) {
+                    if (expiry > now) {
+                        present.add(userId);
+                        return;
+                    }
+                }
+            });
+            return users;
+        });
+        return present;
+    }
+
+    @Override
+    public void expire(long now, Listener left) {
+        for (Long roomId : rooms.keySet()) {
+            List<Long> gone = new ArrayList<>();
+            rooms.computeIfPresent(roomId, (id, users) -> {
+                Iterator<Map.Entry<Long, Map<String, Long>>> it = users.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Long, Map<String, Long>> user = it.next();
+                    user.getValue().values().removeIf(expiry -> expiry <= now);
+                    if (user.getValue().isEmpty()) {
+                        it.remove();
+                        gone.add(user.getKey());
+                    }
+                }
+                return users.isEmpty() ? null : users;
+            });
+            for (Long userId : gone) {
+                left.accept(roomId, userId);
+            }
+        }
+    }
+}
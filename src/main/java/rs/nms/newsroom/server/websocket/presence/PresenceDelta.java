@@ -0,0 +1,10 @@
+package rs.nms.newsroom.server.websocket.presence;
+
+import java.util.Set;
+
+/**
+ * Users who joined or left a room since the previous update, sent to
+ * {@code /topic/chat.room.{roomId}/presence}.
+ */
+public record PresenceDelta(long roomId, Set<Long> joined, Set<Long> left) {
+}
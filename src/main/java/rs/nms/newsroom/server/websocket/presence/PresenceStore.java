@@ -0,0 +1,46 @@
+package rs.nms.newsroom.server.websocket.presence;
+
+import java.util.Set;
+
+/**
+ * Sessions present in chat rooms, each with an expiry time.
+ * <p>
+ * A user is present in a room while at least one of their sessions is. Every method reporting a
+ * change of a user's presence does so atomically, so when several nodes share a store each change
+ * is reported by exactly one of them. Times are epoch milliseconds.
+ * </p>
+ */
+public interface PresenceStore {
+
+    /**
+     * Adds a session or moves its expiry to {@code expiresAt}.
+     *
+     * @return {@code true} if the user was not present in the room before
+     */
+    boolean add(long roomId, long userId, String sessionId, long expiresAt, long now);
+
+    /**
+     * Removes a session.
+     *
+     * @return {@code true} if it was the user's last session in the room
+     */
+    boolean remove(long roomId, long userId, String sessionId, long now);
+
+    /**
+     * @return users with at least one session in the room that has not expired
+     */
+    Set<Long> users(long roomId, long now);
+
+    /**
+     * Removes sessions that expired at or before {@code now} from all rooms.
+     *
+     * @param left receives the room and user ID of every user left without a session
+     */
+    void expire(long now, Listener left);
+
+    @FunctionalInterface
+    interface Listener {
+
+        void accept(long roomId, long userId);
+    }
+}
@@ -0,0 +1,149 @@
+package rs.nms.newsroom.server.websocket.presence;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link PresenceStore} in Redis, shared by all nodes.
+ * <p>
+ * Per room there is a sorted set of users, scored by the expiry of their newest session, and per
+ * present user a sorted set of sessions scored by expiry. Every change runs as one Lua script, so
+ * concurrent joins, leaves and sweeps from different nodes each report a change exactly once.
+ * The scripts touch keys derived from their arguments, so the store needs a standalone or
+ * Sentinel-managed Redis, not Redis Cluster.
+ * </p>
+ * <p>
+ * Session IDs are prefixed with a random ID of this store, so equal session IDs on two nodes do not collide.
+ * </p>
+ */
+public class RedisPresenceStore implements PresenceStore {
+
+    /**
+     * KEYS: users, sessions, rooms. ARGV: user ID, session, expiry, room ID, now.
+     */
+    private static final RedisScript<Long> ADD = RedisScript.of("""
+            local score = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[5])
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[2])
+            local newest = redis.call('ZRANGE', KEYS[2], -1, -1, 'WITHSCORES')
+            redis.call('ZADD', KEYS[1], newest[2], ARGV[1])
+            redis.call('SADD', KEYS[3], ARGV[4])
+            if score and tonumber(score) > tonumber(ARGV[5]) then
+                return 0
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: users, sessions. ARGV: user ID, session, now.
+     */
+    private static final RedisScript<Long> REMOVE = RedisScript.of("""
+            if redis.call('ZREM', KEYS[2], ARGV[2]) == 0 then
+                return 0
+            end
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[3])
+            local newest = redis.call('ZRANGE', KEYS[2], -1, -1, 'WITHSCORES')
+            if #newest == 0 then
+                redis.call('ZREM', KEYS[1], ARGV[1])
+                return 1
+            end
+            redis.call('ZADD', KEYS[1], newest[2], ARGV[1])
+            return 0
+            """, Long.class);
+
+    /**
+     * KEYS: users, rooms. ARGV: now, sessions key prefix, room ID.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> EXPIRE = RedisScript.of("""
+            local left = {}
+            for _, user in ipairs(redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1])) do
+                local sessions = ARGV[2] .. user
+                redis.call('ZREMRANGEBYSCORE', sessions, '-inf', ARGV[1])
+                local newest = redis.call('ZRANGE', sessions, -1, -1, 'WITHSCORES')
+                if #newest == 0 then
+                    redis.call('ZREM', KEYS[1], user)
+                    table.insert(left, user)
+                else
+                    redis.call('ZADD', KEYS[1], newest[2], user)
+                end
+            end
+            if redis.call('ZCARD', KEYS[1]) == 0 then
+                redis.call('SREM', KEYS[2], ARGV[3])
+            end
+            return left
+            """, List.class);
+
+    private final StringRedisTemplate redis;
+    private final String keyPrefix;
+    private final String roomsKey;
+    private final String instanceId;
+
+    public RedisPresenceStore(StringRedisTemplate redis, String keyPrefix, String instanceId) {
+        this.redis = redis;
+        this.keyPrefix = keyPrefix;
+        this.roomsKey = keyPrefix + "rooms";
+        this.instanceId = instanceId;
+    }
+
+    @Override
+    public boolean add(long roomId, long userId, String sessionId, long expiresAt, long now) {
+        Long joined = redis.execute(ADD, List.of(usersKey(roomId), sessionsKey(roomId, userId), roomsKey),
+                Long.toString(userId), session(sessionId), Long.toString(expiresAt), Long.toString(roomId),
+                Long.toString(now));
+        return joined != null && joined == 1;
+    }
+
+    @Override
+    public boolean remove(long roomId, long userId, String sessionId, long now) {
+        Long left = redis.execute(REMOVE, List.of(usersKey(roomId), sessionsKey(roomId, userId)),
+                Long.toString(userId), session(sessionId), Long.toString(now));
+        return left != null && left == 1;
+    }
+
+    @Override
+    public Set<Long> users(long roomId, long now) {
+        Set<String> members = redis.opsForZSet().rangeByScore(usersKey(roomId), now + 1, Double.POSITIVE_INFINITY);
+        Set<Long> users = new HashSet<>();
+        if (members != null) {
+            for (String member : members) {
+                users.add(Long.valueOf(member));
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public void expire(long now, Listener left) {
+        Set<String> rooms = redis.opsForSet().members(roomsKey);
+        if (rooms == null) {
+            return;
+        }
+        for (String room : rooms) {
+            long roomId = Long.parseLong(room);
+            List<?> gone = redis.execute(EXPIRE, List.of(usersKey(roomId), roomsKey),
+                    Long.toString(now), usersKey(roomId) + ":", room);
+            if (gone != null) {
+                for (Object userId : gone) {
+                    left.accept(roomId, Long.parseLong(userId.toString()));
+                }
+            }
+        }
+    }
+
+    private String usersKey(long roomId) {
+        return keyPrefix + roomId;
+    }
+
+    private String sessionsKey(long roomId, long userId) {
+        return usersKey(roomId) + ":" + userId;
+    }
+
+    private String session(String sessionId) {
+        return instanceId + ":" + sessionId;
+    }
+}
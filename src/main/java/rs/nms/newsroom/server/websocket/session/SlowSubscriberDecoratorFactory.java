@@ -0,0 +1,57 @@
+package rs.nms.newsroom.server.websocket.session;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import rs.nms.newsroom.server.config.websocket.WebSocketTransportProperties;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Wraps every WebSocket session in a {@link SlowSubscriberSessionDecorator} before it reaches the
+ * STOMP handler, so messages to a slow client are limited by {@code websocket.transport.session.*}
+ * instead of stalling the outbound channel threads.
+ * <p>
+ * Writes to clients run on virtual threads, one per session with waiting messages; a client that
+ * stops reading parks its thread without holding a platform thread.
+ * </p>
+ */
+@Component
+public class SlowSubscriberDecoratorFactory implements WebSocketHandlerDecoratorFactory, DisposableBean {
+
+    private final WebSocketTransportProperties.Session settings;
+    private final SlowSubscriberMetrics metrics;
+    private final ExecutorService sendExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-send-", 0).factory());
+
+    public SlowSubscriberDecoratorFactory(WebSocketTransportProperties transportProperties, MeterRegistry meterRegistry) {
+        this.settings = transportProperties.getSession();
+        this.metrics = new SlowSubscriberMetrics(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(decorate(session));
+            }
+        };
+    }
+
+    SlowSubscriberSessionDecorator decorate(WebSocketSession session) {
+        return new SlowSubscriberSessionDecorator(session, settings.getSendTimeLimit().toNanos(),
+                settings.getSendBufferSizeLimit().toBytes(), settings.getSlowSubscriberPolicy(),
+                settings.getCoalesceDestinations(), sendExecutor, metrics);
+    }
+
+    @Override
+    public void destroy() {
+        sendExecutor.shutdownNow();
+    }
+}
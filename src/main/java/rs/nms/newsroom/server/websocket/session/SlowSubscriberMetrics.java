@@ -0,0 +1,56 @@
+package rs.nms.newsroom.server.websocket.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters of the slow subscriber handling.
+ * <ul>
+ *     <li>{@code websocket.outbound.buffered} - bytes waiting to be sent, across all sessions</li>
+ *     <li>{@code websocket.outbound.dropped} - messages discarded for slow sessions</li>
+ *     <li>{@code websocket.outbound.coalesced} - waiting messages replaced by a newer one</li>
+ *     <li>{@code websocket.sessions.slow.closed} - slow sessions closed</li>
+ * </ul>
+ */
+class SlowSubscriberMetrics {
+
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final Counter dropped;
+    private final Counter coalesced;
+    private final Counter disconnected;
+
+    SlowSubscriberMetrics(MeterRegistry registry) {
+        Gauge.builder("websocket.outbound.buffered", bufferedBytes, AtomicLong::get)
+                .description("Bytes waiting to be sent to WebSocket sessions")
+                .baseUnit("bytes")
+                .register(registry);
+        dropped = Counter.builder("websocket.outbound.dropped")
+                .description("Messages discarded for slow WebSocket sessions")
+                .register(registry);
+        coalesced = Counter.builder("websocket.outbound.coalesced")
+                .description("Waiting WebSocket messages replaced by a newer message for the same destination")
+                .register(registry);
+        disconnected = Counter.builder("websocket.sessions.slow.closed")
+                .description("WebSocket sessions closed for not keeping up")
+                .register(registry);
+    }
+
+    void buffered(long deltaBytes) {
+        bufferedBytes.addAndGet(deltaBytes);
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void coalesced() {
+        coalesced.increment();
+    }
+
+    void disconnected() {
+        disconnected.increment();
+    }
+}
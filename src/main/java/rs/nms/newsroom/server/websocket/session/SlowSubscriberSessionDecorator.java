@@ -0,0 +1,214 @@
+package rs.nms.newsroom.server.websocket.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import rs.nms.newsroom.server.config.websocket.WebSocketTransportProperties.SlowSubscriberPolicy;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Buffers outbound messages of one session and writes them from a separate task, so a client that
+ * reads slowly never blocks the thread handing messages to it.
+ * <p>
+ * {@link #sendMessage} only queues the message. While a send is running, the session counts as slow
+ * once the queued bytes exceed the buffer limit or the running send exceeds the time limit; new
+ * messages are then handled according to the {@link SlowSubscriberPolicy}. A single message is
+ * always accepted into an empty buffer. Coalescing is limited to the snapshot destinations given
+ * as {@code coalesceDestinations}.
+ * </p>
+ */
+@Slf4j
+class SlowSubscriberSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final PathMatcher DESTINATIONS = new AntPathMatcher();
+
+    private final long sendTimeLimitNanos;
+    private final long bufferSizeLimit;
+    private final SlowSubscriberPolicy policy;
+    private final List<String> coalesceDestinations;
+    private final Executor sendExecutor;
+    private final SlowSubscriberMetrics metrics;
+
+    private final Deque<Pending> buffer = new ArrayDeque<>();
+    private long bufferedBytes;
+    private boolean draining;
+    private boolean closed;
+    private volatile long sendStartedAt;
+
+    SlowSubscriberSessionDecorator(WebSocketSession session, long sendTimeLimitNanos, long bufferSizeLimit,
+                                   SlowSubscriberPolicy policy, List<String> coalesceDestinations,
+                                   Executor sendExecutor, SlowSubscriberMetrics metrics) {
+        super(session);
+        this.sendTimeLimitNanos = sendTimeLimitNanos;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.policy = policy;
+        this.coalesceDestinations = List.copyOf(coalesceDestinations);
+        this.sendExecutor = sendExecutor;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        int size = message.getPayloadLength();
+        boolean disconnect = false;
+        synchronized (buffer) {
+            if (closed) {
+                return;
+            }
+            if (isSlow(size)) {
+                switch (policy) {
+                    case DROP -> {
+                        metrics.dropped();
+                        return;
+                    }
+                    case COALESCE -> {
+                        String destination = destination(message);
+                        if (isSnapshot(destination)) {
+                            if (!replaceWaiting(message, destination, size)) {
+                                metrics.dropped();
+                            }
+                            return;
+                        }
+                        // Chat messages and deltas cannot be skipped; the client reloads after reconnecting.
+                        disconnect = true;
+                        closeBuffer();
+                    }
+                    case DISCONNECT -> {
+                        disconnect = true;
+                        closeBuffer();
+                    }
+                }
+            } else {
+                buffer.add(new Pending(message, size));
+                bufferedBytes += size;
+                metrics.buffered(size);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+        }
+        if (disconnect) {
+            log.warn("Closing slow WebSocket session {}", getId());
+            metrics.disconnected();
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+            return;
+        }
+        sendExecutor.execute(this::drain);
+    }
+
+    private boolean isSlow(int size) {
+        if (!draining) {
+            return false;
+        }
+        long started = sendStartedAt;
+        return (!buffer.isEmpty() && bufferedBytes + size > bufferSizeLimit)
+                || (started != 0 && System.nanoTime() - started > sendTimeLimitNanos);
+    }
+
+    private boolean isSnapshot(String destination) {
+        return destination != null
+                && coalesceDestinations.stream().anyMatch(pattern -> DESTINATIONS.match(pattern, destination));
+    }
+
+    /**
+     * Replaces the newest waiting message for the same destination.
+     */
+    private boolean replaceWaiting(WebSocketMessage<?> message, String destination, int size) {
+        Iterator<Pending> newestFirst = buffer.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Pending pending = newestFirst.next();
+            if (destination.equals(destination(pending.message))) {
+                bufferedBytes += size - pending.size;
+                metrics.buffered(size - pending.size);
+                pending.message = message;
+                pending.size = size;
+                metrics.coalesced();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        while (true) {
+            Pending next;
+            synchronized (buffer) {
+                next = buffer.poll();
+                if (next == null || closed) {
+                    draining = false;
+                    return;
+                }
+                bufferedBytes -= next.size;
+                metrics.buffered(-next.size);
+            }
+            sendStartedAt = System.nanoTime();
+            try {
+                getDelegate().sendMessage(next.message);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Failed to send to WebSocket session {}: {}", getId(), e.getMessage());
+                synchronized (buffer) {
+                    closeBuffer();
+                    draining = false;
+                }
+                return;
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        synchronized (buffer) {
+            closeBuffer();
+        }
+        super.close(status);
+    }
+
+    private void closeBuffer() {
+        closed = true;
+        metrics.buffered(-bufferedBytes);
+        bufferedBytes = 0;
+        buffer.clear();
+    }
+
+    /**
+     * @return the {@code destination} header of a STOMP MESSAGE frame, or {@code null}
+     */
+    static String destination(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text)) {
+            return null;
+        }
+        String frame = text.getPayload();
+        int headersEnd = frame.indexOf("\n\n");
+        int start = frame.indexOf("\ndestination:");
+        if (start < 0 || (headersEnd >= 0 && start > headersEnd)) {
+            return null;
+        }
+        start += "\ndestination:".length();
+        int end = frame.indexOf('\n', start);
+        return frame.substring(start, end < 0 ? frame.length() : end).trim();
+    }
+
+    private static final class Pending {
+        private WebSocketMessage<?> message;
+        private int size;
+
+        private Pending(WebSocketMessage<?> message, int size) {
+            this.message = message;
+            this.size = size;
+        }
+    }
+}
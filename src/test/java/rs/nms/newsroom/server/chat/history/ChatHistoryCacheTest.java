@@ -0,0 +1,101 @@
+package rs.nms.newsroom.server.chat.history;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+import rs.nms.newsroom.server.dto.ChatDTOs.ChatMessageResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatHistoryCacheTest {
+
+    private static ChatHistoryCache cache(int roomCapacity, int maxMessages) {
+        ChatProperties.History settings = new ChatProperties.History();
+        settings.setRoomCapacity(roomCapacity);
+        settings.setMaxMessages(maxMessages);
+        return new ChatHistoryCache(settings, new SimpleMeterRegistry());
+    }
+
+    private static ChatMessageResponse message(long roomId, long id) {
+        ChatMessageResponse message = new ChatMessageResponse();
+        message.setId(id);
+        message.setRoomId(roomId);
+        message.setSenderId(5L);
+        message.setMessage("message " + id);
+        message.setTimestamp(LocalDateTime.now());
+        return message;
+    }
+
+    private static List<Long> ids(List<ChatMessageResponse> messages) {
+        return messages.stream().map(ChatMessageResponse::getId).toList();
+    }
+
+    @Test
+    void load_shouldMergePersistedUnwrittenAndAppendedMessages() {
+        ChatHistoryCache cache = cache(10, 100);
+        RoomHistory room = cache.room(1L);
+        cache.append(message(1L, 12));
+
+        room.load(List.of(message(1L, 10), message(1L, 9)), 9, List.of(message(1L, 11), message(1L, 10)));
+
+        assertThat(ids(room.newest(null, 10))).containsExactly(12L, 11L, 10L, 9L);
+        assertThat(room.total()).isEqualTo(11);
+        assertThat(cache.messages()).isEqualTo(4);
+    }
+
+    @Test
+    void append_shouldKeepIdOrderAndDropOldestWhenFull() {
+        ChatHistoryCache cache = cache(3, 100);
+        RoomHistory room = cache.room(1L);
+        room.load(List.of(), 0, List.of());
+
+        cache.append(message(1L, 1));
+        cache.append(message(1L, 3));
+        cache.append(message(1L, 2));
+        cache.append(message(1L, 4));
+        cache.append(message(1L, 4));
+
+        assertThat(ids(room.newest(null, 3))).containsExactly(4L, 3L, 2L);
+        assertThat(room.total()).isEqualTo(4);
+        assertThat(cache.messages()).isEqualTo(3);
+    }
+
+    @Test
+    void newest_beforeOlderThanBuffer_shouldRequireDatabase() {
+        ChatHistoryCache cache = cache(3, 100);
+        RoomHistory room = cache.room(1L);
+        room.load(List.of(message(1L, 30), message(1L, 29), message(1L, 28)), 30, List.of());
+
+        assertThat(ids(room.newest(30L, 2))).containsExactly(29L, 28L);
+        assertThat(room.newest(29L, 2)).isNull();
+    }
+
+    @Test
+    void newest_wholeRoomHeld_shouldAnswerShortPages() {
+        ChatHistoryCache cache = cache(10, 100);
+        RoomHistory room = cache.room(1L);
+        room.load(List.of(message(1L, 2), message(1L, 1)), 2, List.of());
+
+        assertThat(ids(room.newest(2L, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void trim_shouldDropLeastRecentlyUsedRooms() {
+        ChatHistoryCache cache = cache(10, 4);
+        RoomHistory first = cache.room(1L);
+        first.load(List.of(message(1L, 2), message(1L, 1)), 2, List.of());
+        RoomHistory second = cache.room(2L);
+        second.load(List.of(message(2L, 4), message(2L, 3)), 2, List.of());
+        cache.room(1L);
+
+        cache.append(message(1L, 5));
+
+        assertThat(cache.rooms()).isEqualTo(1);
+        assertThat(cache.messages()).isEqualTo(3);
+        assertThat(ids(cache.room(1L).newest(null, 10))).containsExactly(5L, 2L, 1L);
+        assertThat(cache.room(2L).isLoaded()).isFalse();
+    }
+}
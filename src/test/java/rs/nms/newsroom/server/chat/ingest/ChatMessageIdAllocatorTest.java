@@ -0,0 +1,32 @@
+package rs.nms.newsroom.server.chat.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import rs.nms.newsroom.server.domain.ChatMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatMessageIdAllocatorTest {
+
+    private static final String NEXTVAL = "SELECT NEXTVAL(" + ChatMessage.ID_SEQUENCE + ")";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void next_shouldQueryOncePerBlock() {
+        when(jdbcTemplate.queryForObject(NEXTVAL, Long.class)).thenReturn(1L, 501L);
+        ChatMessageIdAllocator allocator = new ChatMessageIdAllocator(jdbcTemplate);
+
+        for (long expected = 1; expected <= ChatMessage.ID_ALLOCATION_SIZE; expected++) {
+            assertThat(allocator.next()).isEqualTo(expected);
+        }
+        assertThat(allocator.next()).isEqualTo(501L);
+        assertThat(allocator.next()).isEqualTo(502L);
+
+        verify(jdbcTemplate, times(2)).queryForObject(NEXTVAL, Long.class);
+    }
+}
@@ -0,0 +1,157 @@
+package rs.nms.newsroom.server.chat.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionOperations;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ChatMessageWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    private ChatMessageWriter writer(int queueCapacity, int batchSize) {
+        ChatProperties.Ingest settings = new ChatProperties.Ingest();
+        settings.setQueueCapacity(queueCapacity);
+        settings.setBatchSize(batchSize);
+        settings.setEnqueueTimeout(Duration.ofMillis(10));
+        settings.setRetryBackoff(Duration.ofMillis(10));
+        settings.setShutdownTimeout(Duration.ofSeconds(5));
+        return new ChatMessageWriter(jdbcTemplate, TransactionOperations.withoutTransaction(), settings, registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onBatch(BatchAction action) {
+        doAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>();
+            for (PendingChatMessage message : (Collection<PendingChatMessage>) invocation.getArgument(1)) {
+                ids.add(message.id());
+            }
+            action.apply(ids);
+            batches.add(ids);
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(eq(ChatMessageWriter.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static PendingChatMessage message(long id) {
+        return new PendingChatMessage(id, 7L, 5L, "message " + id, LocalDateTime.now());
+    }
+
+    @Test
+    void destroy_shouldWriteQueuedMessagesInBatches() throws Exception {
+        onBatch(ids -> { });
+        ChatMessageWriter writer = writer(100, 2);
+        for (long id = 1; id <= 5; id++) {
+            writer.enqueue(message(id));
+        }
+
+        writer.start();
+        writer.destroy();
+
+        assertThat(batches).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        assertThat(registry.counter("chat.ingest.persisted").count()).isEqualTo(5);
+        assertThatThrownBy(() -> writer.enqueue(message(6))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void enqueue_queueFull_shouldReject() {
+        ChatMessageWriter writer = writer(1, 10);
+        writer.enqueue(message(1));
+
+        assertThatThrownBy(() -> writer.enqueue(message(2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("full");
+        assertThat(registry.counter("chat.ingest.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void write_transientFailure_shouldRetrySameBatch() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        onBatch(ids -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new TransientDataAccessResourceException("connection lost");
+            }
+        });
+        ChatMessageWriter writer = writer(100, 10);
+        writer.enqueue(message(1));
+        writer.enqueue(message(2));
+
+        writer.start();
+        writer.destroy();
+
+        assertThat(attempts).hasValue(2);
+        assertThat(batches).containsExactly(List.of(1L, 2L));
+    }
+
+    @Test
+    void write_constraintViolation_shouldDropOnlyOffendingMessage() throws Exception {
+        onBatch(ids -> {
+            if (ids.contains(2L)) {
+                throw new DataIntegrityViolationException("room deleted");
+            }
+        });
+        ChatMessageWriter writer = writer(100, 10);
+        writer.enqueue(message(1));
+        writer.enqueue(message(2));
+        writer.enqueue(message(3));
+
+        writer.start();
+        writer.destroy();
+
+        assertThat(batches).containsExactly(List.of(1L), List.of(3L));
+        assertThat(registry.counter("chat.ingest.persisted").count()).isEqualTo(2);
+        assertThat(registry.counter("chat.ingest.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void pending_shouldListQueuedAndInFlightMessagesOfTheRoom() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        onBatch(ids -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        });
+        ChatMessageWriter writer = writer(100, 1);
+        writer.enqueue(message(1));
+        writer.enqueue(message(2));
+
+        writer.start();
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(writer.pending(7)).extracting(PendingChatMessage::id).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(writer.pending(8)).isEmpty();
+        release.countDown();
+        writer.destroy();
+        assertThat(writer.pending(7)).isEmpty();
+    }
+
+    @FunctionalInterface
+    private interface BatchAction {
+        void apply(List<Long> ids) throws Exception;
+    }
+}
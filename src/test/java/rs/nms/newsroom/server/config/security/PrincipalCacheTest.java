@@ -0,0 +1,109 @@
+package rs.nms.newsroom.server.config.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrincipalCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private PrincipalCache cache(int maxEntries) {
+        PrincipalCacheProperties properties = new PrincipalCacheProperties();
+        properties.setTtl(Duration.ofSeconds(60));
+        properties.setMaxEntries(maxEntries);
+        when(userDetailsService.loadUserByUsername(anyString())).thenAnswer(invocation ->
+                new User(invocation.getArgument(0), "hash", List.of()));
+        return new PrincipalCache(userDetailsService, properties, registry, now::get);
+    }
+
+    @Test
+    void load_twiceWithinTtl_shouldQueryOnce() {
+        PrincipalCache cache = cache(10);
+
+        UserDetails first = cache.load("editor");
+        UserDetails second = cache.load("editor");
+
+        assertThat(second).isSameAs(first);
+        verify(userDetailsService, times(1)).loadUserByUsername("editor");
+        assertThat(registry.counter("security.principal.cache.requests", "result", "hit").count()).isEqualTo(1);
+        assertThat(registry.counter("security.principal.cache.requests", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void load_afterTtl_shouldQueryAgain() {
+        PrincipalCache cache = cache(10);
+        cache.load("editor");
+
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+        cache.load("editor");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("editor");
+    }
+
+    @Test
+    void load_unknownUser_shouldNotBeCached() {
+        PrincipalCache cache = cache(10);
+        when(userDetailsService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("ghost"));
+
+        assertThatThrownBy(() -> cache.load("ghost")).isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> cache.load("ghost")).isInstanceOf(UsernameNotFoundException.class);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("ghost");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictAll_shouldReloadOnNextLoad() {
+        PrincipalCache cache = cache(10);
+        cache.load("editor");
+
+        cache.evictAll();
+        cache.load("editor");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("editor");
+    }
+
+    @Test
+    void load_beyondMaxEntries_shouldStayWithinLimit() {
+        PrincipalCache cache = cache(2);
+
+        cache.load("a");
+        cache.load("b");
+        cache.load("c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(registry.get("security.principal.cache.entries").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void disabled_shouldAlwaysQuery() {
+        PrincipalCacheProperties properties = new PrincipalCacheProperties();
+        properties.setEnabled(false);
+        when(userDetailsService.loadUserByUsername("editor")).thenReturn(new User("editor", "hash", List.of()));
+        PrincipalCache cache = new PrincipalCache(userDetailsService, properties, registry, now::get);
+
+        cache.load("editor");
+        cache.load("editor");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("editor");
+        assertThat(cache.size()).isZero();
+    }
+}
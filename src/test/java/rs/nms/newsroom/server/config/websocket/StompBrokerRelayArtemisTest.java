@@ -0,0 +1,118 @@
+package rs.nms.newsroom.server.config.websocket;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the relay broker mode against an embedded ActiveMQ Artemis with a STOMP acceptor, the way
+ * {@link WebSocketConfig} configures it.
+ */
+class StompBrokerRelayArtemisTest {
+
+    private final ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+    private final BlockingQueue<Message<?>> toClients = new LinkedBlockingQueue<>();
+
+    private EmbeddedActiveMQ artemis;
+    private StompBrokerRelayMessageHandler relay;
+
+    @BeforeEach
+    void start() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        artemis = new EmbeddedActiveMQ();
+        artemis.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + port
+                        + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/"));
+        artemis.start();
+
+        clientOutbound.subscribe(toClients::add);
+        WebSocketBrokerProperties.Relay settings = new WebSocketBrokerProperties.Relay();
+        relay = new StompBrokerRelayMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic", "/queue"));
+        relay.setRelayHost("127.0.0.1");
+        relay.setRelayPort(port);
+        relay.setClientLogin(settings.getClientLogin());
+        relay.setClientPasscode(settings.getClientPasscode());
+        relay.setSystemLogin(settings.getSystemLogin());
+        relay.setSystemPasscode(settings.getSystemPasscode());
+        relay.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!relay.isBrokerAvailable() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(relay.isBrokerAvailable()).isTrue();
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        relay.stop();
+        artemis.stop();
+    }
+
+    private Message<?> awaitFrame(StompCommand command) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Message<?> message = toClients.poll(100, TimeUnit.MILLISECONDS);
+            if (message != null && StompHeaderAccessor.wrap(message).getCommand() == command) {
+                return message;
+            }
+        }
+        throw new AssertionError("No " + command + " frame received");
+    }
+
+    private void fromClient(StompHeaderAccessor accessor) {
+        accessor.setSessionId("session-1");
+        clientInbound.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    @Test
+    void serverPublishedMessage_shouldReachSubscriberThroughBroker() throws InterruptedException {
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setAcceptVersion("1.2");
+        connect.setHeartbeat(0, 0);
+        fromClient(connect);
+        awaitFrame(StompCommand.CONNECTED);
+
+        StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        subscribe.setDestination("/topic/mos/rundown");
+        subscribe.setSubscriptionId("sub-1");
+        subscribe.setReceipt("subscribed");
+        fromClient(subscribe);
+        awaitFrame(StompCommand.RECEIPT);
+
+        SimpMessageHeaderAccessor publish = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        publish.setDestination("/topic/mos/rundown");
+        brokerChannel.send(MessageBuilder.createMessage("{\"action\":\"RUNDOWN_DELTA\"}".getBytes(StandardCharsets.UTF_8),
+                publish.getMessageHeaders()));
+
+        Message<?> delivered = awaitFrame(StompCommand.MESSAGE);
+        assertThat(StompHeaderAccessor.wrap(delivered).getSubscriptionId()).isEqualTo("sub-1");
+        assertThat(new String((byte[]) delivered.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"action\":\"RUNDOWN_DELTA\"}");
+    }
+}
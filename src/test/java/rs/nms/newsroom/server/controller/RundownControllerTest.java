@@ -15,6 +15,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import rs.nms.newsroom.server.dto.RundownDTOs;
 import rs.nms.newsroom.server.service.RundownService;
+import rs.nms.newsroom.server.service.mos.MosDevicePublisher;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -41,6 +42,9 @@ class RundownControllerTest {
     @MockBean
     private RundownService rundownService;
 
+    @MockBean
+    private MosDevicePublisher mosDevicePublisher;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -201,6 +205,7 @@ class RundownControllerTest {
                             .content(objectMapper.writeValueAsString(lockRequest)))
                     .andExpect(status().isNoContent());
             Mockito.verify(rundownService).setLockStatus(1L, true);
+            Mockito.verify(mosDevicePublisher).rundownLockChanged(1L, true);
         }
     }
 }
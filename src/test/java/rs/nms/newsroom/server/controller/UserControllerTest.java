@@ -19,6 +19,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import rs.nms.newsroom.server.config.security.CustomUserDetails;
 import rs.nms.newsroom.server.dto.UserDTOs;
+import rs.nms.newsroom.server.dto.common.CursorPage;
 import rs.nms.newsroom.server.service.UserService;
 
 import java.time.LocalDateTime;
@@ -231,6 +232,24 @@ class UserControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$[0].operation").value("CREATE"));
         }
+
+        @Test
+        void getUserLogsBefore_ok() throws Exception {
+            UserDTOs.UserLogEntry entry = new UserDTOs.UserLogEntry();
+            entry.setTimestamp(LocalDateTime.now().minusDays(1));
+            entry.setOperation("UPDATE");
+            entry.setPerformedBy("User ID: 10");
+            CursorPage<UserDTOs.UserLogEntry> page = new CursorPage<>();
+            page.setContent(List.of(entry));
+            page.setNextBefore(41L);
+
+            Mockito.when(userService.getUserLog(1L, 50L, 1)).thenReturn(page);
+
+            mockMvc.perform(get("/users/1/logs").param("before", "50").param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].operation").value("UPDATE"))
+                    .andExpect(jsonPath("$.nextBefore").value(41));
+        }
     }
 
     @Nested
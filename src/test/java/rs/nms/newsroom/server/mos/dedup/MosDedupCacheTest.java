@@ -0,0 +1,100 @@
+package rs.nms.newsroom.server.mos.dedup;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.mos.metrics.MosMetrics;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class MosDedupCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private MosDedupCache cache(int maxEntries) {
+        MosProperties.Dedup settings = new MosProperties.Dedup();
+        settings.setWindow(Duration.ofSeconds(60));
+        settings.setMaxEntries(maxEntries);
+        return new MosDedupCache(settings, mock(MosMetrics.class), now::get);
+    }
+
+    private static MosDedupCache.Key key(String roId, String frame) {
+        return MosDedupCache.key(new MosMessage(MosMessageType.RO_STORY_INSERT, roId, null),
+                Unpooled.copiedBuffer(frame, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void claim_sameFrameTwice_shouldReturnOutcomeOfFirstCopy() {
+        MosDedupCache cache = cache(10);
+
+        MosDedupCache.Claim first = cache.claim(key("RO-1", "<mos><messageID>1</messageID></mos>"));
+        MosDedupCache.Claim second = cache.claim(key("RO-1", "<mos><messageID>1</messageID></mos>"));
+
+        assertThat(first.duplicate()).isFalse();
+        assertThat(second.duplicate()).isTrue();
+        assertThat(second.outcome()).isSameAs(first.outcome());
+    }
+
+    @Test
+    void claim_differentMessageIdOrRunningOrder_shouldNotBeDuplicate() {
+        MosDedupCache cache = cache(10);
+        cache.claim(key("RO-1", "<mos><messageID>1</messageID></mos>"));
+
+        assertThat(cache.claim(key("RO-1", "<mos><messageID>2</messageID></mos>")).duplicate()).isFalse();
+        assertThat(cache.claim(key("RO-2", "<mos><messageID>1</messageID></mos>")).duplicate()).isFalse();
+    }
+
+    @Test
+    void claim_afterWindow_shouldProcessAgain() {
+        MosDedupCache cache = cache(10);
+        cache.claim(key("RO-1", "<mos/>"));
+
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        assertThat(cache.claim(key("RO-1", "<mos/>")).duplicate()).isFalse();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void claim_beyondMaxEntries_shouldForgetOldest() {
+        MosDedupCache cache = cache(2);
+        cache.claim(key("RO-1", "<mos/>"));
+        cache.claim(key("RO-2", "<mos/>"));
+        cache.claim(key("RO-3", "<mos/>"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.claim(key("RO-3", "<mos/>")).duplicate()).isTrue();
+        assertThat(cache.claim(key("RO-1", "<mos/>")).duplicate()).isFalse();
+    }
+
+    @Test
+    void release_shouldFailWaitingDuplicatesAndAllowRetry() {
+        MosDedupCache cache = cache(10);
+        MosDedupCache.Claim first = cache.claim(key("RO-1", "<mos/>"));
+        MosDedupCache.Claim duplicate = cache.claim(key("RO-1", "<mos/>"));
+
+        cache.release(first, new IllegalStateException("boom"));
+
+        assertThat(duplicate.outcome()).isCompletedExceptionally();
+        assertThat(cache.claim(key("RO-1", "<mos/>")).duplicate()).isFalse();
+    }
+
+    @Test
+    void claim_disabled_shouldNeverReportDuplicates() {
+        MosProperties.Dedup settings = new MosProperties.Dedup();
+        settings.setEnabled(false);
+        MosDedupCache cache = new MosDedupCache(settings, mock(MosMetrics.class), now::get);
+
+        cache.claim(key("RO-1", "<mos/>"));
+
+        assertThat(cache.claim(key("RO-1", "<mos/>")).duplicate()).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+}
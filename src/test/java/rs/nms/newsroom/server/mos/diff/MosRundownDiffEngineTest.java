@@ -0,0 +1,142 @@
+package rs.nms.newsroom.server.mos.diff;
+
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.domain.Story;
+import rs.nms.newsroom.server.dto.mos.RoStoryEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MosRundownDiffEngineTest {
+
+    private static Story story(String externalId, Integer order) {
+        Story story = new Story();
+        story.setExternalId(externalId);
+        story.setTitle("slug " + externalId);
+        story.setOrder(order);
+        return story;
+    }
+
+    /** A story created outside MOS. */
+    private static Story anchor(Long id, Integer order) {
+        Story story = story(null, order);
+        story.setId(id);
+        return story;
+    }
+
+    /** Stories A, B, C, ... with orders 1024, 2048, ... */
+    private static List<Story> rundown(String... externalIds) {
+        List<Story> stories = new ArrayList<>();
+        for (int i = 0; i < externalIds.length; i++) {
+            stories.add(story(externalIds[i], (i + 1) * MosRundownDiffEngine.ORDER_STEP));
+        }
+        return stories;
+    }
+
+    private static List<RoStoryEntry> target(String... externalIds) {
+        return Arrays.stream(externalIds).map(id -> {
+            RoStoryEntry entry = new RoStoryEntry();
+            entry.setStoryID(id);
+            entry.setStorySlug("slug " + id);
+            return entry;
+        }).toList();
+    }
+
+    @Test
+    void diff_sameList_shouldBeEmpty() {
+        MosRundownDiff diff = MosRundownDiffEngine.diff(rundown("A", "B", "C"), target("A", "B", "C"));
+
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(diff.orders()).isEmpty();
+    }
+
+    @Test
+    void diff_lastStoryMovedToTop_shouldMoveOnlyThatStory() {
+        MosRundownDiff diff = MosRundownDiffEngine.diff(rundown("A", "B", "C", "D", "E"), target("E", "A", "B", "C", "D"));
+
+        assertThat(diff.moved()).containsExactly(new MosRundownDiff.Move("E", 0));
+        assertThat(diff.inserted()).isEmpty();
+        assertThat(diff.deleted()).isEmpty();
+        assertThat(diff.orders()).containsOnlyKeys("E");
+        assertThat(diff.orders().get("E")).isLessThan(MosRundownDiffEngine.ORDER_STEP);
+    }
+
+    @Test
+    void diff_insertDeleteAndRename_shouldKeepOtherStoriesUntouched() {
+        List<Story> current = rundown("A", "B", "C", "D");
+        List<RoStoryEntry> target = new ArrayList<>(target("A", "X", "B", "D"));
+        target.get(3).setStorySlug("D updated");
+
+        MosRundownDiff diff = MosRundownDiffEngine.diff(current, target);
+
+        assertThat(diff.deleted()).containsExactly("C");
+        assertThat(diff.inserted()).containsExactly(new MosRundownDiff.Insert("X", "slug X", 1));
+        assertThat(diff.updated()).containsExactly(new MosRundownDiff.Update("D", "D updated"));
+        assertThat(diff.moved()).isEmpty();
+        assertThat(diff.orders()).containsOnlyKeys("X");
+        assertThat(diff.orders().get("X")).isStrictlyBetween(1024, 2048);
+    }
+
+    @Test
+    void diff_noRoomBetweenDenseOrders_shouldRenumberRundown() {
+        List<Story> current = List.of(story("A", 0), story("B", 1), story("C", 2));
+
+        MosRundownDiff diff = MosRundownDiffEngine.diff(current, target("A", "X", "B", "C"));
+
+        assertThat(diff.inserted()).extracting(MosRundownDiff.Insert::storyId).containsExactly("X");
+        assertThat(diff.moved()).isEmpty();
+        assertThat(diff.orders()).isEqualTo(Map.of("A", 1024, "X", 2048, "B", 3072, "C", 4096));
+    }
+
+    @Test
+    void diff_reversedList_shouldMoveAllButOneStory() {
+        MosRundownDiff diff = MosRundownDiffEngine.diff(rundown("A", "B", "C", "D"), target("D", "C", "B", "A"));
+
+        assertThat(diff.moved()).hasSize(3);
+        assertThat(diff.orders()).hasSize(3);
+    }
+
+    @Test
+    void diff_storiesWithoutExternalIdAndDuplicateEntries_shouldBeIgnored() {
+        List<Story> current = new ArrayList<>(rundown("A", "B"));
+        current.add(story(null, 10));
+
+        MosRundownDiff diff = MosRundownDiffEngine.diff(current, target("A", "B", "A"));
+
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(diff.orders()).isEmpty();
+        assertThat(diff.anchorOrders()).isEmpty();
+    }
+
+    @Test
+    void diff_insertNextToStoryWithoutExternalId_shouldKeepItInPlace() {
+        List<Story> current = List.of(anchor(1L, 1), story("A", 2), anchor(2L, 3), story("B", 4));
+
+        MosRundownDiff diff = MosRundownDiffEngine.diff(current, target("A", "X", "B"));
+
+        assertThat(diff.anchorOrders()).isEmpty();
+        assertThat(diff.orders()).containsOnlyKeys("X", "B");
+        assertThat(diff.orders().get("X")).isGreaterThan(3).isLessThan(diff.orders().get("B"));
+    }
+
+    @Test
+    void diff_noRoomAroundStoriesWithoutExternalId_shouldRenumberThemInPlace() {
+        List<Story> current = List.of(anchor(1L, 10), story("A", 11), anchor(2L, 12));
+
+        MosRundownDiff diff = MosRundownDiffEngine.diff(current, target("X", "A"));
+
+        assertThat(diff.orders()).isEqualTo(Map.of("X", 2048, "A", 3072));
+        assertThat(diff.anchorOrders()).isEqualTo(Map.of(1L, 1024, 2L, 4096));
+    }
+
+    @Test
+    void longestIncreasingSubsequence_shouldSkipNewEntries() {
+        boolean[] members = MosRundownDiffEngine.longestIncreasingSubsequence(new int[]{3, -1, 0, 1, -1, 4, 2});
+
+        assertThat(members).containsExactly(false, false, true, true, false, false, true);
+    }
+}
@@ -0,0 +1,49 @@
+package rs.nms.newsroom.server.mos.dispatch;
+
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.dto.mos.RoStoryInsertMessage;
+import rs.nms.newsroom.server.dto.mos.RoStoryStatusMessage;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MosMessageRegistryTest {
+
+    private final MosMessageRegistry registry = new MosMessageRegistry();
+
+    @Test
+    void find_shouldReturnRegisteredRouteAndInvokeHandler() {
+        List<RoStoryStatusMessage> handled = new ArrayList<>();
+        registry.register(MosMessageType.RO_STORY_STATUS, RoStoryStatusMessage.class, handled::add, "roStoryStatus processed");
+
+        RoStoryStatusMessage message = new RoStoryStatusMessage();
+        MosMessageRoute<?> route = registry.find(MosMessageType.RO_STORY_STATUS).orElseThrow();
+        route.handle(message);
+
+        assertThat(handled).containsExactly(message);
+        assertThat(route.ackMessage()).isEqualTo("roStoryStatus processed");
+    }
+
+    @Test
+    void find_unregisteredType_shouldReturnEmpty() {
+        assertThat(registry.find(MosMessageType.RO_CREATE)).isEmpty();
+    }
+
+    @Test
+    void register_duplicateType_shouldFail() {
+        registry.register(MosMessageType.RO_STORY_INSERT, RoStoryInsertMessage.class, m -> { }, "ok");
+
+        assertThatThrownBy(() -> registry.register(MosMessageType.RO_STORY_INSERT, RoStoryInsertMessage.class, m -> { }, "ok"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void register_mismatchedMessageClass_shouldFail() {
+        assertThatThrownBy(() -> registry.register(MosMessageType.RO_STORY_INSERT, RoStoryStatusMessage.class, m -> { }, "ok"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,146 @@
+package rs.nms.newsroom.server.mos.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.dto.mos.RoStoryStatusMessage;
+import rs.nms.newsroom.server.mos.metrics.MosMetrics;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MosRundownSequencerTest {
+
+    private final List<List<MosMessage>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final MosRundownSequencer sequencer = createSequencer((roId, messages) -> batches.add(messages));
+
+    private static MosRundownSequencer createSequencer(MosBatchProcessor batchProcessor) {
+        MosProperties properties = new MosProperties();
+        properties.getProcessing().setVirtualThreads(false);
+        properties.getProcessing().setPoolSize(4);
+        properties.getProcessing().setMaxTasksPerTurn(3);
+        properties.getProcessing().setBatchWindow(Duration.ofMillis(50));
+        properties.getProcessing().setMaxBatchSize(10);
+        return new MosRundownSequencer(properties, batchProcessor, new MosMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static MosMessage storyStatus(String roId) {
+        return new MosMessage(MosMessageType.RO_STORY_STATUS, roId, new RoStoryStatusMessage());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sequencer.destroy();
+    }
+
+    @Test
+    void submit_sameRundown_shouldRunInSubmissionOrder() throws Exception {
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            futures.add(sequencer.submit("RO-1", () -> executed.add(index)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(executed).hasSize(50).isSorted();
+    }
+
+    @Test
+    void submit_differentRundowns_shouldRunInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable waitForOther = () -> {
+            bothStarted.countDown();
+            try {
+                assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<Void> first = sequencer.submit("RO-A", waitForOther);
+        CompletableFuture<Void> second = sequencer.submit("RO-B", waitForOther);
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertThat(bothStarted.getCount()).isZero();
+    }
+
+    @Test
+    void submit_failingTask_shouldCompleteExceptionallyAndKeepQueueRunning() throws Exception {
+        CompletableFuture<Void> failed = sequencer.submit("RO-2", () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Void> next = sequencer.submit("RO-2", () -> { });
+
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        next.get(5, TimeUnit.SECONDS);
+        assertThat(next).isCompleted();
+    }
+
+    @Test
+    void submitBatchable_burstWithinWindow_shouldBeProcessedAsOneBatch() throws Exception {
+        List<Runnable> fallbacksRun = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            Runnable fallback = () -> fallbacksRun.add(null);
+            futures.add(sequencer.submitBatchable("RO-3", storyStatus("RO-3"), fallback));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(5);
+        assertThat(fallbacksRun).isEmpty();
+    }
+
+    @Test
+    void submitBatchable_failedBatch_shouldRetryMessagesOneByOne() throws Exception {
+        MosRundownSequencer failing = createSequencer((roId, messages) -> {
+            throw new IllegalStateException("batch failed");
+        });
+        try {
+            List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture<Void> first = failing.submitBatchable("RO-4", storyStatus("RO-4"), () -> handled.add(1));
+            CompletableFuture<Void> second = failing.submitBatchable("RO-4", storyStatus("RO-4"), () -> {
+                throw new IllegalArgumentException("bad message");
+            });
+
+            first.get(5, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+            assertThat(handled).containsExactly(1);
+        } finally {
+            failing.destroy();
+        }
+    }
+
+    @Test
+    void submit_afterDestroy_shouldFailInsteadOfHanging() throws Exception {
+        sequencer.destroy();
+
+        CompletableFuture<Void> first = sequencer.submit("RO-5", () -> { });
+        CompletableFuture<Void> second = sequencer.submitBatchable("RO-5", storyStatus("RO-5"), () -> { });
+
+        assertThatThrownBy(() -> first.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> second.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(sequencer.pendingCount()).isZero();
+    }
+}
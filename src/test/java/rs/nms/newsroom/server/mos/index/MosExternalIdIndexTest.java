@@ -0,0 +1,119 @@
+package rs.nms.newsroom.server.mos.index;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.domain.Rundown;
+import rs.nms.newsroom.server.domain.Story;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex.StoryRef;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MosExternalIdIndexTest {
+
+    @Mock private EntityManager entityManager;
+    @Mock private TypedQuery<Object[]> query;
+
+    private final MosExternalIdIndex index = new MosExternalIdIndex(properties(2));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "entityManager", entityManager);
+    }
+
+    private static MosProperties properties(int maxStories) {
+        MosProperties properties = new MosProperties();
+        properties.getIndex().setMaxStories(maxStories);
+        return properties;
+    }
+
+    private void stubStoryQuery(List<Object[]> rows) {
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getResultList()).thenReturn(rows);
+    }
+
+    private static Story story(Long id, String externalId, Long rundownId) {
+        Rundown rundown = new Rundown();
+        rundown.setId(rundownId);
+        Story story = new Story();
+        story.setId(id);
+        story.setExternalId(externalId);
+        story.setRundown(rundown);
+        return story;
+    }
+
+    @Test
+    void findStory_miss_shouldLoadOnceAndServeFromCache() {
+        stubStoryQuery(List.<Object[]>of(new Object[]{5L, 9L}));
+
+        assertThat(index.findStory("S-1")).contains(new StoryRef(5L, 9L));
+        assertThat(index.findStory("S-1")).contains(new StoryRef(5L, 9L));
+
+        verify(query, times(1)).getResultList();
+    }
+
+    @Test
+    void findStory_unknown_shouldReturnEmptyAndNotCache() {
+        stubStoryQuery(List.of());
+
+        assertThat(index.findStory("S-404")).isEmpty();
+        assertThat(index.findStory("S-404")).isEmpty();
+
+        verify(query, times(2)).getResultList();
+    }
+
+    @Test
+    void update_changedExternalIdAndRundown_shouldReplaceOldEntry() {
+        index.update(story(5L, "S-1", 9L));
+        index.update(story(5L, "S-2", 10L));
+
+        assertThat(index.findStory("S-2")).contains(new StoryRef(5L, 10L));
+        stubStoryQuery(List.of());
+        assertThat(index.findStory("S-1")).isEmpty();
+    }
+
+    @Test
+    void evictRundown_shouldDropItsStories() {
+        Rundown rundown = new Rundown();
+        rundown.setId(9L);
+        rundown.setExternalId("RO-1");
+        rundown.setClientId(1L);
+        index.update(rundown);
+        index.update(story(5L, "S-1", 9L));
+        index.update(story(6L, "S-2", 10L));
+
+        index.evictRundown(9L);
+
+        assertThat(index.findStory("S-2")).contains(new StoryRef(6L, 10L));
+        stubStoryQuery(List.of());
+        assertThat(index.findRundown("RO-1")).isEmpty();
+        assertThat(index.findStory("S-1")).isEmpty();
+    }
+
+    @Test
+    void update_pastMaxStories_shouldForgetTheOldest() {
+        index.update(story(5L, "S-1", 9L));
+        index.update(story(6L, "S-2", 9L));
+        index.update(story(5L, "S-1", 9L));
+        index.update(story(7L, "S-3", 9L));
+
+        assertThat(index.findStory("S-1")).contains(new StoryRef(5L, 9L));
+        assertThat(index.findStory("S-3")).contains(new StoryRef(7L, 9L));
+        stubStoryQuery(List.of());
+        assertThat(index.findStory("S-2")).isEmpty();
+        verify(query, times(1)).getResultList();
+    }
+}
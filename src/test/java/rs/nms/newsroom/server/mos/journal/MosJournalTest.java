@@ -0,0 +1,134 @@
+package rs.nms.newsroom.server.mos.journal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MosJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<MosJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() {
+        opened.forEach(MosJournal::destroy);
+    }
+
+    private MosJournal open(int segmentSize) throws IOException {
+        MosProperties properties = new MosProperties();
+        properties.getJournal().setEnabled(true);
+        properties.getJournal().setDirectory(directory.toString());
+        properties.getJournal().setSegmentSize(DataSize.ofBytes(segmentSize));
+        MosJournal journal = new MosJournal(properties);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    private static long append(MosJournal journal, String xml, Charset charset) {
+        ByteBuf content = Unpooled.copiedBuffer(xml, charset);
+        try {
+            return journal.append(content, charset);
+        } finally {
+            content.release();
+        }
+    }
+
+    private static String text(MosJournalEntry entry) {
+        return new String(entry.payload(), entry.charset());
+    }
+
+    @Test
+    void open_afterRestart_shouldReplayOnlyUncommittedMessages() throws IOException {
+        MosJournal journal = open(4096);
+        long first = append(journal, "<mos>1</mos>", StandardCharsets.UTF_8);
+        long second = append(journal, "<mos>2</mos>", StandardCharsets.UTF_16BE);
+        long third = append(journal, "<mos>3</mos>", StandardCharsets.UTF_8);
+        journal.commit(first);
+        journal.commit(third);
+        journal.destroy();
+
+        List<MosJournalEntry> replay = open(4096).takePendingReplay();
+
+        assertThat(replay).extracting(MosJournalEntry::sequence).containsExactly(second);
+        assertThat(replay.get(0).charset()).isEqualTo(StandardCharsets.UTF_16BE);
+        assertThat(text(replay.get(0))).isEqualTo("<mos>2</mos>");
+    }
+
+    @Test
+    void open_afterRestart_shouldContinueSequenceAndHandOutReplayOnce() throws IOException {
+        MosJournal journal = open(4096);
+        long last = append(journal, "<mos>1</mos>", StandardCharsets.UTF_8);
+        journal.destroy();
+
+        MosJournal reopened = open(4096);
+
+        assertThat(reopened.takePendingReplay()).hasSize(1);
+        assertThat(reopened.takePendingReplay()).isEmpty();
+        assertThat(append(reopened, "<mos>2</mos>", StandardCharsets.UTF_8)).isGreaterThan(last);
+    }
+
+    @Test
+    void commit_allMessagesOfOldSegmentsCommitted_shouldDeleteThem() throws Exception {
+        MosJournal journal = open(64);
+        List<Long> sequences = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sequences.add(append(journal, "<mos>" + i + "</mos>", StandardCharsets.UTF_8));
+        }
+        assertThat(MosJournalReader.segments(directory)).hasSizeGreaterThan(2);
+
+        sequences.subList(1, 5).forEach(journal::commit);
+        journal.awaitHousekeeping();
+        assertThat(MosJournalReader.segments(directory)).hasSizeGreaterThan(2);
+
+        journal.commit(sequences.get(0));
+        journal.awaitHousekeeping();
+        assertThat(MosJournalReader.segments(directory)).hasSize(1);
+        assertThat(MosJournalReader.uncommitted(directory)).isEmpty();
+    }
+
+    @Test
+    void read_tornRecord_shouldStopBeforeIt() throws IOException {
+        MosJournal journal = open(4096);
+        append(journal, "<mos>1</mos>", StandardCharsets.UTF_8);
+        append(journal, "<mos>2</mos>", StandardCharsets.UTF_8);
+        journal.destroy();
+
+        Path segment = MosJournalReader.segments(directory).get(0);
+        int secondRecord = MosJournalReader.HEADER_LENGTH + "<mos>1</mos>".length();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), secondRecord + MosJournalReader.HEADER_LENGTH);
+        }
+
+        assertThat(MosJournalReader.messages(directory)).extracting(MosJournalTest::text)
+                .containsExactly("<mos>1</mos>");
+    }
+
+    @Test
+    void append_disabled_shouldNotWriteAnything() throws IOException {
+        MosJournal journal = new MosJournal(new MosProperties());
+        journal.open();
+
+        assertThat(append(journal, "<mos>1</mos>", StandardCharsets.UTF_8)).isEqualTo(MosJournal.NOT_JOURNALED);
+        assertThat(journal.acksOnAppend()).isFalse();
+        assertThat(MosJournalReader.segments(directory)).isEmpty();
+    }
+}
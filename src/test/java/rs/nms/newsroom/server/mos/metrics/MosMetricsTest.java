@@ -0,0 +1,60 @@
+package rs.nms.newsroom.server.mos.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoopGroup;
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MosMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MosMetrics metrics = new MosMetrics(registry);
+
+    @Test
+    void parsedAndAcked_shouldBeTaggedByMessageType() {
+        metrics.parsed(MosMessageType.RO_STORY_STATUS, 1_000);
+        metrics.acked(MosMessageType.RO_STORY_STATUS, true, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.acked(MosMessageType.RO_STORY_STATUS, false, TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(registry.get("mos.messages.received").tag("type", "roStoryStatus").counter().count()).isEqualTo(1);
+        assertThat(registry.get("mos.ack.latency").tags("type", "roStoryStatus", "status", "OK").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("mos.ack.latency").tags("type", "roStoryStatus", "status", "ERROR").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5);
+    }
+
+    @Test
+    void error_unknownType_shouldUseUnknownTag() {
+        metrics.parsed(null, 1_000);
+        metrics.error(null, "unparsable");
+
+        assertThat(registry.get("mos.errors").tags("type", MosMetrics.UNKNOWN_TYPE, "reason", "unparsable")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("mos.parse").tag("type", MosMetrics.UNKNOWN_TYPE).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void connections_shouldTrackOpenAndClose() {
+        metrics.connectionOpened();
+        metrics.connectionOpened();
+        metrics.connectionClosed();
+
+        assertThat(registry.get("mos.connections.active").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void bindEventLoops_shouldRegisterGaugePerLoop() throws InterruptedException {
+        DefaultEventLoopGroup group = new DefaultEventLoopGroup(2);
+        try {
+            metrics.bindEventLoops("worker", group);
+
+            assertThat(registry.get("mos.eventloop.pending.tasks").tag("group", "worker").gauges()).hasSize(2);
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package rs.nms.newsroom.server.mos.parser;
+
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.dto.mos.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MosStreamParserTest {
+
+    private static String mos(String body) {
+        return "<mos><mosID>playout.mos</mosID><ncsID>nms</ncsID><messageID>42</messageID>" + body + "</mos>";
+    }
+
+    @Test
+    void parse_roCreate_shouldFillSlugAndRawMetadata() {
+        String xml = mos("<roCreate><roID>RO-1</roID><roSlug>Evening News</roSlug>"
+                + "<mosExternalMetadata><mosScope>PLAYLIST</mosScope><mosPayload a=\"1\">x &amp; y</mosPayload></mosExternalMetadata>"
+                + "</roCreate>");
+
+        Optional<MosMessage> result = MosStreamParser.parse(xml);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().type()).isEqualTo(MosMessageType.RO_CREATE);
+        assertThat(result.get().roId()).isEqualTo("RO-1");
+        RoCreateMessage message = result.get().payloadAs(RoCreateMessage.class);
+        assertThat(message.getSlug()).isEqualTo("Evening News");
+        assertThat(message.getMosExternalMeta())
+                .isEqualTo("<mosScope>PLAYLIST</mosScope><mosPayload a=\"1\">x &amp; y</mosPayload>");
+    }
+
+    @Test
+    void parse_roStoryMove_shouldFillAllFields() {
+        String xml = mos("<roStoryMove><roID>RO-2</roID><storyID>S-3</storyID>"
+                + "<storyIDBefore>S-1</storyIDBefore><storyIDAfter>S-4</storyIDAfter></roStoryMove>");
+
+        RoStoryMoveMessage message = MosStreamParser.parse(xml).orElseThrow().payloadAs(RoStoryMoveMessage.class);
+
+        assertThat(message.getRoID()).isEqualTo("RO-2");
+        assertThat(message.getStoryID()).isEqualTo("S-3");
+        assertThat(message.getStoryIDBefore()).isEqualTo("S-1");
+        assertThat(message.getStoryIDAfter()).isEqualTo("S-4");
+    }
+
+    @Test
+    void parse_roStoryInsert_shouldKeepFirstOccurrenceOfNestedFields() {
+        String xml = mos("<roStoryInsert><roID>RO-3</roID>"
+                + "<story><storyID>S-10</storyID><storySlug>First</storySlug></story>"
+                + "<story><storyID>S-11</storyID><storySlug>Second</storySlug></story>"
+                + "</roStoryInsert>");
+
+        RoStoryInsertMessage message = MosStreamParser.parse(xml).orElseThrow().payloadAs(RoStoryInsertMessage.class);
+
+        assertThat(message.getStoryID()).isEqualTo("S-10");
+        assertThat(message.getStorySlug()).isEqualTo("First");
+    }
+
+    @Test
+    void parse_roReplace_shouldCollectStoryListInOrder() {
+        String xml = mos("<roReplace><roID>RO-8</roID><roSlug>Late News</roSlug>"
+                + "<story><storyID>S-2</storyID><storySlug>Weather</storySlug>"
+                + "<item><itemID>1</itemID><itemSlug>Map</itemSlug></item></story>"
+                + "<story><storyID>S-1</storyID><storySlug>Headlines</storySlug></story>"
+                + "</roReplace>");
+
+        RoReplaceMessage message = MosStreamParser.parse(xml).orElseThrow().payloadAs(RoReplaceMessage.class);
+
+        assertThat(message.getSlug()).isEqualTo("Late News");
+        assertThat(message.getStories()).extracting(RoStoryEntry::getStoryID).containsExactly("S-2", "S-1");
+        assertThat(message.getStories()).extracting(RoStoryEntry::getStorySlug).containsExactly("Weather", "Headlines");
+    }
+
+    @Test
+    void parse_heartbeat_shouldHaveNoRoId() {
+        MosMessage result = MosStreamParser.parse(mos("<heartbeat><time>2026-03-01T18:30:00</time></heartbeat>")).orElseThrow();
+
+        assertThat(result.type()).isEqualTo(MosMessageType.HEARTBEAT);
+        assertThat(result.roId()).isNull();
+        assertThat(result.mosId()).isEqualTo("playout.mos");
+        assertThat(result.payloadAs(HeartbeatMessage.class).getTime()).isEqualTo("2026-03-01T18:30:00");
+    }
+
+    @Test
+    void parse_bareBlock_shouldBeAccepted() {
+        RoStoryStatusMessage message = MosStreamParser
+                .parse("<roStoryStatus><roID>RO-4</roID><storyID>S-1</storyID><status>READY</status></roStoryStatus>")
+                .orElseThrow()
+                .payloadAs(RoStoryStatusMessage.class);
+
+        assertThat(message.getStatus()).isEqualTo("READY");
+    }
+
+    @Test
+    void parse_utf16Stream_shouldMatchStringParsing() {
+        String xml = mos("<roStorySwap><roID>RO-5</roID><storyID1>A</storyID1><storyID2>B</storyID2></roStorySwap>");
+        ByteArrayInputStream in = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_16BE));
+
+        RoStorySwapMessage message = MosStreamParser.parse(in, StandardCharsets.UTF_16BE)
+                .orElseThrow()
+                .payloadAs(RoStorySwapMessage.class);
+
+        assertThat(message.getStoryID1()).isEqualTo("A");
+        assertThat(message.getStoryID2()).isEqualTo("B");
+    }
+
+    @Test
+    void parse_unsupportedOrMalformed_shouldReturnEmpty() {
+        assertThat(MosStreamParser.parse(mos("<roElementAction><roID>RO-6</roID></roElementAction>"))).isEmpty();
+        assertThat(MosStreamParser.parse("<mos><roCreate><roID>broken</roCreate>")).isEmpty();
+        assertThat(MosStreamParser.parse("")).isEmpty();
+    }
+
+    @Test
+    void roStoryParser_shouldDelegateToStreamParser() {
+        RoStoryDeleteMessage message = RoStoryParser.parseRoStoryDelete(
+                "<roStoryDelete><roID>RO-7</roID><storyID>S-9</storyID></roStoryDelete>");
+
+        assertThat(message.getRoID()).isEqualTo("RO-7");
+        assertThat(message.getStoryID()).isEqualTo("S-9");
+    }
+}
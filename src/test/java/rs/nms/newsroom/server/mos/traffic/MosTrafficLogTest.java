@@ -0,0 +1,70 @@
+package rs.nms.newsroom.server.mos.traffic;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.tcp.mos.MosFrame;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MosTrafficLogTest {
+
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+
+    private static MosTrafficLog trafficLog(int captureSize, int captureBytes) {
+        MosProperties properties = new MosProperties();
+        properties.getTraffic().setCaptureSize(captureSize);
+        properties.getTraffic().setCaptureBytesPerMessage(DataSize.ofBytes(captureBytes));
+        return new MosTrafficLog(properties);
+    }
+
+    private void receive(MosTrafficLog trafficLog, String xml, Charset charset) {
+        MosFrame frame = new MosFrame(Unpooled.copiedBuffer(xml, charset), charset);
+        try {
+            trafficLog.inbound(channel, frame, null);
+        } finally {
+            frame.release();
+        }
+    }
+
+    @Test
+    void captured_ringFull_shouldKeepMostRecentOldestFirst() {
+        MosTrafficLog trafficLog = trafficLog(3, 1024);
+        for (int i = 0; i < 5; i++) {
+            receive(trafficLog, "<mos>" + i + "</mos>", StandardCharsets.UTF_8);
+        }
+
+        List<MosCapturedMessage> captured = trafficLog.captured(10);
+
+        assertThat(captured).extracting(MosCapturedMessage::payload)
+                .containsExactly("<mos>2</mos>", "<mos>3</mos>", "<mos>4</mos>");
+        assertThat(trafficLog.captured(2)).extracting(MosCapturedMessage::sequence).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void captured_utf16_shouldTruncateOnCodeUnitBoundary() {
+        MosTrafficLog trafficLog = trafficLog(10, 9);
+        receive(trafficLog, "<mos>x</mos>", StandardCharsets.UTF_16BE);
+
+        MosCapturedMessage message = trafficLog.captured(1).get(0);
+
+        assertThat(message.bytes()).hasSize(8);
+        assertThat(message.payload()).isEqualTo("<mos");
+        assertThat(message.truncated()).isTrue();
+        assertThat(message.length()).isEqualTo(24);
+    }
+
+    @Test
+    void captured_disabled_shouldBeEmpty() {
+        MosTrafficLog trafficLog = trafficLog(0, 1024);
+        receive(trafficLog, "<mos/>", StandardCharsets.UTF_8);
+
+        assertThat(trafficLog.captured(10)).isEmpty();
+    }
+}
@@ -0,0 +1,125 @@
+package rs.nms.newsroom.server.service.mos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.nms.newsroom.server.domain.Story;
+import rs.nms.newsroom.server.dto.mos.RoStoryDeleteMessage;
+import rs.nms.newsroom.server.dto.mos.RoStoryInsertMessage;
+import rs.nms.newsroom.server.dto.mos.RoStoryStatusMessage;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex;
+import rs.nms.newsroom.server.mos.index.MosExternalIdIndex.RundownRef;
+import rs.nms.newsroom.server.mos.parser.MosMessage;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+import rs.nms.newsroom.server.websocket.MosRoWebSocketBroadcaster;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MosStoryBatchProcessorTest {
+
+    private static final RundownRef RUNDOWN = new RundownRef(7L, 1L);
+
+    private final MosExternalIdIndex externalIdIndex = mock(MosExternalIdIndex.class);
+    private final MosStoryLookup storyLookup = mock(MosStoryLookup.class);
+    private final MosStoryInsertHandler insertHandler = mock(MosStoryInsertHandler.class);
+    private final MosStoryStatusHandler statusHandler = mock(MosStoryStatusHandler.class);
+    private final MosRoWebSocketBroadcaster broadcaster = mock(MosRoWebSocketBroadcaster.class);
+    private final MosStoryBatchProcessor processor =
+            new MosStoryBatchProcessor(externalIdIndex, storyLookup, insertHandler, statusHandler, broadcaster);
+
+    @BeforeEach
+    void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(externalIdIndex.findRundown("RO-1")).thenReturn(Optional.of(RUNDOWN));
+        when(storyLookup.findByExternalIds(any())).thenReturn(new HashMap<>());
+    }
+
+    @AfterEach
+    void endTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static MosMessage insert(String storyId) {
+        RoStoryInsertMessage insert = new RoStoryInsertMessage();
+        insert.setRoID("RO-1");
+        insert.setStoryID(storyId);
+        return new MosMessage(MosMessageType.RO_STORY_INSERT, "RO-1", insert);
+    }
+
+    private static MosMessage status(String storyId) {
+        RoStoryStatusMessage status = new RoStoryStatusMessage();
+        status.setRoID("RO-1");
+        status.setStoryID(storyId);
+        status.setStatus("READY");
+        return new MosMessage(MosMessageType.RO_STORY_STATUS, "RO-1", status);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void process_shouldBroadcastOneBatchAfterCommit() {
+        Story created = new Story();
+        created.setId(3L);
+        when(insertHandler.insert(any(), eq(RUNDOWN), eq(Optional.empty()))).thenReturn(created);
+        when(insertHandler.toPayload(any(), eq(RUNDOWN), eq(created))).thenReturn(Map.of("action", "STORY_INSERT"));
+        when(statusHandler.toPayload(any(), eq(created))).thenReturn(Map.of("action", "STORY_STATUS"));
+
+        processor.process("RO-1", List.of(insert("S1"), status("S1")));
+
+        verify(statusHandler).applyStatus(any(), eq(created));
+        verify(broadcaster, never()).broadcastGeneric(anyString(), any());
+
+        commit();
+
+        ArgumentCaptor<Map<String, Object>> payload = ArgumentCaptor.forClass(Map.class);
+        verify(broadcaster).broadcastGeneric(eq("/topic/mos/story"), payload.capture());
+        assertThat(payload.getValue()).containsEntry("action", "STORY_BATCH");
+        assertThat((List<Map<String, Object>>) payload.getValue().get("events"))
+                .extracting(event -> event.get("action"))
+                .containsExactly("STORY_INSERT", "STORY_STATUS");
+    }
+
+    @Test
+    void process_failingMessage_shouldBroadcastNothing() {
+        Story created = new Story();
+        when(insertHandler.insert(any(), eq(RUNDOWN), any())).thenReturn(created);
+        doThrow(new IllegalStateException("constraint violated")).when(statusHandler).applyStatus(any(), any());
+
+        assertThatThrownBy(() -> processor.process("RO-1", List.of(insert("S1"), status("S1"))))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        verify(broadcaster, never()).broadcastGeneric(anyString(), any());
+    }
+
+    @Test
+    void process_delegatedStoryOperation_shouldBeRejected() {
+        MosMessage delete = new MosMessage(MosMessageType.RO_STORY_DELETE, "RO-1", new RoStoryDeleteMessage());
+
+        assertThatThrownBy(() -> processor.process("RO-1", List.of(delete, status("S1"))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(broadcaster);
+    }
+}
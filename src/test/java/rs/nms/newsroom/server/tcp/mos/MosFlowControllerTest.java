@@ -0,0 +1,70 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.config.mos.MosProperties.OverloadPolicy;
+import rs.nms.newsroom.server.mos.dispatch.MosRundownSequencer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MosFlowControllerTest {
+
+    private final MosRundownSequencer sequencer = mock(MosRundownSequencer.class);
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+
+    private MosFlowController controller(OverloadPolicy policy) {
+        MosProperties properties = new MosProperties();
+        properties.getTcp().getFlowControl().setMaxInflightPerConnection(4);
+        properties.getTcp().getFlowControl().setMaxPendingMessages(100);
+        properties.getTcp().getFlowControl().setOnOverload(policy);
+        return new MosFlowController(sequencer, properties);
+    }
+
+    @Test
+    void pause_inflightLimitReached_shouldStopReadingUntilHalfIsProcessed() {
+        MosFlowController controller = controller(OverloadPolicy.PAUSE);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(controller.tryAcquire(channel)).isTrue();
+        }
+        assertThat(channel.config().isAutoRead()).isFalse();
+
+        controller.release(channel);
+        assertThat(channel.config().isAutoRead()).isFalse();
+
+        controller.release(channel);
+        channel.runPendingTasks();
+        assertThat(channel.config().isAutoRead()).isTrue();
+    }
+
+    @Test
+    void pause_globalBacklogFull_shouldPauseUntilBacklogDrains() {
+        MosFlowController controller = controller(OverloadPolicy.PAUSE);
+        when(sequencer.pendingCount()).thenReturn(100);
+
+        controller.tryAcquire(channel);
+        assertThat(channel.config().isAutoRead()).isFalse();
+
+        when(sequencer.pendingCount()).thenReturn(10);
+        controller.release(channel);
+        channel.runPendingTasks();
+        assertThat(channel.config().isAutoRead()).isTrue();
+    }
+
+    @Test
+    void reject_inflightLimitReached_shouldRejectAndKeepReading() {
+        MosFlowController controller = controller(OverloadPolicy.REJECT);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(controller.tryAcquire(channel)).isTrue();
+        }
+        assertThat(controller.tryAcquire(channel)).isFalse();
+        assertThat(channel.config().isAutoRead()).isTrue();
+
+        controller.release(channel);
+        assertThat(controller.tryAcquire(channel)).isTrue();
+    }
+}
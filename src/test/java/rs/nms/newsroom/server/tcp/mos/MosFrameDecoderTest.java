@@ -0,0 +1,85 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.TooLongFrameException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MosFrameDecoderTest {
+
+    private static final String FIRST = "<mos><roDelete><roID>RO-1</roID></roDelete></mos>";
+    private static final String SECOND = "<mos><roDelete><roID>RO-2</roID></roDelete></mos>";
+
+    private static void write(EmbeddedChannel channel, String text, Charset charset) {
+        channel.writeInbound(Unpooled.copiedBuffer(text, charset));
+    }
+
+    private static String readFrame(EmbeddedChannel channel) {
+        MosFrame frame = channel.readInbound();
+        try {
+            return frame.asText();
+        } finally {
+            frame.release();
+        }
+    }
+
+    @Test
+    void decode_utf8_shouldSplitOnMosBoundaryAcrossReads() {
+        EmbeddedChannel channel = new EmbeddedChannel(new MosFrameDecoder(1024));
+
+        write(channel, FIRST.substring(0, 20), StandardCharsets.UTF_8);
+        assertThat((Object) channel.readInbound()).isNull();
+
+        write(channel, FIRST.substring(20) + "\r\n" + SECOND.substring(0, SECOND.length() - 3), StandardCharsets.UTF_8);
+        write(channel, SECOND.substring(SECOND.length() - 3), StandardCharsets.UTF_8);
+
+        assertThat(readFrame(channel)).isEqualTo(FIRST);
+        assertThat(readFrame(channel)).isEqualTo(SECOND);
+        assertThat(channel.attr(MosFrameDecoder.CHARSET).get()).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(channel.finish()).isFalse();
+    }
+
+    @Test
+    void decode_utf16be_shouldDetectEncodingAndKeepFramesIntact() {
+        EmbeddedChannel channel = new EmbeddedChannel(new MosFrameDecoder(1024));
+
+        write(channel, FIRST + "\r\n" + SECOND, StandardCharsets.UTF_16BE);
+
+        MosFrame frame = channel.readInbound();
+        assertThat(frame.charset()).isEqualTo(StandardCharsets.UTF_16BE);
+        assertThat(frame.asText()).isEqualTo(FIRST);
+        frame.release();
+        assertThat(readFrame(channel)).isEqualTo(SECOND);
+        assertThat(channel.finish()).isFalse();
+    }
+
+    @Test
+    void decode_utf16WithBom_shouldSkipBom() {
+        EmbeddedChannel channel = new EmbeddedChannel(new MosFrameDecoder(1024));
+
+        channel.writeInbound(Unpooled.wrappedBuffer(new byte[]{(byte) 0xFE, (byte) 0xFF}));
+        write(channel, FIRST, StandardCharsets.UTF_16BE);
+
+        assertThat(readFrame(channel)).isEqualTo(FIRST);
+    }
+
+    @Test
+    void decode_tooLongFrame_shouldDiscardAndRecoverOnNextFrame() {
+        EmbeddedChannel channel = new EmbeddedChannel(new MosFrameDecoder(FIRST.length()));
+        String oversized = "<mos><roCreate><roSlug>" + "x".repeat(200) + "</roSlug></roCreate></mos>";
+
+        assertThatCode(() -> write(channel, oversized.substring(0, 150), StandardCharsets.UTF_8))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> write(channel, oversized.substring(150) + SECOND, StandardCharsets.UTF_8))
+                .isInstanceOf(TooLongFrameException.class);
+
+        assertThat(readFrame(channel)).isEqualTo(SECOND);
+    }
+}
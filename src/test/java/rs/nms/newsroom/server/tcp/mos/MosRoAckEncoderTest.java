@@ -0,0 +1,44 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MosRoAckEncoderTest {
+
+    private static String encode(EmbeddedChannel channel, MosRoAck ack, Charset charset) {
+        channel.writeOutbound(ack);
+        ByteBuf encoded = channel.readOutbound();
+        try {
+            return encoded.toString(charset);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    @Test
+    void encode_defaultConnection_shouldWriteUtf8AndEscapeDynamicFields() {
+        EmbeddedChannel channel = new EmbeddedChannel(new MosRoAckEncoder());
+
+        String xml = encode(channel, new MosRoAck("RO<1>", false, "Tom & Jerry failed"), StandardCharsets.UTF_8);
+
+        assertThat(xml).isEqualTo("<mos><roAck><roID>RO&lt;1&gt;</roID><status>ERROR</status>"
+                + "<message>Tom &amp; Jerry failed</message></roAck></mos>\r\n");
+    }
+
+    @Test
+    void encode_utf16Connection_shouldUseConnectionEncoding() {
+        EmbeddedChannel channel = new EmbeddedChannel(new MosRoAckEncoder());
+        channel.attr(MosFrameDecoder.CHARSET).set(StandardCharsets.UTF_16BE);
+
+        String xml = encode(channel, new MosRoAck("RO-1", true, "roCreate received successfully"), StandardCharsets.UTF_16BE);
+
+        assertThat(xml).isEqualTo("<mos><roAck><roID>RO-1</roID><status>OK</status>"
+                + "<message>roCreate received successfully</message></roAck></mos>\r\n");
+    }
+}
@@ -0,0 +1,171 @@
+package rs.nms.newsroom.server.tcp.mos;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.timeout.IdleStateEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.dto.mos.RoReplaceMessage;
+import rs.nms.newsroom.server.mos.dedup.MosDedupCache;
+import rs.nms.newsroom.server.mos.dispatch.MosMessageRegistry;
+import rs.nms.newsroom.server.mos.dispatch.MosMessageRoute;
+import rs.nms.newsroom.server.mos.dispatch.MosRundownSequencer;
+import rs.nms.newsroom.server.mos.journal.MosJournal;
+import rs.nms.newsroom.server.mos.metrics.MosMetrics;
+import rs.nms.newsroom.server.mos.parser.MosMessageType;
+import rs.nms.newsroom.server.mos.traffic.MosTrafficLog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MosTcpServerHandlerTest {
+
+    private final MosMessageRegistry messageRegistry = mock(MosMessageRegistry.class);
+    private final MosMetrics metrics = mock(MosMetrics.class);
+    private final MosJournal journal = mock(MosJournal.class);
+    private final MosRundownSequencer sequencer = mock(MosRundownSequencer.class);
+    private final MosFlowController flowController = mock(MosFlowController.class);
+    private MosConnectionTracker tracker;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        MosProperties properties = new MosProperties();
+        tracker = new MosConnectionTracker(properties);
+        MosTcpServerHandler handler = new MosTcpServerHandler(messageRegistry, sequencer, flowController, metrics,
+                mock(MosTrafficLog.class), journal, tracker, new MosDedupCache(properties, metrics), properties);
+        channel = new EmbeddedChannel(handler);
+    }
+
+    private void receive(String xml) {
+        channel.writeInbound(new MosFrame(Unpooled.copiedBuffer(xml, StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    private String sent() {
+        ByteBuf out = channel.readOutbound();
+        try {
+            return out.toString(StandardCharsets.UTF_8);
+        } finally {
+            out.release();
+        }
+    }
+
+    @Test
+    void heartbeat_fromDevice_shouldBeAnsweredWithoutRouting() {
+        receive("<mos><mosID>playout.mos</mosID><ncsID>nms</ncsID><heartbeat><time>2026-03-01T18:30:00</time></heartbeat></mos>");
+
+        assertThat(sent())
+                .contains("<mosID>playout.mos</mosID>", "<ncsID>nms</ncsID>", "<messageID>1</messageID>")
+                .contains("<heartbeat><time>");
+        verify(messageRegistry, never()).find(any());
+        verify(journal, never()).append(any(), any());
+        MosConnectionStats stats = tracker.active().get(0);
+        assertThat(stats.getHeartbeatsIn()).isEqualTo(1);
+        assertThat(stats.getHeartbeatsOut()).isEqualTo(1);
+    }
+
+    @Test
+    void retransmission_shouldBeAckedWithOutcomeOfFirstCopyWithoutProcessingAgain() {
+        MosMessageRoute<RoReplaceMessage> route = new MosMessageRoute<>(MosMessageType.RO_REPLACE, RoReplaceMessage.class,
+                replace -> { }, "roReplace processed", false);
+        doReturn(Optional.of(route)).when(messageRegistry).find(MosMessageType.RO_REPLACE);
+        when(flowController.tryAcquire(any())).thenReturn(true);
+        CompletableFuture<Void> processing = new CompletableFuture<>();
+        when(sequencer.submit(eq("RO-1"), any())).thenReturn(processing);
+        String xml = "<mos><messageID>7</messageID><roReplace><roID>RO-1</roID><roSlug>News</roSlug></roReplace></mos>";
+
+        receive(xml);
+        receive(xml);
+        assertThat((Object) channel.readOutbound()).isNull();
+
+        processing.complete(null);
+
+        assertThat(channel.outboundMessages()).hasSize(2)
+                .allSatisfy(ack -> assertThat(((MosRoAck) ack).success()).isTrue());
+        verify(sequencer, times(1)).submit(eq("RO-1"), any());
+        verify(journal, times(1)).append(any(), any());
+        verify(metrics).duplicate(MosMessageType.RO_REPLACE);
+    }
+
+    @Test
+    void ackedOnAppend_shouldKeepRetryableFailuresForReplayAndCommitPermanentOnes() {
+        MosMessageRoute<RoReplaceMessage> route = new MosMessageRoute<>(MosMessageType.RO_REPLACE, RoReplaceMessage.class,
+                replace -> { }, "roReplace processed", false);
+        doReturn(Optional.of(route)).when(messageRegistry).find(MosMessageType.RO_REPLACE);
+        when(flowController.tryAcquire(any())).thenReturn(true);
+        when(journal.acksOnAppend()).thenReturn(true);
+        when(journal.append(any(), any())).thenReturn(1L, 2L);
+        CompletableFuture<Void> transientFailure = new CompletableFuture<>();
+        CompletableFuture<Void> permanentFailure = new CompletableFuture<>();
+        when(sequencer.submit(eq("RO-1"), any())).thenReturn(transientFailure, permanentFailure);
+
+        receive("<mos><messageID>1</messageID><roReplace><roID>RO-1</roID><roSlug>News</roSlug></roReplace></mos>");
+        receive("<mos><messageID>2</messageID><roReplace><roID>RO-1</roID><roSlug>Late</roSlug></roReplace></mos>");
+        transientFailure.completeExceptionally(new QueryTimeoutException("timeout"));
+        permanentFailure.completeExceptionally(new IllegalArgumentException("unknown rundown"));
+
+        assertThat(channel.outboundMessages()).hasSize(2)
+                .allSatisfy(ack -> assertThat(((MosRoAck) ack).success()).isTrue());
+        verify(journal, never()).commit(1L);
+        verify(journal).commit(2L);
+    }
+
+    @Test
+    void writerIdle_shouldSendHeartbeatAndNotAnswerTheReply() {
+        channel.pipeline().fireUserEventTriggered(IdleStateEvent.WRITER_IDLE_STATE_EVENT);
+        assertThat(sent()).contains("<mosID></mosID>", "<ncsID>nms</ncsID>", "<messageID>1</messageID>", "<heartbeat>");
+
+        receive("<mos><heartbeat><time>2026-03-01T18:30:00</time></heartbeat></mos>");
+
+        assertThat((Object) channel.readOutbound()).isNull();
+        assertThat(tracker.active().get(0).getHeartbeatsOut()).isEqualTo(1);
+    }
+
+    @Test
+    void readerIdle_shouldCloseAndKeepStats() {
+        receive("<mos><heartbeat><time>2026-03-01T18:30:00</time></heartbeat></mos>");
+        sent();
+
+        channel.pipeline().fireUserEventTriggered(IdleStateEvent.READER_IDLE_STATE_EVENT);
+
+        assertThat(channel.isOpen()).isFalse();
+        verify(metrics).error(null, "idle_timeout");
+        assertThat(tracker.active()).isEmpty();
+        assertThat(tracker.recentlyClosed()).singleElement().satisfies(stats -> {
+            assertThat(stats.getCloseReason()).isEqualTo("idle");
+            assertThat(stats.getFramesIn()).isEqualTo(1);
+            assertThat(stats.getClosedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void closedConnections_shouldBeBoundedByHistory() {
+        MosProperties properties = new MosProperties();
+        properties.getTcp().setClosedConnectionHistory(2);
+        MosConnectionTracker bounded = new MosConnectionTracker(properties);
+
+        for (int i = 0; i < 5; i++) {
+            EmbeddedChannel device = new EmbeddedChannel();
+            bounded.opened(device);
+            bounded.closed(device);
+        }
+
+        assertThat(bounded.active()).isEmpty();
+        assertThat(bounded.recentlyClosed()).hasSize(2)
+                .allSatisfy(stats -> assertThat(stats.getCloseReason()).isEqualTo("disconnected"));
+    }
+}
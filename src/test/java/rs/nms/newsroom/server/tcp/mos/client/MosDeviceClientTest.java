@@ -0,0 +1,160 @@
+package rs.nms.newsroom.server.tcp.mos.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.config.mos.MosProperties;
+import rs.nms.newsroom.server.mos.builder.MosMessageBuilder;
+import rs.nms.newsroom.server.tcp.mos.client.MosStandInDevice.Reply;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MosDeviceClientTest {
+
+    private MosStandInDevice device;
+    private MosDeviceGateway gateway;
+
+    @BeforeEach
+    void startDevice() throws InterruptedException {
+        device = new MosStandInDevice();
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (gateway != null) {
+            gateway.destroy();
+        }
+        device.close();
+    }
+
+    private MosDeviceGateway gateway(int port) {
+        MosProperties properties = new MosProperties();
+        MosProperties.Devices devices = properties.getDevices();
+        devices.setEnabled(true);
+        devices.setConnectionsPerDevice(2);
+        devices.setMaxPipelined(4);
+        devices.setAckTimeout(Duration.ofMillis(300));
+        devices.setConnectTimeout(Duration.ofMillis(500));
+        devices.setMaxAttempts(3);
+        devices.setInitialBackoff(Duration.ofMillis(10));
+        devices.setMaxBackoff(Duration.ofMillis(50));
+        MosProperties.Device target = new MosProperties.Device();
+        target.setMosId("standin.mos");
+        target.setHost("127.0.0.1");
+        target.setPort(port);
+        target.setCharset(StandardCharsets.UTF_16BE);
+        devices.getTargets().add(target);
+        gateway = new MosDeviceGateway(properties);
+        return gateway;
+    }
+
+    private static MosOutboundMessage message(String roId) {
+        return new MosOutboundMessage(roId, MosMessageBuilder.roReadyToAir(roId, true));
+    }
+
+    @Test
+    void send_pipelinedMessages_shouldAllBeAcknowledged() throws Exception {
+        MosDeviceGateway gateway = gateway(device.port());
+
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            sent.add(gateway.send(message("RO-" + i)));
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(device.received()).hasSize(8);
+        assertThat(device.received()).extracting(MosStandInDevice::messageId).doesNotHaveDuplicates();
+        assertThat(device.received().get(0)).contains("<mosID>standin.mos</mosID>", "<roAir>READY</roAir>");
+        assertThat(gateway.clients().get(0).inFlight()).isZero();
+    }
+
+    @Test
+    void send_ackWithoutMessageId_shouldBeMatchedByRoId() throws Exception {
+        device.replyWith(index -> Reply.OK_WITHOUT_MESSAGE_ID);
+
+        gateway(device.port()).send(message("RO-1")).get(5, TimeUnit.SECONDS);
+
+        assertThat(device.received()).hasSize(1);
+    }
+
+    @Test
+    void send_connectionClosedBeforeAck_shouldRetryOnNewConnection() throws Exception {
+        device.replyWith(index -> index == 0 ? Reply.CLOSE : Reply.OK);
+
+        gateway(device.port()).send(message("RO-1")).get(5, TimeUnit.SECONDS);
+
+        assertThat(device.received()).hasSize(2);
+    }
+
+    @Test
+    void send_ackMissing_shouldRetryWithSameMessageId() throws Exception {
+        device.replyWith(index -> index == 0 ? Reply.DROP : Reply.OK);
+
+        gateway(device.port()).send(message("RO-1")).get(5, TimeUnit.SECONDS);
+
+        assertThat(device.received()).hasSize(2);
+        assertThat(MosStandInDevice.messageId(device.received().get(1)))
+                .isEqualTo(MosStandInDevice.messageId(device.received().get(0)));
+    }
+
+    @Test
+    void send_sameRoId_shouldKeepOrderAcrossRetries() throws Exception {
+        device.replyWith(index -> index == 0 ? Reply.DROP : Reply.OK);
+        MosDeviceGateway gateway = gateway(device.port());
+
+        CompletableFuture<Void> first = gateway.send(new MosOutboundMessage("RO-1", MosMessageBuilder.roReadyToAir("RO-1", true)));
+        CompletableFuture<Void> second = gateway.send(new MosOutboundMessage("RO-1", MosMessageBuilder.roReadyToAir("RO-1", false)));
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertThat(device.received()).hasSize(3);
+        assertThat(device.received().get(0)).contains("<roAir>READY</roAir>");
+        assertThat(device.received().get(1)).contains("<roAir>READY</roAir>");
+        assertThat(device.received().get(2)).contains("<roAir>NOT READY</roAir>");
+    }
+
+    @Test
+    void send_rejectedByDevice_shouldFailWithoutRetry() {
+        device.replyWith(index -> Reply.ERROR);
+
+        CompletableFuture<Void> sent = gateway(device.port()).send(message("RO-1"));
+
+        assertThatThrownBy(() -> sent.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(MosDeviceException.class)
+                .hasMessageContaining("Unknown running order");
+        assertThat(device.received()).hasSize(1);
+    }
+
+    @Test
+    void send_deviceUnreachable_shouldFailAfterMaxAttempts() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+
+        CompletableFuture<Void> sent = gateway(closedPort).send(message("RO-1"));
+
+        assertThatThrownBy(() -> sent.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void send_disabled_shouldCompleteWithoutConnecting() throws Exception {
+        MosDeviceGateway disabled = new MosDeviceGateway(new MosProperties());
+
+        disabled.send(message("RO-1")).get(1, TimeUnit.SECONDS);
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(device.received()).isEmpty();
+    }
+}
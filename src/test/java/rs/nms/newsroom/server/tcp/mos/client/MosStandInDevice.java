@@ -0,0 +1,120 @@
+package rs.nms.newsroom.server.tcp.mos.client;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import rs.nms.newsroom.server.tcp.mos.MosFrame;
+import rs.nms.newsroom.server.tcp.mos.MosFrameDecoder;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local MOS device for tests: accepts connections on an ephemeral port, records every message and
+ * answers each one as decided by a reply policy.
+ */
+class MosStandInDevice implements AutoCloseable {
+
+    enum Reply {
+        /** roAck with roStatus OK and the messageID. */
+        OK,
+        /** roAck with roStatus OK but without messageID. */
+        OK_WITHOUT_MESSAGE_ID,
+        /** roAck with an error status. */
+        ERROR,
+        /** No answer. */
+        DROP,
+        /** Close the connection without answering. */
+        CLOSE
+    }
+
+    private static final Pattern MESSAGE_ID = Pattern.compile("<messageID>(\\d+)</messageID>");
+    private static final Pattern RO_ID = Pattern.compile("<roID>([^<]*)</roID>");
+
+    private final EventLoopGroup group = new NioEventLoopGroup(1);
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final Channel serverChannel;
+    private volatile IntFunction<Reply> policy = index -> Reply.OK;
+
+    MosStandInDevice() throws InterruptedException {
+        serverChannel = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                          .addLast(new MosFrameDecoder(64 * 1024))
+                          .addLast(new Responder());
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+    }
+
+    int port() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    /**
+     * @param policy reply for the n-th received message (0-based, across all connections)
+     */
+    void replyWith(IntFunction<Reply> policy) {
+        this.policy = policy;
+    }
+
+    List<String> received() {
+        return received;
+    }
+
+    static String messageId(String message) {
+        Matcher matcher = MESSAGE_ID.matcher(message);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        serverChannel.close().sync();
+        group.shutdownGracefully().sync();
+    }
+
+    private final class Responder extends SimpleChannelInboundHandler<MosFrame> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, MosFrame frame) {
+            String message = frame.asText();
+            int index;
+            synchronized (received) {
+                index = received.size();
+                received.add(message);
+            }
+            Matcher roId = RO_ID.matcher(message);
+            String ro = roId.find() ? roId.group(1) : "";
+            String ack = switch (policy.apply(index)) {
+                case OK -> "<mos><messageID>" + messageId(message) + "</messageID><roAck><roID>" + ro
+                        + "</roID><roStatus>OK</roStatus></roAck></mos>";
+                case OK_WITHOUT_MESSAGE_ID -> "<mos><roAck><roID>" + ro + "</roID><roStatus>OK</roStatus></roAck></mos>";
+                case ERROR -> "<mos><messageID>" + messageId(message) + "</messageID><roAck><roID>" + ro
+                        + "</roID><roStatus>Unknown running order</roStatus></roAck></mos>";
+                case DROP -> null;
+                case CLOSE -> {
+                    ctx.close();
+                    yield null;
+                }
+            };
+            if (ack != null) {
+                ctx.writeAndFlush(Unpooled.wrappedBuffer(ack.getBytes(frame.charset())));
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package rs.nms.newsroom.server.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+import rs.nms.newsroom.server.websocket.presence.LocalPresenceStore;
+import rs.nms.newsroom.server.websocket.presence.PresenceDelta;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class ChatPresenceTrackerTest {
+
+    private static final String PRESENCE = "/topic/chat.room.1/presence";
+
+    private final SimpMessageSendingOperations messagingTemplate = mock(SimpMessageSendingOperations.class);
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final ChatPresenceTracker tracker = tracker();
+
+    private ChatPresenceTracker tracker() {
+        ChatProperties.Presence settings = new ChatProperties.Presence();
+        settings.setTtl(Duration.ofSeconds(30));
+        return new ChatPresenceTracker(new LocalPresenceStore(), messagingTemplate, settings,
+                new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void flush_shouldSendJoinsOfTheIntervalAsOneDelta() {
+        assertThat(tracker.addUserToRoom("a", 1L, 10L)).isTrue();
+        assertThat(tracker.addUserToRoom("b", 1L, 11L)).isTrue();
+        assertThat(tracker.addUserToRoom("c", 1L, 10L)).isFalse();
+
+        tracker.flush();
+        tracker.flush();
+
+        verify(messagingTemplate).convertAndSend(PRESENCE, new PresenceDelta(1L, Set.of(10L, 11L), Set.of()));
+        assertThat(tracker.getUsersInRoom(1L)).containsExactlyInAnyOrder(10L, 11L);
+    }
+
+    @Test
+    void removeUserFromRoom_shouldLeaveOnlyWithTheLastSession() {
+        tracker.addUserToRoom("a", 1L, 10L);
+        tracker.addUserToRoom("b", 1L, 10L);
+        tracker.flush();
+
+        assertThat(tracker.removeUserFromRoom("a")).isFalse();
+        assertThat(tracker.removeUserFromRoom("b")).isTrue();
+        assertThat(tracker.removeUserFromRoom("b")).isFalse();
+        tracker.flush();
+
+        verify(messagingTemplate).convertAndSend(PRESENCE, new PresenceDelta(1L, Set.of(), Set.of(10L)));
+        assertThat(tracker.getUsersInRoom(1L)).isEmpty();
+    }
+
+    @Test
+    void flush_joinAndLeaveWithinInterval_shouldCancelOut() {
+        tracker.addUserToRoom("a", 1L, 10L);
+        tracker.removeUserFromRoom("a");
+
+        tracker.flush();
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void sweep_shouldExpireSessionsWithoutFrames() {
+        tracker.addUserToRoom("a", 1L, 10L);
+        tracker.addUserToRoom("b", 1L, 11L);
+        tracker.flush();
+
+        now.addAndGet(20_000);
+        tracker.touch("a");
+        now.addAndGet(15_000);
+        tracker.sweep();
+        tracker.flush();
+
+        verify(messagingTemplate).convertAndSend(PRESENCE, new PresenceDelta(1L, Set.of(), Set.of(11L)));
+        assertThat(tracker.getUsersInRoom(1L)).containsExactly(10L);
+    }
+
+    @Test
+    void touch_afterExpiry_shouldJoinAgain() {
+        tracker.addUserToRoom("a", 1L, 10L);
+        tracker.flush();
+        now.addAndGet(31_000);
+        tracker.sweep();
+
+        tracker.touch("a");
+        tracker.flush();
+
+        verify(messagingTemplate).convertAndSend(PRESENCE, new PresenceDelta(1L, Set.of(10L), Set.of()));
+        verifyNoMoreInteractions(messagingTemplate);
+        assertThat(tracker.getUsersInRoom(1L)).containsExactly(10L);
+    }
+
+    @Test
+    void addUserToRoom_otherRoom_shouldLeaveThePreviousRoom() {
+        tracker.addUserToRoom("a", 1L, 10L);
+        tracker.flush();
+
+        tracker.addUserToRoom("a", 2L, 10L);
+        tracker.flush();
+
+        verify(messagingTemplate).convertAndSend(PRESENCE, new PresenceDelta(1L, Set.of(), Set.of(10L)));
+        verify(messagingTemplate).convertAndSend("/topic/chat.room.2/presence",
+                new PresenceDelta(2L, Set.of(10L), Set.of()));
+        assertThat(tracker.getUsersInRoom(1L)).isEmpty();
+    }
+}
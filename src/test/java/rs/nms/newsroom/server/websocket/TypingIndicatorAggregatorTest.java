@@ -0,0 +1,106 @@
+package rs.nms.newsroom.server.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import rs.nms.newsroom.server.config.chat.ChatProperties;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class TypingIndicatorAggregatorTest {
+
+    private static final String TYPING = "/topic/chat.room.1/typing";
+
+    private final SimpMessageSendingOperations messagingTemplate = mock(SimpMessageSendingOperations.class);
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final TypingIndicatorAggregator aggregator = aggregator();
+
+    private TypingIndicatorAggregator aggregator() {
+        ChatProperties.Typing settings = new ChatProperties.Typing();
+        settings.setTtl(Duration.ofSeconds(3));
+        return new TypingIndicatorAggregator(messagingTemplate, settings, "node-1", new SimpleMeterRegistry(), now::get);
+    }
+
+    private static TypingSnapshot snapshot(Long... userIds) {
+        return new TypingSnapshot(1L, "node-1", Set.of(userIds));
+    }
+
+    @Test
+    void flush_shouldSendOneSnapshotForManyEvents() {
+        for (int i = 0; i < 50; i++) {
+            aggregator.typing(1L, 10L);
+            aggregator.typing(1L, 11L);
+        }
+
+        aggregator.flush();
+        now.addAndGet(250);
+        aggregator.typing(1L, 10L);
+        aggregator.flush();
+
+        verify(messagingTemplate).convertAndSend(TYPING, snapshot(10L, 11L));
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void flush_shouldDropStaleTypers() {
+        aggregator.typing(1L, 10L);
+        aggregator.typing(1L, 11L);
+        aggregator.flush();
+
+        now.addAndGet(2_000);
+        aggregator.typing(1L, 10L);
+        now.addAndGet(1_500);
+        aggregator.flush();
+        now.addAndGet(2_000);
+        aggregator.flush();
+
+        verify(messagingTemplate).convertAndSend(TYPING, snapshot(10L, 11L));
+        verify(messagingTemplate).convertAndSend(TYPING, snapshot(10L));
+        verify(messagingTemplate).convertAndSend(TYPING, snapshot());
+    }
+
+    @Test
+    void stopped_shouldRemoveTheUserWithTheNextSnapshot() {
+        aggregator.typing(1L, 10L);
+        aggregator.flush();
+
+        aggregator.stopped(1L, 10L);
+        aggregator.flush();
+        aggregator.flush();
+
+        verify(messagingTemplate).convertAndSend(TYPING, snapshot(10L));
+        verify(messagingTemplate).convertAndSend(TYPING, snapshot());
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void flush_shouldRepeatUnchangedSnapshotEveryHalfTtl() {
+        aggregator.typing(1L, 10L);
+        aggregator.flush();
+
+        now.addAndGet(1_000);
+        aggregator.typing(1L, 10L);
+        aggregator.flush();
+        now.addAndGet(500);
+        aggregator.flush();
+
+        verify(messagingTemplate, times(2)).convertAndSend(TYPING, snapshot(10L));
+    }
+
+    @Test
+    void flush_withoutEvents_shouldSendNothing() {
+        aggregator.flush();
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+}
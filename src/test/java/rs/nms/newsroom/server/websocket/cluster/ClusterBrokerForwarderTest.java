@@ -0,0 +1,82 @@
+package rs.nms.newsroom.server.websocket.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClusterBrokerForwarderTest {
+
+    private final ClusterMessageBus bus = mock(ClusterMessageBus.class);
+    private final MessageChannel brokerChannel = mock(MessageChannel.class);
+    private final ClusterBrokerForwarder forwarder = new ClusterBrokerForwarder(bus, brokerChannel);
+
+    ClusterBrokerForwarderTest() {
+        when(bus.nodeId()).thenReturn("node-a");
+    }
+
+    private static Message<byte[]> message(String destination, SimpMessageHeaderAccessor accessor) {
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage("{}".getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    @Test
+    void preSend_localTopicMessage_shouldBePublished() {
+        forwarder.preSend(message("/topic/mos/story", SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE)), brokerChannel);
+
+        ArgumentCaptor<ClusterEnvelope> envelope = ArgumentCaptor.forClass(ClusterEnvelope.class);
+        verify(bus).publish(envelope.capture());
+        assertThat(envelope.getValue().origin()).isEqualTo("node-a");
+        assertThat(envelope.getValue().destination()).isEqualTo("/topic/mos/story");
+        assertThat(envelope.getValue().contentType()).isEqualTo("application/json");
+    }
+
+    @Test
+    void preSend_forwardedResolvedOrNonMessage_shouldNotBePublished() {
+        SimpMessageHeaderAccessor fromPeer = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        fromPeer.setHeader(ClusterBrokerForwarder.ORIGIN_HEADER, "node-b");
+        SimpMessageHeaderAccessor resolved = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        resolved.setHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, "/user/queue/notifications");
+
+        forwarder.preSend(message("/topic/mos/story", fromPeer), brokerChannel);
+        forwarder.preSend(message("/queue/notifications-user1", resolved), brokerChannel);
+        forwarder.preSend(message("/topic/mos/story", SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE)), brokerChannel);
+        forwarder.preSend(message("/app/chat.send", SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE)), brokerChannel);
+
+        verify(bus, never()).publish(any());
+    }
+
+    @Test
+    void deliver_shouldSendToBrokerChannelMarkedWithOrigin() {
+        forwarder.deliver(new ClusterEnvelope("node-b", "/user/alice/queue/notifications", "application/json",
+                Map.of("priority", List.of("high")), "{}".getBytes(StandardCharsets.UTF_8)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(brokerChannel).send(sent.capture());
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(sent.getValue());
+        assertThat(accessor.getDestination()).isEqualTo("/user/alice/queue/notifications");
+        assertThat(accessor.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(accessor.getFirstNativeHeader("priority")).isEqualTo("high");
+        assertThat(accessor.getHeader(ClusterBrokerForwarder.ORIGIN_HEADER)).isEqualTo("node-b");
+
+        forwarder.preSend(sent.getValue(), brokerChannel);
+        verify(bus, never()).publish(any());
+    }
+}
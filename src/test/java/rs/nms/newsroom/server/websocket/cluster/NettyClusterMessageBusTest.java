@@ -0,0 +1,136 @@
+package rs.nms.newsroom.server.websocket.cluster;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import rs.nms.newsroom.server.config.websocket.WebSocketBrokerProperties;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NettyClusterMessageBusTest {
+
+    private final List<NettyClusterMessageBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        buses.forEach(NettyClusterMessageBus::destroy);
+    }
+
+    private NettyClusterMessageBus bus(String nodeId, List<String> peers) {
+        return bus(nodeId, peers, "cluster-secret");
+    }
+
+    private NettyClusterMessageBus bus(String nodeId, List<String> peers, String secret) {
+        WebSocketBrokerProperties.Cluster settings = new WebSocketBrokerProperties.Cluster();
+        settings.setNodeId(nodeId);
+        settings.setBindAddress("127.0.0.1");
+        settings.setPort(0);
+        settings.setSecret(secret);
+        settings.setPeers(peers);
+        settings.setReconnectDelay(Duration.ofMillis(50));
+        NettyClusterMessageBus bus = new NettyClusterMessageBus(settings);
+        buses.add(bus);
+        return bus;
+    }
+
+    private static void awaitConnected(NettyClusterMessageBus bus) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!bus.isConnected() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(bus.isConnected()).isTrue();
+    }
+
+    @Test
+    void publish_shouldReachPeerWithHeadersAndPayload() throws InterruptedException {
+        NettyClusterMessageBus nodeA = bus("node-a", List.of());
+        BlockingQueue<ClusterEnvelope> received = new LinkedBlockingQueue<>();
+        nodeA.subscribe(received::add);
+        NettyClusterMessageBus nodeB = bus("node-b", List.of("127.0.0.1:" + nodeA.port()));
+        awaitConnected(nodeB);
+
+        nodeB.publish(new ClusterEnvelope("node-b", "/topic/mos/rundown", "application/json",
+                Map.of("priority", List.of("high")), "{\"action\":\"RUNDOWN_DELTA\"}".getBytes(StandardCharsets.UTF_8)));
+
+        ClusterEnvelope envelope = received.poll(5, TimeUnit.SECONDS);
+        assertThat(envelope).isNotNull();
+        assertThat(envelope.origin()).isEqualTo("node-b");
+        assertThat(envelope.destination()).isEqualTo("/topic/mos/rundown");
+        assertThat(envelope.contentType()).isEqualTo("application/json");
+        assertThat(envelope.nativeHeaders()).containsEntry("priority", List.of("high"));
+        assertThat(new String(envelope.payload(), StandardCharsets.UTF_8)).isEqualTo("{\"action\":\"RUNDOWN_DELTA\"}");
+    }
+
+    @Test
+    void publish_peerDown_shouldDropAndReconnectLater() throws InterruptedException {
+        NettyClusterMessageBus nodeB = bus("node-b", List.of("127.0.0.1:1"));
+
+        nodeB.publish(new ClusterEnvelope("node-b", "/topic/chat.room.1/events", null, Map.of(), new byte[0]));
+
+        assertThat(nodeB.droppedCount()).isEqualTo(1);
+        assertThat(nodeB.isConnected()).isFalse();
+    }
+
+    @Test
+    void receive_withoutHandshake_shouldDropEnvelopesAndClose() throws IOException, InterruptedException {
+        NettyClusterMessageBus nodeA = bus("node-a", List.of());
+        BlockingQueue<ClusterEnvelope> received = new LinkedBlockingQueue<>();
+        nodeA.subscribe(received::add);
+
+        ByteBuf envelope = Unpooled.buffer();
+        new ClusterEnvelope("intruder", "/topic/chat.room.1/events", null, Map.of(), new byte[0]).writeTo(envelope);
+        try (Socket socket = new Socket("127.0.0.1", nodeA.port())) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            in.readFully(new byte[in.readInt()]);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(32);
+            out.write(new byte[32]);
+            out.writeInt(envelope.readableBytes());
+            out.write(ByteBufUtil.getBytes(envelope));
+            out.flush();
+
+            assertThat(received.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            envelope.release();
+        }
+    }
+
+    @Test
+    void publish_peerWithOtherSecret_shouldNotBeDelivered() throws InterruptedException {
+        NettyClusterMessageBus nodeA = bus("node-a", List.of());
+        BlockingQueue<ClusterEnvelope> received = new LinkedBlockingQueue<>();
+        nodeA.subscribe(received::add);
+        NettyClusterMessageBus nodeB = bus("node-b", List.of("127.0.0.1:" + nodeA.port()), "other-secret");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (System.nanoTime() < deadline) {
+            nodeB.publish(new ClusterEnvelope("node-b", "/topic/chat.room.1/events", null, Map.of(), new byte[0]));
+            Thread.sleep(20);
+        }
+
+        assertThat(received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void constructor_withoutSecret_shouldFail() {
+        assertThatThrownBy(() -> bus("node-a", List.of(), " "))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("secret");
+    }
+}
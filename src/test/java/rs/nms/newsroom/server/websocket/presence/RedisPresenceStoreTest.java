@@ -0,0 +1,99 @@
+package rs.nms.newsroom.server.websocket.presence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the shared presence store against an embedded Redis, with two stores standing in for two nodes.
+ */
+class RedisPresenceStoreTest {
+
+    private static final String PREFIX = "test:presence:";
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisPresenceStore node1;
+    private RedisPresenceStore node2;
+
+    @BeforeEach
+    void start() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redis = new StringRedisTemplate(connectionFactory);
+        node1 = new RedisPresenceStore(redis, PREFIX, "node-1");
+        node2 = new RedisPresenceStore(redis, PREFIX, "node-2");
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void add_shouldJoinOncePerUserAcrossNodes() {
+        assertThat(node1.add(1, 10, "s1", 2_000, 1_000)).isTrue();
+        assertThat(node2.add(1, 10, "s1", 2_000, 1_000)).isFalse();
+        assertThat(node2.add(1, 11, "s2", 2_000, 1_000)).isTrue();
+
+        assertThat(node1.users(1, 1_000)).containsExactlyInAnyOrder(10L, 11L);
+    }
+
+    @Test
+    void remove_shouldLeaveWithTheLastSessionOnAnyNode() {
+        node1.add(1, 10, "s1", 2_000, 1_000);
+        node2.add(1, 10, "s1", 2_000, 1_000);
+
+        assertThat(node1.remove(1, 10, "s1", 1_000)).isFalse();
+        assertThat(node1.remove(1, 10, "s1", 1_000)).isFalse();
+        assertThat(node2.remove(1, 10, "s1", 1_000)).isTrue();
+
+        assertThat(node1.users(1, 1_000)).isEmpty();
+    }
+
+    @Test
+    void expire_shouldReportEachLeaveToOneNode() {
+        node1.add(1, 10, "s1", 2_000, 1_000);
+        node1.add(1, 11, "s2", 2_000, 1_000);
+        node2.add(1, 11, "s3", 5_000, 1_000);
+        node2.add(2, 12, "s4", 2_000, 1_000);
+
+        List<String> left = new ArrayList<>();
+        node1.expire(3_000, (roomId, userId) -> left.add(roomId + ":" + userId));
+        node2.expire(3_000, (roomId, userId) -> left.add(roomId + ":" + userId));
+
+        assertThat(left).containsExactlyInAnyOrder("1:10", "2:12");
+        assertThat(node2.users(1, 3_000)).containsExactly(11L);
+        assertThat(node1.users(2, 3_000)).isEmpty();
+    }
+
+    @Test
+    void add_afterExpiryNotYetSwept_shouldJoinAgain() {
+        node1.add(1, 10, "s1", 2_000, 1_000);
+
+        assertThat(node1.add(1, 10, "s1", 4_000, 3_000)).isTrue();
+
+        List<String> left = new ArrayList<>();
+        node1.expire(3_000, (roomId, userId) -> left.add(roomId + ":" + userId));
+        assertThat(left).isEmpty();
+        assertThat(node1.users(1, 3_000)).containsExactly(10L);
+    }
+}
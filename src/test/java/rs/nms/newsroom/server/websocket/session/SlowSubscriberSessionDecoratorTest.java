@@ -0,0 +1,143 @@
+package rs.nms.newsroom.server.websocket.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import rs.nms.newsroom.server.config.websocket.WebSocketTransportProperties.SlowSubscriberPolicy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlowSubscriberSessionDecoratorTest {
+
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * The first send blocks until {@link #release} is counted down, like a client that stopped reading.
+     */
+    private SlowSubscriberSessionDecorator decorator(SlowSubscriberPolicy policy) throws Exception {
+        when(session.getId()).thenReturn("s1");
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            delivered.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(session).sendMessage(any());
+        return new SlowSubscriberSessionDecorator(session, Duration.ofSeconds(10).toNanos(), 100, policy,
+                List.of("/topic/chat.room.*/typing"), sendExecutor, new SlowSubscriberMetrics(registry));
+    }
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\nsubscription:0\n\n" + body + "\0");
+    }
+
+    private void awaitDelivered(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (delivered.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static String body(String frame) {
+        return frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1);
+    }
+
+    @Test
+    void drop_bufferFull_shouldDiscardNewMessages() throws Exception {
+        SlowSubscriberSessionDecorator decorator = decorator(SlowSubscriberPolicy.DROP);
+        decorator.sendMessage(frame("/topic/chat.room.1/messages", "m0"));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        decorator.sendMessage(frame("/topic/chat.room.1/messages", "m1"));
+        decorator.sendMessage(frame("/topic/chat.room.1/messages", "m2"));
+        release.countDown();
+        awaitDelivered(2);
+
+        assertThat(delivered).extracting(SlowSubscriberSessionDecoratorTest::body).containsExactly("m0", "m1");
+        assertThat(registry.counter("websocket.outbound.dropped").count()).isEqualTo(1);
+        assertThat(registry.get("websocket.outbound.buffered").gauge().value()).isZero();
+    }
+
+    @Test
+    void coalesce_bufferFull_shouldReplaceWaitingMessageForSameDestination() throws Exception {
+        SlowSubscriberSessionDecorator decorator = decorator(SlowSubscriberPolicy.COALESCE);
+        decorator.sendMessage(frame("/topic/chat.room.1/typing", "t0"));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        decorator.sendMessage(frame("/topic/chat.room.1/typing", "t1"));
+        decorator.sendMessage(frame("/topic/chat.room.1/typing", "t2"));
+        decorator.sendMessage(frame("/topic/chat.room.2/typing", "u1"));
+        release.countDown();
+        awaitDelivered(2);
+
+        assertThat(delivered).extracting(SlowSubscriberSessionDecoratorTest::body).containsExactly("t0", "t2");
+        assertThat(registry.counter("websocket.outbound.coalesced").count()).isEqualTo(1);
+        assertThat(registry.counter("websocket.outbound.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void coalesce_bufferFullWithDeltaDestination_shouldCloseSession() throws Exception {
+        SlowSubscriberSessionDecorator decorator = decorator(SlowSubscriberPolicy.COALESCE);
+        decorator.sendMessage(frame("/topic/chat.room.1/presence", "p0"));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        decorator.sendMessage(frame("/topic/chat.room.1/presence", "p1"));
+        decorator.sendMessage(frame("/topic/chat.room.1/presence", "p2"));
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(registry.counter("websocket.outbound.coalesced").count()).isZero();
+    }
+
+    @Test
+    void disconnect_bufferFull_shouldCloseSession() throws Exception {
+        SlowSubscriberSessionDecorator decorator = decorator(SlowSubscriberPolicy.DISCONNECT);
+        decorator.sendMessage(frame("/topic/mos/rundown", "r0"));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        decorator.sendMessage(frame("/topic/mos/rundown", "r1"));
+        decorator.sendMessage(frame("/topic/mos/rundown", "r2"));
+        decorator.sendMessage(frame("/topic/mos/rundown", "r3"));
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(registry.counter("websocket.sessions.slow.closed").count()).isEqualTo(1);
+        release.countDown();
+        awaitDelivered(1);
+        Thread.sleep(50);
+        assertThat(delivered).extracting(SlowSubscriberSessionDecoratorTest::body).containsExactly("r0");
+    }
+
+    @Test
+    void destination_shouldBeReadFromStompHeaders() {
+        WebSocketMessage<?> message = frame("/topic/mos/story", "destination:/not/a/header");
+
+        assertThat(SlowSubscriberSessionDecorator.destination(message)).isEqualTo("/topic/mos/story");
+        assertThat(SlowSubscriberSessionDecorator.destination(new TextMessage("MESSAGE\n\nbody\0"))).isNull();
+    }
+}